@@ -0,0 +1,265 @@
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Mixed read/write scenario against the REST API, meant for the dataset of the
+ * {@code loadtest} profile (LoadTestDataGenerator): it addresses vehicles, fuel records
+ * and services by the generator's id scheme. Each worker picks an operation by weight,
+ * runs it and records the latency; samples taken during the warm-up are discarded.
+ * Prints throughput, errors and latency percentiles per operation and overall.
+ *
+ * Run with the JDK source launcher (no build needed):
+ *
+ *   java scripts/FleetLoadTest.java [baseUrl] [seconds] [threads] [warmupSeconds] [vehicles] [services]
+ *
+ * Defaults: http://localhost:5000 60 32 15 2000 1000000
+ * Waits until the last generated vehicle exists, i.e. the dataset is complete.
+ */
+public class FleetLoadTest {
+
+    private static final long VEHICLE_ID_BASE = 900_000;
+    /** Every generated vehicle has at least this many fuel records at the default volumes. */
+    private static final int FUEL_RECORDS_PER_VEHICLE_FLOOR = 300;
+
+    record Operation(String name, int weight, Function<Context, HttpRequest> request) {
+    }
+
+    record Context(String baseUrl, int vehicles, long services, ThreadLocalRandom random) {
+
+        int vehicleIndex() {
+            return random.nextInt(vehicles);
+        }
+
+        String vehicleId(int index) {
+            return String.valueOf(VEHICLE_ID_BASE + index + 1);
+        }
+
+        String fuelRecordId() {
+            return "LTF-" + vehicleIndex() + "-" + random.nextInt(FUEL_RECORDS_PER_VEHICLE_FLOOR);
+        }
+
+        HttpRequest.Builder get(String path) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(30)).GET();
+        }
+    }
+
+    static final String[] SEARCH_TERMS = {"Surquillo", "Miraflores", "Primax", "Repsol", "QUISPE", "Callao", "DELIVERY"};
+
+    static final List<Operation> OPERATIONS = List.of(
+            new Operation("vehicles.list", 10, c -> c.get("/api/v1/vehicles").header("Accept-Encoding", "gzip").build()),
+            new Operation("vehicles.get", 15, c -> c.get("/api/v1/vehicles/" + c.vehicleId(c.vehicleIndex())).build()),
+            new Operation("fuel.get", 15, c -> c.get("/api/v1/fuel-records/" + c.fuelRecordId()).build()),
+            new Operation("fuel.by-plate", 3, c -> c.get("/api/v1/fuel-records/plate/" + plate(c.vehicleIndex())).build()),
+            new Operation("fuel.date-range-1h", 10, c -> {
+                LocalDateTime start = LocalDateTime.now().minusDays(c.random().nextInt(1, 700))
+                        .truncatedTo(ChronoUnit.HOURS);
+                return c.get("/api/v1/fuel-records/date-range?startDate=" + start + "&endDate=" + start.plusHours(1)).build();
+            }),
+            new Operation("mileage.by-vehicle", 5, c -> c.get("/api/v1/mileage-records/vehicle/" + c.vehicleId(c.vehicleIndex())).build()),
+            new Operation("services.get", 10, c -> c.get("/api/v1/services/LTS-" + c.random().nextLong(c.services())).build()),
+            new Operation("costs.month", 5, c -> {
+                LocalDate from = LocalDate.now().minusDays(c.random().nextInt(30, 700)).withDayOfMonth(1);
+                return c.get("/api/v1/costs?from=" + from + "&to=" + from.plusMonths(1).minusDays(1) + "&groupBy=plate").build();
+            }),
+            new Operation("vehicles.utilization-month", 2, c -> {
+                LocalDate to = LocalDate.now().minusDays(c.random().nextInt(0, 30));
+                return c.get("/api/v1/vehicles/utilization?from=" + to.minusDays(29) + "&to=" + to).build();
+            }),
+            new Operation("search", 7, c -> c.get("/api/v1/search?q="
+                    + URLEncoder.encode(SEARCH_TERMS[c.random().nextInt(SEARCH_TERMS.length)], StandardCharsets.UTF_8)).build()),
+            new Operation("fuel.patch", 5, c -> HttpRequest.newBuilder(URI.create(c.baseUrl() + "/api/v1/fuel-records/" + c.fuelRecordId()))
+                    .timeout(Duration.ofSeconds(30))
+                    .header("Content-Type", "application/merge-patch+json")
+                    .method("PATCH", HttpRequest.BodyPublishers.ofString(
+                            "{\"notes\":\"Revisado carga " + c.random().nextInt(1000) + "\"}"))
+                    .build()),
+            new Operation("fuel.create", 5, c -> {
+                int vehicle = c.vehicleIndex();
+                String body = String.format(Locale.ROOT,
+                        "{\"id\":\"LTN-%d-%d\",\"vehicleId\":%s,\"vehiclePlate\":\"%s\",\"date\":\"%s\",\"fuelType\":\"Diesel\"," +
+                        "\"quantity\":%.2f,\"totalCost\":%.2f,\"currentMileage\":%.2f,\"station\":\"Primax Surquillo\",\"location\":\"Surquillo\"}",
+                        Thread.currentThread().getId(), System.nanoTime(), c.vehicleId(vehicle), plate(vehicle),
+                        LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS), 40 + c.random().nextDouble(30),
+                        180 + c.random().nextDouble(120), 100_000 + c.random().nextDouble(50_000));
+                return HttpRequest.newBuilder(URI.create(c.baseUrl() + "/api/v1/fuel-records"))
+                        .timeout(Duration.ofSeconds(30))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                        .build();
+            })
+    );
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:5000";
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 60;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : 32;
+        int warmupSeconds = args.length > 3 ? Integer.parseInt(args[3]) : 15;
+        int vehicles = args.length > 4 ? Integer.parseInt(args[4]) : 2000;
+        long services = args.length > 5 ? Long.parseLong(args[5]) : 1_000_000;
+
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newFixedThreadPool(Math.max(4, threads / 4)))
+                .build();
+        awaitDataset(client, baseUrl, vehicles);
+
+        int[] cumulativeWeights = new int[OPERATIONS.size()];
+        int totalWeight = 0;
+        for (int i = 0; i < OPERATIONS.size(); i++) {
+            totalWeight += OPERATIONS.get(i).weight();
+            cumulativeWeights[i] = totalWeight;
+        }
+
+        long started = System.nanoTime();
+        long measureFrom = started + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long deadline = measureFrom + TimeUnit.SECONDS.toNanos(seconds);
+        List<Samples[]> perThread = new ArrayList<>();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            Samples[] samples = new Samples[OPERATIONS.size()];
+            for (int i = 0; i < samples.length; i++) {
+                samples[i] = new Samples();
+            }
+            perThread.add(samples);
+            int totalWeightFinal = totalWeight;
+            pool.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                Context context = new Context(baseUrl, vehicles, services, random);
+                while (true) {
+                    long now = System.nanoTime();
+                    if (now >= deadline) {
+                        return null;
+                    }
+                    int pick = random.nextInt(totalWeightFinal);
+                    int op = 0;
+                    while (cumulativeWeights[op] <= pick) {
+                        op++;
+                    }
+                    HttpRequest request = OPERATIONS.get(op).request().apply(context);
+                    long begin = System.nanoTime();
+                    boolean ok;
+                    try {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        // 404 on a random id is a valid answer, not a failure of the server
+                        ok = response.statusCode() < 400 || response.statusCode() == 404;
+                    } catch (Exception e) {
+                        ok = false;
+                    }
+                    long end = System.nanoTime();
+                    if (begin >= measureFrom && end <= deadline) {
+                        samples[op].add(end - begin, ok);
+                    }
+                }
+            });
+        }
+        pool.shutdown();
+        pool.awaitTermination(warmupSeconds + seconds + 120L, TimeUnit.SECONDS);
+
+        System.out.printf("threads=%d warmup_s=%d measured_s=%d%n", threads, warmupSeconds, seconds);
+        System.out.printf("%-20s %9s %7s %9s %9s %9s %9s %9s %9s%n",
+                "operation", "requests", "errors", "req/s", "p50_ms", "p90_ms", "p99_ms", "p99.9_ms", "max_ms");
+        Samples total = new Samples();
+        for (int op = 0; op < OPERATIONS.size(); op++) {
+            Samples merged = new Samples();
+            for (Samples[] samples : perThread) {
+                merged.addAll(samples[op]);
+            }
+            total.addAll(merged);
+            print(OPERATIONS.get(op).name(), merged, seconds);
+        }
+        print("TOTAL", total, seconds);
+        System.exit(0);
+    }
+
+    private static void awaitDataset(HttpClient client, String baseUrl, int vehicles) throws Exception {
+        URI lastVehicle = URI.create(baseUrl + "/api/v1/vehicles/" + (VEHICLE_ID_BASE + vehicles));
+        long waitingSince = System.nanoTime();
+        while (true) {
+            try {
+                HttpResponse<Void> response = client.send(HttpRequest.newBuilder(lastVehicle).GET().build(),
+                        HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() == 200) {
+                    return;
+                }
+            } catch (Exception e) {
+                // Server still starting
+            }
+            System.out.printf("waiting for the load test dataset (%d s)...%n",
+                    TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - waitingSince));
+            Thread.sleep(10_000);
+        }
+    }
+
+    private static void print(String name, Samples samples, int seconds) {
+        long[] sorted = samples.sorted();
+        if (sorted.length == 0) {
+            System.out.printf("%-20s %9d %7d%n", name, 0, samples.errors);
+            return;
+        }
+        System.out.printf(Locale.ROOT, "%-20s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                name, sorted.length, samples.errors, sorted.length / (double) seconds,
+                percentile(sorted, 0.50), percentile(sorted, 0.90), percentile(sorted, 0.99),
+                percentile(sorted, 0.999), sorted[sorted.length - 1] / 1e6);
+    }
+
+    /** Same scheme as LoadTestDataGenerator. */
+    static String plate(int index) {
+        long code = (index * 7_368_787L) % 17_576_000L;
+        long digits = code % 1000;
+        long letters = code / 1000;
+        return "" + (char) ('A' + letters / 676) + (char) ('A' + letters / 26 % 26) + (char) ('A' + letters % 26)
+                + String.format("-%03d", digits);
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1);
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    /** Latencies of one operation on one thread, in nanoseconds. */
+    static final class Samples {
+        private long[] values = new long[1024];
+        private int count;
+        private long errors;
+
+        void add(long nanos, boolean ok) {
+            if (!ok) {
+                errors++;
+            }
+            if (count == values.length) {
+                values = Arrays.copyOf(values, count * 2);
+            }
+            values[count++] = nanos;
+        }
+
+        void addAll(Samples other) {
+            for (int i = 0; i < other.count; i++) {
+                add(other.values[i], true);
+            }
+            errors += other.errors;
+        }
+
+        long[] sorted() {
+            long[] copy = Arrays.copyOf(values, count);
+            Arrays.sort(copy);
+            return copy;
+        }
+    }
+}
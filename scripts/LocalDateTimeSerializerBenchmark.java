@@ -0,0 +1,177 @@
+import com.cobox.fleet.config.JacksonConfig;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checks and roughly times the JSON setup of JacksonConfig on a page of rows shaped like
+ * the list endpoints. Each mapper is built the way Spring Boot builds the application's
+ * (well-known modules, then the Module beans, with the spring.jackson.* settings of
+ * application.properties):
+ *
+ *   javatime   no Module beans
+ *   blackbird  JacksonConfig.blackbirdModule() only
+ *   fleet      blackbirdModule() and fleetJsonModule(), as the application runs
+ *
+ * The check is the point: every configuration must produce the same JSON as javatime,
+ * including fields with another {@code @JsonFormat} pattern and unannotated fields with
+ * fractional seconds. The timing is a plain loop, not a JMH benchmark: there is no
+ * forking, dead-code protection is a byte count, and with "all" the configurations share
+ * one JIT profile. Treat the figures as a smoke test for regressions, not as a measured
+ * speed-up; pass a configuration name to time it alone in a fresh JVM.
+ *
+ * Needs the application classes and dependencies on the classpath:
+ *
+ *   mvn -q compile dependency:build-classpath -Dmdep.outputFile=target/classpath.txt
+ *   java -cp "target/classes:$(cat target/classpath.txt)" scripts/LocalDateTimeSerializerBenchmark.java [rows] [warmup] [iterations] [seconds] [configuration|all]
+ *
+ * Defaults: 1000 5 10 1 all
+ */
+public class LocalDateTimeSerializerBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int warmup = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        int iterations = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        int seconds = args.length > 3 ? Integer.parseInt(args[3]) : 1;
+        String only = args.length > 4 ? args[4] : "all";
+
+        JacksonConfig config = new JacksonConfig();
+        Map<String, ObjectWriter> writers = new LinkedHashMap<>();
+        writers.put("javatime", writer(mapper()));
+        writers.put("blackbird", writer(mapper(config.blackbirdModule())));
+        writers.put("fleet", writer(mapper(config.blackbirdModule(), config.fleetJsonModule())));
+        if (!only.equals("all") && !writers.containsKey(only)) {
+            System.err.println("Unknown configuration " + only + ", expected one of " + writers.keySet() + " or all");
+            System.exit(2);
+        }
+
+        List<Row> page = page(rows);
+        String expected = writers.get("javatime").writeValueAsString(page);
+        for (Map.Entry<String, ObjectWriter> entry : writers.entrySet()) {
+            String actual = entry.getValue().writeValueAsString(page);
+            if (!expected.equals(actual)) {
+                System.err.println("Output of " + entry.getKey() + " differs from javatime");
+                System.err.println("javatime: " + expected.substring(0, Math.min(400, expected.length())));
+                System.err.printf("%-9s %s%n", entry.getKey() + ":", actual.substring(0, Math.min(400, actual.length())));
+                System.exit(1);
+            }
+        }
+        System.out.printf("rows=%d json_bytes=%d output=identical%n", rows, expected.length());
+
+        for (Map.Entry<String, ObjectWriter> entry : writers.entrySet()) {
+            if (only.equals("all") || only.equals(entry.getKey())) {
+                run(entry.getKey(), entry.getValue(), page, warmup, iterations, seconds);
+            }
+        }
+    }
+
+    /** As JacksonAutoConfiguration builds the application's mapper, Module beans last. */
+    private static ObjectMapper mapper(Module... moduleBeans) {
+        return Jackson2ObjectMapperBuilder.json()
+                .modulesToInstall(moduleBeans)
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS,
+                        SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS)
+                // spring.jackson.* in application.properties
+                .featuresToEnable(JsonGenerator.Feature.WRITE_BIGDECIMAL_AS_PLAIN)
+                .timeZone("UTC")
+                .simpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'")
+                .build();
+    }
+
+    private static ObjectWriter writer(ObjectMapper mapper) {
+        return mapper.writerFor(mapper.getTypeFactory().constructCollectionType(List.class, Row.class));
+    }
+
+    private static void run(String name, ObjectWriter writer, List<Row> page, int warmup, int iterations, int seconds)
+            throws Exception {
+        long sink = 0;
+        for (int i = 0; i < warmup; i++) {
+            sink += iteration(writer, page, seconds)[1];
+        }
+        double[] scores = new double[iterations];
+        for (int i = 0; i < iterations; i++) {
+            long[] result = iteration(writer, page, seconds);
+            scores[i] = result[0] / (double) result[2] / 1000.0;
+            sink += result[1];
+        }
+        double mean = 0;
+        for (double score : scores) {
+            mean += score;
+        }
+        mean /= iterations;
+        double variance = 0;
+        for (double score : scores) {
+            variance += (score - mean) * (score - mean);
+        }
+        double error = iterations > 1 ? Math.sqrt(variance / (iterations - 1)) : 0;
+        System.out.printf("%-10s %10.1f +- %6.1f us/op  (%d iterations, sink=%d)%n", name, mean, error, iterations, sink);
+    }
+
+    /** Returns elapsed nanoseconds, bytes written (so the work is not eliminated) and operations. */
+    private static long[] iteration(ObjectWriter writer, List<Row> page, int seconds) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        long start = System.nanoTime();
+        long bytes = 0;
+        long operations = 0;
+        long now;
+        do {
+            bytes += writer.writeValueAsBytes(page).length;
+            operations++;
+            now = System.nanoTime();
+        } while (now < deadline);
+        return new long[] { now - start, bytes, operations };
+    }
+
+    private static List<Row> page(int rows) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 0, 0);
+        List<Row> page = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            Row row = new Row();
+            row.id = i;
+            row.plate = "ABC-" + (100 + i % 900);
+            row.currentMileage = BigDecimal.valueOf(random.nextLong(0, 50_000_000), 2);
+            row.createdAt = base.plusSeconds(random.nextLong(0, 365L * 24 * 3600));
+            row.updatedAt = row.createdAt.plusNanos(random.nextLong(0, 86_400_000_000_000L));
+            row.serviceDay = row.createdAt.withHour(0).withMinute(0).withSecond(0);
+            row.recordedAt = row.updatedAt;
+            page.add(row);
+        }
+        return page;
+    }
+
+    public static class Row {
+
+        public long id;
+
+        public String plate;
+
+        public BigDecimal currentMileage;
+
+        @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss", shape = JsonFormat.Shape.STRING)
+        public LocalDateTime createdAt;
+
+        @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss", shape = JsonFormat.Shape.STRING)
+        public LocalDateTime updatedAt;
+
+        @JsonFormat(pattern = "dd/MM/yyyy", shape = JsonFormat.Shape.STRING)
+        public LocalDateTime serviceDay;
+
+        // No @JsonFormat: JavaTimeModule's ISO output, fractional seconds included
+        public LocalDateTime recordedAt;
+    }
+}
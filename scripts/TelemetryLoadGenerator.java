@@ -0,0 +1,162 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Load generator for POST /api/v1/telemetry. Simulates trackers that each send a batch
+ * of pings per request and reports accepted points per second plus request latency.
+ *
+ * Run with the JDK source launcher (no build needed):
+ *
+ *   java scripts/TelemetryLoadGenerator.java [baseUrl] [vehicles] [seconds] [threads] [pointsPerRequest]
+ *
+ * Defaults: http://localhost:5000 200 30 16 20
+ */
+public class TelemetryLoadGenerator {
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:5000";
+        int vehicles = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : 16;
+        int pointsPerRequest = args.length > 4 ? Integer.parseInt(args[4]) : 20;
+
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        URI ingestUri = URI.create(baseUrl + "/api/v1/telemetry");
+
+        AtomicLong acceptedPoints = new AtomicLong();
+        AtomicLong requests = new AtomicLong();
+        AtomicLong throttled = new AtomicLong();
+        AtomicLong errors = new AtomicLong();
+        List<long[]> latencies = new ArrayList<>();
+
+        // Per-vehicle simulated state: clock, odometer, position
+        long startClock = System.currentTimeMillis() - TimeUnit.HOURS.toMillis(1);
+        long[] clocks = new long[vehicles];
+        double[] odometers = new double[vehicles];
+        Arrays.fill(clocks, startClock);
+        for (int v = 0; v < vehicles; v++) {
+            odometers[v] = 10_000 + v * 100;
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            int worker = t;
+            long[] samples = new long[1 << 20];
+            latencies.add(samples);
+            pool.submit(() -> {
+                int sampleCount = 0;
+                int vehicle = worker % vehicles;
+                while (System.nanoTime() < deadline) {
+                    String body;
+                    synchronized (clocks) {
+                        body = batch(vehicle, pointsPerRequest, clocks, odometers);
+                    }
+                    HttpRequest request = HttpRequest.newBuilder(ingestUri)
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(body))
+                            .build();
+                    long started = System.nanoTime();
+                    try {
+                        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                        long elapsed = System.nanoTime() - started;
+                        if (sampleCount < samples.length - 1) {
+                            samples[sampleCount++] = elapsed;
+                        }
+                        requests.incrementAndGet();
+                        if (response.statusCode() == 202) {
+                            acceptedPoints.addAndGet(pointsPerRequest);
+                        } else if (response.statusCode() == 503) {
+                            throttled.incrementAndGet();
+                            acceptedPoints.addAndGet(accepted(response.body()));
+                        } else {
+                            errors.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    }
+                    vehicle = (vehicle + threads) % vehicles;
+                }
+                samples[samples.length - 1] = sampleCount;
+                return null;
+            });
+        }
+        pool.shutdown();
+        pool.awaitTermination(seconds + 60L, TimeUnit.SECONDS);
+
+        List<Long> all = new ArrayList<>();
+        for (long[] samples : latencies) {
+            int count = (int) samples[samples.length - 1];
+            for (int i = 0; i < count; i++) {
+                all.add(samples[i]);
+            }
+        }
+        all.sort(Long::compare);
+
+        System.out.printf("requests=%d throttled=%d errors=%d%n", requests.get(), throttled.get(), errors.get());
+        System.out.printf("accepted_points=%d points_per_sec=%.0f%n",
+                acceptedPoints.get(), acceptedPoints.get() / (double) seconds);
+        if (!all.isEmpty()) {
+            System.out.printf("latency_ms p50=%.2f p99=%.2f max=%.2f%n",
+                    percentile(all, 0.50), percentile(all, 0.99), all.get(all.size() - 1) / 1e6);
+        }
+
+        // Give the flusher a moment, then print the server-side counters
+        Thread.sleep(2000);
+        HttpResponse<String> stats = client.send(
+                HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/telemetry/stats")).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        System.out.println("server_stats=" + stats.body());
+    }
+
+    private static String batch(int vehicle, int points, long[] clocks, double[] odometers) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        StringBuilder body = new StringBuilder(64 + points * 64);
+        body.append("[{\"v\":\"LOAD-").append(vehicle).append("\",\"p\":[");
+        double lat = -12.05 + (vehicle % 50) * 0.002;
+        double lon = -77.04 + (vehicle / 50) * 0.002;
+        for (int i = 0; i < points; i++) {
+            clocks[vehicle] += 5_000;
+            odometers[vehicle] += random.nextDouble(0.0, 0.1);
+            if (i > 0) {
+                body.append(',');
+            }
+            body.append('[').append(clocks[vehicle])
+                    .append(',').append(String.format(Locale.ROOT, "%.6f", lat + random.nextDouble(-0.001, 0.001)))
+                    .append(',').append(String.format(Locale.ROOT, "%.6f", lon + random.nextDouble(-0.001, 0.001)))
+                    .append(',').append(String.format(Locale.ROOT, "%.3f", odometers[vehicle]))
+                    .append(',').append(random.nextInt(0, 90))
+                    .append(']');
+        }
+        return body.append("]}]").toString();
+    }
+
+    private static long accepted(String body) {
+        int start = body.indexOf("\"accepted\":");
+        if (start < 0) {
+            return 0;
+        }
+        int end = start + 11;
+        while (end < body.length() && Character.isDigit(body.charAt(end))) {
+            end++;
+        }
+        return Long.parseLong(body.substring(start + 11, end));
+    }
+
+    private static double percentile(List<Long> sorted, double percentile) {
+        int index = (int) Math.min(sorted.size() - 1, Math.ceil(percentile * sorted.size()) - 1);
+        return sorted.get(Math.max(0, index)) / 1e6;
+    }
+}
@@ -0,0 +1,52 @@
+#!/usr/bin/env bash
+# Compares time-to-ready of the plain JVM jar, the AppCDS archive and the native image.
+#
+#   mvn -Pcds package              -> target/fleet-backend.jar + target/cds/fleet-backend.jsa
+#   mvn -Pnative native:compile    -> target/fleet-backend (native executable)
+#
+# Usage: scripts/measure-startup.sh [runs] [profile] (defaults: 5, cds-training).
+# The default profile starts against an in-memory H2 database. Measuring against the
+# configured database (DATABASE_URL, production MySQL otherwise) is opt-in: pass the
+# profile "default" or another profile that sets spring.datasource.url.
+set -euo pipefail
+
+RUNS="${1:-5}"
+PROFILE="${2:-cds-training}"
+TARGET="$(cd "$(dirname "$0")/../target" && pwd)"
+CP="$TARGET/cds/application/BOOT-INF/classes:$TARGET/cds/dependencies/BOOT-INF/lib/*"
+MAIN=com.cobox.fleet.FleetApplication
+
+# Starts the application, waits for StartupTimeLogger's "STARTUP" line and stops it again.
+measure() {
+  local label="$1"; shift
+  local total=0
+  local log
+  log="$(mktemp)"
+  for _ in $(seq "$RUNS"); do
+    "$@" --server.port=0 --spring.profiles.active="$PROFILE" >"$log" 2>&1 &
+    local pid=$!
+    until grep -q 'STARTUP ready_ms=' "$log"; do
+      if ! kill -0 "$pid" 2>/dev/null; then
+        echo "$label: application exited before ready, see $log" >&2
+        return 1
+      fi
+      sleep 0.1
+    done
+    kill "$pid"; wait "$pid" 2>/dev/null || true
+    local ms
+    ms=$(sed -n 's/.*STARTUP ready_ms=[0-9]* process_uptime_ms=\([0-9]*\).*/\1/p' "$log" | head -1)
+    total=$((total + ms))
+  done
+  rm -f "$log"
+  printf '%-10s avg %6d ms to ready over %d runs (profile %s)\n' "$label" $((total / RUNS)) "$RUNS" "$PROFILE"
+}
+
+if [[ -f "$TARGET/fleet-backend.jar" ]]; then
+  measure "jar" java -jar "$TARGET/fleet-backend.jar"
+fi
+if [[ -f "$TARGET/cds/fleet-backend.jsa" ]]; then
+  measure "cds" java -XX:SharedArchiveFile="$TARGET/cds/fleet-backend.jsa" -cp "$CP" "$MAIN"
+fi
+if [[ -x "$TARGET/fleet-backend" ]]; then
+  measure "native" "$TARGET/fleet-backend"
+fi
@@ -1,11 +1,16 @@
 package com.cobox.fleet;
 
+import com.cobox.fleet.config.FleetRuntimeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
+@ImportRuntimeHints(FleetRuntimeHints.class)
 public class FleetApplication {
     public static void main(String[] args) {
         SpringApplication.run(FleetApplication.class, args);
     }
-}
\ No newline at end of file
+}
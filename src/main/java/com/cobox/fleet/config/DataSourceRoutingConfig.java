@@ -0,0 +1,128 @@
+package com.cobox.fleet.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Primary/replica routing. Enabled with {@code fleet.datasource.replica.enabled=true};
+ * otherwise Spring Boot's single auto-configured datasource is used unchanged.
+ * <p>
+ * Replica URLs are bound as a list: either comma-separated ({@code REPLICA_URLS}) or,
+ * for URLs that contain commas themselves such as H2's {@code NON_KEYWORDS=...},
+ * indexed ({@code fleet.datasource.replica.urls[0]=...}).
+ */
+@Configuration
+@ConditionalOnProperty(name = "fleet.datasource.replica.enabled", havingValue = "true")
+public class DataSourceRoutingConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(DataSourceRoutingConfig.class);
+
+    private static final String URLS_PROPERTY = "fleet.datasource.replica.urls";
+
+    @Autowired
+    private Environment environment;
+
+    @Value("${fleet.datasource.replica.username:${spring.datasource.username}}")
+    private String replicaUsername;
+
+    @Value("${fleet.datasource.replica.password:${spring.datasource.password}}")
+    private String replicaPassword;
+
+    @Value("${fleet.datasource.replica.pool-size:10}")
+    private int replicaPoolSize;
+
+    @Value("${fleet.datasource.replica.lag-query:SHOW REPLICA STATUS}")
+    private String lagQuery;
+
+    @Value("${fleet.datasource.replica.max-lag-seconds:5}")
+    private long maxLagSeconds;
+
+    private final Map<String, DataSource> replicas = new LinkedHashMap<>();
+
+    @Bean(destroyMethod = "close")
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                             DataSourceProperties properties) {
+        List<String> replicaUrls = Binder.get(environment)
+                .bind(URLS_PROPERTY, Bindable.listOf(String.class))
+                .orElse(List.of());
+        List<String> keys = new ArrayList<>();
+        for (String url : replicaUrls) {
+            if (url.isBlank()) {
+                continue;
+            }
+            String key = "replica-" + keys.size();
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName(key);
+            replica.setJdbcUrl(url.trim());
+            replica.setUsername(replicaUsername);
+            replica.setPassword(replicaPassword);
+            replica.setDriverClassName(properties.determineDriverClassName());
+            replica.setMaximumPoolSize(replicaPoolSize);
+            replica.setReadOnly(true);
+            replicas.put(key, replica);
+            keys.add(key);
+        }
+        if (keys.isEmpty()) {
+            log.warn("Replica routing is enabled but fleet.datasource.replica.urls is empty; all queries go to the primary");
+        }
+
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(ReplicaRoutingDataSource.PRIMARY, primaryDataSource);
+
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(keys);
+        routing.setTargetDataSources(targets);
+        routing.setDefaultTargetDataSource(primaryDataSource);
+        return routing;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        // Defer the routing decision until the transaction's read-only flag is known
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new ReplicaLagMonitor(replicaRoutingDataSource, replicas, lagQuery, maxLagSeconds);
+    }
+
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter() {
+        return new ReadYourWritesFilter();
+    }
+
+    @PreDestroy
+    public void closeReplicas() {
+        replicas.values().forEach(replica -> ((HikariDataSource) replica).close());
+    }
+}
@@ -0,0 +1,58 @@
+package com.cobox.fleet.config;
+
+import com.cobox.fleet.entity.AuditEntry;
+import com.cobox.fleet.entity.ChangeSequence;
+import com.cobox.fleet.entity.CostRollup;
+import com.cobox.fleet.entity.FuelAlert;
+import com.cobox.fleet.entity.FuelRecord;
+import com.cobox.fleet.entity.FuelRecordSummary;
+import com.cobox.fleet.entity.MileageRecord;
+import com.cobox.fleet.entity.OutboxEvent;
+import com.cobox.fleet.entity.Schedule;
+import com.cobox.fleet.entity.Service;
+import com.cobox.fleet.entity.Station;
+import com.cobox.fleet.entity.TelemetryPoint;
+import com.cobox.fleet.entity.User;
+import com.cobox.fleet.entity.Vehicle;
+import com.cobox.fleet.entity.VehicleStatusInterval;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+import java.util.List;
+
+/**
+ * Reflection hints for the native image. Entities are also materialized outside
+ * Hibernate (BeanPropertyRowMapper on the reporting pool, Jackson request bodies),
+ * so their constructors, accessors and fields must stay reachable.
+ */
+public class FleetRuntimeHints implements RuntimeHintsRegistrar {
+
+    static final List<Class<?>> ENTITY_TYPES = List.of(
+            Vehicle.class,
+            User.class,
+            Service.class,
+            Schedule.class,
+            FuelRecord.class,
+            FuelRecordSummary.class,
+            MileageRecord.class,
+            OutboxEvent.class,
+            ChangeSequence.class,
+            CostRollup.class,
+            FuelAlert.class,
+            Station.class,
+            TelemetryPoint.class,
+            AuditEntry.class,
+            VehicleStatusInterval.class
+    );
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        for (Class<?> type : ENTITY_TYPES) {
+            hints.reflection().registerType(type,
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                    MemberCategory.INVOKE_PUBLIC_METHODS,
+                    MemberCategory.DECLARED_FIELDS);
+        }
+    }
+}
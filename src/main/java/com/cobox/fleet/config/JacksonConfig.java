@@ -0,0 +1,112 @@
+package com.cobox.fleet.config;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.ContextualSerializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Jackson tuning for the list endpoints. Spring Boot registers every {@link Module} bean
+ * on the shared ObjectMapper after the well-known modules, so the serializer below takes
+ * precedence over the JavaTimeModule one. It only keeps properties annotated with the
+ * entity pattern and hands every other LocalDateTime back to JavaTimeModule, so other
+ * {@code @JsonFormat} patterns and the default ISO output (with fractional seconds) are
+ * unchanged. {@code scripts/LocalDateTimeSerializerBenchmark.java} checks that this setup
+ * writes the same JSON as JavaTimeModule; its timings are a rough smoke test, not JMH.
+ */
+@Configuration
+public class JacksonConfig {
+
+    /** The pattern every entity declares with {@code @JsonFormat} on its LocalDateTime fields. */
+    static final String ENTITY_PATTERN = "yyyy-MM-dd'T'HH:mm:ss";
+
+    static final DateTimeFormatter ENTITY_DATE_TIME = DateTimeFormatter.ofPattern(ENTITY_PATTERN);
+
+    @Bean
+    @ConditionalOnProperty(name = "fleet.json.blackbird.enabled", havingValue = "true", matchIfMissing = true)
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+
+    @Bean
+    public Module fleetJsonModule() {
+        SimpleModule module = new SimpleModule("fleet-json");
+        module.addSerializer(LocalDateTime.class, new LocalDateTimeSerializer());
+        return module;
+    }
+
+    /**
+     * Writes {@code yyyy-MM-dd'T'HH:mm:ss} digit by digit into a per-thread buffer instead of
+     * going through DateTimeFormatter, which allocates a builder and a String per value.
+     */
+    static final class LocalDateTimeSerializer extends StdSerializer<LocalDateTime> implements ContextualSerializer {
+
+        private static final long serialVersionUID = 1L;
+
+        private static final ThreadLocal<char[]> BUFFER = ThreadLocal.withInitial(() -> new char[19]);
+
+        LocalDateTimeSerializer() {
+            super(LocalDateTime.class);
+        }
+
+        /**
+         * Keeps this serializer only for the exact entity pattern without a time zone or
+         * locale; anything else is resolved by JavaTimeModule's serializer as it would be
+         * without this module.
+         */
+        @Override
+        public JsonSerializer<?> createContextual(SerializerProvider provider, BeanProperty property)
+                throws JsonMappingException {
+            JsonFormat.Value format = findFormatOverrides(provider, property, handledType());
+            if (ENTITY_PATTERN.equals(format.getPattern()) && !format.hasTimeZone() && !format.hasLocale()
+                    && format.getShape() != JsonFormat.Shape.NUMBER && format.getShape() != JsonFormat.Shape.ARRAY) {
+                return this;
+            }
+            return com.fasterxml.jackson.datatype.jsr310.ser.LocalDateTimeSerializer.INSTANCE
+                    .createContextual(provider, property);
+        }
+
+        @Override
+        public void serialize(LocalDateTime value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            int year = value.getYear();
+            if (year < 0 || year > 9999) {
+                gen.writeString(ENTITY_DATE_TIME.format(value));
+                return;
+            }
+            char[] buf = BUFFER.get();
+            digits(buf, 0, year, 4);
+            buf[4] = '-';
+            digits(buf, 5, value.getMonthValue(), 2);
+            buf[7] = '-';
+            digits(buf, 8, value.getDayOfMonth(), 2);
+            buf[10] = 'T';
+            digits(buf, 11, value.getHour(), 2);
+            buf[13] = ':';
+            digits(buf, 14, value.getMinute(), 2);
+            buf[16] = ':';
+            digits(buf, 17, value.getSecond(), 2);
+            gen.writeString(buf, 0, buf.length);
+        }
+
+        private static void digits(char[] buf, int offset, int value, int width) {
+            for (int i = offset + width - 1; i >= offset; i--) {
+                buf[i] = (char) ('0' + value % 10);
+                value /= 10;
+            }
+        }
+    }
+}
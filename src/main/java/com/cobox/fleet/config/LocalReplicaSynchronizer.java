@@ -0,0 +1,77 @@
+package com.cobox.fleet.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Simulates asynchronous replication between the two embedded H2 databases of the
+ * {@code replica-local} profile by periodically copying the primary into every replica.
+ * The copy interval doubles as an artificial replication lag for local testing.
+ * <p>
+ * Each copy ends by writing the time the primary was scripted into a
+ * {@value #HEARTBEAT_TABLE} table on the replica; the profile's lag query reads it, so a
+ * replica whose copies fail falls behind and is taken out of rotation like a real one.
+ */
+@Component
+@Profile("replica-local")
+public class LocalReplicaSynchronizer {
+
+    private static final Logger log = LoggerFactory.getLogger(LocalReplicaSynchronizer.class);
+
+    static final String HEARTBEAT_TABLE = "replica_heartbeat";
+
+    @Autowired
+    private HikariDataSource primaryDataSource;
+
+    @Autowired
+    private ReplicaRoutingDataSource replicaRoutingDataSource;
+
+    @Scheduled(fixedDelayString = "${fleet.datasource.replica.local-sync-ms:10000}")
+    public void synchronize() throws Exception {
+        Path script = Files.createTempFile("fleet-replica", ".sql");
+        try {
+            Timestamp scriptedAt = Timestamp.valueOf(LocalDateTime.now());
+            try (Connection connection = primaryDataSource.getConnection();
+                 Statement statement = connection.createStatement()) {
+                statement.execute("SCRIPT TO '" + script + "'");
+            }
+            int copied = 0;
+            for (String key : replicaRoutingDataSource.getReplicaKeys()) {
+                DataSource replica = replicaRoutingDataSource.getResolvedDataSources().get(key);
+                try (Connection connection = replica.getConnection();
+                     Statement statement = connection.createStatement()) {
+                    statement.execute("DROP ALL OBJECTS");
+                    statement.execute("RUNSCRIPT FROM '" + script + "'");
+                    statement.execute("CREATE TABLE " + HEARTBEAT_TABLE + " (copied_at TIMESTAMP NOT NULL)");
+                    try (PreparedStatement heartbeat = connection.prepareStatement(
+                            "INSERT INTO " + HEARTBEAT_TABLE + " (copied_at) VALUES (?)")) {
+                        heartbeat.setTimestamp(1, scriptedAt);
+                        heartbeat.executeUpdate();
+                    }
+                    copied++;
+                } catch (SQLException e) {
+                    // The heartbeat stays missing or stale, so the lag monitor drops this replica
+                    log.warn("Could not copy the primary into local replica {}", key, e);
+                }
+            }
+            log.debug("Copied primary into {} of {} local replica(s)", copied, replicaRoutingDataSource.getReplicaKeys().size());
+        } finally {
+            Files.deleteIfExists(script);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.cobox.fleet.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-client token bucket rate limiting for the routes in {@link RateLimitProperties}.
+ * <p>
+ * Each bucket is a single {@link AtomicLong} holding the bucket's theoretical arrival time
+ * (the GCRA formulation of a token bucket), so acquiring a token is one CAS with no locks.
+ * Requests over the limit get 429 with a Retry-After header.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimitProperties properties;
+    private final List<RateLimitProperties.Route> routes;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final ConcurrentHashMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    public RateLimitFilter(RateLimitProperties properties) {
+        this.properties = properties;
+        this.routes = List.copyOf(properties.getRoutes());
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled() || routes.isEmpty();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (int i = 0; i < routes.size(); i++) {
+            RateLimitProperties.Route route = routes.get(i);
+            if (!pathMatcher.match(route.getPattern(), path)) {
+                continue;
+            }
+            Bucket bucket = buckets.computeIfAbsent(i + "|" + clientId(request), key -> new Bucket(route));
+            long waitNanos = bucket.tryAcquire(System.nanoTime());
+            if (waitNanos > 0) {
+                long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+                response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+                response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+                return;
+            }
+            break;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * Drops buckets that have fully refilled; they are recreated on the client's next request.
+     */
+    @Scheduled(fixedDelay = 60_000)
+    public void evictIdleBuckets() {
+        long now = System.nanoTime();
+        buckets.values().removeIf(bucket -> bucket.isIdle(now));
+    }
+
+    private String clientId(HttpServletRequest request) {
+        String client = request.getHeader(properties.getClientHeader());
+        return client != null && !client.isBlank() ? client : request.getRemoteAddr();
+    }
+
+    static final class Bucket {
+
+        private final long intervalNanos;
+        private final long toleranceNanos;
+        private final AtomicLong theoreticalArrival = new AtomicLong(Long.MIN_VALUE);
+
+        Bucket(RateLimitProperties.Route route) {
+            this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / route.getRequestsPerSecond());
+            this.toleranceNanos = intervalNanos * Math.max(0, route.getBurst() - 1);
+        }
+
+        /**
+         * Returns 0 when a token was taken, otherwise how long until one is available.
+         */
+        long tryAcquire(long now) {
+            while (true) {
+                long tat = theoreticalArrival.get();
+                long base = tat == Long.MIN_VALUE || tat - now < 0 ? now : tat;
+                long wait = base - now - toleranceNanos;
+                if (wait > 0) {
+                    return wait;
+                }
+                if (theoreticalArrival.compareAndSet(tat, base + intervalNanos)) {
+                    return 0;
+                }
+            }
+        }
+
+        boolean isIdle(long now) {
+            long tat = theoreticalArrival.get();
+            return tat == Long.MIN_VALUE || tat - now < 0;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.cobox.fleet.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per-route token bucket limits, bound from {@code fleet.rate-limit.*}.
+ */
+@ConfigurationProperties(prefix = "fleet.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    /** Header identifying the calling device; the remote address is used when absent. */
+    private String clientHeader = "X-Client-Id";
+
+    private List<Route> routes = new ArrayList<>();
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public String getClientHeader() { return clientHeader; }
+    public void setClientHeader(String clientHeader) { this.clientHeader = clientHeader; }
+
+    public List<Route> getRoutes() { return routes; }
+    public void setRoutes(List<Route> routes) { this.routes = routes; }
+
+    public static class Route {
+
+        /** Ant-style path pattern, e.g. {@code /api/v1/vehicles/**}. */
+        private String pattern;
+
+        private double requestsPerSecond = 5;
+
+        private int burst = 10;
+
+        public String getPattern() { return pattern; }
+        public void setPattern(String pattern) { this.pattern = pattern; }
+
+        public double getRequestsPerSecond() { return requestsPerSecond; }
+        public void setRequestsPerSecond(double requestsPerSecond) { this.requestsPerSecond = requestsPerSecond; }
+
+        public int getBurst() { return burst; }
+        public void setBurst(int burst) { this.burst = burst; }
+    }
+}
@@ -0,0 +1,52 @@
+package com.cobox.fleet.config;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Per-request marker set once the current request has written to the primary.
+ * Subsequent read-only transactions in the same request stay on the primary so the
+ * caller always sees its own writes, regardless of replica lag.
+ * <p>
+ * Outside a request (scheduled jobs, background threads) nothing would clear the marker
+ * and the thread would stay pinned to the primary, so there it only lasts until the
+ * writing transaction completes.
+ */
+public final class ReadYourWritesContext {
+
+    private static final ThreadLocal<Boolean> WROTE = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> IN_REQUEST = new ThreadLocal<>();
+
+    private ReadYourWritesContext() {}
+
+    /** Starts a request scope; {@link #clear} ends it. */
+    public static void open() {
+        IN_REQUEST.set(Boolean.TRUE);
+    }
+
+    public static void markWrite() {
+        if (WROTE.get() != null) {
+            return;
+        }
+        if (IN_REQUEST.get() != null) {
+            WROTE.set(Boolean.TRUE);
+        } else if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            WROTE.set(Boolean.TRUE);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    WROTE.remove();
+                }
+            });
+        }
+    }
+
+    public static boolean hasWritten() {
+        return WROTE.get() != null;
+    }
+
+    public static void clear() {
+        WROTE.remove();
+        IN_REQUEST.remove();
+    }
+}
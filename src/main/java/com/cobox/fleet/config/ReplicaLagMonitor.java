@@ -0,0 +1,77 @@
+package com.cobox.fleet.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.Statement;
+import java.util.Map;
+
+/**
+ * Periodically measures replication lag on every replica and takes lagging or
+ * unreachable replicas out of rotation until they catch up.
+ * <p>
+ * The lag query may return either a MySQL {@code SHOW REPLICA STATUS} row or a single
+ * numeric column holding the lag in seconds (e.g. {@code SELECT 0} for embedded databases).
+ */
+public class ReplicaLagMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private final ReplicaRoutingDataSource routingDataSource;
+    private final Map<String, DataSource> replicas;
+    private final String lagQuery;
+    private final long maxLagSeconds;
+
+    public ReplicaLagMonitor(ReplicaRoutingDataSource routingDataSource, Map<String, DataSource> replicas,
+                             String lagQuery, long maxLagSeconds) {
+        this.routingDataSource = routingDataSource;
+        this.replicas = replicas;
+        this.lagQuery = lagQuery;
+        this.maxLagSeconds = maxLagSeconds;
+    }
+
+    @Scheduled(fixedDelayString = "${fleet.datasource.replica.check-interval-ms:5000}")
+    public void checkReplicas() {
+        replicas.forEach((key, dataSource) -> {
+            boolean healthy;
+            try {
+                Long lag = measureLag(dataSource);
+                healthy = lag != null && lag <= maxLagSeconds;
+            } catch (Exception e) {
+                healthy = false;
+            }
+            if (healthy != routingDataSource.isReplicaHealthy(key)) {
+                log.warn("Replica {} is now {}", key, healthy ? "in rotation" : "out of rotation (lagging or unreachable)");
+            }
+            routingDataSource.setReplicaHealthy(key, healthy);
+        });
+    }
+
+    private Long measureLag(DataSource dataSource) throws Exception {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.setQueryTimeout(2);
+            try (ResultSet rs = statement.executeQuery(lagQuery)) {
+                if (!rs.next()) {
+                    // Replication not configured on this server
+                    return null;
+                }
+                ResultSetMetaData meta = rs.getMetaData();
+                for (int i = 1; i <= meta.getColumnCount(); i++) {
+                    String label = meta.getColumnLabel(i);
+                    if ("Seconds_Behind_Source".equalsIgnoreCase(label) || "Seconds_Behind_Master".equalsIgnoreCase(label)) {
+                        long lag = rs.getLong(i);
+                        return rs.wasNull() ? null : lag;
+                    }
+                }
+                long lag = rs.getLong(1);
+                return rs.wasNull() ? null : lag;
+            }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.cobox.fleet.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Routes read-only transactions to a healthy replica and everything else to the primary.
+ * <p>
+ * Must be wrapped in a {@code LazyConnectionDataSourceProxy}: the transaction's read-only
+ * flag is only published after the transaction manager has asked for a connection.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+
+    private final List<String> replicaKeys;
+    private final Map<String, Boolean> replicaHealthy = new ConcurrentHashMap<>();
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(List<String> replicaKeys) {
+        this.replicaKeys = List.copyOf(replicaKeys);
+        replicaKeys.forEach(key -> replicaHealthy.put(key, Boolean.TRUE));
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return PRIMARY;
+        }
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            ReadYourWritesContext.markWrite();
+            return PRIMARY;
+        }
+        if (ReadYourWritesContext.hasWritten()) {
+            return PRIMARY;
+        }
+
+        int size = replicaKeys.size();
+        if (size == 0) {
+            return PRIMARY;
+        }
+        int start = Math.floorMod(nextReplica.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            String key = replicaKeys.get((start + i) % size);
+            if (replicaHealthy.get(key)) {
+                return key;
+            }
+        }
+        // Every replica is lagging or down: fall back to the primary
+        return PRIMARY;
+    }
+
+    public List<String> getReplicaKeys() {
+        return replicaKeys;
+    }
+
+    public void setReplicaHealthy(String key, boolean healthy) {
+        replicaHealthy.put(key, healthy);
+    }
+
+    public boolean isReplicaHealthy(String key) {
+        return replicaHealthy.get(key);
+    }
+}
@@ -0,0 +1,133 @@
+package com.cobox.fleet.config;
+
+import com.cobox.fleet.tracing.Tracer;
+import com.cobox.fleet.tracing.TracingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Isolates reporting and export traffic from operational CRUD traffic.
+ * <p>
+ * Reporting work runs on its own bounded executor and reads through its own small
+ * connection pool with a query timeout, so a large date-range query can never take
+ * connections or request threads away from driver check-ins. When the bulkhead is
+ * saturated the request is rejected immediately with 503 and a Retry-After header.
+ * <p>
+ * Neither the pool nor the template are exposed as beans, so Spring Boot's primary
+ * datasource and JdbcTemplate auto-configuration stay untouched. Tenants with a dedicated
+ * schema get their own small read-only pool; tasks run as the submitting tenant.
+ */
+@Component
+public class ReportingBulkhead {
+
+    private final HikariDataSource dataSource;
+    private final Map<String, HikariDataSource> tenantPools;
+    private final JdbcTemplate jdbcTemplate;
+    private final ThreadPoolExecutor executor;
+    private final int retryAfterSeconds;
+    private final Tracer tracer;
+
+    public ReportingBulkhead(@Value("${fleet.reporting.url:${spring.datasource.url}}") String url,
+                             @Value("${fleet.reporting.username:${spring.datasource.username}}") String username,
+                             @Value("${fleet.reporting.password:${spring.datasource.password}}") String password,
+                             @Value("${fleet.reporting.pool-size:4}") int poolSize,
+                             @Value("${fleet.reporting.queue-capacity:8}") int queueCapacity,
+                             @Value("${fleet.reporting.connection-timeout-ms:2000}") long connectionTimeoutMs,
+                             @Value("${fleet.reporting.query-timeout-seconds:30}") int queryTimeoutSeconds,
+                             @Value("${fleet.reporting.retry-after-seconds:5}") int retryAfterSeconds,
+                             @Value("${fleet.tracing.max-statement-length:2000}") int maxStatementLength,
+                             TenantProperties tenantProperties,
+                             Tracer tracer) {
+        this.dataSource = new HikariDataSource();
+        dataSource.setPoolName("reporting");
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(username);
+        dataSource.setPassword(password);
+        dataSource.setMaximumPoolSize(poolSize);
+        dataSource.setMinimumIdle(0);
+        dataSource.setConnectionTimeout(connectionTimeoutMs);
+        dataSource.setReadOnly(true);
+
+        this.tenantPools = TenantRoutingDataSource.createPools(tenantProperties, "reporting", null, true);
+        tenantPools.values().forEach(pool -> {
+            pool.setMaximumPoolSize(Math.min(pool.getMaximumPoolSize(), poolSize));
+            pool.setMinimumIdle(0);
+            pool.setConnectionTimeout(connectionTimeoutMs);
+        });
+        DataSource routed = tenantPools.isEmpty() ? dataSource : new TenantRoutingDataSource(dataSource, tenantPools);
+
+        this.tracer = tracer;
+        this.jdbcTemplate = new JdbcTemplate(new TracingDataSource(routed, () -> tracer, maxStatementLength));
+        jdbcTemplate.setQueryTimeout(queryTimeoutSeconds);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                task -> {
+                    Thread thread = new Thread(task, "reporting-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * Template bound to the reporting pool, with the reporting query timeout applied.
+     */
+    public JdbcTemplate getJdbcTemplate() {
+        return jdbcTemplate;
+    }
+
+    /**
+     * Runs a reporting request on the reporting executor. Returns 503 with Retry-After
+     * without queuing further when the executor or the reporting pool is exhausted.
+     */
+    public <T> CompletableFuture<ResponseEntity<T>> submit(Supplier<ResponseEntity<T>> task) {
+        String tenant = TenantContext.current();
+        Supplier<ResponseEntity<T>> traced = tracer.propagate(task);
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    return TenantContext.callAs(tenant, traced);
+                } catch (CannotGetJdbcConnectionException | QueryTimeoutException | TransientDataAccessResourceException e) {
+                    return unavailable();
+                }
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(unavailable());
+        }
+    }
+
+    private <T> ResponseEntity<T> unavailable() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        tenantPools.values().forEach(HikariDataSource::close);
+        dataSource.close();
+    }
+}
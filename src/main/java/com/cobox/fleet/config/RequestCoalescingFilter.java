@@ -0,0 +1,116 @@
+package com.cobox.fleet.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-flight coalescing of identical concurrent GETs on hot read endpoints.
+ * <p>
+ * The first request for a key runs the controller with its body buffered; requests for
+ * the same key that arrive while it is in flight wait for it and receive the very same
+ * response bytes, so N simultaneous reads cost one query and one serialization. Nothing
+ * is kept once the leader completes. Followers fall back to running the request
+ * themselves if the leader fails or returns anything other than 200.
+ */
+public class RequestCoalescingFilter extends OncePerRequestFilter {
+
+    private final Set<String> paths;
+    private final long followerTimeoutMs;
+    private final ConcurrentHashMap<String, CompletableFuture<BufferedResponse>> inFlight = new ConcurrentHashMap<>();
+
+    public RequestCoalescingFilter(Set<String> paths, long followerTimeoutMs) {
+        this.paths = Set.copyOf(paths);
+        this.followerTimeoutMs = followerTimeoutMs;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"GET".equals(request.getMethod())
+                || !paths.contains(request.getRequestURI().substring(request.getContextPath().length()));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String key = coalescingKey(request);
+        CompletableFuture<BufferedResponse> leader = new CompletableFuture<>();
+        CompletableFuture<BufferedResponse> existing = inFlight.putIfAbsent(key, leader);
+
+        if (existing != null) {
+            BufferedResponse shared = null;
+            try {
+                shared = existing.get(followerTimeoutMs, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                // Leader timed out or failed: serve this request on its own
+            }
+            if (shared != null) {
+                shared.writeTo(response);
+            } else {
+                filterChain.doFilter(request, response);
+            }
+            return;
+        }
+
+        ContentCachingResponseWrapper buffered = new ContentCachingResponseWrapper(response);
+        BufferedResponse result = null;
+        try {
+            filterChain.doFilter(request, buffered);
+            if (buffered.getStatus() == HttpServletResponse.SC_OK) {
+                result = BufferedResponse.capture(buffered);
+            }
+        } finally {
+            inFlight.remove(key, leader);
+            leader.complete(result);
+        }
+        buffered.copyBodyToResponse();
+    }
+
+    private String coalescingKey(HttpServletRequest request) {
+        // Headers that change the representation (CORS, content negotiation, tenant) are part of the key
+        return TenantContext.current()
+                + '|' + request.getRequestURI()
+                + '?' + request.getQueryString()
+                + '|' + request.getHeader(HttpHeaders.ORIGIN)
+                + '|' + request.getHeader(HttpHeaders.ACCEPT)
+                + '|' + request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+    }
+
+    record BufferedResponse(int status, Map<String, List<String>> headers, byte[] body) {
+
+        static BufferedResponse capture(ContentCachingResponseWrapper response) {
+            Map<String, List<String>> headers = new LinkedHashMap<>();
+            for (String name : response.getHeaderNames()) {
+                if (!HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                    headers.put(name, List.copyOf(response.getHeaders(name)));
+                }
+            }
+            if (response.getContentType() != null) {
+                headers.put(HttpHeaders.CONTENT_TYPE, List.of(response.getContentType()));
+            }
+            return new BufferedResponse(response.getStatus(), headers, response.getContentAsByteArray());
+        }
+
+        void writeTo(HttpServletResponse response) throws IOException {
+            response.setStatus(status);
+            headers.forEach((name, values) -> values.forEach(value -> response.addHeader(name, value)));
+            response.setContentLength(body.length);
+            response.getOutputStream().write(body);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.cobox.fleet.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Logs the time to ready in a fixed, grep-able format so JVM, CDS and native
+ * startups can be compared (see scripts/measure-startup.sh).
+ */
+@Component
+public class StartupTimeLogger {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupTimeLogger.class);
+
+    @EventListener
+    public void onReady(ApplicationReadyEvent event) {
+        long processUptime = ManagementFactory.getRuntimeMXBean().getUptime();
+        log.info("STARTUP ready_ms={} process_uptime_ms={}", event.getTimeTaken().toMillis(), processUptime);
+    }
+}
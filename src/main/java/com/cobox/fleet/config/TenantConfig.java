@@ -0,0 +1,75 @@
+package com.cobox.fleet.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Multi-tenant partitioning by depot: the request filter that selects the tenant and the
+ * datasource routing for tenants that were moved to a dedicated schema.
+ */
+@Configuration
+@EnableConfigurationProperties(TenantProperties.class)
+public class TenantConfig {
+
+    @Bean
+    public FilterRegistrationBean<TenantFilter> tenantFilterRegistration(TenantProperties properties) {
+        TenantContext.setDefaultTenant(properties.getDefaultTenant());
+        FilterRegistrationBean<TenantFilter> registration = new FilterRegistrationBean<>(new TenantFilter(properties));
+        // Before rate limiting and coalescing, which key on the tenant
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 5);
+        return registration;
+    }
+
+    @Bean
+    public static BeanPostProcessor tenantDataSourcePostProcessor() {
+        return new TenantDataSourcePostProcessor();
+    }
+
+    /**
+     * Wraps the application datasource (single or replica-routed) in a
+     * {@link TenantRoutingDataSource} when dedicated tenants are configured. A post
+     * processor keeps Spring Boot's datasource auto-configuration in charge of the rest.
+     * Ordered so the tracing wrapper can go around it.
+     */
+    static class TenantDataSourcePostProcessor implements BeanPostProcessor, EnvironmentAware, Ordered {
+
+        private Environment environment;
+
+        @Override
+        public void setEnvironment(Environment environment) {
+            this.environment = environment;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!"dataSource".equals(beanName) || !(bean instanceof DataSource dataSource)) {
+                return bean;
+            }
+            TenantProperties properties = Binder.get(environment)
+                    .bind("fleet.tenancy", TenantProperties.class)
+                    .orElseGet(TenantProperties::new);
+            if (properties.getDedicated().isEmpty()) {
+                return bean;
+            }
+            Map<String, HikariDataSource> pools = TenantRoutingDataSource.createPools(properties, "tenant",
+                    environment.getProperty("spring.datasource.driver-class-name"), false);
+            return new TenantRoutingDataSource(dataSource, pools);
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.LOWEST_PRECEDENCE - 10;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.cobox.fleet.config;
+
+import java.util.function.Supplier;
+
+/**
+ * Tenant (depot) of the current thread. Set per request by {@link TenantFilter}; background
+ * work that acts on behalf of a tenant wraps itself in {@link #runAs} or {@link #callAs}.
+ * Threads without a tenant act on the default tenant.
+ */
+public final class TenantContext {
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private static volatile String defaultTenant = TenantProperties.DEFAULT_TENANT;
+
+    private TenantContext() {}
+
+    public static String current() {
+        String tenant = CURRENT.get();
+        return tenant != null ? tenant : defaultTenant;
+    }
+
+    public static void set(String tenant) {
+        CURRENT.set(tenant);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    public static <T> T callAs(String tenant, Supplier<T> work) {
+        String previous = CURRENT.get();
+        CURRENT.set(tenant);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    public static void runAs(String tenant, Runnable work) {
+        callAs(tenant, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    static void setDefaultTenant(String tenant) {
+        defaultTenant = tenant;
+    }
+}
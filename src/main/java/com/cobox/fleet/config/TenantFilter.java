@@ -0,0 +1,41 @@
+package com.cobox.fleet.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Binds {@link TenantContext} to the tenant named in the request header for the duration
+ * of the request. Unknown tenants are rejected with 400.
+ */
+public class TenantFilter extends OncePerRequestFilter {
+
+    private final String header;
+    private final Set<String> tenants;
+
+    public TenantFilter(TenantProperties properties) {
+        this.header = properties.getHeader();
+        this.tenants = Set.copyOf(properties.allTenants());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String tenant = request.getHeader(header);
+        if (tenant != null && !tenants.contains(tenant)) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Unknown tenant: " + tenant);
+            return;
+        }
+        TenantContext.set(tenant);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            TenantContext.clear();
+        }
+    }
+}
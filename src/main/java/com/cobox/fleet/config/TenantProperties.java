@@ -0,0 +1,95 @@
+package com.cobox.fleet.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Depots sharing this deployment, bound from {@code fleet.tenancy.*}.
+ */
+@ConfigurationProperties(prefix = "fleet.tenancy")
+public class TenantProperties {
+
+    /** Tenant of the rows that existed before tenancy; must match the tenant_id column default. */
+    public static final String DEFAULT_TENANT = "afe-surquillo";
+
+    /** Header selecting the tenant of a request; requests without it act on the default tenant. */
+    private String header = "X-Tenant-Id";
+
+    private String defaultTenant = DEFAULT_TENANT;
+
+    /** Tenants accepted in the header, besides the default tenant. */
+    private List<String> tenants = new ArrayList<>();
+
+    /** Tenants moved to their own schema or server, keyed by tenant id. */
+    private Map<String, Dedicated> dedicated = new LinkedHashMap<>();
+
+    public String getHeader() { return header; }
+    public void setHeader(String header) { this.header = header; }
+
+    public String getDefaultTenant() { return defaultTenant; }
+    public void setDefaultTenant(String defaultTenant) { this.defaultTenant = defaultTenant; }
+
+    public List<String> getTenants() { return tenants; }
+    public void setTenants(List<String> tenants) { this.tenants = tenants; }
+
+    public Map<String, Dedicated> getDedicated() { return dedicated; }
+    public void setDedicated(Map<String, Dedicated> dedicated) { this.dedicated = dedicated; }
+
+    /**
+     * Every known tenant, default first.
+     */
+    public Set<String> allTenants() {
+        Set<String> all = new LinkedHashSet<>();
+        all.add(defaultTenant);
+        all.addAll(tenants);
+        all.addAll(dedicated.keySet());
+        return all;
+    }
+
+    /**
+     * One tenant per physical database: the default tenant for the shared schema, then
+     * every dedicated tenant. Maintenance that works on whole tables runs once per entry.
+     */
+    public Set<String> databaseTenants() {
+        Set<String> tenantsByDatabase = new LinkedHashSet<>();
+        tenantsByDatabase.add(defaultTenant);
+        tenantsByDatabase.addAll(dedicated.keySet());
+        return tenantsByDatabase;
+    }
+
+    /**
+     * The entry of {@link #databaseTenants()} whose database holds the given tenant's rows.
+     */
+    public String databaseTenantOf(String tenant) {
+        return dedicated.containsKey(tenant) ? tenant : defaultTenant;
+    }
+
+    public static class Dedicated {
+
+        private String url;
+
+        private String username;
+
+        private String password;
+
+        private int poolSize = 5;
+
+        public String getUrl() { return url; }
+        public void setUrl(String url) { this.url = url; }
+
+        public String getUsername() { return username; }
+        public void setUsername(String username) { this.username = username; }
+
+        public String getPassword() { return password; }
+        public void setPassword(String password) { this.password = password; }
+
+        public int getPoolSize() { return poolSize; }
+        public void setPoolSize(int poolSize) { this.poolSize = poolSize; }
+    }
+}
@@ -0,0 +1,70 @@
+package com.cobox.fleet.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Sends connections for tenants with a dedicated schema to that schema's pool and every
+ * other tenant to the shared datasource. Rows still carry their tenant_id, so a tenant
+ * can be moved by copying its rows and adding a {@code fleet.tenancy.dedicated} entry.
+ */
+public class TenantRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private final DataSource shared;
+    private final Map<String, HikariDataSource> dedicated;
+
+    public TenantRoutingDataSource(DataSource shared, Map<String, HikariDataSource> dedicated) {
+        this.shared = shared;
+        this.dedicated = new LinkedHashMap<>(dedicated);
+        setTargetDataSources(new HashMap<>(dedicated));
+        setDefaultTargetDataSource(shared);
+        afterPropertiesSet();
+    }
+
+    /**
+     * Builds the connection pools of the dedicated tenants.
+     */
+    public static Map<String, HikariDataSource> createPools(TenantProperties properties, String poolPrefix,
+                                                            String driverClassName, boolean readOnly) {
+        Map<String, HikariDataSource> pools = new LinkedHashMap<>();
+        properties.getDedicated().forEach((tenant, target) -> {
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName(poolPrefix + "-" + tenant);
+            pool.setJdbcUrl(target.getUrl());
+            pool.setUsername(target.getUsername());
+            pool.setPassword(target.getPassword());
+            if (driverClassName != null) {
+                pool.setDriverClassName(driverClassName);
+            }
+            pool.setMaximumPoolSize(target.getPoolSize());
+            pool.setReadOnly(readOnly);
+            pools.put(tenant, pool);
+        });
+        return pools;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        // Tenants without an entry fall back to the shared datasource
+        return TenantContext.current();
+    }
+
+    @Override
+    public void close() {
+        for (HikariDataSource pool : dedicated.values()) {
+            pool.close();
+        }
+        if (shared instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                throw new IllegalStateException("Could not close the shared datasource", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.cobox.fleet.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.util.Set;
+
+/**
+ * Servlet filters protecting hot read endpoints: rate limiting first, so coalesced
+ * requests still count against each client's bucket, then single-flight coalescing.
+ */
+@Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class WebFilterConfig {
+
+    @Bean
+    public RateLimitFilter rateLimitFilter(RateLimitProperties properties) {
+        return new RateLimitFilter(properties);
+    }
+
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilterRegistration(RateLimitFilter rateLimitFilter) {
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(rateLimitFilter);
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+
+    @Bean
+    public FilterRegistrationBean<RequestCoalescingFilter> requestCoalescingFilterRegistration(
+            @Value("${fleet.coalescing.paths:/api/v1/vehicles/active,/api/v1/services}") Set<String> paths,
+            @Value("${fleet.coalescing.follower-timeout-ms:10000}") long followerTimeoutMs) {
+        FilterRegistrationBean<RequestCoalescingFilter> registration =
+                new FilterRegistrationBean<>(new RequestCoalescingFilter(paths, followerTimeoutMs));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 20);
+        return registration;
+    }
+}
@@ -0,0 +1,45 @@
+package com.cobox.fleet.controller;
+
+import com.cobox.fleet.config.ReportingBulkhead;
+import com.cobox.fleet.service.RecordArchiveService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+@RestController
+@RequestMapping("/api/v1/archive")
+@CrossOrigin(allowedHeaders = "*", allowCredentials = "false")
+public class ArchiveController {
+
+    @Autowired
+    private RecordArchiveService recordArchiveService;
+
+    @Autowired
+    private ReportingBulkhead reportingBulkhead;
+
+    @PostMapping("/run")
+    public ResponseEntity<Map<String, Integer>> runArchive() {
+        return ResponseEntity.ok(recordArchiveService.archiveExpiredRecords());
+    }
+
+    @PostMapping("/export")
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> exportArchivedMonth(
+            @RequestParam String table,
+            @RequestParam String month) {
+        return reportingBulkhead.submit(() -> {
+            try {
+                return ResponseEntity.ok(recordArchiveService.exportArchivedMonth(table, YearMonth.parse(month)));
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                return ResponseEntity.badRequest().build();
+            } catch (IOException e) {
+                return ResponseEntity.internalServerError().build();
+            }
+        });
+    }
+}
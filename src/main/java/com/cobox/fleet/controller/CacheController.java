@@ -0,0 +1,77 @@
+package com.cobox.fleet.controller;
+
+import com.cobox.fleet.service.ResponseCache;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/cache")
+@CrossOrigin(allowedHeaders = "*", allowCredentials = "false")
+public class CacheController {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ResponseCache responseCache;
+
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        Map<String, Object> regions = new LinkedHashMap<>();
+        for (String regionName : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics region = statistics.getCacheRegionStatistics(regionName);
+            if (region == null) {
+                continue;
+            }
+            Map<String, Object> regionStats = new LinkedHashMap<>();
+            regionStats.put("hits", region.getHitCount());
+            regionStats.put("misses", region.getMissCount());
+            regionStats.put("puts", region.getPutCount());
+            regionStats.put("entriesInMemory", region.getElementCountInMemory());
+            regions.put(regionName, regionStats);
+        }
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("statisticsEnabled", statistics.isStatisticsEnabled());
+        stats.put("secondLevelCacheHits", statistics.getSecondLevelCacheHitCount());
+        stats.put("secondLevelCacheMisses", statistics.getSecondLevelCacheMissCount());
+        stats.put("queryCacheHits", statistics.getQueryCacheHitCount());
+        stats.put("queryCacheMisses", statistics.getQueryCacheMissCount());
+        stats.put("regions", regions);
+        stats.put("responseCache", responseCache.getStats());
+        return ResponseEntity.ok(stats);
+    }
+
+    /**
+     * Turns Hibernate statistics on or off at runtime, e.g. around a profiling run; they
+     * are off by default because collecting them costs every session.
+     */
+    @PutMapping("/stats")
+    public ResponseEntity<Map<String, Object>> setStatisticsEnabled(@RequestParam boolean enabled) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        if (enabled && !statistics.isStatisticsEnabled()) {
+            // Start from zero rather than from whatever was counted in an earlier run
+            statistics.clear();
+        }
+        statistics.setStatisticsEnabled(enabled);
+        return getCacheStats();
+    }
+
+    @DeleteMapping
+    public ResponseEntity<Void> evictAll() {
+        entityManagerFactory.getCache().evictAll();
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+        responseCache.invalidateAll();
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,37 @@
+package com.cobox.fleet.controller;
+
+import com.cobox.fleet.service.CostLedgerService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/costs")
+@CrossOrigin(allowedHeaders = "*", allowCredentials = "false")
+public class CostController {
+
+    @Autowired
+    private CostLedgerService costLedgerService;
+
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getLedger(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "plate") String groupBy,
+            @RequestParam(required = false) String plate,
+            @RequestParam(required = false) String driver) {
+        if (from.isAfter(to) || !CostLedgerService.GROUPINGS.contains(groupBy)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(costLedgerService.ledger(from, to, groupBy, plate, driver));
+    }
+
+    @PostMapping("/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuild() {
+        return ResponseEntity.ok(Map.of("rows", costLedgerService.rebuild()));
+    }
+}
@@ -0,0 +1,72 @@
+package com.cobox.fleet.controller;
+
+import com.cobox.fleet.tracing.FlightRecorderService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+@RestController
+@RequestMapping("/api/v1/diagnostics")
+@CrossOrigin(allowedHeaders = "*", allowCredentials = "false")
+public class DiagnosticsController {
+
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    @Autowired
+    private FlightRecorderService flightRecorderService;
+
+    @Value("${fleet.diagnostics.recording-enabled:false}")
+    private boolean recordingEnabled;
+
+    /**
+     * Dumps the continuous JFR recording (open it with JDK Mission Control or
+     * {@code jfr print --events com.cobox.fleet.SlowRepositoryCall}). A dump exposes
+     * stack traces, class names and SQL timings, so it is refused unless
+     * {@code fleet.diagnostics.recording-enabled} is set.
+     */
+    @GetMapping("/recording")
+    public ResponseEntity<StreamingResponseBody> dumpRecording() {
+        if (!recordingEnabled) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        if (!flightRecorderService.isRecording()) {
+            return ResponseEntity.notFound().build();
+        }
+        Path file;
+        long size;
+        try {
+            file = flightRecorderService.dump();
+            size = Files.size(file);
+        } catch (IOException e) {
+            return ResponseEntity.internalServerError().build();
+        }
+        // The dump is a temporary copy, removed once streamed
+        StreamingResponseBody body = out -> {
+            try {
+                Files.copy(file, out);
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .contentLength(size)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("fleet-" + LocalDateTime.now().format(FILE_TIMESTAMP) + ".jfr")
+                        .build()
+                        .toString())
+                .body(body);
+    }
+}
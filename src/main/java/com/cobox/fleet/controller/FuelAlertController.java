@@ -0,0 +1,55 @@
+package com.cobox.fleet.controller;
+
+import com.cobox.fleet.entity.FuelAlert;
+import com.cobox.fleet.repository.FuelAlertRepository;
+import com.cobox.fleet.service.FuelAnomalyDetector;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/fuel-alerts")
+@CrossOrigin(allowedHeaders = "*", allowCredentials = "false")
+public class FuelAlertController {
+
+    @Autowired
+    private FuelAlertRepository fuelAlertRepository;
+
+    @Autowired
+    private FuelAnomalyDetector fuelAnomalyDetector;
+
+    @GetMapping
+    public ResponseEntity<List<FuelAlert>> getRecentAlerts(@RequestParam(defaultValue = "100") int limit) {
+        if (limit < 1 || limit > 1000) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(fuelAlertRepository.findByOrderByCreatedAtDesc(PageRequest.of(0, limit)));
+    }
+
+    @GetMapping("/plate/{vehiclePlate}")
+    public ResponseEntity<List<FuelAlert>> getAlertsByPlate(@PathVariable String vehiclePlate) {
+        return ResponseEntity.ok(fuelAlertRepository.findByVehiclePlateOrderByRecordDateDesc(vehiclePlate));
+    }
+
+    @GetMapping("/record/{fuelRecordId}")
+    public ResponseEntity<List<FuelAlert>> getAlertsByFuelRecord(@PathVariable String fuelRecordId) {
+        return ResponseEntity.ok(fuelAlertRepository.findByFuelRecordId(fuelRecordId));
+    }
+
+    @PostMapping("/rescore")
+    public ResponseEntity<Map<String, Object>> rescore() {
+        // Runs in the background; poll GET /rescore for the result
+        HttpStatus status = fuelAnomalyDetector.startRescore() ? HttpStatus.ACCEPTED : HttpStatus.CONFLICT;
+        return ResponseEntity.status(status).body(fuelAnomalyDetector.getRescoreStatus());
+    }
+
+    @GetMapping("/rescore")
+    public ResponseEntity<Map<String, Object>> getRescoreStatus() {
+        return ResponseEntity.ok(fuelAnomalyDetector.getRescoreStatus());
+    }
+}
@@ -1,24 +1,54 @@
 package com.cobox.fleet.controller;
 
+import com.cobox.fleet.config.ReportingBulkhead;
 import com.cobox.fleet.entity.FuelRecord;
 import com.cobox.fleet.repository.FuelRecordRepository;
+import com.cobox.fleet.service.AuditLogService;
+import com.cobox.fleet.service.MergePatcher;
+import com.cobox.fleet.service.RecordArchiveService;
+import com.cobox.fleet.service.StationRegistry;
+import com.fasterxml.jackson.databind.JsonNode;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/v1/fuel-records")
 @CrossOrigin(allowedHeaders = "*", allowCredentials = "false")
 public class FuelRecordController {
 
+    private static final Set<String> PATCHABLE_FIELDS = Set.of(
+            "vehicleId", "vehiclePlate", "date", "fuelType", "quantity", "totalCost", "currentMileage",
+            "station", "location", "invoiceNumber", "notes");
+
     @Autowired
     private FuelRecordRepository fuelRecordRepository;
 
+    @Autowired
+    private RecordArchiveService recordArchiveService;
+
+    @Autowired
+    private ReportingBulkhead reportingBulkhead;
+
+    @Autowired
+    private StationRegistry stationRegistry;
+
+    @Autowired
+    private AuditLogService auditLogService;
+
+    @Autowired
+    private MergePatcher mergePatcher;
+
     @GetMapping
     public ResponseEntity<List<FuelRecord>> getAllFuelRecords() {
         List<FuelRecord> fuelRecords = fuelRecordRepository.findAll();
@@ -27,10 +57,18 @@ public class FuelRecordController {
 
     @GetMapping("/{id}")
     public ResponseEntity<FuelRecord> getFuelRecordById(@PathVariable String id) {
-        Optional<FuelRecord> fuelRecord = fuelRecordRepository.findById(id);
+        Optional<FuelRecord> fuelRecord = recordArchiveService.findFuelRecordById(id);
         return fuelRecord.map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
     }
 
+    @GetMapping("/{id}/history")
+    public ResponseEntity<Map<String, Object>> getFuelRecordHistory(@PathVariable String id,
+            @RequestParam(required = false) Integer version,
+            @RequestParam(required = false) String at) {
+        return HistoryResponses.history(auditLogService, "FuelRecord", id,
+                () -> recordArchiveService.findFuelRecordById(id).orElse(null), version, at);
+    }
+
     @GetMapping("/vehicle/{vehicleId}")
     public ResponseEntity<List<FuelRecord>> getFuelRecordsByVehicleId(@PathVariable Long vehicleId) {
         List<FuelRecord> fuelRecords = fuelRecordRepository.findByVehicleIdOrderByDateDesc(vehicleId);
@@ -44,22 +82,23 @@ public class FuelRecordController {
     }
 
     @GetMapping("/date-range")
-    public ResponseEntity<List<FuelRecord>> getFuelRecordsByDateRange(
+    public CompletableFuture<ResponseEntity<List<FuelRecord>>> getFuelRecordsByDateRange(
             @RequestParam String startDate,
             @RequestParam String endDate) {
         try {
             LocalDateTime start = LocalDateTime.parse(startDate);
             LocalDateTime end = LocalDateTime.parse(endDate);
-            List<FuelRecord> fuelRecords = fuelRecordRepository.findByDateBetweenOrderByDateDesc(start, end);
-            return ResponseEntity.ok(fuelRecords);
+            // Runs on the reporting bulkhead so it can't starve operational requests
+            return reportingBulkhead.submit(() -> ResponseEntity.ok(recordArchiveService.findFuelRecordsByDateRange(start, end)));
         } catch (Exception e) {
-            return ResponseEntity.badRequest().build();
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
         }
     }
 
     @PostMapping
     public ResponseEntity<FuelRecord> createFuelRecord(@RequestBody FuelRecord fuelRecord) {
         try {
+            fuelRecord.setStationId(stationRegistry.resolve(fuelRecord.getStation(), fuelRecord.getLocation()).orElse(null));
             FuelRecord savedFuelRecord = fuelRecordRepository.save(fuelRecord);
             return ResponseEntity.status(HttpStatus.CREATED).body(savedFuelRecord);
         } catch (Exception e) {
@@ -73,6 +112,7 @@ public class FuelRecordController {
         
         if (optionalFuelRecord.isPresent()) {
             FuelRecord fuelRecord = optionalFuelRecord.get();
+            mergePatcher.checkVersion(fuelRecord.getVersion(), fuelRecordDetails.getVersion());
             
             // Update all fields
             fuelRecord.setVehicleId(fuelRecordDetails.getVehicleId());
@@ -84,6 +124,7 @@ public class FuelRecordController {
             fuelRecord.setCurrentMileage(fuelRecordDetails.getCurrentMileage());
             fuelRecord.setStation(fuelRecordDetails.getStation());
             fuelRecord.setLocation(fuelRecordDetails.getLocation());
+            fuelRecord.setStationId(stationRegistry.resolve(fuelRecord.getStation(), fuelRecord.getLocation()).orElse(null));
             fuelRecord.setInvoiceNumber(fuelRecordDetails.getInvoiceNumber());
             fuelRecord.setNotes(fuelRecordDetails.getNotes());
             
@@ -94,6 +135,23 @@ public class FuelRecordController {
         }
     }
 
+    @PatchMapping(value = "/{id}", consumes = {MergePatcher.MERGE_PATCH_JSON, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<FuelRecord> patchFuelRecord(@PathVariable String id, @RequestBody JsonNode patch,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Optional<FuelRecord> optionalFuelRecord = fuelRecordRepository.findById(id);
+        if (optionalFuelRecord.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        FuelRecord fuelRecord = optionalFuelRecord.get();
+        try {
+            mergePatcher.apply(fuelRecord, fuelRecord.getVersion(), patch, ifMatch, PATCHABLE_FIELDS);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        fuelRecord.setStationId(stationRegistry.resolve(fuelRecord.getStation(), fuelRecord.getLocation()).orElse(null));
+        return ResponseEntity.ok(fuelRecordRepository.save(fuelRecord));
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteFuelRecord(@PathVariable String id) {
         if (fuelRecordRepository.existsById(id)) {
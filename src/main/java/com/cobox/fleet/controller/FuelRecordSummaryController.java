@@ -2,22 +2,38 @@ package com.cobox.fleet.controller;
 
 import com.cobox.fleet.entity.FuelRecordSummary;
 import com.cobox.fleet.repository.FuelRecordSummaryRepository;
+import com.cobox.fleet.service.AuditLogService;
+import com.cobox.fleet.service.MergePatcher;
+import com.fasterxml.jackson.databind.JsonNode;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/v1/fuel-records-summary")
 @CrossOrigin(allowedHeaders = "*", allowCredentials = "false")
 public class FuelRecordSummaryController {
 
+    private static final Set<String> PATCHABLE_FIELDS = Set.of(
+            "serviceId", "totalRecords", "initialDate", "finalDate", "totalFuel", "plates");
+
     @Autowired
     private FuelRecordSummaryRepository fuelRecordSummaryRepository;
 
+    @Autowired
+    private AuditLogService auditLogService;
+
+    @Autowired
+    private MergePatcher mergePatcher;
+
     @GetMapping
     public ResponseEntity<List<FuelRecordSummary>> getAllFuelRecordSummaries() {
         List<FuelRecordSummary> summaries = fuelRecordSummaryRepository.findAll();
@@ -30,6 +46,14 @@ public class FuelRecordSummaryController {
         return summary.map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
     }
 
+    @GetMapping("/{id}/history")
+    public ResponseEntity<Map<String, Object>> getFuelRecordSummaryHistory(@PathVariable String id,
+            @RequestParam(required = false) Integer version,
+            @RequestParam(required = false) String at) {
+        return HistoryResponses.history(auditLogService, "FuelRecordSummary", id,
+                () -> fuelRecordSummaryRepository.findById(id).orElse(null), version, at);
+    }
+
     @PostMapping
     public ResponseEntity<FuelRecordSummary> createFuelRecordSummary(@RequestBody FuelRecordSummary summary) {
         try {
@@ -46,6 +70,7 @@ public class FuelRecordSummaryController {
         
         if (optionalSummary.isPresent()) {
             FuelRecordSummary summary = optionalSummary.get();
+            mergePatcher.checkVersion(summary.getVersion(), summaryDetails.getVersion());
             summary.setServiceId(summaryDetails.getServiceId());
             summary.setTotalRecords(summaryDetails.getTotalRecords());
             summary.setInitialDate(summaryDetails.getInitialDate());
@@ -60,6 +85,22 @@ public class FuelRecordSummaryController {
         }
     }
 
+    @PatchMapping(value = "/{id}", consumes = {MergePatcher.MERGE_PATCH_JSON, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<FuelRecordSummary> patchFuelRecordSummary(@PathVariable String id, @RequestBody JsonNode patch,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Optional<FuelRecordSummary> optionalSummary = fuelRecordSummaryRepository.findById(id);
+        if (optionalSummary.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        FuelRecordSummary summary = optionalSummary.get();
+        try {
+            mergePatcher.apply(summary, summary.getVersion(), patch, ifMatch, PATCHABLE_FIELDS);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(fuelRecordSummaryRepository.save(summary));
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteFuelRecordSummary(@PathVariable String id) {
         if (fuelRecordSummaryRepository.existsById(id)) {
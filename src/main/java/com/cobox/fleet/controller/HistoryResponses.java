@@ -0,0 +1,31 @@
+package com.cobox.fleet.controller;
+
+import com.cobox.fleet.service.AuditLogService;
+import org.springframework.http.ResponseEntity;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Shared body of the {@code GET /{id}/history} endpoints. An unparseable {@code at} or a
+ * {@code version} out of range is a 400, an entity with neither audit entries nor a live
+ * row a 404; anything else is a server error and propagates.
+ */
+final class HistoryResponses {
+
+    private HistoryResponses() {}
+
+    static ResponseEntity<Map<String, Object>> history(AuditLogService auditLogService, String entityType, String entityId,
+                                                      Supplier<?> current, Integer version, String at) {
+        Map<String, Object> history;
+        try {
+            history = auditLogService.history(entityType, entityId, current.get(), version,
+                    at == null ? null : LocalDateTime.parse(at));
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        return history == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(history);
+    }
+}
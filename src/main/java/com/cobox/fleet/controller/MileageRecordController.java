@@ -1,24 +1,50 @@
 package com.cobox.fleet.controller;
 
+import com.cobox.fleet.config.ReportingBulkhead;
 import com.cobox.fleet.entity.MileageRecord;
 import com.cobox.fleet.repository.MileageRecordRepository;
+import com.cobox.fleet.service.AuditLogService;
+import com.cobox.fleet.service.MergePatcher;
+import com.cobox.fleet.service.RecordArchiveService;
+import com.fasterxml.jackson.databind.JsonNode;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/v1/mileage-records")
 @CrossOrigin(allowedHeaders = "*", allowCredentials = "false")
 public class MileageRecordController {
 
+    private static final Set<String> PATCHABLE_FIELDS = Set.of(
+            "vehicleId", "date", "startOdometer", "endOdometer", "distance", "purpose", "route", "driverId",
+            "notes", "createdBy");
+
     @Autowired
     private MileageRecordRepository mileageRecordRepository;
 
+    @Autowired
+    private RecordArchiveService recordArchiveService;
+
+    @Autowired
+    private ReportingBulkhead reportingBulkhead;
+
+    @Autowired
+    private AuditLogService auditLogService;
+
+    @Autowired
+    private MergePatcher mergePatcher;
+
     @GetMapping
     public ResponseEntity<List<MileageRecord>> getAllMileageRecords() {
         List<MileageRecord> mileageRecords = mileageRecordRepository.findAll();
@@ -27,10 +53,18 @@ public class MileageRecordController {
 
     @GetMapping("/{id}")
     public ResponseEntity<MileageRecord> getMileageRecordById(@PathVariable String id) {
-        Optional<MileageRecord> mileageRecord = mileageRecordRepository.findById(id);
+        Optional<MileageRecord> mileageRecord = recordArchiveService.findMileageRecordById(id);
         return mileageRecord.map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
     }
 
+    @GetMapping("/{id}/history")
+    public ResponseEntity<Map<String, Object>> getMileageRecordHistory(@PathVariable String id,
+            @RequestParam(required = false) Integer version,
+            @RequestParam(required = false) String at) {
+        return HistoryResponses.history(auditLogService, "MileageRecord", id,
+                () -> recordArchiveService.findMileageRecordById(id).orElse(null), version, at);
+    }
+
     @GetMapping("/vehicle/{vehicleId}")
     public ResponseEntity<List<MileageRecord>> getMileageRecordsByVehicleId(@PathVariable String vehicleId) {
         List<MileageRecord> mileageRecords = mileageRecordRepository.findByVehicleIdOrderByDateDesc(vehicleId);
@@ -38,16 +72,16 @@ public class MileageRecordController {
     }
 
     @GetMapping("/date-range")
-    public ResponseEntity<List<MileageRecord>> getMileageRecordsByDateRange(
+    public CompletableFuture<ResponseEntity<List<MileageRecord>>> getMileageRecordsByDateRange(
             @RequestParam String startDate,
             @RequestParam String endDate) {
         try {
             LocalDateTime start = LocalDateTime.parse(startDate);
             LocalDateTime end = LocalDateTime.parse(endDate);
-            List<MileageRecord> mileageRecords = mileageRecordRepository.findByDateBetweenOrderByDateDesc(start, end);
-            return ResponseEntity.ok(mileageRecords);
+            // Runs on the reporting bulkhead so it can't starve operational requests
+            return reportingBulkhead.submit(() -> ResponseEntity.ok(recordArchiveService.findMileageRecordsByDateRange(start, end)));
         } catch (Exception e) {
-            return ResponseEntity.badRequest().build();
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
         }
     }
 
@@ -93,6 +127,7 @@ public class MileageRecordController {
         
         if (optionalMileageRecord.isPresent()) {
             MileageRecord mileageRecord = optionalMileageRecord.get();
+            mergePatcher.checkVersion(mileageRecord.getVersion(), mileageRecordDetails.getVersion());
             
             // Update all fields
             mileageRecord.setVehicleId(mileageRecordDetails.getVehicleId());
@@ -120,6 +155,25 @@ public class MileageRecordController {
         }
     }
 
+    @PatchMapping(value = "/{id}", consumes = {MergePatcher.MERGE_PATCH_JSON, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<MileageRecord> patchMileageRecord(@PathVariable String id, @RequestBody JsonNode patch,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Optional<MileageRecord> optionalMileageRecord = mileageRecordRepository.findById(id);
+        if (optionalMileageRecord.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        MileageRecord mileageRecord = optionalMileageRecord.get();
+        try {
+            mergePatcher.apply(mileageRecord, mileageRecord.getVersion(), patch, ifMatch, PATCHABLE_FIELDS);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (mileageRecord.getStartOdometer() != null && mileageRecord.getEndOdometer() != null) {
+            mileageRecord.setDistance(mileageRecord.getEndOdometer().subtract(mileageRecord.getStartOdometer()));
+        }
+        return ResponseEntity.ok(mileageRecordRepository.save(mileageRecord));
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteMileageRecord(@PathVariable String id) {
         if (mileageRecordRepository.existsById(id)) {
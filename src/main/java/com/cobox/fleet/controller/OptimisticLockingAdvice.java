@@ -0,0 +1,21 @@
+package com.cobox.fleet.controller;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * Answers {@code 409 Conflict} when a PUT, PATCH or delete was made against a stale
+ * {@code version}, whether the client sent it or another write landed between load and save.
+ * The client reloads the resource and retries.
+ */
+@RestControllerAdvice
+public class OptimisticLockingAdvice {
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Void> handleConflict(OptimisticLockingFailureException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).build();
+    }
+}
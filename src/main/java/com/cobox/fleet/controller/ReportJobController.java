@@ -0,0 +1,90 @@
+package com.cobox.fleet.controller;
+
+import com.cobox.fleet.service.ReportJobService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/reports/jobs")
+@CrossOrigin(allowedHeaders = "*", allowCredentials = "false")
+public class ReportJobController {
+
+    @Autowired
+    private ReportJobService reportJobService;
+
+    @Value("${fleet.reporting.retry-after-seconds:5}")
+    private int retryAfterSeconds;
+
+    @PostMapping
+    public ResponseEntity<Map<String, Object>> submitJob(
+            @RequestParam String type,
+            @RequestParam String startDate,
+            @RequestParam String endDate,
+            @RequestParam(defaultValue = "csv") String format) {
+        ReportJobService.ReportJob job;
+        try {
+            job = reportJobService.submit(type, LocalDateTime.parse(startDate), LocalDateTime.parse(endDate), format)
+                    .orElse(null);
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (job == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                    .build();
+        }
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/v1/reports/jobs/" + job.getId()))
+                .body(job.toMap());
+    }
+
+    @GetMapping
+    public ResponseEntity<List<Map<String, Object>>> getJobs() {
+        return ResponseEntity.ok(reportJobService.getJobs().stream().map(ReportJobService.ReportJob::toMap).toList());
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<Map<String, Object>> getJob(@PathVariable String id) {
+        return reportJobService.getJob(id)
+                .map(job -> ResponseEntity.ok(job.toMap()))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/{id}/result")
+    public ResponseEntity<Resource> downloadResult(@PathVariable String id) {
+        ReportJobService.ReportJob job = reportJobService.getJob(id).orElse(null);
+        if (job == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (job.getStatus() != ReportJobService.Status.COMPLETED || job.getResult() == null) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        MediaType mediaType = "csv".equals(job.getFormat()) ? new MediaType("text", "csv") : MediaType.APPLICATION_JSON;
+        return ResponseEntity.ok()
+                .contentType(mediaType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("report-" + id + "." + job.getFormat())
+                        .build()
+                        .toString())
+                .body(new FileSystemResource(job.getResult()));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> cancelJob(@PathVariable String id) {
+        return reportJobService.cancel(id) ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+    }
+}
@@ -2,34 +2,72 @@ package com.cobox.fleet.controller;
 
 import com.cobox.fleet.entity.Schedule;
 import com.cobox.fleet.repository.ScheduleRepository;
+import com.cobox.fleet.service.AuditLogService;
+import com.cobox.fleet.service.CsvImportService;
+import com.cobox.fleet.service.MergePatcher;
+import com.cobox.fleet.service.ScheduleGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/v1/schedules")
 @CrossOrigin(allowedHeaders = "*", allowCredentials = "false")
 public class ScheduleController {
 
+    private static final Set<String> PATCHABLE_FIELDS = Set.of(
+            "scheduleDate", "serviceDate", "origin", "destination", "driver", "plate", "departureTime",
+            "finalCost");
+
     @Autowired
     private ScheduleRepository scheduleRepository;
 
+    @Autowired
+    private ScheduleGenerator scheduleGenerator;
+
+    @Autowired
+    private AuditLogService auditLogService;
+
+    @Autowired
+    private MergePatcher mergePatcher;
+
+    @Autowired
+    private CsvImportService csvImportService;
+
     @GetMapping
     public ResponseEntity<List<Schedule>> getAllSchedules() {
-        List<Schedule> schedules = scheduleRepository.findAll();
+        List<Schedule> schedules = scheduleRepository.findByDeletedFalse();
         return ResponseEntity.ok(schedules);
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<Schedule> getScheduleById(@PathVariable String id) {
-        Optional<Schedule> schedule = scheduleRepository.findById(id);
+        Optional<Schedule> schedule = scheduleRepository.findById(id).filter(s -> !s.getDeleted());
         return schedule.map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
     }
 
+    @GetMapping("/{id}/history")
+    public ResponseEntity<Map<String, Object>> getScheduleHistory(@PathVariable String id,
+            @RequestParam(required = false) Integer version,
+            @RequestParam(required = false) String at) {
+        return HistoryResponses.history(auditLogService, "Schedule", id,
+                () -> scheduleRepository.findById(id).orElse(null), version, at);
+    }
+
     @PostMapping
     public ResponseEntity<Schedule> createSchedule(@RequestBody Schedule schedule) {
         try {
@@ -42,10 +80,11 @@ public class ScheduleController {
 
     @PutMapping("/{id}")
     public ResponseEntity<Schedule> updateSchedule(@PathVariable String id, @RequestBody Schedule scheduleDetails) {
-        Optional<Schedule> optionalSchedule = scheduleRepository.findById(id);
+        Optional<Schedule> optionalSchedule = scheduleRepository.findById(id).filter(s -> !s.getDeleted());
         
         if (optionalSchedule.isPresent()) {
             Schedule schedule = optionalSchedule.get();
+            mergePatcher.checkVersion(schedule.getVersion(), scheduleDetails.getVersion());
             schedule.setScheduleDate(scheduleDetails.getScheduleDate());
             schedule.setServiceDate(scheduleDetails.getServiceDate());
             schedule.setOrigin(scheduleDetails.getOrigin());
@@ -62,13 +101,71 @@ public class ScheduleController {
         }
     }
 
+    @PatchMapping(value = "/{id}", consumes = {MergePatcher.MERGE_PATCH_JSON, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<Schedule> patchSchedule(@PathVariable String id, @RequestBody JsonNode patch,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Optional<Schedule> optionalSchedule = scheduleRepository.findById(id).filter(s -> !s.getDeleted());
+        if (optionalSchedule.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        Schedule schedule = optionalSchedule.get();
+        try {
+            mergePatcher.apply(schedule, schedule.getVersion(), patch, ifMatch, PATCHABLE_FIELDS);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(scheduleRepository.save(schedule));
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteSchedule(@PathVariable String id) {
-        if (scheduleRepository.existsById(id)) {
-            scheduleRepository.deleteById(id);
+        Optional<Schedule> optionalSchedule = scheduleRepository.findById(id).filter(s -> !s.getDeleted());
+        
+        if (optionalSchedule.isPresent()) {
+            // Soft delete: the tombstone tells offline clients (/api/v1/sync) to drop the row
+            Schedule schedule = optionalSchedule.get();
+            schedule.setDeleted(true);
+            scheduleRepository.save(schedule);
             return ResponseEntity.noContent().build();
         } else {
             return ResponseEntity.notFound().build();
         }
     }
+
+    /**
+     * Proposes vehicle and driver assignments for the PENDING services of {@code date}.
+     * With {@code apply=true} the proposals are written as schedules in one batch.
+     */
+    @PostMapping("/generate")
+    public ResponseEntity<Map<String, Object>> generateSchedules(@RequestParam String date,
+                                                                 @RequestParam(defaultValue = "false") boolean apply) {
+        try {
+            return ResponseEntity.ok(scheduleGenerator.generate(date, apply));
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Upserts schedules from a CSV body ({@code text/csv}) matched by id, reporting inserted,
+     * updated, unchanged and rejected rows. Rejected rows do not stop the import.
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.TEXT_PLAIN_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<Map<String, Object>> importSchedules(HttpServletRequest request) {
+        try (InputStream in = request.getInputStream()) {
+            return ResponseEntity.ok(csvImportService.importSchedules(in));
+        } catch (IllegalArgumentException | IOException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /** Same as the CSV body variant, for a file uploaded as the {@code file} form part. */
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<Map<String, Object>> importSchedulesFile(@RequestParam("file") MultipartFile file) {
+        try (InputStream in = file.getInputStream()) {
+            return ResponseEntity.ok(csvImportService.importSchedules(in));
+        } catch (IllegalArgumentException | IOException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
 }
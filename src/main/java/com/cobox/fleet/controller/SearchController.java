@@ -0,0 +1,49 @@
+package com.cobox.fleet.controller;
+
+import com.cobox.fleet.service.SearchIndexService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/search")
+@CrossOrigin(allowedHeaders = "*", allowCredentials = "false")
+public class SearchController {
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    // Lucene collects every hit up to the requested page, so deep pages are refused
+    private static final int MAX_RESULT_WINDOW = 10_000;
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> search(
+            @RequestParam String q,
+            @RequestParam(required = false) String type,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        if (q.isBlank() || page < 0 || size < 1 || size > MAX_PAGE_SIZE
+                || (long) (page + 1) * size > MAX_RESULT_WINDOW) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return ResponseEntity.ok(searchIndexService.search(q, type, page, size));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @PostMapping("/reindex")
+    public ResponseEntity<Map<String, Long>> reindex() {
+        try {
+            return ResponseEntity.ok(Map.of("documents", searchIndexService.reindexAll()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+}
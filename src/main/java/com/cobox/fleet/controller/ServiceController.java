@@ -2,34 +2,66 @@ package com.cobox.fleet.controller;
 
 import com.cobox.fleet.entity.Service;
 import com.cobox.fleet.repository.ServiceRepository;
+import com.cobox.fleet.service.AuditLogService;
+import com.cobox.fleet.service.CsvImportService;
+import com.cobox.fleet.service.MergePatcher;
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/v1/services")
 @CrossOrigin(allowedHeaders = "*", allowCredentials = "false")
 public class ServiceController {
 
+    private static final Set<String> PATCHABLE_FIELDS = Set.of(
+            "date", "route", "driver", "plate", "departureTime", "status", "requiredCapacity");
+
     @Autowired
     private ServiceRepository serviceRepository;
 
+    @Autowired
+    private AuditLogService auditLogService;
+
+    @Autowired
+    private MergePatcher mergePatcher;
+
+    @Autowired
+    private CsvImportService csvImportService;
+
     @GetMapping
     public ResponseEntity<List<Service>> getAllServices() {
-        List<Service> services = serviceRepository.findAll();
+        List<Service> services = serviceRepository.findByDeletedFalse();
         return ResponseEntity.ok(services);
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<Service> getServiceById(@PathVariable String id) {
-        Optional<Service> service = serviceRepository.findById(id);
+        Optional<Service> service = serviceRepository.findById(id).filter(s -> !s.getDeleted());
         return service.map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
     }
 
+    @GetMapping("/{id}/history")
+    public ResponseEntity<Map<String, Object>> getServiceHistory(@PathVariable String id,
+            @RequestParam(required = false) Integer version,
+            @RequestParam(required = false) String at) {
+        return HistoryResponses.history(auditLogService, "Service", id,
+                () -> serviceRepository.findById(id).orElse(null), version, at);
+    }
+
     @PostMapping
     public ResponseEntity<Service> createService(@RequestBody Service service) {
         try {
@@ -42,16 +74,18 @@ public class ServiceController {
 
     @PutMapping("/{id}")
     public ResponseEntity<Service> updateService(@PathVariable String id, @RequestBody Service serviceDetails) {
-        Optional<Service> optionalService = serviceRepository.findById(id);
+        Optional<Service> optionalService = serviceRepository.findById(id).filter(s -> !s.getDeleted());
         
         if (optionalService.isPresent()) {
             Service service = optionalService.get();
+            mergePatcher.checkVersion(service.getVersion(), serviceDetails.getVersion());
             service.setDate(serviceDetails.getDate());
             service.setRoute(serviceDetails.getRoute());
             service.setDriver(serviceDetails.getDriver());
             service.setPlate(serviceDetails.getPlate());
             service.setDepartureTime(serviceDetails.getDepartureTime());
             service.setStatus(serviceDetails.getStatus());
+            service.setRequiredCapacity(serviceDetails.getRequiredCapacity());
             
             Service updatedService = serviceRepository.save(service);
             return ResponseEntity.ok(updatedService);
@@ -60,13 +94,57 @@ public class ServiceController {
         }
     }
 
+    @PatchMapping(value = "/{id}", consumes = {MergePatcher.MERGE_PATCH_JSON, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<Service> patchService(@PathVariable String id, @RequestBody JsonNode patch,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Optional<Service> optionalService = serviceRepository.findById(id).filter(s -> !s.getDeleted());
+        if (optionalService.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        Service service = optionalService.get();
+        try {
+            mergePatcher.apply(service, service.getVersion(), patch, ifMatch, PATCHABLE_FIELDS);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(serviceRepository.save(service));
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteService(@PathVariable String id) {
-        if (serviceRepository.existsById(id)) {
-            serviceRepository.deleteById(id);
+        Optional<Service> optionalService = serviceRepository.findById(id).filter(s -> !s.getDeleted());
+        
+        if (optionalService.isPresent()) {
+            // Soft delete: the tombstone tells offline clients (/api/v1/sync) to drop the row
+            Service service = optionalService.get();
+            service.setDeleted(true);
+            serviceRepository.save(service);
             return ResponseEntity.noContent().build();
         } else {
             return ResponseEntity.notFound().build();
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Upserts services from a CSV body ({@code text/csv}) matched by id, reporting inserted,
+     * updated, unchanged and rejected rows. Rejected rows do not stop the import.
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.TEXT_PLAIN_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<Map<String, Object>> importServices(HttpServletRequest request) {
+        try (InputStream in = request.getInputStream()) {
+            return ResponseEntity.ok(csvImportService.importServices(in));
+        } catch (IllegalArgumentException | IOException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /** Same as the CSV body variant, for a file uploaded as the {@code file} form part. */
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<Map<String, Object>> importServicesFile(@RequestParam("file") MultipartFile file) {
+        try (InputStream in = file.getInputStream()) {
+            return ResponseEntity.ok(csvImportService.importServices(in));
+        } catch (IllegalArgumentException | IOException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.cobox.fleet.controller;
+
+import com.cobox.fleet.service.SnapshotService;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Whole-dataset snapshots on the server's disk and restores from them. Both run in the
+ * background: the POST answers 202 and {@code GET /status} reports progress.
+ */
+@RestController
+@RequestMapping("/api/v1/snapshots")
+@CrossOrigin(allowedHeaders = "*", allowCredentials = "false")
+public class SnapshotController {
+
+    @Autowired
+    private SnapshotService snapshotService;
+
+    @GetMapping
+    public ResponseEntity<List<JsonNode>> getSnapshots() throws IOException {
+        return ResponseEntity.ok(snapshotService.list());
+    }
+
+    @PostMapping
+    public ResponseEntity<Map<String, Object>> createSnapshot() {
+        return snapshotService.startSnapshot()
+                .map(operation -> ResponseEntity.accepted()
+                        .location(URI.create("/api/v1/snapshots/status"))
+                        .body(operation.toMap()))
+                .orElse(ResponseEntity.status(HttpStatus.CONFLICT).build());
+    }
+
+    @PostMapping("/{name}/restore")
+    public ResponseEntity<Map<String, Object>> restoreSnapshot(@PathVariable String name) throws IOException {
+        try {
+            return snapshotService.startRestore(name)
+                    .map(operation -> ResponseEntity.accepted()
+                            .location(URI.create("/api/v1/snapshots/status"))
+                            .body(operation.toMap()))
+                    .orElse(ResponseEntity.status(HttpStatus.CONFLICT).build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+    }
+
+    @GetMapping("/status")
+    public ResponseEntity<Map<String, Object>> getStatus() {
+        return snapshotService.getStatus()
+                .map(operation -> ResponseEntity.ok(operation.toMap()))
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
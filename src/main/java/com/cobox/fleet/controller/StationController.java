@@ -0,0 +1,223 @@
+package com.cobox.fleet.controller;
+
+import com.cobox.fleet.config.TenantContext;
+import com.cobox.fleet.entity.FuelRecord;
+import com.cobox.fleet.entity.Station;
+import com.cobox.fleet.repository.FuelRecordRepository;
+import com.cobox.fleet.repository.StationRepository;
+import com.cobox.fleet.service.AuditLogService;
+import com.cobox.fleet.service.MergePatcher;
+import com.cobox.fleet.service.StationRegistry;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@RestController
+@RequestMapping("/api/v1/stations")
+@CrossOrigin(allowedHeaders = "*", allowCredentials = "false")
+public class StationController {
+
+    private static final Set<String> PATCHABLE_FIELDS = Set.of(
+            "name", "brand", "address", "district", "latitude", "longitude", "aliases");
+
+    @Autowired
+    private StationRegistry stationRegistry;
+
+    @Autowired
+    private StationRepository stationRepository;
+
+    @Autowired
+    private FuelRecordRepository fuelRecordRepository;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Autowired
+    private AuditLogService auditLogService;
+
+    @Autowired
+    private MergePatcher mergePatcher;
+
+    @GetMapping
+    public ResponseEntity<List<Station>> getAllStations() {
+        return ResponseEntity.ok(stationRegistry.findAll());
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<Station> getStationById(@PathVariable Long id) {
+        Optional<Station> station = stationRegistry.findById(id);
+        return station.map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/{id}/history")
+    public ResponseEntity<Map<String, Object>> getStationHistory(@PathVariable Long id,
+            @RequestParam(required = false) Integer version,
+            @RequestParam(required = false) String at) {
+        return HistoryResponses.history(auditLogService, "Station", String.valueOf(id),
+                () -> stationRegistry.findById(id).orElse(null), version, at);
+    }
+
+    @GetMapping("/nearby")
+    public ResponseEntity<List<Map<String, Object>>> getNearbyStations(
+            @RequestParam double lat,
+            @RequestParam double lon,
+            @RequestParam(defaultValue = "5") double radiusKm,
+            @RequestParam(defaultValue = "100") int limit) {
+        if (!validPoint(lat, lon) || radiusKm <= 0 || limit < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(stationRegistry.findNearby(lat, lon, radiusKm, limit));
+    }
+
+    @GetMapping("/within")
+    public ResponseEntity<List<Station>> getStationsWithin(
+            @RequestParam double minLat,
+            @RequestParam double minLon,
+            @RequestParam double maxLat,
+            @RequestParam double maxLon) {
+        if (!validPoint(minLat, minLon) || !validPoint(maxLat, maxLon) || minLat > maxLat || minLon > maxLon) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(stationRegistry.findWithin(minLat, minLon, maxLat, maxLon));
+    }
+
+    @GetMapping("/nearby/fuel-records")
+    public ResponseEntity<List<FuelRecord>> getFuelRecordsNearby(
+            @RequestParam double lat,
+            @RequestParam double lon,
+            @RequestParam(defaultValue = "5") double radiusKm,
+            @RequestParam(required = false) String startDate,
+            @RequestParam(required = false) String endDate) {
+        if (!validPoint(lat, lon) || radiusKm <= 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        Set<Long> stationIds = stationRegistry.findNearby(lat, lon, radiusKm, Integer.MAX_VALUE).stream()
+                .map(entry -> ((Station) entry.get("station")).getId())
+                .collect(Collectors.toSet());
+        if (stationIds.isEmpty()) {
+            return ResponseEntity.ok(List.of());
+        }
+        try {
+            if (startDate != null && endDate != null) {
+                return ResponseEntity.ok(fuelRecordRepository.findByStationIdInAndDateBetweenOrderByDateDesc(
+                        stationIds, LocalDateTime.parse(startDate), LocalDateTime.parse(endDate)));
+            }
+            return ResponseEntity.ok(fuelRecordRepository.findByStationIdInOrderByDateDesc(stationIds));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/within/spend")
+    public ResponseEntity<List<Map<String, Object>>> getSpendWithin(
+            @RequestParam double minLat,
+            @RequestParam double minLon,
+            @RequestParam double maxLat,
+            @RequestParam double maxLon) {
+        if (!validPoint(minLat, minLon) || !validPoint(maxLat, maxLon) || minLat > maxLat || minLon > maxLon) {
+            return ResponseEntity.badRequest().build();
+        }
+        Map<Long, Station> stations = stationRegistry.findWithin(minLat, minLon, maxLat, maxLon).stream()
+                .collect(Collectors.toMap(Station::getId, station -> station));
+        if (stations.isEmpty()) {
+            return ResponseEntity.ok(List.of());
+        }
+        List<Map<String, Object>> spend = namedParameterJdbcTemplate.query(
+                "SELECT station_id, COUNT(*) AS records, SUM(quantity) AS quantity, SUM(total_cost) AS total_cost " +
+                "FROM fuel_records WHERE tenant_id = :tenant AND station_id IN (:ids) " +
+                "GROUP BY station_id ORDER BY SUM(total_cost) DESC",
+                new MapSqlParameterSource("ids", stations.keySet()).addValue("tenant", TenantContext.current()),
+                (rs, rowNum) -> {
+                    Map<String, Object> row = new LinkedHashMap<>();
+                    row.put("station", stations.get(rs.getLong("station_id")));
+                    row.put("records", rs.getLong("records"));
+                    row.put("quantity", rs.getBigDecimal("quantity"));
+                    row.put("totalCost", rs.getBigDecimal("total_cost"));
+                    return row;
+                });
+        return ResponseEntity.ok(spend);
+    }
+
+    @PostMapping
+    public ResponseEntity<Station> createStation(@RequestBody Station station) {
+        if (!validStation(station)) {
+            return ResponseEntity.badRequest().build();
+        }
+        station.setId(null);
+        station.setVersion(null);
+        return ResponseEntity.status(HttpStatus.CREATED).body(stationRegistry.save(station));
+    }
+
+    @PutMapping("/{id}")
+    public ResponseEntity<Station> updateStation(@PathVariable Long id, @RequestBody Station stationDetails) {
+        Optional<Station> current = stationRegistry.findById(id);
+        if (current.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (!validStation(stationDetails)) {
+            return ResponseEntity.badRequest().build();
+        }
+        mergePatcher.checkVersion(current.get().getVersion(), stationDetails.getVersion());
+        stationDetails.setId(id);
+        // A body without a version would be taken for a new row
+        stationDetails.setVersion(current.get().getVersion());
+        return ResponseEntity.ok(stationRegistry.save(stationDetails));
+    }
+
+    @PatchMapping(value = "/{id}", consumes = {MergePatcher.MERGE_PATCH_JSON, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<Station> patchStation(@PathVariable Long id, @RequestBody JsonNode patch,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        // Patch a fresh copy; the registry's instances are shared by concurrent readers
+        Optional<Station> optionalStation = stationRepository.findById(id);
+        if (optionalStation.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        Station station = optionalStation.get();
+        try {
+            mergePatcher.apply(station, station.getVersion(), patch, ifMatch, PATCHABLE_FIELDS);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (!validStation(station)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(stationRegistry.save(station));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteStation(@PathVariable Long id) {
+        if (stationRegistry.findById(id).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        stationRegistry.delete(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/resolve")
+    public ResponseEntity<Map<String, Object>> resolveFuelRecords() {
+        return ResponseEntity.ok(stationRegistry.resolveFuelRecords());
+    }
+
+    private static boolean validStation(Station station) {
+        return station.getName() != null && station.getLatitude() != null && station.getLongitude() != null
+                && validPoint(station.getLatitude(), station.getLongitude());
+    }
+
+    private static boolean validPoint(double lat, double lon) {
+        return lat >= -90 && lat <= 90 && lon >= -180 && lon <= 180;
+    }
+}
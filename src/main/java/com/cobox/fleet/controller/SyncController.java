@@ -0,0 +1,28 @@
+package com.cobox.fleet.controller;
+
+import com.cobox.fleet.service.SyncService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/sync")
+@CrossOrigin(allowedHeaders = "*", allowCredentials = "false")
+public class SyncController {
+
+    @Autowired
+    private SyncService syncService;
+
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> sync(@RequestParam(defaultValue = "0") String since) {
+        long token;
+        try {
+            token = Long.parseLong(since);
+        } catch (NumberFormatException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(syncService.changesSince(token));
+    }
+}
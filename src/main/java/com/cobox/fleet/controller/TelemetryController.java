@@ -0,0 +1,128 @@
+package com.cobox.fleet.controller;
+
+import com.cobox.fleet.entity.TelemetryPoint;
+import com.cobox.fleet.repository.TelemetryPointRepository;
+import com.cobox.fleet.service.TelemetryIngestService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/telemetry")
+@CrossOrigin(allowedHeaders = "*", allowCredentials = "false")
+public class TelemetryController {
+
+    // Bounds of telemetry_points: vehicle_id is VARCHAR(64), recorded_at a MySQL DATETIME
+    private static final int MAX_VEHICLE_ID_LENGTH = 64;
+    private static final long MIN_RECORDED_AT = LocalDateTime.of(1000, 1, 1, 0, 0).toInstant(ZoneOffset.UTC).toEpochMilli();
+    private static final long MAX_RECORDED_AT = LocalDateTime.of(9999, 12, 31, 23, 59, 59, 999_000_000)
+            .toInstant(ZoneOffset.UTC).toEpochMilli();
+
+    @Autowired
+    private TelemetryIngestService telemetryIngestService;
+
+    @Autowired
+    private TelemetryPointRepository telemetryPointRepository;
+
+    /**
+     * Accepts compact batches: {@code [{"v": "<vehicleId>", "p": [[epochMillis, lat, lon, odometerKm, speedKmh], ...]}]}.
+     * Trailing values may be omitted or null. Points with a vehicle id over 64 characters, a
+     * timestamp outside the DATETIME range or out-of-range coordinates are counted as
+     * {@code invalid} and not stored. Returns 202, or 503 with the accepted count
+     * when the ingest buffer is full, so the tracker can resend the remainder.
+     */
+    @PostMapping
+    public ResponseEntity<Map<String, Object>> ingest(@RequestBody List<TelemetryBatch> batches) {
+        List<TelemetryPoint> points = new ArrayList<>();
+        int invalid = 0;
+        for (TelemetryBatch batch : batches) {
+            if (batch.getV() == null || batch.getV().isBlank() || batch.getV().length() > MAX_VEHICLE_ID_LENGTH
+                    || batch.getP() == null) {
+                invalid += batch.getP() == null ? 0 : batch.getP().length;
+                continue;
+            }
+            for (Double[] values : batch.getP()) {
+                TelemetryPoint point = toPoint(batch.getV(), values);
+                if (point == null) {
+                    invalid++;
+                } else {
+                    points.add(point);
+                }
+            }
+        }
+
+        int accepted = telemetryIngestService.ingest(points);
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("accepted", accepted);
+        result.put("rejected", points.size() - accepted);
+        result.put("invalid", invalid);
+        if (accepted < points.size()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(result);
+        }
+        return ResponseEntity.accepted().body(result);
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> getStats() {
+        return ResponseEntity.ok(telemetryIngestService.getStats());
+    }
+
+    @GetMapping("/{vehicleId}")
+    public ResponseEntity<List<TelemetryPoint>> getPoints(
+            @PathVariable String vehicleId,
+            @RequestParam String startDate,
+            @RequestParam String endDate) {
+        try {
+            LocalDateTime start = LocalDateTime.parse(startDate);
+            LocalDateTime end = LocalDateTime.parse(endDate);
+            return ResponseEntity.ok(telemetryPointRepository
+                    .findByVehicleIdAndRecordedAtBetweenOrderByRecordedAtAsc(vehicleId, start, end));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    private static TelemetryPoint toPoint(String vehicleId, Double[] values) {
+        if (values == null || values.length == 0 || values[0] == null
+                || !(values[0] >= MIN_RECORDED_AT && values[0] <= MAX_RECORDED_AT)) {
+            return null;
+        }
+        Double lat = value(values, 1);
+        Double lon = value(values, 2);
+        Double odometer = value(values, 3);
+        if ((lat != null && (lat < -90 || lat > 90)) || (lon != null && (lon < -180 || lon > 180))
+                || (odometer != null && odometer < 0)) {
+            return null;
+        }
+        LocalDateTime recordedAt = LocalDateTime.ofInstant(Instant.ofEpochMilli(values[0].longValue()), ZoneOffset.UTC);
+        return new TelemetryPoint(vehicleId, recordedAt, lat, lon, odometer, value(values, 4));
+    }
+
+    private static Double value(Double[] values, int index) {
+        return index < values.length ? values[index] : null;
+    }
+
+    public static class TelemetryBatch {
+
+        private String v;
+        private Double[][] p;
+
+        public String getV() { return v; }
+        public void setV(String v) { this.v = v; }
+
+        public Double[][] getP() { return p; }
+        public void setP(Double[][] p) { this.p = p; }
+    }
+}
@@ -2,35 +2,64 @@ package com.cobox.fleet.controller;
 
 import com.cobox.fleet.entity.User;
 import com.cobox.fleet.repository.UserRepository;
+import com.cobox.fleet.service.AuditLogService;
+import com.cobox.fleet.service.MergePatcher;
+import com.cobox.fleet.service.ResponseCache;
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.time.LocalDateTime;
-import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/v1/users")
 @CrossOrigin(allowedHeaders = "*", allowCredentials = "false")
 public class UserController {
 
+    private static final Set<String> PATCHABLE_FIELDS = Set.of("name", "dni", "level");
+
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ResponseCache responseCache;
+
+    @Autowired
+    private AuditLogService auditLogService;
+
+    @Autowired
+    private MergePatcher mergePatcher;
+
     @GetMapping
-    public ResponseEntity<List<User>> getAllUsers() {
-        List<User> users = userRepository.findAll();
-        return ResponseEntity.ok(users);
+    public void getAllUsers(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        // Served from pre-serialized JSON; invalidated on any User commit
+        responseCache.write(ResponseCache.USERS_ALL, request, response, userRepository::findByDeletedFalse);
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<User> getUserById(@PathVariable String id) {
-        Optional<User> user = userRepository.findById(id);
+        Optional<User> user = userRepository.findById(id).filter(u -> !u.getDeleted());
         return user.map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
     }
 
+    @GetMapping("/{id}/history")
+    public ResponseEntity<Map<String, Object>> getUserHistory(@PathVariable String id,
+            @RequestParam(required = false) Integer version,
+            @RequestParam(required = false) String at) {
+        return HistoryResponses.history(auditLogService, "User", id,
+                () -> userRepository.findById(id).orElse(null), version, at);
+    }
+
     @PostMapping
     public ResponseEntity<User> createUser(@RequestBody User user) {
         try {
@@ -46,10 +75,11 @@ public class UserController {
 
     @PutMapping("/{id}")
     public ResponseEntity<User> updateUser(@PathVariable String id, @RequestBody User userDetails) {
-        Optional<User> optionalUser = userRepository.findById(id);
+        Optional<User> optionalUser = userRepository.findById(id).filter(u -> !u.getDeleted());
         
         if (optionalUser.isPresent()) {
             User user = optionalUser.get();
+            mergePatcher.checkVersion(user.getVersion(), userDetails.getVersion());
             user.setName(userDetails.getName());
             user.setDni(userDetails.getDni());
             user.setLevel(userDetails.getLevel());
@@ -61,10 +91,31 @@ public class UserController {
         }
     }
 
+    @PatchMapping(value = "/{id}", consumes = {MergePatcher.MERGE_PATCH_JSON, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<User> patchUser(@PathVariable String id, @RequestBody JsonNode patch,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Optional<User> optionalUser = userRepository.findById(id).filter(u -> !u.getDeleted());
+        if (optionalUser.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        User user = optionalUser.get();
+        try {
+            mergePatcher.apply(user, user.getVersion(), patch, ifMatch, PATCHABLE_FIELDS);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(userRepository.save(user));
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteUser(@PathVariable String id) {
-        if (userRepository.existsById(id)) {
-            userRepository.deleteById(id);
+        Optional<User> optionalUser = userRepository.findById(id).filter(u -> !u.getDeleted());
+        
+        if (optionalUser.isPresent()) {
+            // Soft delete: the tombstone tells offline clients (/api/v1/sync) to drop the row
+            User user = optionalUser.get();
+            user.setDeleted(true);
+            userRepository.save(user);
             return ResponseEntity.noContent().build();
         } else {
             return ResponseEntity.notFound().build();
@@ -1,58 +1,116 @@
 package com.cobox.fleet.controller;
 
+import com.cobox.fleet.config.ReportingBulkhead;
 import com.cobox.fleet.entity.Vehicle;
 import com.cobox.fleet.repository.VehicleRepository;
+import com.cobox.fleet.service.AuditLogService;
+import com.cobox.fleet.service.MergePatcher;
+import com.cobox.fleet.service.ResponseCache;
+import com.cobox.fleet.service.VehicleUtilizationService;
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/v1/vehicles")
 @CrossOrigin(allowedHeaders = "*", allowCredentials = "false")
 public class VehicleController {
 
+    private static final Set<String> PATCHABLE_FIELDS = Set.of(
+            "plate", "brand", "model", "year", "type", "loadCapacity", "tankCapacity", "status",
+            "currentMileage", "lastMaintenance", "active");
+
     @Autowired
     private VehicleRepository vehicleRepository;
 
+    @Autowired
+    private ResponseCache responseCache;
+
+    @Autowired
+    private AuditLogService auditLogService;
+
+    @Autowired
+    private MergePatcher mergePatcher;
+
+    @Autowired
+    private VehicleUtilizationService vehicleUtilizationService;
+
+    @Autowired
+    private ReportingBulkhead reportingBulkhead;
+
     @GetMapping
-    public ResponseEntity<List<Vehicle>> getAllVehicles() {
-        List<Vehicle> vehicles = vehicleRepository.findAll();
-        return ResponseEntity.ok(vehicles);
+    public void getAllVehicles(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        // Served from pre-serialized JSON; invalidated on any Vehicle commit
+        responseCache.write(ResponseCache.VEHICLES_ALL, request, response, vehicleRepository::findByDeletedFalse);
+    }
+
+    @GetMapping("/utilization")
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> getUtilization(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "IN_ROUTE") String status,
+            @RequestParam(defaultValue = "hour") String granularity,
+            @RequestParam(required = false) String vehicleId) {
+        if (from.isAfter(to) || !VehicleUtilizationService.GRANULARITIES.contains(granularity)
+                || ChronoUnit.DAYS.between(from, to) >= vehicleUtilizationService.getMaxDays()) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
+        }
+        return reportingBulkhead.submit(() -> ResponseEntity.ok(
+                vehicleUtilizationService.utilization(from, to, status, granularity, vehicleId)));
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<Vehicle> getVehicleById(@PathVariable String id) {
-        Optional<Vehicle> vehicle = vehicleRepository.findById(id);
+        Optional<Vehicle> vehicle = vehicleRepository.findById(id).filter(v -> !v.getDeleted());
         return vehicle.map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
     }
 
+    @GetMapping("/{id}/history")
+    public ResponseEntity<Map<String, Object>> getVehicleHistory(@PathVariable String id,
+            @RequestParam(required = false) Integer version,
+            @RequestParam(required = false) String at) {
+        return HistoryResponses.history(auditLogService, "Vehicle", id,
+                () -> vehicleRepository.findById(id).orElse(null), version, at);
+    }
+
     @GetMapping("/plate/{plate}")
     public ResponseEntity<Vehicle> getVehicleByPlate(@PathVariable String plate) {
-        Optional<Vehicle> vehicle = vehicleRepository.findByPlate(plate);
+        Optional<Vehicle> vehicle = vehicleRepository.findByPlateAndDeletedFalse(plate);
         return vehicle.map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping("/status/{status}")
     public ResponseEntity<List<Vehicle>> getVehiclesByStatus(@PathVariable String status) {
-        List<Vehicle> vehicles = vehicleRepository.findByStatus(status);
+        List<Vehicle> vehicles = vehicleRepository.findByStatusAndDeletedFalse(status);
         return ResponseEntity.ok(vehicles);
     }
 
     @GetMapping("/active")
-    public ResponseEntity<List<Vehicle>> getActiveVehicles() {
-        List<Vehicle> vehicles = vehicleRepository.findByActiveTrue();
-        return ResponseEntity.ok(vehicles);
+    public void getActiveVehicles(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        responseCache.write(ResponseCache.VEHICLES_ACTIVE, request, response, vehicleRepository::findByActiveTrueAndDeletedFalse);
     }
 
     @PostMapping
     public ResponseEntity<Vehicle> createVehicle(@RequestBody Vehicle vehicle) {
         try {
             // Check if plate already exists
-            if (vehicleRepository.findByPlate(vehicle.getPlate()).isPresent()) {
+            if (vehicleRepository.findByPlateAndDeletedFalse(vehicle.getPlate()).isPresent()) {
                 return ResponseEntity.badRequest().build();
             }
             
@@ -65,10 +123,11 @@ public class VehicleController {
 
     @PutMapping("/{id}")
     public ResponseEntity<Vehicle> updateVehicle(@PathVariable String id, @RequestBody Vehicle vehicleDetails) {
-        Optional<Vehicle> optionalVehicle = vehicleRepository.findById(id);
+        Optional<Vehicle> optionalVehicle = vehicleRepository.findById(id).filter(v -> !v.getDeleted());
         
         if (optionalVehicle.isPresent()) {
             Vehicle vehicle = optionalVehicle.get();
+            mergePatcher.checkVersion(vehicle.getVersion(), vehicleDetails.getVersion());
             
             // Update all fields
             vehicle.setPlate(vehicleDetails.getPlate());
@@ -82,6 +141,9 @@ public class VehicleController {
             vehicle.setCurrentMileage(vehicleDetails.getCurrentMileage());
             vehicle.setLastMaintenance(vehicleDetails.getLastMaintenance());
             vehicle.setActive(vehicleDetails.getActive());
+            if (plateTakenByAnother(vehicle)) {
+                return ResponseEntity.badRequest().build();
+            }
             
             Vehicle updatedVehicle = vehicleRepository.save(vehicle);
             return ResponseEntity.ok(updatedVehicle);
@@ -90,19 +152,50 @@ public class VehicleController {
         }
     }
 
+    @PatchMapping(value = "/{id}", consumes = {MergePatcher.MERGE_PATCH_JSON, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<Vehicle> patchVehicle(@PathVariable String id, @RequestBody JsonNode patch,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Optional<Vehicle> optionalVehicle = vehicleRepository.findById(id).filter(v -> !v.getDeleted());
+        if (optionalVehicle.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        Vehicle vehicle = optionalVehicle.get();
+        try {
+            mergePatcher.apply(vehicle, vehicle.getVersion(), patch, ifMatch, PATCHABLE_FIELDS);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (plateTakenByAnother(vehicle)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(vehicleRepository.save(vehicle));
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteVehicle(@PathVariable String id) {
-        if (vehicleRepository.existsById(id)) {
-            vehicleRepository.deleteById(id);
+        Optional<Vehicle> optionalVehicle = vehicleRepository.findById(id).filter(v -> !v.getDeleted());
+        
+        if (optionalVehicle.isPresent()) {
+            // Soft delete: the tombstone tells offline clients (/api/v1/sync) to drop the row
+            Vehicle vehicle = optionalVehicle.get();
+            vehicle.setDeleted(true);
+            vehicleRepository.save(vehicle);
             return ResponseEntity.noContent().build();
         } else {
             return ResponseEntity.notFound().build();
         }
     }
 
+    // Same rule as creation: a plate belongs to at most one live vehicle
+    private boolean plateTakenByAnother(Vehicle vehicle) {
+        return vehicleRepository.findByPlateAndDeletedFalse(vehicle.getPlate())
+                .filter(other -> !other.getId().equals(vehicle.getId()))
+                .isPresent();
+    }
+
     @PatchMapping("/{id}/status")
     public ResponseEntity<Vehicle> updateVehicleStatus(@PathVariable String id, @RequestParam String status) {
-        Optional<Vehicle> optionalVehicle = vehicleRepository.findById(id);
+        Optional<Vehicle> optionalVehicle = vehicleRepository.findById(id).filter(v -> !v.getDeleted());
         
         if (optionalVehicle.isPresent()) {
             Vehicle vehicle = optionalVehicle.get();
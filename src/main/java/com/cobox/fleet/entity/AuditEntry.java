@@ -0,0 +1,95 @@
+package com.cobox.fleet.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.TenantId;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.LocalDateTime;
+
+/**
+ * One committed change to an audited entity. {@code changes} is a JSON object holding only
+ * the fields that changed, as {@code {"field": [old, new]}}; a create has {@code null} old
+ * values and a hard delete ({@code PURGED}) {@code null} new values; soft deletes are
+ * recorded as {@code DELETED}. Rows are append-only and written in batches by
+ * {@code AuditLogService}, so {@code id} order is commit order per entity.
+ */
+@Entity
+@Table(name = "audit_log", indexes = {
+    @Index(name = "idx_audit_log_tenant_entity", columnList = "tenant_id, entity_type, entity_id, id")
+})
+public class AuditEntry {
+
+    public static final String CREATED = "CREATED";
+    public static final String UPDATED = "UPDATED";
+    public static final String DELETED = "DELETED";
+    public static final String PURGED = "PURGED";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @TenantId
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(name = "tenant_id", nullable = false, columnDefinition = "varchar(64) default 'afe-surquillo'")
+    private String tenantId;
+
+    @Column(name = "entity_type", nullable = false, length = 64)
+    private String entityType;
+
+    @Column(name = "entity_id", nullable = false, length = 64)
+    private String entityId;
+
+    @Column(nullable = false, length = 16)
+    private String action;
+
+    @Column(length = 128)
+    private String actor;
+
+    @Lob
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String changes;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss", shape = JsonFormat.Shape.STRING)
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+
+    // Constructors
+    public AuditEntry() {}
+
+    public AuditEntry(String tenantId, String entityType, String entityId, String action, String actor,
+                      String changes, LocalDateTime changedAt) {
+        this.tenantId = tenantId;
+        this.entityType = entityType;
+        this.entityId = entityId;
+        this.action = action;
+        this.actor = actor;
+        this.changes = changes;
+        this.changedAt = changedAt;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getTenantId() { return tenantId; }
+    public void setTenantId(String tenantId) { this.tenantId = tenantId; }
+
+    public String getEntityType() { return entityType; }
+    public void setEntityType(String entityType) { this.entityType = entityType; }
+
+    public String getEntityId() { return entityId; }
+    public void setEntityId(String entityId) { this.entityId = entityId; }
+
+    public String getAction() { return action; }
+    public void setAction(String action) { this.action = action; }
+
+    public String getActor() { return actor; }
+    public void setActor(String actor) { this.actor = actor; }
+
+    public String getChanges() { return changes; }
+    public void setChanges(String changes) { this.changes = changes; }
+
+    public LocalDateTime getChangedAt() { return changedAt; }
+    public void setChangedAt(LocalDateTime changedAt) { this.changedAt = changedAt; }
+}
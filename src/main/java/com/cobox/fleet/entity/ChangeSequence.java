@@ -0,0 +1,33 @@
+package com.cobox.fleet.entity;
+
+import jakarta.persistence.*;
+
+@Entity
+@Table(name = "change_sequences")
+public class ChangeSequence {
+
+    public static final String SYNC = "sync";
+    public static final String PURGED = "purged";
+
+    @Id
+    @Column(length = 32)
+    private String name;
+
+    @Column(name = "current_value", nullable = false)
+    private Long currentValue;
+
+    // Constructors
+    public ChangeSequence() {}
+
+    public ChangeSequence(String name, Long currentValue) {
+        this.name = name;
+        this.currentValue = currentValue;
+    }
+
+    // Getters and Setters
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public Long getCurrentValue() { return currentValue; }
+    public void setCurrentValue(Long currentValue) { this.currentValue = currentValue; }
+}
@@ -0,0 +1,22 @@
+package com.cobox.fleet.entity;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entities synchronized to driver apps through {@code /api/v1/sync}. Every write stamps
+ * {@code updatedAt} and a global, commit-ordered {@code changeSeq}; deletes are soft and
+ * leave a tombstone row so offline clients learn about them.
+ */
+public interface ChangeTracked {
+
+    String getId();
+
+    Boolean getDeleted();
+    void setDeleted(Boolean deleted);
+
+    LocalDateTime getUpdatedAt();
+    void setUpdatedAt(LocalDateTime updatedAt);
+
+    Long getChangeSeq();
+    void setChangeSeq(Long changeSeq);
+}
@@ -0,0 +1,71 @@
+package com.cobox.fleet.entity;
+
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import org.hibernate.Session;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+
+/**
+ * Stamps {@link ChangeTracked} entities on every insert and update.
+ * <p>
+ * The sequence row is locked with {@code SELECT ... FOR UPDATE} on the transaction's own
+ * connection and stays locked until commit, so sequence numbers become visible in the
+ * order they were handed out. A client holding token N can therefore never miss a row
+ * with a smaller sequence that commits later.
+ * <p>
+ * Hibernate instantiates entity listeners itself and falls back to a plain instance when
+ * the Spring bean container cannot create one yet (deferred datasource initialization),
+ * so the listener injects nothing: it takes the session bound to the current transaction.
+ */
+public class ChangeTrackingListener {
+
+    private static final String SELECT_SEQUENCE = "SELECT current_value FROM change_sequences WHERE name = ? FOR UPDATE";
+    private static final String UPDATE_SEQUENCE = "UPDATE change_sequences SET current_value = ? WHERE name = ?";
+
+    @PrePersist
+    @PreUpdate
+    public void stamp(Object entity) {
+        ChangeTracked tracked = (ChangeTracked) entity;
+        if (tracked.getDeleted() == null) {
+            tracked.setDeleted(false);
+        }
+        tracked.setUpdatedAt(LocalDateTime.now());
+        tracked.setChangeSeq(nextChangeSeq(currentSession()));
+    }
+
+    static long nextChangeSeq(Session session) {
+        return session.doReturningWork(connection -> {
+            long next;
+            try (PreparedStatement select = connection.prepareStatement(SELECT_SEQUENCE)) {
+                select.setString(1, ChangeSequence.SYNC);
+                try (ResultSet rs = select.executeQuery()) {
+                    if (!rs.next()) {
+                        throw new IllegalStateException("Missing change sequence " + ChangeSequence.SYNC);
+                    }
+                    next = rs.getLong(1) + 1;
+                }
+            }
+            try (PreparedStatement update = connection.prepareStatement(UPDATE_SEQUENCE)) {
+                update.setLong(1, next);
+                update.setString(2, ChangeSequence.SYNC);
+                update.executeUpdate();
+            }
+            return next;
+        });
+    }
+
+    private static Session currentSession() {
+        // The application has a single persistence unit, so at most one holder is bound
+        for (Object resource : TransactionSynchronizationManager.getResourceMap().values()) {
+            if (resource instanceof EntityManagerHolder holder) {
+                return holder.getEntityManager().unwrap(Session.class);
+            }
+        }
+        throw new IllegalStateException("Change-tracked entities must be written inside a transaction");
+    }
+}
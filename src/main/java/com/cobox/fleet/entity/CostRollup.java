@@ -0,0 +1,105 @@
+package com.cobox.fleet.entity;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Daily cost aggregate per tenant, plate, driver and source (fuel or schedule). Rows are
+ * recomputed in SQL by {@code CostLedgerService} whenever a contributing record is
+ * written; an absent driver is always the empty string, never NULL, both in fuel rows
+ * (fuel records have none) and in schedule rows without one. The table is
+ * only read and written through that SQL, which scopes every statement by tenant_id.
+ */
+@Entity
+@Table(name = "cost_rollups", indexes = {
+    @Index(name = "idx_cost_rollups_tenant_plate_date", columnList = "tenant_id, plate, cost_date"),
+    @Index(name = "idx_cost_rollups_tenant_driver_date", columnList = "tenant_id, driver, cost_date")
+})
+@IdClass(CostRollup.Key.class)
+public class CostRollup {
+
+    public static final String FUEL = "FUEL";
+    public static final String SCHEDULE = "SCHEDULE";
+
+    @Id
+    @Column(name = "tenant_id", nullable = false, columnDefinition = "varchar(64) default 'afe-surquillo'")
+    private String tenantId;
+
+    @Id
+    @Column(name = "cost_date", nullable = false)
+    private LocalDate costDate;
+
+    @Id
+    @Column(nullable = false)
+    private String plate;
+
+    @Id
+    @Column(nullable = false)
+    private String driver;
+
+    @Id
+    @Column(length = 16, nullable = false)
+    private String source;
+
+    @Column(name = "total_cost", precision = 14, scale = 2, nullable = false)
+    private BigDecimal totalCost;
+
+    @Column(name = "entry_count", nullable = false)
+    private Integer entryCount;
+
+    // Constructors
+    public CostRollup() {}
+
+    // Getters and Setters
+    public String getTenantId() { return tenantId; }
+    public void setTenantId(String tenantId) { this.tenantId = tenantId; }
+
+    public LocalDate getCostDate() { return costDate; }
+    public void setCostDate(LocalDate costDate) { this.costDate = costDate; }
+
+    public String getPlate() { return plate; }
+    public void setPlate(String plate) { this.plate = plate; }
+
+    public String getDriver() { return driver; }
+    public void setDriver(String driver) { this.driver = driver; }
+
+    public String getSource() { return source; }
+    public void setSource(String source) { this.source = source; }
+
+    public BigDecimal getTotalCost() { return totalCost; }
+    public void setTotalCost(BigDecimal totalCost) { this.totalCost = totalCost; }
+
+    public Integer getEntryCount() { return entryCount; }
+    public void setEntryCount(Integer entryCount) { this.entryCount = entryCount; }
+
+    public static class Key implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private String tenantId;
+        private LocalDate costDate;
+        private String plate;
+        private String driver;
+        private String source;
+
+        public Key() {}
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key key)) return false;
+            return Objects.equals(tenantId, key.tenantId) && Objects.equals(costDate, key.costDate)
+                    && Objects.equals(plate, key.plate) && Objects.equals(driver, key.driver)
+                    && Objects.equals(source, key.source);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(tenantId, costDate, plate, driver, source);
+        }
+    }
+}
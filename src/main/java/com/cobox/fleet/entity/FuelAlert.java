@@ -0,0 +1,96 @@
+package com.cobox.fleet.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.TenantId;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "fuel_alerts", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_fuel_alerts_record_type", columnNames = {"fuel_record_id", "type"})
+}, indexes = {
+    @Index(name = "idx_fuel_alerts_tenant_plate_date", columnList = "tenant_id, vehicle_plate, record_date"),
+    @Index(name = "idx_fuel_alerts_tenant_created_at", columnList = "tenant_id, created_at")
+})
+public class FuelAlert {
+
+    public static final String TANK_OVERFLOW = "TANK_OVERFLOW";
+    public static final String PRICE_OUTLIER = "PRICE_OUTLIER";
+    public static final String ODOMETER_ROLLBACK = "ODOMETER_ROLLBACK";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @TenantId
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(name = "tenant_id", nullable = false, columnDefinition = "varchar(64) default 'afe-surquillo'")
+    private String tenantId;
+
+    @Column(name = "fuel_record_id", nullable = false)
+    private String fuelRecordId;
+
+    @Column(name = "vehicle_plate", nullable = false)
+    private String vehiclePlate;
+
+    @Column(nullable = false, length = 32)
+    private String type;
+
+    @Column(nullable = false)
+    private Double score;
+
+    @Column(length = 500)
+    private String detail;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss", shape = JsonFormat.Shape.STRING)
+    @Column(name = "record_date", nullable = false)
+    private LocalDateTime recordDate;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss", shape = JsonFormat.Shape.STRING)
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // Constructors
+    public FuelAlert() {}
+
+    public FuelAlert(String fuelRecordId, String vehiclePlate, String type, Double score, String detail,
+                     LocalDateTime recordDate) {
+        this.fuelRecordId = fuelRecordId;
+        this.vehiclePlate = vehiclePlate;
+        this.type = type;
+        this.score = score;
+        this.detail = detail;
+        this.recordDate = recordDate;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getFuelRecordId() { return fuelRecordId; }
+    public void setFuelRecordId(String fuelRecordId) { this.fuelRecordId = fuelRecordId; }
+
+    public String getVehiclePlate() { return vehiclePlate; }
+    public void setVehiclePlate(String vehiclePlate) { this.vehiclePlate = vehiclePlate; }
+
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+
+    public Double getScore() { return score; }
+    public void setScore(Double score) { this.score = score; }
+
+    public String getDetail() { return detail; }
+    public void setDetail(String detail) { this.detail = detail; }
+
+    public LocalDateTime getRecordDate() { return recordDate; }
+    public void setRecordDate(LocalDateTime recordDate) { this.recordDate = recordDate; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public String getTenantId() { return tenantId; }
+    public void setTenantId(String tenantId) { this.tenantId = tenantId; }
+}
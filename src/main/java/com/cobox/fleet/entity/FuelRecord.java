@@ -1,17 +1,34 @@
 package com.cobox.fleet.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.TenantId;
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonProperty;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "fuel_records")
+@Table(name = "fuel_records", indexes = {
+    @Index(name = "idx_fuel_records_tenant_date", columnList = "tenant_id, date"),
+    @Index(name = "idx_fuel_records_tenant_plate_date", columnList = "tenant_id, vehicle_plate, date"),
+    @Index(name = "idx_fuel_records_tenant_station_date", columnList = "tenant_id, station_id, date")
+})
+@DynamicUpdate
 public class FuelRecord {
     
     @Id
     private String id;
+
+    @TenantId
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(name = "tenant_id", nullable = false, columnDefinition = "varchar(64) default 'afe-surquillo'")
+    private String tenantId;
+
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
     
     @Column(name = "vehicle_id", nullable = false)
     private Long vehicleId;
@@ -41,6 +58,10 @@ public class FuelRecord {
     @Column(nullable = false)
     private String location;
     
+    // Registry station resolved from the free-text station/location, null when unmatched
+    @Column(name = "station_id")
+    private Long stationId;
+    
     @Column(name = "invoice_number")
     private String invoiceNumber;
     
@@ -98,9 +119,18 @@ public class FuelRecord {
     public String getLocation() { return location; }
     public void setLocation(String location) { this.location = location; }
     
+    public Long getStationId() { return stationId; }
+    public void setStationId(Long stationId) { this.stationId = stationId; }
+    
     public String getInvoiceNumber() { return invoiceNumber; }
     public void setInvoiceNumber(String invoiceNumber) { this.invoiceNumber = invoiceNumber; }
     
     public String getNotes() { return notes; }
     public void setNotes(String notes) { this.notes = notes; }
+
+    public String getTenantId() { return tenantId; }
+    public void setTenantId(String tenantId) { this.tenantId = tenantId; }
+
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
 }
\ No newline at end of file
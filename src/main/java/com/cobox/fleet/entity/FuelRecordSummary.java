@@ -1,17 +1,36 @@
 package com.cobox.fleet.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.TenantId;
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonProperty;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "fuel_records_summaries")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "fuelRecordSummaries")
+@Table(name = "fuel_records_summaries", indexes = {
+    @Index(name = "idx_fuel_records_summaries_tenant", columnList = "tenant_id")
+})
+@DynamicUpdate
 public class FuelRecordSummary {
     
     @Id
     private String id;
+
+    @TenantId
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(name = "tenant_id", nullable = false, columnDefinition = "varchar(64) default 'afe-surquillo'")
+    private String tenantId;
+
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
     
     @Column(name = "service_id", nullable = false)
     private String serviceId;
@@ -68,4 +87,10 @@ public class FuelRecordSummary {
     
     public String getPlates() { return plates; }
     public void setPlates(String plates) { this.plates = plates; }
+
+    public String getTenantId() { return tenantId; }
+    public void setTenantId(String tenantId) { this.tenantId = tenantId; }
+
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
 }
\ No newline at end of file
@@ -1,15 +1,34 @@
 package com.cobox.fleet.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.TenantId;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonProperty;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "schedules")
-public class Schedule {
+@Table(name = "schedules", indexes = {
+    @Index(name = "idx_schedules_tenant_change_seq", columnList = "tenant_id, change_seq"),
+    @Index(name = "idx_schedules_tenant_plate_service_date", columnList = "tenant_id, plate, service_date")
+})
+@EntityListeners(ChangeTrackingListener.class)
+@DynamicUpdate
+public class Schedule implements ChangeTracked {
     
     @Id
     private String id;
+
+    @TenantId
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(name = "tenant_id", nullable = false, columnDefinition = "varchar(64) default 'afe-surquillo'")
+    private String tenantId;
+
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
     
     @Column(name = "schedule_date", nullable = false)
     private String scheduleDate;
@@ -35,6 +54,19 @@ public class Schedule {
     @Column(name = "final_cost", precision = 10, scale = 2)
     private BigDecimal finalCost;
     
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(nullable = false, columnDefinition = "boolean default false")
+    private Boolean deleted = false;
+    
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss", shape = JsonFormat.Shape.STRING)
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(name = "change_seq")
+    private Long changeSeq;
+    
     // Constructors
     public Schedule() {}
     
@@ -78,4 +110,19 @@ public class Schedule {
     
     public BigDecimal getFinalCost() { return finalCost; }
     public void setFinalCost(BigDecimal finalCost) { this.finalCost = finalCost; }
+    
+    public Boolean getDeleted() { return deleted; }
+    public void setDeleted(Boolean deleted) { this.deleted = deleted; }
+    
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+    
+    public Long getChangeSeq() { return changeSeq; }
+    public void setChangeSeq(Long changeSeq) { this.changeSeq = changeSeq; }
+
+    public String getTenantId() { return tenantId; }
+    public void setTenantId(String tenantId) { this.tenantId = tenantId; }
+
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
 }
@@ -1,13 +1,32 @@
 package com.cobox.fleet.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.TenantId;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "services")
-public class Service {
+@Table(name = "services", indexes = {
+    @Index(name = "idx_services_tenant_change_seq", columnList = "tenant_id, change_seq")
+})
+@EntityListeners(ChangeTrackingListener.class)
+@DynamicUpdate
+public class Service implements ChangeTracked {
     
     @Id
     private String id;
+
+    @TenantId
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(name = "tenant_id", nullable = false, columnDefinition = "varchar(64) default 'afe-surquillo'")
+    private String tenantId;
+
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
     
     @Column(nullable = false)
     private String date;
@@ -27,6 +46,23 @@ public class Service {
     @Column(nullable = false)
     private String status = "PENDING";
     
+    // Minimum vehicle load capacity for this service, used by schedule generation
+    @Column(name = "required_capacity")
+    private Integer requiredCapacity;
+    
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(nullable = false, columnDefinition = "boolean default false")
+    private Boolean deleted = false;
+    
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss", shape = JsonFormat.Shape.STRING)
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(name = "change_seq")
+    private Long changeSeq;
+    
     // Constructors
     public Service() {}
     
@@ -62,4 +98,22 @@ public class Service {
     
     public String getStatus() { return status; }
     public void setStatus(String status) { this.status = status; }
-}
\ No newline at end of file
+    
+    public Integer getRequiredCapacity() { return requiredCapacity; }
+    public void setRequiredCapacity(Integer requiredCapacity) { this.requiredCapacity = requiredCapacity; }
+    
+    public Boolean getDeleted() { return deleted; }
+    public void setDeleted(Boolean deleted) { this.deleted = deleted; }
+    
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+    
+    public Long getChangeSeq() { return changeSeq; }
+    public void setChangeSeq(Long changeSeq) { this.changeSeq = changeSeq; }
+
+    public String getTenantId() { return tenantId; }
+    public void setTenantId(String tenantId) { this.tenantId = tenantId; }
+
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+}
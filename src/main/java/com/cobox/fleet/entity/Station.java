@@ -0,0 +1,91 @@
+package com.cobox.fleet.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.TenantId;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+@Entity
+@Table(name = "stations", indexes = {
+    @Index(name = "idx_stations_tenant", columnList = "tenant_id")
+})
+@DynamicUpdate
+public class Station {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @TenantId
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(name = "tenant_id", nullable = false, columnDefinition = "varchar(64) default 'afe-surquillo'")
+    private String tenantId;
+
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
+    @Column(nullable = false)
+    private String name;
+
+    private String brand;
+
+    private String address;
+
+    private String district;
+
+    @Column(nullable = false)
+    private Double latitude;
+
+    @Column(nullable = false)
+    private Double longitude;
+
+    // Comma-separated free-text spellings seen in fuel records, used to resolve them to this station
+    @Column(length = 1000)
+    private String aliases;
+
+    // Constructors
+    public Station() {}
+
+    public Station(String name, String brand, String address, String district, Double latitude, Double longitude,
+                   String aliases) {
+        this.name = name;
+        this.brand = brand;
+        this.address = address;
+        this.district = district;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.aliases = aliases;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public String getBrand() { return brand; }
+    public void setBrand(String brand) { this.brand = brand; }
+
+    public String getAddress() { return address; }
+    public void setAddress(String address) { this.address = address; }
+
+    public String getDistrict() { return district; }
+    public void setDistrict(String district) { this.district = district; }
+
+    public Double getLatitude() { return latitude; }
+    public void setLatitude(Double latitude) { this.latitude = latitude; }
+
+    public Double getLongitude() { return longitude; }
+    public void setLongitude(Double longitude) { this.longitude = longitude; }
+
+    public String getAliases() { return aliases; }
+    public void setAliases(String aliases) { this.aliases = aliases; }
+
+    public String getTenantId() { return tenantId; }
+    public void setTenantId(String tenantId) { this.tenantId = tenantId; }
+
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+}
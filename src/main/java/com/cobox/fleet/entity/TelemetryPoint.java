@@ -0,0 +1,104 @@
+package com.cobox.fleet.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.TenantId;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * One GPS/odometer ping. Rows are written in bulk by {@code TelemetryIngestService} with
+ * multi-row inserts, never through the entity manager; the mapping defines the schema
+ * and is used for reads.
+ */
+@Entity
+@Table(name = "telemetry_points", indexes = {
+    @Index(name = "idx_telemetry_points_tenant_recorded_at", columnList = "tenant_id, recorded_at")
+})
+@IdClass(TelemetryPoint.Key.class)
+public class TelemetryPoint {
+
+    @Id
+    @Column(name = "vehicle_id", length = 64, nullable = false)
+    private String vehicleId;
+
+    @Id
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss", shape = JsonFormat.Shape.STRING)
+    @Column(name = "recorded_at", nullable = false)
+    private LocalDateTime recordedAt;
+
+    @TenantId
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(name = "tenant_id", nullable = false, columnDefinition = "varchar(64) default 'afe-surquillo'")
+    private String tenantId;
+
+    private Double latitude;
+
+    private Double longitude;
+
+    // Kilometres
+    private Double odometer;
+
+    // km/h
+    private Double speed;
+
+    // Constructors
+    public TelemetryPoint() {}
+
+    public TelemetryPoint(String vehicleId, LocalDateTime recordedAt, Double latitude, Double longitude,
+                          Double odometer, Double speed) {
+        this.vehicleId = vehicleId;
+        this.recordedAt = recordedAt;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.odometer = odometer;
+        this.speed = speed;
+    }
+
+    // Getters and Setters
+    public String getVehicleId() { return vehicleId; }
+    public void setVehicleId(String vehicleId) { this.vehicleId = vehicleId; }
+
+    public LocalDateTime getRecordedAt() { return recordedAt; }
+    public void setRecordedAt(LocalDateTime recordedAt) { this.recordedAt = recordedAt; }
+
+    public Double getLatitude() { return latitude; }
+    public void setLatitude(Double latitude) { this.latitude = latitude; }
+
+    public Double getLongitude() { return longitude; }
+    public void setLongitude(Double longitude) { this.longitude = longitude; }
+
+    public Double getOdometer() { return odometer; }
+    public void setOdometer(Double odometer) { this.odometer = odometer; }
+
+    public Double getSpeed() { return speed; }
+    public void setSpeed(Double speed) { this.speed = speed; }
+
+    public String getTenantId() { return tenantId; }
+    public void setTenantId(String tenantId) { this.tenantId = tenantId; }
+
+    public static class Key implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private String vehicleId;
+        private LocalDateTime recordedAt;
+
+        public Key() {}
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key key)) return false;
+            return Objects.equals(vehicleId, key.vehicleId) && Objects.equals(recordedAt, key.recordedAt);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(vehicleId, recordedAt);
+        }
+    }
+}
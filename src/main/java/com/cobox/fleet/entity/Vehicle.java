@@ -1,17 +1,37 @@
 package com.cobox.fleet.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.TenantId;
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonProperty;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "vehicles")
-public class Vehicle {
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "vehicles")
+@Table(name = "vehicles", indexes = {
+    @Index(name = "idx_vehicles_tenant_change_seq", columnList = "tenant_id, change_seq")
+})
+@EntityListeners(ChangeTrackingListener.class)
+@DynamicUpdate
+public class Vehicle implements ChangeTracked {
     
     @Id
     private String id;
+
+    @TenantId
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(name = "tenant_id", nullable = false, columnDefinition = "varchar(64) default 'afe-surquillo'")
+    private String tenantId;
+
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
     
     @Column(nullable = false)
     private String plate;
@@ -47,6 +67,19 @@ public class Vehicle {
     @Column(nullable = false)
     private Boolean active = true;
     
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(nullable = false, columnDefinition = "boolean default false")
+    private Boolean deleted = false;
+    
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss", shape = JsonFormat.Shape.STRING)
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(name = "change_seq")
+    private Long changeSeq;
+    
     // Constructors
     public Vehicle() {}
     
@@ -103,4 +136,19 @@ public class Vehicle {
     
     public Boolean getActive() { return active; }
     public void setActive(Boolean active) { this.active = active; }
-}
\ No newline at end of file
+    
+    public Boolean getDeleted() { return deleted; }
+    public void setDeleted(Boolean deleted) { this.deleted = deleted; }
+    
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+    
+    public Long getChangeSeq() { return changeSeq; }
+    public void setChangeSeq(Long changeSeq) { this.changeSeq = changeSeq; }
+
+    public String getTenantId() { return tenantId; }
+    public void setTenantId(String tenantId) { this.tenantId = tenantId; }
+
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+}
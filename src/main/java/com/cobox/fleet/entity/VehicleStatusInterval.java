@@ -0,0 +1,74 @@
+package com.cobox.fleet.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.TenantId;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.LocalDateTime;
+
+/**
+ * A span of time a vehicle spent in one status. The open interval of a vehicle has a
+ * {@code null} {@code endedAt}; a status change closes it and opens the next one in the
+ * same transaction as the vehicle write. Rows are maintained by
+ * {@code VehicleUtilizationService} with plain JDBC; the mapping defines the schema.
+ */
+@Entity
+@Table(name = "vehicle_status_intervals", indexes = {
+    @Index(name = "idx_vehicle_status_intervals_vehicle", columnList = "tenant_id, vehicle_id, started_at"),
+    @Index(name = "idx_vehicle_status_intervals_started_at", columnList = "tenant_id, started_at")
+})
+public class VehicleStatusInterval {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @TenantId
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(name = "tenant_id", nullable = false, columnDefinition = "varchar(64) default 'afe-surquillo'")
+    private String tenantId;
+
+    @Column(name = "vehicle_id", nullable = false, length = 64)
+    private String vehicleId;
+
+    @Column(nullable = false, length = 32)
+    private String status;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss", shape = JsonFormat.Shape.STRING)
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss", shape = JsonFormat.Shape.STRING)
+    @Column(name = "ended_at")
+    private LocalDateTime endedAt;
+
+    // Constructors
+    public VehicleStatusInterval() {}
+
+    public VehicleStatusInterval(String vehicleId, String status, LocalDateTime startedAt, LocalDateTime endedAt) {
+        this.vehicleId = vehicleId;
+        this.status = status;
+        this.startedAt = startedAt;
+        this.endedAt = endedAt;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getTenantId() { return tenantId; }
+    public void setTenantId(String tenantId) { this.tenantId = tenantId; }
+
+    public String getVehicleId() { return vehicleId; }
+    public void setVehicleId(String vehicleId) { this.vehicleId = vehicleId; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+
+    public LocalDateTime getEndedAt() { return endedAt; }
+    public void setEndedAt(LocalDateTime endedAt) { this.endedAt = endedAt; }
+}
@@ -0,0 +1,24 @@
+package com.cobox.fleet.outbox;
+
+import com.cobox.fleet.config.TenantContext;
+import com.cobox.fleet.entity.OutboxEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * Republishes relayed outbox events as Spring application events, so in-process
+ * components can subscribe with {@code @EventListener void on(OutboxEvent event)}.
+ * Listeners run as the event's tenant. Listener exceptions propagate and trigger a redelivery.
+ */
+@Component
+public class ApplicationEventOutboxConsumer implements OutboxConsumer {
+
+    @Autowired
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    @Override
+    public void accept(OutboxEvent event) {
+        TenantContext.runAs(event.getTenantId(), () -> applicationEventPublisher.publishEvent(event));
+    }
+}
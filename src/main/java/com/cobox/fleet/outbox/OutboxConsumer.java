@@ -0,0 +1,15 @@
+package com.cobox.fleet.outbox;
+
+import com.cobox.fleet.entity.OutboxEvent;
+
+/**
+ * Receives domain change events relayed from the outbox table.
+ * <p>
+ * Delivery is at-least-once and in order per aggregate: a consumer that throws causes the
+ * event (and every later event of the same aggregate) to be retried on the next poll, so
+ * implementations must be idempotent.
+ */
+public interface OutboxConsumer {
+
+    void accept(OutboxEvent event) throws Exception;
+}
@@ -0,0 +1,116 @@
+package com.cobox.fleet.outbox;
+
+import com.cobox.fleet.entity.ChangeTracked;
+import com.cobox.fleet.entity.FuelRecord;
+import com.cobox.fleet.entity.MileageRecord;
+import com.cobox.fleet.entity.OutboxEvent;
+import com.cobox.fleet.entity.Schedule;
+import com.cobox.fleet.entity.Service;
+import com.cobox.fleet.entity.Vehicle;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Writes an {@code outbox_events} row for every insert, update and delete of a tracked
+ * entity, on the same JDBC connection and therefore in the same transaction as the change.
+ * Hooking Hibernate's post-action events covers every write path without touching the
+ * controllers; the rows are delivered later by {@link OutboxRelay}.
+ */
+@Component
+public class OutboxEntityListener implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    static final Map<Class<?>, String> TRACKED_TYPES = Map.of(
+            FuelRecord.class, "FuelRecord",
+            MileageRecord.class, "MileageRecord",
+            Service.class, "Service",
+            Schedule.class, "Schedule",
+            Vehicle.class, "Vehicle"
+    );
+
+    /** Also used by writers that bypass Hibernate, such as the CSV import. */
+    public static final String INSERT_SQL = "INSERT INTO outbox_events " +
+            "(tenant_id, aggregate_type, aggregate_id, event_type, payload, created_at, attempts) VALUES (?, ?, ?, ?, ?, ?, 0)";
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PostConstruct
+    public void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        record(event.getSession(), event.getEntity(), event.getId(), OutboxEvent.CREATED);
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        // Soft deletes (see ChangeTracked) are published as deletions
+        boolean softDeleted = event.getEntity() instanceof ChangeTracked tracked && Boolean.TRUE.equals(tracked.getDeleted());
+        record(event.getSession(), event.getEntity(), event.getId(), softDeleted ? OutboxEvent.DELETED : OutboxEvent.UPDATED);
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        record(event.getSession(), event.getEntity(), event.getId(), OutboxEvent.DELETED);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private void record(EventSource session, Object entity, Object id, String eventType) {
+        String aggregateType = TRACKED_TYPES.get(entity.getClass());
+        if (aggregateType == null) {
+            return;
+        }
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(entity);
+        } catch (JsonProcessingException e) {
+            // Failing here rolls back the business write, keeping table and outbox consistent
+            throw new IllegalStateException("Could not serialize " + aggregateType + " " + id + " for the outbox", e);
+        }
+        session.doWork(connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(INSERT_SQL)) {
+                ps.setString(1, session.getTenantIdentifier());
+                ps.setString(2, aggregateType);
+                ps.setString(3, String.valueOf(id));
+                ps.setString(4, eventType);
+                ps.setString(5, payload);
+                ps.setTimestamp(6, Timestamp.valueOf(LocalDateTime.now()));
+                ps.executeUpdate();
+            }
+        });
+    }
+}
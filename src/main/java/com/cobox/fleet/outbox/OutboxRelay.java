@@ -0,0 +1,146 @@
+package com.cobox.fleet.outbox;
+
+import com.cobox.fleet.config.TenantContext;
+import com.cobox.fleet.config.TenantProperties;
+import com.cobox.fleet.entity.OutboxEvent;
+import com.cobox.fleet.repository.OutboxEventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Polls unpublished outbox rows in id order and hands them to every {@link OutboxConsumer}.
+ * <p>
+ * Rows are marked published only after all consumers accepted them (at-least-once).
+ * When an event fails, the remaining events of the same aggregate in the batch are held
+ * back so consumers always observe an aggregate's changes in commit order. Events that
+ * keep failing past {@code fleet.outbox.max-attempts} are parked with their last error.
+ * Every physical database has its own outbox table, so each is polled in turn.
+ * <p>
+ * Components that rebuild state from the outbox at startup place a {@link #hold} from
+ * their initialisation and {@link #release} it when done; nothing is relayed meanwhile.
+ */
+@Component
+public class OutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private List<OutboxConsumer> consumers;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TenantProperties tenantProperties;
+
+    @Value("${fleet.outbox.batch-size:200}")
+    private int batchSize;
+
+    @Value("${fleet.outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${fleet.outbox.retention-days:7}")
+    private int retentionDays;
+
+    private final Set<String> holds = ConcurrentHashMap.newKeySet();
+
+    /** Pauses relaying until {@link #release} is called with the same name. */
+    public void hold(String name) {
+        holds.add(name);
+    }
+
+    public void release(String name) {
+        if (holds.remove(name) && holds.isEmpty()) {
+            log.info("Outbox relay started after {}", name);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${fleet.outbox.poll-interval-ms:1000}")
+    public void relay() {
+        if (!holds.isEmpty()) {
+            return;
+        }
+        for (String database : tenantProperties.databaseTenants()) {
+            try {
+                TenantContext.runAs(database, this::relayDatabase);
+            } catch (RuntimeException e) {
+                log.warn("Outbox relay for database of tenant {} failed: {}", database, e.toString());
+            }
+        }
+    }
+
+    private void relayDatabase() {
+        List<OutboxEvent> batch;
+        int published;
+        do {
+            batch = outboxEventRepository.findByPublishedAtIsNullOrderByIdAsc(PageRequest.of(0, batchSize));
+            published = publish(batch);
+        } while (batch.size() == batchSize && published == batch.size());
+    }
+
+    private int publish(List<OutboxEvent> batch) {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        Set<String> blockedAggregates = new HashSet<>();
+        List<Long> publishedIds = new ArrayList<>();
+
+        for (OutboxEvent event : batch) {
+            String aggregateKey = event.getAggregateType() + ":" + event.getAggregateId();
+            if (blockedAggregates.contains(aggregateKey)) {
+                continue;
+            }
+            if (event.getAttempts() >= maxAttempts) {
+                log.error("Parking outbox event {} ({} {}) after {} attempts: {}", event.getId(),
+                        event.getAggregateType(), event.getAggregateId(), event.getAttempts(), event.getLastError());
+                publishedIds.add(event.getId());
+                continue;
+            }
+            try {
+                for (OutboxConsumer consumer : consumers) {
+                    consumer.accept(event);
+                }
+                publishedIds.add(event.getId());
+            } catch (Exception e) {
+                blockedAggregates.add(aggregateKey);
+                log.warn("Outbox event {} ({} {}) failed, will retry: {}", event.getId(),
+                        event.getAggregateType(), event.getAggregateId(), e.toString());
+                String error = e.toString().length() > 500 ? e.toString().substring(0, 500) : e.toString();
+                tx.executeWithoutResult(status -> outboxEventRepository.markFailed(event.getId(), error));
+            }
+        }
+
+        if (!publishedIds.isEmpty()) {
+            tx.executeWithoutResult(status -> outboxEventRepository.markPublished(publishedIds, LocalDateTime.now()));
+        }
+        return publishedIds.size();
+    }
+
+    @Scheduled(cron = "${fleet.outbox.cleanup-cron:0 0 4 * * *}")
+    public void deletePublishedEvents() {
+        LocalDateTime before = LocalDateTime.now().minusDays(retentionDays);
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        for (String database : tenantProperties.databaseTenants()) {
+            int deleted = TenantContext.callAs(database,
+                    () -> tx.execute(status -> outboxEventRepository.deletePublishedBefore(before)));
+            if (deleted > 0) {
+                log.info("Deleted {} published outbox events older than {} for database of tenant {}", deleted, before, database);
+            }
+        }
+    }
+}
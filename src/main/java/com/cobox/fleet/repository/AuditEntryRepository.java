@@ -0,0 +1,12 @@
+package com.cobox.fleet.repository;
+
+import com.cobox.fleet.entity.AuditEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface AuditEntryRepository extends JpaRepository<AuditEntry, Long> {
+    List<AuditEntry> findByEntityTypeAndEntityIdOrderByIdAsc(String entityType, String entityId);
+}
@@ -0,0 +1,26 @@
+package com.cobox.fleet.repository;
+
+import com.cobox.fleet.entity.FuelAlert;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface FuelAlertRepository extends JpaRepository<FuelAlert, Long> {
+    List<FuelAlert> findByOrderByCreatedAtDesc(Pageable pageable);
+
+    List<FuelAlert> findByVehiclePlateOrderByRecordDateDesc(String vehiclePlate);
+
+    List<FuelAlert> findByFuelRecordId(String fuelRecordId);
+
+    boolean existsByFuelRecordIdAndType(String fuelRecordId, String type);
+
+    @Modifying
+    @Query("DELETE FROM FuelAlert a WHERE a.vehiclePlate = :plate")
+    int deleteByVehiclePlate(@Param("plate") String plate);
+}
@@ -1,10 +1,15 @@
 package com.cobox.fleet.repository;
 
 import com.cobox.fleet.entity.FuelRecord;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -12,4 +17,26 @@ public interface FuelRecordRepository extends JpaRepository<FuelRecord, String>
     List<FuelRecord> findByVehicleIdOrderByDateDesc(Long vehicleId);
     List<FuelRecord> findByVehiclePlateOrderByDateDesc(String vehiclePlate);
     List<FuelRecord> findByDateBetweenOrderByDateDesc(LocalDateTime startDate, LocalDateTime endDate);
-}
\ No newline at end of file
+    List<FuelRecord> findByVehiclePlateOrderByDateAsc(String vehiclePlate);
+    List<FuelRecord> findByVehiclePlateAndDateBeforeOrderByDateDesc(String vehiclePlate, LocalDateTime date, Pageable pageable);
+
+    List<FuelRecord> findByStationIdInOrderByDateDesc(Collection<Long> stationIds);
+    List<FuelRecord> findByStationIdInAndDateBetweenOrderByDateDesc(Collection<Long> stationIds, LocalDateTime startDate, LocalDateTime endDate);
+
+    @Query("SELECT DISTINCT f.vehiclePlate FROM FuelRecord f")
+    List<String> findDistinctVehiclePlates();
+
+    // Archive table (fuel_records_archive) - same columns as the hot table
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO fuel_records_archive (id, tenant_id, version, vehicle_id, vehicle_plate, date, " +
+                   "fuel_type, quantity, total_cost, current_mileage, station, location, station_id, invoice_number, notes) " +
+                   "SELECT id, tenant_id, version, vehicle_id, vehicle_plate, date, fuel_type, quantity, total_cost, " +
+                   "current_mileage, station, location, station_id, invoice_number, notes " +
+                   "FROM fuel_records WHERE date >= :from AND date < :to",
+           nativeQuery = true)
+    int copyToArchive(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Modifying
+    @Query(value = "DELETE FROM fuel_records WHERE date >= :from AND date < :to", nativeQuery = true)
+    int deleteByDateRange(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+}
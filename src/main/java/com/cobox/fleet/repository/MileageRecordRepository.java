@@ -2,6 +2,9 @@ package com.cobox.fleet.repository;
 
 import com.cobox.fleet.entity.MileageRecord;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
@@ -14,4 +17,17 @@ public interface MileageRecordRepository extends JpaRepository<MileageRecord, St
     List<MileageRecord> findByPurpose(String purpose);
     List<MileageRecord> findByDriverId(String driverId);
     List<MileageRecord> findByCreatedBy(String createdBy);
-}
\ No newline at end of file
+
+    // Archive table (mileage_records_archive) - same columns as the hot table
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO mileage_records_archive (id, tenant_id, version, vehicle_id, date, start_odometer, " +
+                   "end_odometer, distance, purpose, route, driver_id, notes, created_by, created_at) " +
+                   "SELECT id, tenant_id, version, vehicle_id, date, start_odometer, end_odometer, distance, purpose, route, " +
+                   "driver_id, notes, created_by, created_at FROM mileage_records WHERE date >= :from AND date < :to",
+           nativeQuery = true)
+    int copyToArchive(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Modifying
+    @Query(value = "DELETE FROM mileage_records WHERE date >= :from AND date < :to", nativeQuery = true)
+    int deleteByDateRange(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+}
@@ -0,0 +1,53 @@
+package com.cobox.fleet.repository;
+
+import com.cobox.fleet.config.ReportingBulkhead;
+import com.cobox.fleet.config.TenantContext;
+import com.cobox.fleet.entity.FuelRecord;
+import com.cobox.fleet.entity.MileageRecord;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BeanPropertyRowMapper;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Date-range reads for reporting endpoints. Runs on the reporting connection pool
+ * (see {@link ReportingBulkhead}) instead of the JPA datasource, so the tenant filter
+ * is written out here.
+ */
+@Repository
+public class ReportingRecordRepository {
+
+    private final RowMapper<FuelRecord> fuelRecordMapper = new BeanPropertyRowMapper<>(FuelRecord.class);
+    private final RowMapper<MileageRecord> mileageRecordMapper = new BeanPropertyRowMapper<>(MileageRecord.class);
+
+    @Autowired
+    private ReportingBulkhead reportingBulkhead;
+
+    public List<FuelRecord> findFuelRecordsByDateBetween(String table, LocalDateTime startDate, LocalDateTime endDate) {
+        return reportingBulkhead.getJdbcTemplate().query(
+                "SELECT * FROM " + table + " WHERE tenant_id = ? AND date BETWEEN ? AND ? ORDER BY date DESC",
+                fuelRecordMapper, TenantContext.current(), startDate, endDate);
+    }
+
+    public List<MileageRecord> findMileageRecordsByDateBetween(String table, LocalDateTime startDate, LocalDateTime endDate) {
+        return reportingBulkhead.getJdbcTemplate().query(
+                "SELECT * FROM " + table + " WHERE tenant_id = ? AND date BETWEEN ? AND ? ORDER BY date DESC",
+                mileageRecordMapper, TenantContext.current(), startDate, endDate);
+    }
+
+    public Optional<FuelRecord> findFuelRecordById(String table, String id) {
+        return reportingBulkhead.getJdbcTemplate().query(
+                "SELECT * FROM " + table + " WHERE tenant_id = ? AND id = ?",
+                fuelRecordMapper, TenantContext.current(), id).stream().findFirst();
+    }
+
+    public Optional<MileageRecord> findMileageRecordById(String table, String id) {
+        return reportingBulkhead.getJdbcTemplate().query(
+                "SELECT * FROM " + table + " WHERE tenant_id = ? AND id = ?",
+                mileageRecordMapper, TenantContext.current(), id).stream().findFirst();
+    }
+}
@@ -1,15 +1,34 @@
 package com.cobox.fleet.repository;
 
 import com.cobox.fleet.entity.Schedule;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface ScheduleRepository extends JpaRepository<Schedule, String> {
+    List<Schedule> findByDeletedFalse();
+    Page<Schedule> findByDeletedFalse(Pageable pageable);
     List<Schedule> findByScheduleDate(String scheduleDate);
     List<Schedule> findByServiceDate(String serviceDate);
+    List<Schedule> findByServiceDateAndDeletedFalse(String serviceDate);
     List<Schedule> findByDriver(String driver);
     List<Schedule> findByPlate(String plate);
-}
\ No newline at end of file
+
+    // Offline sync (/api/v1/sync): changes and tombstones after a change sequence
+    List<Schedule> findByChangeSeqGreaterThanOrderByChangeSeqAsc(Long changeSeq, Pageable pageable);
+
+    @Query("SELECT MAX(e.changeSeq) FROM Schedule e WHERE e.deleted = true AND e.updatedAt < :before")
+    Long findMaxTombstoneChangeSeqBefore(@Param("before") LocalDateTime before);
+
+    @Modifying
+    @Query("DELETE FROM Schedule e WHERE e.deleted = true AND e.updatedAt < :before")
+    int deleteTombstonesBefore(@Param("before") LocalDateTime before);
+}
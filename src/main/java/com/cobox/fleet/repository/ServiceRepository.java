@@ -1,15 +1,34 @@
 package com.cobox.fleet.repository;
 
 import com.cobox.fleet.entity.Service;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface ServiceRepository extends JpaRepository<Service, String> {
+    List<Service> findByDeletedFalse();
+    Page<Service> findByDeletedFalse(Pageable pageable);
     List<Service> findByDate(String date);
+    List<Service> findByDateAndStatusAndDeletedFalse(String date, String status);
     List<Service> findByStatus(String status);
     List<Service> findByDriver(String driver);
     List<Service> findByPlate(String plate);
+
+    // Offline sync (/api/v1/sync): changes and tombstones after a change sequence
+    List<Service> findByChangeSeqGreaterThanOrderByChangeSeqAsc(Long changeSeq, Pageable pageable);
+
+    @Query("SELECT MAX(e.changeSeq) FROM Service e WHERE e.deleted = true AND e.updatedAt < :before")
+    Long findMaxTombstoneChangeSeqBefore(@Param("before") LocalDateTime before);
+
+    @Modifying
+    @Query("DELETE FROM Service e WHERE e.deleted = true AND e.updatedAt < :before")
+    int deleteTombstonesBefore(@Param("before") LocalDateTime before);
 }
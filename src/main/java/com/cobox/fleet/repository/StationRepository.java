@@ -0,0 +1,9 @@
+package com.cobox.fleet.repository;
+
+import com.cobox.fleet.entity.Station;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface StationRepository extends JpaRepository<Station, Long> {
+}
@@ -0,0 +1,13 @@
+package com.cobox.fleet.repository;
+
+import com.cobox.fleet.entity.TelemetryPoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TelemetryPointRepository extends JpaRepository<TelemetryPoint, TelemetryPoint.Key> {
+    List<TelemetryPoint> findByVehicleIdAndRecordedAtBetweenOrderByRecordedAtAsc(String vehicleId, LocalDateTime start, LocalDateTime end);
+}
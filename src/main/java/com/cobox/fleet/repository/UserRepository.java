@@ -1,15 +1,41 @@
 package com.cobox.fleet.repository;
 
 import com.cobox.fleet.entity.User;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_CACHE_REGION;
+
 @Repository
 public interface UserRepository extends JpaRepository<User, String> {
+    List<User> findByDeletedFalse();
     Optional<User> findByDni(String dni);
+
+    @QueryHints({@QueryHint(name = HINT_CACHEABLE, value = "true"), @QueryHint(name = HINT_CACHE_REGION, value = "userQueries")})
     List<User> findByLevelOrderByNameAsc(String level);
+
+    List<User> findByLevelAndDeletedFalse(String level);
+
     boolean existsByDni(String dni);
-}
\ No newline at end of file
+
+    // Offline sync (/api/v1/sync): changes and tombstones after a change sequence
+    List<User> findByChangeSeqGreaterThanOrderByChangeSeqAsc(Long changeSeq, Pageable pageable);
+
+    @Query("SELECT MAX(e.changeSeq) FROM User e WHERE e.deleted = true AND e.updatedAt < :before")
+    Long findMaxTombstoneChangeSeqBefore(@Param("before") LocalDateTime before);
+
+    @Modifying
+    @Query("DELETE FROM User e WHERE e.deleted = true AND e.updatedAt < :before")
+    int deleteTombstonesBefore(@Param("before") LocalDateTime before);
+}
@@ -1,16 +1,45 @@
 package com.cobox.fleet.repository;
 
 import com.cobox.fleet.entity.Vehicle;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_CACHE_REGION;
+
 @Repository
 public interface VehicleRepository extends JpaRepository<Vehicle, String> {
     Optional<Vehicle> findByPlate(String plate);
+    Optional<Vehicle> findByPlateAndDeletedFalse(String plate);
+    List<Vehicle> findByDeletedFalse();
     List<Vehicle> findByStatus(String status);
     List<Vehicle> findByActiveTrue();
+
+    @QueryHints({@QueryHint(name = HINT_CACHEABLE, value = "true"), @QueryHint(name = HINT_CACHE_REGION, value = "vehicleQueries")})
+    List<Vehicle> findByStatusAndDeletedFalse(String status);
+
+    @QueryHints({@QueryHint(name = HINT_CACHEABLE, value = "true"), @QueryHint(name = HINT_CACHE_REGION, value = "vehicleQueries")})
+    List<Vehicle> findByActiveTrueAndDeletedFalse();
+
     List<Vehicle> findByBrandAndModel(String brand, String model);
+
+    // Offline sync (/api/v1/sync): changes and tombstones after a change sequence
+    List<Vehicle> findByChangeSeqGreaterThanOrderByChangeSeqAsc(Long changeSeq, Pageable pageable);
+
+    @Query("SELECT MAX(e.changeSeq) FROM Vehicle e WHERE e.deleted = true AND e.updatedAt < :before")
+    Long findMaxTombstoneChangeSeqBefore(@Param("before") LocalDateTime before);
+
+    @Modifying
+    @Query("DELETE FROM Vehicle e WHERE e.deleted = true AND e.updatedAt < :before")
+    int deleteTombstonesBefore(@Param("before") LocalDateTime before);
 }
@@ -0,0 +1,505 @@
+package com.cobox.fleet.service;
+
+import com.cobox.fleet.config.TenantContext;
+import com.cobox.fleet.entity.AuditEntry;
+import com.cobox.fleet.entity.ChangeTracked;
+import com.cobox.fleet.entity.FuelRecord;
+import com.cobox.fleet.entity.FuelRecordSummary;
+import com.cobox.fleet.entity.MileageRecord;
+import com.cobox.fleet.entity.Schedule;
+import com.cobox.fleet.entity.Service;
+import com.cobox.fleet.entity.Station;
+import com.cobox.fleet.entity.User;
+import com.cobox.fleet.entity.Vehicle;
+import com.cobox.fleet.repository.AuditEntryRepository;
+import com.cobox.fleet.storage.MpscRingBuffer;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Append-only change history for the editable resources.
+ * <p>
+ * Hibernate post-commit events turn every committed insert, update and delete into an
+ * {@link AuditEntry} holding only the changed fields as {@code [old, new]} pairs. The
+ * committing thread just offers the entry to an {@link MpscRingBuffer}; one flusher thread
+ * writes them with multi-row inserts, per tenant, so auditing adds no round trip to the
+ * request. When the buffer is full the producer waits for room rather than dropping history.
+ * Entries still in memory are lost on a crash, which is the price of keeping them off the
+ * write path.
+ * <p>
+ * Any version is rebuilt by starting from the current row and undoing the newer entries
+ * with their old values, which also works for rows that existed before auditing started.
+ */
+@Component
+public class AuditLogService implements PostCommitInsertEventListener, PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditLogService.class);
+
+    static final Map<Class<?>, String> AUDITED_TYPES = Map.of(
+            Vehicle.class, "Vehicle",
+            User.class, "User",
+            Service.class, "Service",
+            Schedule.class, "Schedule",
+            FuelRecord.class, "FuelRecord",
+            FuelRecordSummary.class, "FuelRecordSummary",
+            MileageRecord.class, "MileageRecord",
+            Station.class, "Station"
+    );
+
+    /** Bookkeeping columns that change on every write and say nothing about the business data. */
+    private static final Set<String> IGNORED_FIELDS = Set.of("tenantId", "updatedAt", "changeSeq", "version");
+
+    private static final String INSERT_PREFIX =
+            "INSERT INTO audit_log (tenant_id, entity_type, entity_id, action, actor, changes, changed_at) VALUES ";
+    private static final String ROW_PLACEHOLDERS = "(?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AuditEntryRepository auditEntryRepository;
+
+    @Value("${fleet.audit.buffer-capacity:16384}")
+    private int bufferCapacity;
+
+    @Value("${fleet.audit.batch-size:200}")
+    private int batchSize;
+
+    @Value("${fleet.audit.flush-interval-ms:250}")
+    private long flushIntervalMs;
+
+    @Value("${fleet.audit.offer-timeout-ms:2000}")
+    private long offerTimeoutMs;
+
+    @Value("${fleet.audit.actor-header:X-Client-Id}")
+    private String actorHeader;
+
+    private MpscRingBuffer<AuditEntry> buffer;
+    private Thread flusher;
+    private volatile boolean running;
+    private volatile boolean writing;
+    private String fullBatchSql;
+
+    private final LongAdder recorded = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final AtomicLong flushedRows = new AtomicLong();
+    private final AtomicLong failedRows = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+
+    @PostConstruct
+    public void start() {
+        buffer = new MpscRingBuffer<>(bufferCapacity);
+        fullBatchSql = insertSql(batchSize);
+        running = true;
+        flusher = new Thread(this::flushLoop, "audit-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        Object[] state = event.getState();
+        ObjectNode changes = objectMapper.createObjectNode();
+        String[] names = event.getPersister().getPropertyNames();
+        for (int i = 0; i < names.length; i++) {
+            if (state[i] != null) {
+                putChange(changes, names[i], null, state[i]);
+            }
+        }
+        record(event.getSession().getTenantIdentifier(), event.getEntity(), event.getId(), AuditEntry.CREATED, changes);
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        // Spring Data saves managed entities, so the loaded snapshot is always available here
+        Object[] oldState = event.getOldState();
+        Object[] state = event.getState();
+        String[] names = event.getPersister().getPropertyNames();
+        ObjectNode changes = objectMapper.createObjectNode();
+        for (int i = 0; i < names.length; i++) {
+            Object old = oldState == null ? null : oldState[i];
+            if (!sameValue(old, state[i])) {
+                putChange(changes, names[i], old, state[i]);
+            }
+        }
+        boolean softDeleted = event.getEntity() instanceof ChangeTracked tracked && Boolean.TRUE.equals(tracked.getDeleted())
+                && changes.has("deleted");
+        record(event.getSession().getTenantIdentifier(), event.getEntity(), event.getId(),
+                softDeleted ? AuditEntry.DELETED : AuditEntry.UPDATED, changes);
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        Object[] state = event.getDeletedState();
+        ObjectNode changes = objectMapper.createObjectNode();
+        String[] names = event.getPersister().getPropertyNames();
+        for (int i = 0; i < names.length; i++) {
+            if (state[i] != null) {
+                putChange(changes, names[i], state[i], null);
+            }
+        }
+        record(event.getSession().getTenantIdentifier(), event.getEntity(), event.getId(), AuditEntry.PURGED, changes);
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return AUDITED_TYPES.containsKey(persister.getMappedClass());
+    }
+
+    /**
+     * Records a committed write made with plain JDBC (the CSV import), which Hibernate's
+     * events never see. {@code before} is null for an inserted row.
+     */
+    public void recordWrite(String tenant, ChangeTracked before, ChangeTracked after) {
+        ObjectNode oldState = before == null ? objectMapper.createObjectNode() : objectMapper.valueToTree(before);
+        ObjectNode newState = objectMapper.valueToTree(after);
+        ObjectNode changes = objectMapper.createObjectNode();
+        Iterator<Map.Entry<String, JsonNode>> fields = newState.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            JsonNode old = oldState.path(field.getKey());
+            JsonNode value = field.getValue();
+            if (old.isMissingNode()) {
+                old = objectMapper.nullNode();
+            }
+            // Same fields as the Hibernate path: properties only, without the identifier
+            if ("id".equals(field.getKey()) || IGNORED_FIELDS.contains(field.getKey()) || before == null && value.isNull()) {
+                continue;
+            }
+            boolean same = old.isNumber() && value.isNumber()
+                    ? old.decimalValue().compareTo(value.decimalValue()) == 0 : old.equals(value);
+            if (!same) {
+                changes.putArray(field.getKey()).add(old).add(value);
+            }
+        }
+        record(tenant, after, after.getId(), before == null ? AuditEntry.CREATED : AuditEntry.UPDATED, changes);
+    }
+
+    /**
+     * The change log of one entity, oldest first. With {@code version} or {@code at} the
+     * response also carries the full state as of that version; version 0 is the state
+     * before the first recorded change. Returns null when the entity is unknown.
+     *
+     * @param current the live row, or null when it no longer exists
+     */
+    public Map<String, Object> history(String entityType, String entityId, Object current, Integer version, LocalDateTime at) {
+        awaitFlushed();
+        List<AuditEntry> entries = auditEntryRepository.findByEntityTypeAndEntityIdOrderByIdAsc(entityType, entityId);
+        if (entries.isEmpty() && current == null) {
+            return null;
+        }
+        List<JsonNode> changes = new ArrayList<>(entries.size());
+        List<Map<String, Object>> versions = new ArrayList<>(entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            AuditEntry entry = entries.get(i);
+            JsonNode entryChanges = readChanges(entry);
+            changes.add(entryChanges);
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("version", i + 1);
+            row.put("action", entry.getAction());
+            row.put("actor", entry.getActor());
+            row.put("changedAt", entry.getChangedAt());
+            row.put("changes", entryChanges);
+            versions.add(row);
+        }
+
+        Map<String, Object> history = new LinkedHashMap<>();
+        history.put("entityType", entityType);
+        history.put("entityId", entityId);
+        history.put("currentVersion", entries.size());
+        if (version == null && at == null) {
+            history.put("versions", versions);
+            return history;
+        }
+
+        int target = version != null ? version : versionAt(entries, at);
+        if (target < 0 || target > entries.size()) {
+            throw new IllegalArgumentException("Version " + target + " out of range 0.." + entries.size());
+        }
+        history.put("version", target);
+        history.put("changedAt", target == 0 ? null : entries.get(target - 1).getChangedAt());
+        history.put("state", rebuild(entries, changes, current, target));
+        return history;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("recorded", recorded.sum());
+        stats.put("dropped", dropped.sum());
+        stats.put("flushedRows", flushedRows.get());
+        stats.put("failedRows", failedRows.get());
+        stats.put("batches", batches.get());
+        stats.put("buffered", buffer.size());
+        return stats;
+    }
+
+    private ObjectNode rebuild(List<AuditEntry> entries, List<JsonNode> changes, Object current, int target) {
+        boolean absent = target == 0
+                ? !entries.isEmpty() && AuditEntry.CREATED.equals(entries.get(0).getAction())
+                : AuditEntry.PURGED.equals(entries.get(target - 1).getAction());
+        if (absent) {
+            return null;
+        }
+        ObjectNode state = current != null ? objectMapper.valueToTree(current) : objectMapper.createObjectNode();
+        for (int i = entries.size() - 1; i >= target; i--) {
+            Iterator<Map.Entry<String, JsonNode>> fields = changes.get(i).fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                state.set(field.getKey(), field.getValue().get(0));
+            }
+        }
+        state.remove(IGNORED_FIELDS);
+        return state;
+    }
+
+    private static int versionAt(List<AuditEntry> entries, LocalDateTime at) {
+        int version = 0;
+        for (AuditEntry entry : entries) {
+            if (entry.getChangedAt().isAfter(at)) {
+                break;
+            }
+            version++;
+        }
+        return version;
+    }
+
+    private JsonNode readChanges(AuditEntry entry) {
+        try {
+            return objectMapper.readTree(entry.getChanges());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Corrupt audit entry " + entry.getId(), e);
+        }
+    }
+
+    private void putChange(ObjectNode changes, String field, Object oldValue, Object newValue) {
+        if (IGNORED_FIELDS.contains(field)) {
+            return;
+        }
+        ArrayNode pair = changes.putArray(field);
+        pair.add(objectMapper.<JsonNode>valueToTree(oldValue));
+        pair.add(objectMapper.<JsonNode>valueToTree(newValue));
+    }
+
+    private static boolean sameValue(Object a, Object b) {
+        // 12.50 and 12.5 come back from different code paths for the same column
+        if (a instanceof BigDecimal x && b instanceof BigDecimal y) {
+            return x.compareTo(y) == 0;
+        }
+        return Objects.equals(a, b);
+    }
+
+    /**
+     * Records one field changed from {@code oldValue} to {@code newValue} on every row in
+     * {@code ids}, for bulk JDBC updates (station resolution and deletion). Like the
+     * Hibernate path, nothing is recorded unless the surrounding transaction commits.
+     */
+    public void recordFieldChange(String tenant, Class<?> entityType, Collection<?> ids, String field,
+                                  Object oldValue, Object newValue) {
+        String type = AUDITED_TYPES.get(entityType);
+        if (type == null || ids.isEmpty()) {
+            return;
+        }
+        ObjectNode changes = objectMapper.createObjectNode();
+        changes.putArray(field).add(objectMapper.valueToTree(oldValue)).add(objectMapper.valueToTree(newValue));
+        Runnable write = () -> ids.forEach(id -> record(tenant, type, id, AuditEntry.UPDATED, changes));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    write.run();
+                }
+            });
+        } else {
+            write.run();
+        }
+    }
+
+    private void record(String tenant, Object entity, Object id, String action, ObjectNode changes) {
+        record(tenant, AUDITED_TYPES.get(entity.getClass()), id, action, changes);
+    }
+
+    private void record(String tenant, String entityType, Object id, String action, ObjectNode changes) {
+        if (entityType == null || changes.isEmpty()) {
+            return;
+        }
+        AuditEntry entry = new AuditEntry(tenant, entityType, String.valueOf(id), action, currentActor(),
+                changes.toString(), LocalDateTime.now());
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(offerTimeoutMs);
+        while (!buffer.offer(entry)) {
+            if (System.nanoTime() > deadline) {
+                dropped.increment();
+                log.error("Audit buffer full, dropped {} {} {}: {}", action, entityType, id, entry.getChanges());
+                return;
+            }
+            LockSupport.unpark(flusher);
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(200));
+        }
+        recorded.increment();
+    }
+
+    private String currentActor() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servlet) {
+            return servlet.getRequest().getHeader(actorHeader);
+        }
+        return null;
+    }
+
+    /**
+     * Gives the flusher a short chance to write what is buffered, so a history read right
+     * after a write sees it.
+     */
+    private void awaitFlushed() {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Math.max(flushIntervalMs, 100) * 4);
+        while ((buffer.size() > 0 || writing) && System.nanoTime() < deadline) {
+            LockSupport.unpark(flusher);
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(5));
+        }
+    }
+
+    private void flushLoop() {
+        List<AuditEntry> batch = new ArrayList<>(batchSize);
+        long idleNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        while (true) {
+            batch.clear();
+            writing = true;
+            buffer.drain(batch::add, batchSize);
+            if (batch.isEmpty()) {
+                writing = false;
+                if (!running) {
+                    return;
+                }
+                LockSupport.parkNanos(idleNanos);
+                continue;
+            }
+            writeByTenant(batch);
+            writing = false;
+        }
+    }
+
+    private void writeByTenant(List<AuditEntry> batch) {
+        // Dedicated tenants live in another database, so every tenant gets its own statement
+        Map<String, List<AuditEntry>> byTenant = new LinkedHashMap<>();
+        for (AuditEntry entry : batch) {
+            byTenant.computeIfAbsent(entry.getTenantId(), t -> new ArrayList<>()).add(entry);
+        }
+        byTenant.forEach((tenant, entries) -> TenantContext.runAs(tenant, () -> write(entries)));
+    }
+
+    private void write(List<AuditEntry> batch) {
+        try {
+            String sql = batch.size() == batchSize ? fullBatchSql : insertSql(batch.size());
+            jdbcTemplate.update(sql, ps -> {
+                int p = 1;
+                for (AuditEntry entry : batch) {
+                    ps.setString(p++, entry.getTenantId());
+                    ps.setString(p++, entry.getEntityType());
+                    ps.setString(p++, entry.getEntityId());
+                    ps.setString(p++, entry.getAction());
+                    ps.setString(p++, entry.getActor());
+                    ps.setString(p++, entry.getChanges());
+                    ps.setTimestamp(p++, Timestamp.valueOf(entry.getChangedAt()));
+                }
+            });
+            flushedRows.addAndGet(batch.size());
+        } catch (Exception e) {
+            failedRows.addAndGet(batch.size());
+            log.warn("Audit batch of {} entries failed", batch.size(), e);
+            // Keep the lost history recoverable from the log
+            for (AuditEntry entry : batch) {
+                log.error("Unwritten audit entry {} {} {} at {}: {}", entry.getAction(), entry.getEntityType(),
+                        entry.getEntityId(), entry.getChangedAt(), entry.getChanges());
+            }
+        } finally {
+            batches.incrementAndGet();
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        // The flusher drains what is left before exiting
+        running = false;
+        LockSupport.unpark(flusher);
+        flusher.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    private static String insertSql(int rows) {
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX.length() + rows * (ROW_PLACEHOLDERS.length() + 2));
+        sql.append(INSERT_PREFIX);
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(ROW_PLACEHOLDERS);
+        }
+        return sql.toString();
+    }
+}
@@ -0,0 +1,359 @@
+package com.cobox.fleet.service;
+
+import com.cobox.fleet.config.TenantContext;
+import com.cobox.fleet.config.TenantProperties;
+import com.cobox.fleet.entity.CostRollup;
+import com.cobox.fleet.entity.FuelRecord;
+import com.cobox.fleet.entity.Schedule;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * Cost ledger over fuel spend ({@code FuelRecord.totalCost}) and schedule final costs.
+ * <p>
+ * {@code cost_rollups} holds one row per day, plate, driver and source. Writes to fuel
+ * records or schedules collect the affected (day, plate) keys, which are recomputed with
+ * grouped SQL on the same connection just before commit, so the rollup commits or rolls
+ * back with the business write. Ledger queries then sum over the indexed rollup rows only.
+ * Every statement is scoped to one tenant: the session's tenant for recomputes, the
+ * current tenant for ledger queries and rebuilds. Fuel spend has no driver and is stored
+ * and reported under the empty driver {@code ""}, which {@code driver=} also filters on.
+ */
+@Service
+public class CostLedgerService implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    private static final Logger log = LoggerFactory.getLogger(CostLedgerService.class);
+
+    public static final List<String> GROUPINGS = List.of("plate", "driver", "day", "month");
+
+    private static final String DELETE_KEY_SQL =
+            "DELETE FROM cost_rollups WHERE tenant_id = ? AND cost_date = ? AND plate = ? AND source = ?";
+
+    private static final String INSERT_FUEL_KEY_SQL =
+            "INSERT INTO cost_rollups (tenant_id, cost_date, plate, driver, source, total_cost, entry_count) " +
+            "SELECT ?, ?, ?, '', '" + CostRollup.FUEL + "', SUM(total_cost), COUNT(*) FROM (" +
+            "SELECT total_cost FROM fuel_records WHERE tenant_id = ? AND vehicle_plate = ? AND date >= ? AND date < ? " +
+            "UNION ALL " +
+            "SELECT total_cost FROM fuel_records_archive WHERE tenant_id = ? AND vehicle_plate = ? AND date >= ? AND date < ?) f " +
+            "HAVING COUNT(*) > 0";
+
+    private static final String INSERT_SCHEDULE_KEY_SQL =
+            "INSERT INTO cost_rollups (tenant_id, cost_date, plate, driver, source, total_cost, entry_count) " +
+            "SELECT tenant_id, ?, plate, COALESCE(driver, ''), '" + CostRollup.SCHEDULE + "', SUM(COALESCE(final_cost, 0)), COUNT(*) " +
+            "FROM schedules WHERE tenant_id = ? AND plate = ? AND service_date = ? AND deleted = false " +
+            "GROUP BY tenant_id, plate, COALESCE(driver, '')";
+
+    private static final String REBUILD_FUEL_SQL =
+            "INSERT INTO cost_rollups (tenant_id, cost_date, plate, driver, source, total_cost, entry_count) " +
+            "SELECT ?, CAST(date AS DATE), vehicle_plate, '', '" + CostRollup.FUEL + "', SUM(total_cost), COUNT(*) FROM (" +
+            "SELECT date, vehicle_plate, total_cost FROM fuel_records WHERE tenant_id = ? " +
+            "UNION ALL " +
+            "SELECT date, vehicle_plate, total_cost FROM fuel_records_archive WHERE tenant_id = ?) f " +
+            "GROUP BY CAST(date AS DATE), vehicle_plate";
+
+    private static final String REBUILD_SCHEDULE_SQL =
+            "INSERT INTO cost_rollups (tenant_id, cost_date, plate, driver, source, total_cost, entry_count) " +
+            "SELECT tenant_id, CAST(service_date AS DATE), plate, COALESCE(driver, ''), '" + CostRollup.SCHEDULE + "', " +
+            "SUM(COALESCE(final_cost, 0)), COUNT(*) FROM schedules " +
+            "WHERE tenant_id = ? AND deleted = false AND service_date LIKE '____-__-__' " +
+            "GROUP BY tenant_id, CAST(service_date AS DATE), plate, COALESCE(driver, '')";
+
+    // Sessions are weakly held: a rolled-back session never runs its completion process
+    private final Map<EventSource, Set<PendingKey>> pendingBySession = Collections.synchronizedMap(new WeakHashMap<>());
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TenantProperties tenantProperties;
+
+    @PostConstruct
+    public void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfEmpty() {
+        // Seed data and rows written before the ledger existed never went through the listeners
+        for (String tenant : tenantProperties.allTenants()) {
+            TenantContext.runAs(tenant, () -> {
+                Integer rows = jdbcTemplate.queryForObject(
+                        "SELECT COUNT(*) FROM cost_rollups WHERE tenant_id = ?", Integer.class, tenant);
+                if (rows != null && rows == 0) {
+                    log.info("Cost rollups empty for tenant {}, rebuilding from fuel records and schedules", tenant);
+                    rebuild();
+                }
+            });
+        }
+    }
+
+    /**
+     * Recomputes every rollup row of the current tenant from the source tables, including
+     * archived fuel records.
+     */
+    public int rebuild() {
+        String tenant = TenantContext.current();
+        Integer rows = new TransactionTemplate(transactionManager).execute(status -> {
+            jdbcTemplate.update("DELETE FROM cost_rollups WHERE tenant_id = ?", tenant);
+            return jdbcTemplate.update(REBUILD_FUEL_SQL, tenant, tenant, tenant)
+                    + jdbcTemplate.update(REBUILD_SCHEDULE_SQL, tenant);
+        });
+        return rows == null ? 0 : rows;
+    }
+
+    @Transactional(readOnly = true)
+    public Map<String, Object> ledger(LocalDate from, LocalDate to, String groupBy, String plate, String driver) {
+        String keyColumns = switch (groupBy) {
+            case "plate" -> "plate";
+            case "driver" -> "driver";
+            case "day" -> "cost_date";
+            case "month" -> "YEAR(cost_date), MONTH(cost_date)";
+            default -> throw new IllegalArgumentException("Unsupported groupBy: " + groupBy);
+        };
+
+        StringBuilder sql = new StringBuilder("SELECT ").append(keyColumns).append(", ")
+                .append("SUM(CASE WHEN source = '").append(CostRollup.FUEL).append("' THEN total_cost ELSE 0 END) AS fuel_cost, ")
+                .append("SUM(CASE WHEN source = '").append(CostRollup.SCHEDULE).append("' THEN total_cost ELSE 0 END) AS schedule_cost, ")
+                .append("SUM(total_cost) AS total_cost, SUM(entry_count) AS entry_count ")
+                .append("FROM cost_rollups WHERE tenant_id = ? AND cost_date BETWEEN ? AND ?");
+        List<Object> params = new ArrayList<>(List.of(TenantContext.current(), Date.valueOf(from), Date.valueOf(to)));
+        if (plate != null) {
+            sql.append(" AND plate = ?");
+            params.add(plate);
+        }
+        if (driver != null) {
+            sql.append(" AND driver = ?");
+            params.add(driver);
+        }
+        sql.append(" GROUP BY ").append(keyColumns).append(" ORDER BY ").append(keyColumns);
+
+        boolean month = "month".equals(groupBy);
+        int firstValue = month ? 3 : 2;
+        List<Map<String, Object>> rows = jdbcTemplate.query(sql.toString(), (rs, rowNum) -> {
+            Object key;
+            if (month) {
+                key = String.format("%04d-%02d", rs.getInt(1), rs.getInt(2));
+            } else if ("day".equals(groupBy)) {
+                key = rs.getDate(1).toLocalDate().toString();
+            } else {
+                key = rs.getString(1);
+            }
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put(groupBy, key);
+            row.put("fuelCost", rs.getBigDecimal(firstValue));
+            row.put("scheduleCost", rs.getBigDecimal(firstValue + 1));
+            row.put("totalCost", rs.getBigDecimal(firstValue + 2));
+            row.put("entries", rs.getLong(firstValue + 3));
+            return row;
+        }, params.toArray());
+
+        BigDecimal fuel = BigDecimal.ZERO;
+        BigDecimal schedule = BigDecimal.ZERO;
+        long entries = 0;
+        for (Map<String, Object> row : rows) {
+            fuel = fuel.add((BigDecimal) row.get("fuelCost"));
+            schedule = schedule.add((BigDecimal) row.get("scheduleCost"));
+            entries += (Long) row.get("entries");
+        }
+        Map<String, Object> totals = new LinkedHashMap<>();
+        totals.put("fuelCost", fuel);
+        totals.put("scheduleCost", schedule);
+        totals.put("totalCost", fuel.add(schedule));
+        totals.put("entries", entries);
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("from", from.toString());
+        response.put("to", to.toString());
+        response.put("groupBy", groupBy);
+        response.put("rows", rows);
+        response.put("totals", totals);
+        return response;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        refresh(event.getSession(), event.getEntity(), null, event.getPersister());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        refresh(event.getSession(), event.getEntity(), event.getOldState(), event.getPersister());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        refresh(event.getSession(), event.getEntity(), null, event.getPersister());
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private void refresh(EventSource session, Object entity, Object[] oldState, EntityPersister persister) {
+        if (entity instanceof FuelRecord fuel) {
+            LocalDate day = fuel.getDate().toLocalDate();
+            pendingKeys(session).add(new PendingKey(CostRollup.FUEL, day.toString(), fuel.getVehiclePlate()));
+            if (oldState != null) {
+                LocalDateTime oldDate = (LocalDateTime) oldState[propertyIndex(persister, "date")];
+                String oldPlate = (String) oldState[propertyIndex(persister, "vehiclePlate")];
+                if (oldDate != null) {
+                    pendingKeys(session).add(new PendingKey(CostRollup.FUEL, oldDate.toLocalDate().toString(), oldPlate));
+                }
+            }
+        } else if (entity instanceof Schedule schedule) {
+            pendingKeys(session).add(new PendingKey(CostRollup.SCHEDULE, schedule.getServiceDate(), schedule.getPlate()));
+            if (oldState != null) {
+                String oldServiceDate = (String) oldState[propertyIndex(persister, "serviceDate")];
+                String oldPlate = (String) oldState[propertyIndex(persister, "plate")];
+                pendingKeys(session).add(new PendingKey(CostRollup.SCHEDULE, oldServiceDate, oldPlate));
+            }
+        }
+    }
+
+    /**
+     * Keys touched in this session, recomputed once just before commit. By then every
+     * statement of the transaction, including JDBC-batched inserts, has been executed.
+     */
+    private Set<PendingKey> pendingKeys(EventSource session) {
+        return pendingBySession.computeIfAbsent(session, s -> {
+            Set<PendingKey> keys = new LinkedHashSet<>();
+            String tenant = session.getTenantIdentifier();
+            session.getActionQueue().registerProcess((BeforeTransactionCompletionProcess) completing -> {
+                pendingBySession.remove(session);
+                completing.doWork(connection -> {
+                    for (PendingKey key : keys) {
+                        if (CostRollup.FUEL.equals(key.source())) {
+                            refreshFuel(connection, tenant, LocalDate.parse(key.date()), key.plate());
+                        } else {
+                            refreshSchedule(connection, tenant, key.date(), key.plate());
+                        }
+                    }
+                });
+            });
+            return keys;
+        });
+    }
+
+    private record PendingKey(String source, String date, String plate) {}
+
+    /**
+     * Recomputes one schedule key on the current transaction's connection, for schedule
+     * writes that bypass Hibernate (the CSV import).
+     */
+    public void refreshSchedule(String tenant, String serviceDate, String plate) {
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            refreshSchedule(connection, tenant, serviceDate, plate);
+            return null;
+        });
+    }
+
+    private void refreshFuel(Connection connection, String tenant, LocalDate day, String plate) throws SQLException {
+        deleteKey(connection, tenant, day, plate, CostRollup.FUEL);
+        Timestamp start = Timestamp.valueOf(day.atStartOfDay());
+        Timestamp end = Timestamp.valueOf(day.plusDays(1).atStartOfDay());
+        try (PreparedStatement ps = connection.prepareStatement(INSERT_FUEL_KEY_SQL)) {
+            ps.setString(1, tenant);
+            ps.setDate(2, Date.valueOf(day));
+            ps.setString(3, plate);
+            for (int offset : new int[]{4, 8}) {
+                ps.setString(offset, tenant);
+                ps.setString(offset + 1, plate);
+                ps.setTimestamp(offset + 2, start);
+                ps.setTimestamp(offset + 3, end);
+            }
+            ps.executeUpdate();
+        }
+    }
+
+    private void refreshSchedule(Connection connection, String tenant, String serviceDate, String plate) throws SQLException {
+        LocalDate day;
+        try {
+            day = LocalDate.parse(serviceDate);
+        } catch (DateTimeParseException | NullPointerException e) {
+            log.warn("Schedule service date '{}' is not yyyy-MM-dd, skipping cost rollup", serviceDate);
+            return;
+        }
+        deleteKey(connection, tenant, day, plate, CostRollup.SCHEDULE);
+        try (PreparedStatement ps = connection.prepareStatement(INSERT_SCHEDULE_KEY_SQL)) {
+            ps.setDate(1, Date.valueOf(day));
+            ps.setString(2, tenant);
+            ps.setString(3, plate);
+            ps.setString(4, serviceDate);
+            ps.executeUpdate();
+        }
+    }
+
+    private static void deleteKey(Connection connection, String tenant, LocalDate day, String plate, String source)
+            throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(DELETE_KEY_SQL)) {
+            ps.setString(1, tenant);
+            ps.setDate(2, Date.valueOf(day));
+            ps.setString(3, plate);
+            ps.setString(4, source);
+            ps.executeUpdate();
+        }
+    }
+
+    private static int propertyIndex(EntityPersister persister, String property) {
+        String[] names = persister.getPropertyNames();
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(property)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException(persister.getEntityName() + " has no property " + property);
+    }
+}
@@ -0,0 +1,598 @@
+package com.cobox.fleet.service;
+
+import com.cobox.fleet.config.TenantContext;
+import com.cobox.fleet.entity.ChangeSequence;
+import com.cobox.fleet.entity.ChangeTracked;
+import com.cobox.fleet.entity.OutboxEvent;
+import com.cobox.fleet.entity.Schedule;
+import com.cobox.fleet.entity.Service;
+import com.cobox.fleet.outbox.OutboxEntityListener;
+import com.cobox.fleet.storage.CsvReader;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.BeanPropertyRowMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Bulk upsert of services and schedules from CSV files exported by spreadsheets.
+ * <p>
+ * The file is parsed record by record and written in chunks of
+ * {@code fleet.import.batch-size} rows, each in its own transaction: one {@code id IN (...)}
+ * query finds the rows that already exist, then new rows and changed rows go out as two JDBC
+ * batches, so a 100k-row file never sits in memory and never costs a query per row. Rows
+ * identical to the stored ones are counted as unchanged and left alone.
+ * <p>
+ * Plain JDBC bypasses the Hibernate listeners, so each chunk does their work itself: change
+ * sequence and version stamps, outbox events and schedule cost rollups in the same
+ * transaction, audit entries after commit.
+ */
+@Component
+public class CsvImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(CsvImportService.class);
+
+    private static final DateTimeFormatter SPREADSHEET_DATE = DateTimeFormatter.ofPattern("d/M/yyyy");
+    private static final DateTimeFormatter SPREADSHEET_TIME = DateTimeFormatter.ofPattern("H:mm[:ss]");
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("HH:mm");
+
+    private static final Resource<Service> SERVICES = new Resource<>("Service", "services",
+            Service.class, List.of("date", "route", "driver", "plate", "departureTime", "status", "requiredCapacity"),
+            Set.of("status", "requiredCapacity")) {
+        @Override
+        Service parse(Fields fields) {
+            Service service = new Service();
+            service.setId(text(fields.required("id"), 255, "id"));
+            service.setDate(date(fields.required("date"), "date"));
+            service.setRoute(text(fields.required("route"), 1000, "route"));
+            service.setDriver(text(fields.required("driver"), 255, "driver"));
+            service.setPlate(text(fields.required("plate"), 255, "plate"));
+            service.setDepartureTime(time(fields.required("departureTime")));
+            String status = fields.get("status");
+            service.setStatus(status == null ? "PENDING" : text(status.toUpperCase(Locale.ROOT), 255, "status"));
+            String capacity = fields.get("requiredCapacity");
+            service.setRequiredCapacity(capacity == null ? null : integer(capacity, "requiredCapacity"));
+            return service;
+        }
+
+        @Override
+        Object[] values(Service s) {
+            return new Object[]{s.getDate(), s.getRoute(), s.getDriver(), s.getPlate(), s.getDepartureTime(),
+                    s.getStatus(), s.getRequiredCapacity()};
+        }
+    };
+
+    private static final Resource<Schedule> SCHEDULES = new Resource<>("Schedule", "schedules",
+            Schedule.class, List.of("scheduleDate", "serviceDate", "origin", "destination", "driver", "plate",
+                    "departureTime", "finalCost"),
+            Set.of("finalCost")) {
+        @Override
+        Schedule parse(Fields fields) {
+            Schedule schedule = new Schedule();
+            schedule.setId(text(fields.required("id"), 255, "id"));
+            schedule.setScheduleDate(date(fields.required("scheduleDate"), "scheduleDate"));
+            schedule.setServiceDate(date(fields.required("serviceDate"), "serviceDate"));
+            schedule.setOrigin(text(fields.required("origin"), 255, "origin"));
+            schedule.setDestination(text(fields.required("destination"), 1000, "destination"));
+            schedule.setDriver(text(fields.required("driver"), 255, "driver"));
+            schedule.setPlate(text(fields.required("plate"), 255, "plate"));
+            schedule.setDepartureTime(time(fields.required("departureTime")));
+            String cost = fields.get("finalCost");
+            schedule.setFinalCost(cost == null ? null : money(cost, "finalCost"));
+            return schedule;
+        }
+
+        @Override
+        Object[] values(Schedule s) {
+            return new Object[]{s.getScheduleDate(), s.getServiceDate(), s.getOrigin(), s.getDestination(),
+                    s.getDriver(), s.getPlate(), s.getDepartureTime(), s.getFinalCost()};
+        }
+    };
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AuditLogService auditLogService;
+
+    @Autowired
+    private CostLedgerService costLedgerService;
+
+    @Value("${fleet.import.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${fleet.import.max-reported-errors:100}")
+    private int maxReportedErrors;
+
+    public Map<String, Object> importServices(InputStream in) throws IOException {
+        return importCsv(SERVICES, in);
+    }
+
+    public Map<String, Object> importSchedules(InputStream in) throws IOException {
+        return importCsv(SCHEDULES, in);
+    }
+
+    /**
+     * Reads the whole stream and returns the counts. Chunks already written stay committed
+     * when a later one fails or the file turns out to be malformed halfway.
+     *
+     * @throws IllegalArgumentException when the header is empty, repeats a column or lacks
+     *                                  a required one
+     */
+    private <T extends ChangeTracked> Map<String, Object> importCsv(Resource<T> resource, InputStream in) throws IOException {
+        long started = System.nanoTime();
+        String tenant = TenantContext.current();
+        Result result = new Result(maxReportedErrors);
+        try (CsvReader reader = CsvReader.open(in)) {
+            List<String> header = reader.next();
+            if (header == null) {
+                throw new IllegalArgumentException("Empty file");
+            }
+            Map<String, Integer> positions = resource.positions(header, result.ignoredColumns);
+
+            Set<String> seenIds = new HashSet<>();
+            List<Row<T>> chunk = new ArrayList<>(batchSize);
+            while (true) {
+                List<String> record;
+                try {
+                    record = reader.next();
+                } catch (IllegalArgumentException e) {
+                    // Unreadable from here on: keep what was written and say where it stopped
+                    result.reject(reader.getRecordLine(), null, e.getMessage());
+                    result.completed = false;
+                    break;
+                }
+                if (record == null) {
+                    break;
+                }
+                result.rows++;
+                long line = reader.getRecordLine();
+                if (record.size() != header.size()) {
+                    result.reject(line, null, "Expected " + header.size() + " fields, found " + record.size());
+                    continue;
+                }
+                T entity;
+                try {
+                    entity = resource.parse(new Fields(positions, record));
+                } catch (IllegalArgumentException e) {
+                    Integer idAt = positions.get("id");
+                    result.reject(line, idAt == null ? null : record.get(idAt).trim(), e.getMessage());
+                    continue;
+                }
+                if (!seenIds.add(entity.getId())) {
+                    result.reject(line, entity.getId(), "Duplicate id in file");
+                    continue;
+                }
+                chunk.add(new Row<>(line, entity));
+                if (chunk.size() == batchSize) {
+                    writeChunk(resource, tenant, chunk, result);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                writeChunk(resource, tenant, chunk, result);
+            }
+        }
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("resource", resource.table);
+        response.put("completed", result.completed);
+        response.put("rows", result.rows);
+        response.put("inserted", result.inserted);
+        response.put("updated", result.updated);
+        response.put("unchanged", result.unchanged);
+        response.put("rejected", result.rejected);
+        response.put("ignoredColumns", result.ignoredColumns);
+        response.put("errors", result.errors);
+        response.put("durationMs", (System.nanoTime() - started) / 1_000_000);
+        log.info("Imported {} {} rows for {}: {} inserted, {} updated, {} unchanged, {} rejected", result.rows,
+                resource.table, tenant, result.inserted, result.updated, result.unchanged, result.rejected);
+        return response;
+    }
+
+    private <T extends ChangeTracked> void writeChunk(Resource<T> resource, String tenant, List<Row<T>> chunk, Result result) {
+        Outcome<T> outcome = null;
+        for (int attempt = 1; outcome == null; attempt++) {
+            try {
+                outcome = new TransactionTemplate(transactionManager).execute(status -> upsert(resource, tenant, chunk));
+            } catch (DuplicateKeyException | OptimisticLockingFailureException e) {
+                // Someone else wrote one of these ids between our existence check and the batch
+                if (attempt == 2) {
+                    rejectAll(chunk, result, "Concurrent change to the same rows, import them again");
+                    return;
+                }
+            } catch (DataIntegrityViolationException e) {
+                rejectAll(chunk, result, e.getMostSpecificCause().getMessage());
+                return;
+            }
+        }
+
+        for (Row<T> row : outcome.foreign) {
+            result.reject(row.line(), row.entity().getId(), "Id already used by another sede");
+        }
+        result.inserted += outcome.inserted.size();
+        result.updated += outcome.updated.size();
+        result.unchanged += outcome.unchanged;
+        for (Row<T> row : outcome.inserted) {
+            auditLogService.recordWrite(tenant, null, row.entity());
+        }
+        for (int i = 0; i < outcome.updated.size(); i++) {
+            auditLogService.recordWrite(tenant, outcome.before.get(i), outcome.updated.get(i).entity());
+        }
+    }
+
+    private <T extends ChangeTracked> Outcome<T> upsert(Resource<T> resource, String tenant, List<Row<T>> chunk) {
+        Outcome<T> outcome = new Outcome<>();
+        // No tenant filter: ids are global keys, and a hit in another sede must be refused, not inserted
+        String placeholders = String.join(", ", Collections.nCopies(chunk.size(), "?"));
+        Map<String, T> existing = new HashMap<>();
+        for (T row : jdbcTemplate.query("SELECT * FROM " + resource.table + " WHERE id IN (" + placeholders + ")",
+                new BeanPropertyRowMapper<>(resource.type), chunk.stream().map(r -> r.entity().getId()).toArray())) {
+            existing.put(row.getId(), row);
+        }
+        for (Row<T> row : chunk) {
+            T current = existing.get(row.entity().getId());
+            if (current == null) {
+                outcome.inserted.add(row);
+            } else if (!tenant.equals(tenantOf(current))) {
+                outcome.foreign.add(row);
+            } else if (!Boolean.TRUE.equals(current.getDeleted())
+                    && sameValues(resource.values(current), resource.values(row.entity()))) {
+                outcome.unchanged++;
+            } else {
+                outcome.updated.add(row);
+                outcome.before.add(current);
+            }
+        }
+        int writes = outcome.inserted.size() + outcome.updated.size();
+        if (writes == 0) {
+            return outcome;
+        }
+
+        // Same sequence and lock as ChangeTrackingListener, so sync clients see these rows in commit order
+        Long current = jdbcTemplate.queryForObject(
+                "SELECT current_value FROM change_sequences WHERE name = ? FOR UPDATE", Long.class, ChangeSequence.SYNC);
+        jdbcTemplate.update("UPDATE change_sequences SET current_value = ? WHERE name = ?", current + writes, ChangeSequence.SYNC);
+        long changeSeq = current + 1;
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp nowTimestamp = Timestamp.valueOf(now);
+
+        List<Object[]> insertArgs = new ArrayList<>(outcome.inserted.size());
+        List<Object[]> outboxArgs = new ArrayList<>(writes);
+        for (Row<T> row : outcome.inserted) {
+            T entity = row.entity();
+            stamp(entity, tenant, 0L, now, changeSeq++);
+            insertArgs.add(resource.insertArgs(entity, nowTimestamp));
+            outboxArgs.add(outboxArgs(resource, entity, tenant, OutboxEvent.CREATED, nowTimestamp));
+        }
+        List<Object[]> updateArgs = new ArrayList<>(outcome.updated.size());
+        for (int i = 0; i < outcome.updated.size(); i++) {
+            T entity = outcome.updated.get(i).entity();
+            long previousVersion = versionOf(outcome.before.get(i));
+            stamp(entity, tenant, previousVersion + 1, now, changeSeq++);
+            updateArgs.add(resource.updateArgs(entity, nowTimestamp, tenant, previousVersion));
+            outboxArgs.add(outboxArgs(resource, entity, tenant, OutboxEvent.UPDATED, nowTimestamp));
+        }
+
+        jdbcTemplate.batchUpdate(resource.insertSql, insertArgs);
+        int[] updateCounts = jdbcTemplate.batchUpdate(resource.updateSql, updateArgs);
+        for (int i = 0; i < updateCounts.length; i++) {
+            if (updateCounts[i] == 0) {
+                throw new OptimisticLockingFailureException(resource.aggregateType + " "
+                        + outcome.updated.get(i).entity().getId() + " changed during import");
+            }
+        }
+        jdbcTemplate.batchUpdate(OutboxEntityListener.INSERT_SQL, outboxArgs);
+
+        if (resource == SCHEDULES) {
+            Set<List<String>> keys = new LinkedHashSet<>();
+            for (Row<T> row : outcome.inserted) {
+                keys.add(rollupKey((Schedule) row.entity()));
+            }
+            for (int i = 0; i < outcome.updated.size(); i++) {
+                keys.add(rollupKey((Schedule) outcome.updated.get(i).entity()));
+                keys.add(rollupKey((Schedule) outcome.before.get(i)));
+            }
+            for (List<String> key : keys) {
+                costLedgerService.refreshSchedule(tenant, key.get(0), key.get(1));
+            }
+        }
+        return outcome;
+    }
+
+    private static List<String> rollupKey(Schedule schedule) {
+        return List.of(schedule.getServiceDate(), schedule.getPlate());
+    }
+
+    private static void stamp(ChangeTracked entity, String tenant, long version, LocalDateTime now, long changeSeq) {
+        if (entity instanceof Service service) {
+            service.setTenantId(tenant);
+            service.setVersion(version);
+        } else if (entity instanceof Schedule schedule) {
+            schedule.setTenantId(tenant);
+            schedule.setVersion(version);
+        }
+        entity.setDeleted(false);
+        entity.setUpdatedAt(now);
+        entity.setChangeSeq(changeSeq);
+    }
+
+    private static String tenantOf(ChangeTracked entity) {
+        return entity instanceof Service service ? service.getTenantId() : ((Schedule) entity).getTenantId();
+    }
+
+    private static long versionOf(ChangeTracked entity) {
+        Long version = entity instanceof Service service ? service.getVersion() : ((Schedule) entity).getVersion();
+        return version == null ? 0 : version;
+    }
+
+    private Object[] outboxArgs(Resource<?> resource, Object entity, String tenant, String eventType, Timestamp now) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(entity);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize " + resource.aggregateType + " for the outbox", e);
+        }
+        return new Object[]{tenant, resource.aggregateType, ((ChangeTracked) entity).getId(), eventType, payload, now};
+    }
+
+    private static boolean sameValues(Object[] a, Object[] b) {
+        for (int i = 0; i < a.length; i++) {
+            // 12.50 from the database is the same cost as 12.5 from the file
+            boolean same = a[i] instanceof BigDecimal x && b[i] instanceof BigDecimal y
+                    ? x.compareTo(y) == 0 : Objects.equals(a[i], b[i]);
+            if (!same) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static <T extends ChangeTracked> void rejectAll(List<Row<T>> chunk, Result result, String reason) {
+        for (Row<T> row : chunk) {
+            result.reject(row.line(), row.entity().getId(), reason);
+        }
+    }
+
+    static String text(String value, int maxLength, String column) {
+        if (value.length() > maxLength) {
+            throw new IllegalArgumentException(column + " longer than " + maxLength + " characters");
+        }
+        return value;
+    }
+
+    /** yyyy-MM-dd, or d/M/yyyy as Spanish-locale spreadsheets write it; stored as yyyy-MM-dd. */
+    static String date(String value, String column) {
+        try {
+            return (value.indexOf('/') >= 0 ? LocalDate.parse(value, SPREADSHEET_DATE) : LocalDate.parse(value)).toString();
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(column + " '" + value + "' is not a date (yyyy-MM-dd or dd/MM/yyyy)");
+        }
+    }
+
+    /** H:mm or HH:mm[:ss], stored as HH:mm. */
+    static String time(String value) {
+        try {
+            return LocalTime.parse(value, SPREADSHEET_TIME).format(TIME);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("departureTime '" + value + "' is not a time (HH:mm)");
+        }
+    }
+
+    static Integer integer(String value, String column) {
+        try {
+            int parsed = Integer.parseInt(value);
+            if (parsed < 0) {
+                throw new IllegalArgumentException(column + " must not be negative");
+            }
+            return parsed;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(column + " '" + value + "' is not a whole number");
+        }
+    }
+
+    /** Accepts a decimal comma when there is no point, as in {@code 1250,50}. */
+    static BigDecimal money(String value, String column) {
+        try {
+            String plain = value.indexOf('.') < 0 ? value.replace(',', '.') : value;
+            BigDecimal amount = new BigDecimal(plain).setScale(2, RoundingMode.HALF_UP);
+            if (amount.signum() < 0 || amount.precision() > 10) {
+                throw new IllegalArgumentException(column + " " + value + " out of range");
+            }
+            return amount;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(column + " '" + value + "' is not a number");
+        }
+    }
+
+    /** "Departure Time", "departure_time" and "departureTime" all name the same column. */
+    private static String normalize(String name) {
+        StringBuilder normalized = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                normalized.append(Character.toLowerCase(c));
+            }
+        }
+        return normalized.toString();
+    }
+
+    private static String columnName(String property) {
+        return property.replaceAll("([a-z])([A-Z])", "$1_$2").toLowerCase(Locale.ROOT);
+    }
+
+    /** Columns and SQL of one importable table. A file must have every column but the optional ones. */
+    private abstract static class Resource<T extends ChangeTracked> {
+
+        final String aggregateType;
+        final String table;
+        final Class<T> type;
+        final List<String> properties;
+        final Set<String> optional;
+        final String insertSql;
+        final String updateSql;
+
+        Resource(String aggregateType, String table, Class<T> type, List<String> properties, Set<String> optional) {
+            this.aggregateType = aggregateType;
+            this.table = table;
+            this.type = type;
+            this.properties = properties;
+            this.optional = optional;
+            List<String> columns = properties.stream().map(CsvImportService::columnName).toList();
+            this.insertSql = "INSERT INTO " + table + " (id, tenant_id, version, " + String.join(", ", columns)
+                    + ", deleted, updated_at, change_seq) VALUES (" + String.join(", ", Collections.nCopies(columns.size() + 6, "?")) + ")";
+            this.updateSql = "UPDATE " + table + " SET version = ?, " + String.join(" = ?, ", columns)
+                    + " = ?, deleted = false, updated_at = ?, change_seq = ? WHERE id = ? AND tenant_id = ? AND version = ?";
+        }
+
+        abstract T parse(Fields fields);
+
+        /** Business values in {@link #properties} order. */
+        abstract Object[] values(T entity);
+
+        Object[] insertArgs(T entity, Timestamp now) {
+            Object[] values = values(entity);
+            Object[] args = new Object[values.length + 6];
+            args[0] = entity.getId();
+            args[1] = tenantOf(entity);
+            args[2] = versionOf(entity);
+            System.arraycopy(values, 0, args, 3, values.length);
+            args[values.length + 3] = false;
+            args[values.length + 4] = now;
+            args[values.length + 5] = entity.getChangeSeq();
+            return args;
+        }
+
+        Object[] updateArgs(T entity, Timestamp now, String tenant, long previousVersion) {
+            Object[] values = values(entity);
+            Object[] args = new Object[values.length + 6];
+            args[0] = versionOf(entity);
+            System.arraycopy(values, 0, args, 1, values.length);
+            args[values.length + 1] = now;
+            args[values.length + 2] = entity.getChangeSeq();
+            args[values.length + 3] = entity.getId();
+            args[values.length + 4] = tenant;
+            args[values.length + 5] = previousVersion;
+            return args;
+        }
+
+        /** Header position of each known property; unknown header names go to {@code ignored}. */
+        Map<String, Integer> positions(List<String> header, List<String> ignored) {
+            Map<String, String> byNormalized = new HashMap<>();
+            byNormalized.put("id", "id");
+            for (String property : properties) {
+                byNormalized.put(normalize(property), property);
+            }
+            Map<String, Integer> positions = new HashMap<>();
+            for (int i = 0; i < header.size(); i++) {
+                String property = byNormalized.get(normalize(header.get(i)));
+                if (property == null) {
+                    ignored.add(header.get(i));
+                } else if (positions.put(property, i) != null) {
+                    throw new IllegalArgumentException("Column " + property + " appears twice");
+                }
+            }
+            for (String property : byNormalized.values()) {
+                if (!positions.containsKey(property) && !optional.contains(property)) {
+                    throw new IllegalArgumentException("Missing column " + property);
+                }
+            }
+            return positions;
+        }
+    }
+
+    /** One CSV record, read by property name. Blank fields read as null. */
+    private record Fields(Map<String, Integer> positions, List<String> record) {
+
+        String get(String property) {
+            Integer position = positions.get(property);
+            if (position == null) {
+                return null;
+            }
+            String value = record.get(position).trim();
+            return value.isEmpty() ? null : value;
+        }
+
+        String required(String property) {
+            String value = get(property);
+            if (value == null) {
+                throw new IllegalArgumentException(property + " is required");
+            }
+            return value;
+        }
+    }
+
+    private record Row<T>(long line, T entity) {}
+
+    private static final class Outcome<T> {
+        final List<Row<T>> inserted = new ArrayList<>();
+        final List<Row<T>> updated = new ArrayList<>();
+        final List<T> before = new ArrayList<>();
+        final List<Row<T>> foreign = new ArrayList<>();
+        int unchanged;
+    }
+
+    private static final class Result {
+        final int maxErrors;
+        final List<String> ignoredColumns = new ArrayList<>();
+        final List<Map<String, Object>> errors = new ArrayList<>();
+        boolean completed = true;
+        long rows;
+        long inserted;
+        long updated;
+        long unchanged;
+        long rejected;
+
+        Result(int maxErrors) {
+            this.maxErrors = maxErrors;
+        }
+
+        void reject(long line, String id, String reason) {
+            rejected++;
+            if (errors.size() < maxErrors) {
+                Map<String, Object> error = new LinkedHashMap<>();
+                error.put("line", line);
+                error.put("id", id);
+                error.put("reason", reason);
+                errors.add(error);
+            }
+        }
+    }
+}
@@ -0,0 +1,315 @@
+package com.cobox.fleet.service;
+
+import com.cobox.fleet.config.TenantContext;
+import com.cobox.fleet.entity.FuelAlert;
+import com.cobox.fleet.entity.FuelRecord;
+import com.cobox.fleet.entity.OutboxEvent;
+import com.cobox.fleet.entity.Vehicle;
+import com.cobox.fleet.repository.FuelAlertRepository;
+import com.cobox.fleet.repository.FuelRecordRepository;
+import com.cobox.fleet.repository.VehicleRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Scores fuel records for fraud and data-entry anomalies against a per-vehicle baseline
+ * kept in memory:
+ * <ul>
+ *   <li>{@code TANK_OVERFLOW}: a fill larger than the vehicle's tank capacity</li>
+ *   <li>{@code PRICE_OUTLIER}: a price per unit far from the vehicle's exponentially
+ *       weighted mean, measured in standard deviations</li>
+ *   <li>{@code ODOMETER_ROLLBACK}: a mileage lower than the previous fill's</li>
+ * </ul>
+ * New records are scored as their outbox {@code CREATED} event is relayed, right after
+ * commit. A baseline missing after a restart is rebuilt from the vehicle's recent
+ * history. {@link #startRescore()} recomputes all alerts from scratch, one vehicle per
+ * task, across a fixed pool of threads. Baselines are kept per tenant and plate; outbox
+ * events are delivered as their tenant, and a re-score covers the tenant that started it.
+ */
+@Component
+public class FuelAnomalyDetector {
+
+    private static final Logger log = LoggerFactory.getLogger(FuelAnomalyDetector.class);
+
+    private static final int NO_TANK_CAPACITY = -1;
+
+    @Autowired
+    private FuelRecordRepository fuelRecordRepository;
+
+    @Autowired
+    private FuelAlertRepository fuelAlertRepository;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${fleet.anomaly.tank-tolerance:0.05}")
+    private double tankTolerance;
+
+    @Value("${fleet.anomaly.price-z-threshold:3.0}")
+    private double priceZThreshold;
+
+    @Value("${fleet.anomaly.price-alpha:0.1}")
+    private double priceAlpha;
+
+    @Value("${fleet.anomaly.min-samples:5}")
+    private int minSamples;
+
+    @Value("${fleet.anomaly.warmup-records:50}")
+    private int warmupRecords;
+
+    @Value("${fleet.anomaly.rescore-parallelism:4}")
+    private int rescoreParallelism;
+
+    private final ConcurrentHashMap<String, Baseline> baselines = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Integer> tankCapacities = new ConcurrentHashMap<>();
+    private final AtomicBoolean rescoreRunning = new AtomicBoolean();
+    private volatile Map<String, Object> lastRescore = Map.of();
+
+    @EventListener
+    public void onOutboxEvent(OutboxEvent event) throws IOException {
+        if ("Vehicle".equals(event.getAggregateType())) {
+            // Tank capacity may have changed; reloaded lazily
+            tankCapacities.clear();
+            return;
+        }
+        if ("FuelRecord".equals(event.getAggregateType()) && OutboxEvent.CREATED.equals(event.getEventType())) {
+            score(objectMapper.readValue(event.getPayload(), FuelRecord.class));
+        }
+    }
+
+    public List<FuelAlert> score(FuelRecord record) {
+        String plate = record.getVehiclePlate();
+        String key = tenantKey(plate);
+        Baseline baseline = baselines.get(key);
+        if (baseline == null) {
+            baseline = baselines.computeIfAbsent(key, k -> warmUp(plate, record.getDate()));
+        }
+
+        List<FuelAlert> alerts;
+        synchronized (baseline) {
+            if (record.getId().equals(baseline.lastRecordId)) {
+                // Redelivered outbox event; the baseline already includes this record
+                return List.of();
+            }
+            alerts = evaluate(baseline, record, tankCapacity(plate));
+        }
+
+        List<FuelAlert> saved = new ArrayList<>();
+        for (FuelAlert alert : alerts) {
+            if (fuelAlertRepository.existsByFuelRecordIdAndType(alert.getFuelRecordId(), alert.getType())) {
+                continue;
+            }
+            try {
+                saved.add(fuelAlertRepository.save(alert));
+            } catch (DataIntegrityViolationException e) {
+                // Raced with a re-score that already stored it
+            }
+        }
+        if (!saved.isEmpty()) {
+            log.warn("Fuel record {} ({}) raised {}", record.getId(), plate,
+                    saved.stream().map(FuelAlert::getType).toList());
+        }
+        return saved;
+    }
+
+    /**
+     * Starts a full re-score in the background; returns false if one is already running.
+     */
+    public boolean startRescore() {
+        if (!rescoreRunning.compareAndSet(false, true)) {
+            return false;
+        }
+        String tenant = TenantContext.current();
+        Thread thread = new Thread(() -> TenantContext.runAs(tenant, () -> {
+            try {
+                lastRescore = rescoreAll(tenant);
+            } catch (Exception e) {
+                log.error("Fuel alert re-score failed", e);
+                Map<String, Object> failed = new LinkedHashMap<>();
+                failed.put("finishedAt", LocalDateTime.now().toString());
+                failed.put("error", String.valueOf(e.getMessage()));
+                lastRescore = failed;
+            } finally {
+                rescoreRunning.set(false);
+            }
+        }), "fuel-alert-rescore");
+        thread.setDaemon(true);
+        thread.start();
+        return true;
+    }
+
+    public Map<String, Object> getRescoreStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("running", rescoreRunning.get());
+        status.put("lastRun", lastRescore);
+        return status;
+    }
+
+    private Map<String, Object> rescoreAll(String tenant) throws InterruptedException, ExecutionException {
+        long started = System.currentTimeMillis();
+        List<String> plates = fuelRecordRepository.findDistinctVehiclePlates();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(rescoreParallelism, plates.size())));
+        int alertCount = 0;
+        try {
+            List<Future<Integer>> results = new ArrayList<>(plates.size());
+            for (String plate : plates) {
+                results.add(executor.submit(() -> TenantContext.callAs(tenant, () -> rescore(plate))));
+            }
+            for (Future<Integer> result : results) {
+                alertCount += result.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("finishedAt", LocalDateTime.now().toString());
+        summary.put("tenant", tenant);
+        summary.put("vehicles", plates.size());
+        summary.put("alerts", alertCount);
+        summary.put("elapsedMs", System.currentTimeMillis() - started);
+        log.info("Fuel alert re-score: {} vehicles, {} alerts in {} ms",
+                plates.size(), alertCount, summary.get("elapsedMs"));
+        return summary;
+    }
+
+    private int rescore(String plate) {
+        Integer tank = tankCapacity(plate);
+        Baseline baseline = new Baseline();
+        List<FuelAlert> alerts = new ArrayList<>();
+        for (FuelRecord record : fuelRecordRepository.findByVehiclePlateOrderByDateAsc(plate)) {
+            alerts.addAll(evaluate(baseline, record, tank));
+        }
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            fuelAlertRepository.deleteByVehiclePlate(plate);
+            fuelAlertRepository.saveAll(alerts);
+        });
+        baselines.put(tenantKey(plate), baseline);
+        return alerts.size();
+    }
+
+    private Baseline warmUp(String plate, LocalDateTime before) {
+        List<FuelRecord> history = new ArrayList<>(fuelRecordRepository.findByVehiclePlateAndDateBeforeOrderByDateDesc(
+                plate, before, PageRequest.of(0, warmupRecords)));
+        Collections.reverse(history);
+        Baseline baseline = new Baseline();
+        Integer tank = tankCapacity(plate);
+        for (FuelRecord record : history) {
+            evaluate(baseline, record, tank);
+        }
+        return baseline;
+    }
+
+    private Integer tankCapacity(String plate) {
+        int capacity = tankCapacities.computeIfAbsent(tenantKey(plate), key -> vehicleRepository.findByPlateAndDeletedFalse(plate)
+                .map(Vehicle::getTankCapacity)
+                .orElse(NO_TANK_CAPACITY));
+        return capacity > 0 ? capacity : null;
+    }
+
+    /**
+     * Scores one record and folds it into the baseline. Callers hold the baseline's monitor
+     * or own the baseline exclusively.
+     */
+    private List<FuelAlert> evaluate(Baseline baseline, FuelRecord record, Integer tankCapacity) {
+        List<FuelAlert> alerts = new ArrayList<>(1);
+        double quantity = record.getQuantity() == null ? 0 : record.getQuantity().doubleValue();
+
+        if (tankCapacity != null && quantity > tankCapacity * (1 + tankTolerance)) {
+            alerts.add(alert(record, FuelAlert.TANK_OVERFLOW, quantity / tankCapacity,
+                    String.format("Fill of %.2f exceeds tank capacity %d", quantity, tankCapacity)));
+        }
+
+        if (quantity > 0 && record.getTotalCost() != null) {
+            double price = record.getTotalCost().doubleValue() / quantity;
+            boolean outlier = false;
+            if (baseline.samples >= minSamples) {
+                // Floor the deviation at 2% of the mean so a perfectly stable price history doesn't flag cents
+                double deviation = Math.max(Math.sqrt(baseline.priceVariance), baseline.priceMean * 0.02);
+                double z = Math.abs(price - baseline.priceMean) / deviation;
+                if (z > priceZThreshold) {
+                    outlier = true;
+                    alerts.add(alert(record, FuelAlert.PRICE_OUTLIER, z,
+                            String.format("Price per unit %.3f vs baseline %.3f", price, baseline.priceMean)));
+                }
+            }
+            if (!outlier) {
+                // Outliers stay out of the baseline so one bad fill doesn't mask the next
+                baseline.observePrice(price, priceAlpha);
+            }
+        }
+
+        if (record.getCurrentMileage() != null
+                && (baseline.lastDate == null || !record.getDate().isBefore(baseline.lastDate))) {
+            double mileage = record.getCurrentMileage().doubleValue();
+            if (baseline.lastMileage != null && mileage < baseline.lastMileage) {
+                alerts.add(alert(record, FuelAlert.ODOMETER_ROLLBACK, baseline.lastMileage - mileage,
+                        String.format("Mileage %.2f is below previous fill's %.2f", mileage, baseline.lastMileage)));
+            }
+            baseline.lastMileage = mileage;
+            baseline.lastDate = record.getDate();
+        }
+
+        baseline.lastRecordId = record.getId();
+        return alerts;
+    }
+
+    private static String tenantKey(String plate) {
+        return TenantContext.current() + "|" + plate;
+    }
+
+    private static FuelAlert alert(FuelRecord record, String type, double score, String detail) {
+        return new FuelAlert(record.getId(), record.getVehiclePlate(), type, score, detail, record.getDate());
+    }
+
+    static final class Baseline {
+
+        int samples;
+        double priceMean;
+        double priceVariance;
+        Double lastMileage;
+        LocalDateTime lastDate;
+        String lastRecordId;
+
+        /** Exponentially weighted mean and variance of the price per unit. */
+        void observePrice(double price, double alpha) {
+            if (samples++ == 0) {
+                priceMean = price;
+                priceVariance = 0;
+                return;
+            }
+            double diff = price - priceMean;
+            priceMean += alpha * diff;
+            priceVariance = (1 - alpha) * (priceVariance + alpha * diff * diff);
+        }
+    }
+}
@@ -0,0 +1,592 @@
+package com.cobox.fleet.service;
+
+import com.cobox.fleet.config.TenantContext;
+import com.cobox.fleet.entity.ChangeSequence;
+import com.cobox.fleet.entity.User;
+import com.cobox.fleet.entity.Vehicle;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntConsumer;
+
+/**
+ * Fills the database of the {@code loadtest} profile with a production-sized fleet:
+ * vehicles, drivers, services with their schedules, fuel records, mileage records and
+ * the recent status history behind the utilization heatmap.
+ * <p>
+ * Every vehicle gets a fixed daily distance, so its odometer is a function of time and
+ * the fuel and mileage records of one vehicle always agree with each other. Activity is
+ * log-normal across the fleet (a few vehicles do most of the work), fuel prices drift
+ * with the season, and a small share of fills are deliberate anomalies for
+ * {@link FuelAnomalyDetector}. Rows are produced per vehicle (or per day for services)
+ * from a seeded random, so the same configuration yields the same rows whatever the
+ * thread scheduling.
+ * <p>
+ * Rows are written with multi-row {@code INSERT IGNORE} statements across
+ * {@code fleet.loadgen.threads} workers, bypassing JPA. Vehicles are written last: their
+ * presence marks a complete dataset, so a restart skips generation, while an interrupted
+ * run fills in the missing rows on the next start.
+ */
+@Component
+@Profile("loadtest")
+public class LoadTestDataGenerator {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadTestDataGenerator.class);
+
+    /** Generated vehicle ids are numeric (fuel_records.vehicle_id is a number) and start above this. */
+    public static final long VEHICLE_ID_BASE = 900_000;
+
+    private static final String CREATED_BY = "LOADGEN";
+    private static final String ORIGIN = "Afe surquillo";
+
+    private static final String[] TYPES = {"VAN", "PICKUP", "TRUCK"};
+    private static final double[] TYPE_WEIGHTS = {0.45, 0.35, 0.20};
+    private static final String[][] MODELS = {
+            {"Volkswagen", "Transporter"}, {"Hyundai", "H-1"}, {"Mercedes-Benz", "Sprinter"},
+            {"Toyota", "Hilux"}, {"Nissan", "Frontier"}, {"Mitsubishi", "L200"},
+            {"Mercedes-Benz", "Actros"}, {"Volvo", "FH"}, {"Hino", "500"}
+    };
+    private static final String[] STATION_BRANDS = {"Primax", "Repsol", "Petroperu", "Pecsa", "Mobil"};
+    private static final String[] DISTRICTS = {
+            "Surquillo", "Miraflores", "San Isidro", "La Victoria", "Brena", "Los Olivos", "Puente Piedra",
+            "Ate", "Callao", "Chorrillos", "San Borja", "Lince", "Ancon", "Jesus Maria", "La Molina", "Cercado de Lima"
+    };
+    private static final String[] PURPOSES = {"DELIVERY", "PICKUP", "TRANSFER", "MAINTENANCE"};
+    private static final double[] PURPOSE_WEIGHTS = {0.60, 0.25, 0.10, 0.05};
+    private static final String[] FIRST_NAMES = {
+            "JUAN", "CARLOS", "JOSE", "LUIS", "JORGE", "MIGUEL", "DIEGO", "SERGIO", "WILBER", "LENIN",
+            "ALAIN", "RICK", "JESUS", "CLIDER", "MARIA", "ROSA", "PEDRO", "VICTOR", "CESAR", "RAUL"
+    };
+    private static final String[] LAST_NAMES = {
+            "QUISPE", "FLORES", "RODRIGUEZ", "SANCHEZ", "GARCIA", "ROJAS", "CASAS", "TORRES", "POMA",
+            "CONDORI", "CALDERON", "CORDOVA", "AGUILAR", "CARRASCO", "MAMANI", "HUAMAN", "RAMOS", "CHAVEZ"
+    };
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private CostLedgerService costLedgerService;
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Autowired
+    private ResponseCache responseCache;
+
+    @Value("${fleet.loadgen.vehicles:2000}")
+    private int vehicleCount;
+
+    @Value("${fleet.loadgen.drivers:3000}")
+    private int driverCount;
+
+    @Value("${fleet.loadgen.fuel-records:10000000}")
+    private long fuelRecordCount;
+
+    @Value("${fleet.loadgen.mileage-records:5000000}")
+    private long mileageRecordCount;
+
+    @Value("${fleet.loadgen.services:1000000}")
+    private long serviceCount;
+
+    @Value("${fleet.loadgen.days:730}")
+    private int days;
+
+    @Value("${fleet.loadgen.status-history-days:60}")
+    private int statusHistoryDays;
+
+    @Value("${fleet.loadgen.seed:42}")
+    private long seed;
+
+    @Value("${fleet.loadgen.threads:4}")
+    private int threads;
+
+    @Value("${fleet.loadgen.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${fleet.loadgen.reindex:true}")
+    private boolean reindex;
+
+    @Value("${fleet.loadgen.tenant:${fleet.tenancy.default-tenant:afe-surquillo}}")
+    private String tenant;
+
+    private LocalDateTime periodStart;
+    private LocalDateTime now;
+    private final AtomicLong changeSeq = new AtomicLong();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        Thread generator = new Thread(() -> {
+            try {
+                TenantContext.runAs(tenant, this::generate);
+            } catch (Exception e) {
+                log.error("Load test data generation failed", e);
+            }
+        }, "loadtest-generator");
+        generator.setDaemon(true);
+        generator.start();
+    }
+
+    private void generate() {
+        Integer existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM vehicles WHERE tenant_id = ? AND id = ?",
+                Integer.class, tenant, vehicleId(0));
+        if (existing != null && existing > 0) {
+            log.info("Load test data already present for tenant {}, skipping generation", tenant);
+            return;
+        }
+        now = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES);
+        periodStart = now.minusDays(days);
+        long started = System.nanoTime();
+        log.info("Generating load test data for tenant {}: {} vehicles, {} drivers, {} services, {} fuel records, {} mileage records",
+                tenant, vehicleCount, driverCount, serviceCount, fuelRecordCount, mileageRecordCount);
+
+        List<VehicleProfile> fleet = planFleet();
+        List<String> driverNames = new ArrayList<>(driverCount);
+        for (int i = 0; i < driverCount; i++) {
+            driverNames.add(driverName(new SplittableRandom(seed * 31 + i)));
+        }
+        // Every ChangeTracked row needs a sequence number; reserve an upper bound up front
+        changeSeq.set(reserveChangeSeqs(vehicleCount + driverCount + 2 * serviceCount));
+
+        timed("users", () -> insertUsers(driverNames));
+        timed("services and schedules", () -> insertServices(fleet, driverNames));
+        double totalActivity = fleet.stream().mapToDouble(VehicleProfile::activity).sum();
+        timed("fuel records", () -> parallel(fleet.size(), v -> insertFuelRecords(fleet.get(v), share(fuelRecordCount, fleet.get(v), totalActivity))));
+        timed("mileage records", () -> parallel(fleet.size(), v -> insertMileageRecords(fleet.get(v), share(mileageRecordCount, fleet.get(v), totalActivity))));
+        timed("cost rollups", costLedgerService::rebuild);
+        if (reindex) {
+            timed("search index", () -> {
+                try {
+                    searchIndexService.reindexAll();
+                } catch (Exception e) {
+                    throw new IllegalStateException("Search reindex failed", e);
+                }
+            });
+        }
+        timed("status intervals", () -> parallel(fleet.size(), v -> insertStatusIntervals(fleet.get(v))));
+        timed("vehicles", () -> insertVehicles(fleet));
+        // Inserted without Hibernate, so no commit event drops the cached lists
+        responseCache.invalidate(tenant, User.class);
+        responseCache.invalidate(tenant, Vehicle.class);
+        log.info("Load test data ready in {} s", (System.nanoTime() - started) / 1_000_000_000L);
+    }
+
+    private List<VehicleProfile> planFleet() {
+        List<VehicleProfile> fleet = new ArrayList<>(vehicleCount);
+        for (int i = 0; i < vehicleCount; i++) {
+            SplittableRandom random = new SplittableRandom(seed ^ (0x9E3779B97F4A7C15L * (i + 1)));
+            int type = pick(random, TYPE_WEIGHTS);
+            String[] model = MODELS[type * 3 + random.nextInt(3)];
+            int tank = switch (type) {
+                case 0 -> 60 + 5 * random.nextInt(5);
+                case 1 -> 70 + 5 * random.nextInt(4);
+                default -> 200 + 50 * random.nextInt(5);
+            };
+            int load = switch (type) {
+                case 0 -> 800 + 100 * random.nextInt(8);
+                case 1 -> 900 + 100 * random.nextInt(3);
+                default -> 5000 + 1000 * random.nextInt(8);
+            };
+            double kmPerLiter = switch (type) {
+                case 0 -> 9.0;
+                case 1 -> 10.5;
+                default -> 3.2;
+            };
+            kmPerLiter *= 0.85 + 0.3 * random.nextDouble();
+            // Log-normal: the median vehicle does ~1, a busy one 3-4x that
+            double activity = Math.exp(0.6 * random.nextGaussian());
+            double kmPerDay = (type == 2 ? 220 : 110) * activity;
+            String[] stations = new String[3];
+            for (int s = 0; s < stations.length; s++) {
+                stations[s] = station(random);
+            }
+            fleet.add(new VehicleProfile(i, vehicleId(i), plate(i), TYPES[type], model[0], model[1],
+                    2012 + random.nextInt(13), tank, load, type == 0 && random.nextDouble() < 0.4 ? "Gasolina" : "Diesel",
+                    kmPerLiter, kmPerDay, 5_000 + random.nextInt(150_000), activity, stations,
+                    random.nextInt(Math.max(1, driverCount))));
+        }
+        return fleet;
+    }
+
+    private void insertUsers(List<String> driverNames) {
+        try (BulkInsert users = new BulkInsert("users",
+                "id, tenant_id, name, dni, level, created_at, deleted, updated_at, change_seq")) {
+            for (int i = 0; i < driverNames.size(); i++) {
+                SplittableRandom random = new SplittableRandom(seed * 17 + i);
+                users.add(driverId(i), tenant, driverNames.get(i), String.valueOf(40_000_000L + (i * 7_919L) % 10_000_000L),
+                        random.nextDouble() < 0.95 ? "Conductor" : "Administrador",
+                        periodStart.plusMinutes(random.nextLong(ChronoUnit.MINUTES.between(periodStart, now))),
+                        false, now, changeSeq.getAndIncrement());
+            }
+        }
+    }
+
+    private void insertServices(List<VehicleProfile> fleet, List<String> driverNames) {
+        int totalDays = days + 14;
+        double[] weights = new double[totalDays];
+        double weightSum = 0;
+        for (int d = 0; d < totalDays; d++) {
+            DayOfWeek day = periodStart.toLocalDate().plusDays(d).getDayOfWeek();
+            weights[d] = day == DayOfWeek.SUNDAY ? 0.3 : day == DayOfWeek.SATURDAY ? 0.6 : 1.0;
+            weightSum += weights[d];
+        }
+        double perWeight = serviceCount / weightSum;
+        long[] firstNumber = new long[totalDays + 1];
+        for (int d = 0; d < totalDays; d++) {
+            firstNumber[d + 1] = firstNumber[d] + Math.round(weights[d] * perWeight);
+        }
+        LocalDate today = now.toLocalDate();
+        parallel(totalDays, d -> {
+            LocalDate date = periodStart.toLocalDate().plusDays(d);
+            SplittableRandom random = new SplittableRandom(seed * 131 + d);
+            try (BulkInsert services = new BulkInsert("services",
+                    "id, tenant_id, date, route, driver, plate, departure_time, status, required_capacity, deleted, updated_at, change_seq");
+                 BulkInsert schedules = new BulkInsert("schedules",
+                    "id, tenant_id, schedule_date, service_date, origin, destination, driver, plate, departure_time, final_cost, deleted, updated_at, change_seq")) {
+                for (long n = firstNumber[d]; n < firstNumber[d + 1]; n++) {
+                    String id = "LTS-" + n;
+                    String route = route(random);
+                    String driver = driverNames.get(random.nextInt(driverNames.size()));
+                    String plate = fleet.get(random.nextInt(fleet.size())).plate();
+                    // Most departures are in the morning wave, the rest spread over the day
+                    int slot = random.nextDouble() < 0.6 ? 12 + random.nextInt(7) : 20 + random.nextInt(17);
+                    String departure = String.format("%02d:%02d", slot / 2, slot % 2 * 30);
+                    String status;
+                    if (date.isBefore(today)) {
+                        status = random.nextDouble() < 0.95 ? "COMPLETED" : "CANCELLED";
+                    } else if (date.isEqual(today)) {
+                        status = random.nextDouble() < 0.5 ? "IN_PROGRESS" : "PENDING";
+                    } else {
+                        status = "PENDING";
+                    }
+                    Integer capacity = random.nextBoolean() ? null : 500 + 250 * random.nextInt(11);
+                    services.add(id, tenant, date.toString(), route, driver, plate, departure, status, capacity,
+                            false, now, changeSeq.getAndIncrement());
+                    if ("COMPLETED".equals(status)) {
+                        BigDecimal cost = money(Math.exp(5.2 + 0.4 * random.nextGaussian()));
+                        schedules.add(id, tenant, date.minusDays(1).toString(), date.toString(), ORIGIN, route, driver, plate,
+                                departure, cost, false, now, changeSeq.getAndIncrement());
+                    }
+                }
+            }
+        });
+    }
+
+    private void insertFuelRecords(VehicleProfile vehicle, long count) {
+        SplittableRandom random = new SplittableRandom(seed * 7 + vehicle.index());
+        double basePrice = "Gasolina".equals(vehicle.fuelType()) ? 4.5 : 4.2;
+        long periodMinutes = ChronoUnit.MINUTES.between(periodStart, now);
+        LocalDateTime previous = periodStart;
+        try (BulkInsert records = new BulkInsert("fuel_records",
+                "id, tenant_id, vehicle_id, vehicle_plate, date, fuel_type, quantity, total_cost, current_mileage, station, location, invoice_number, notes")) {
+            for (long k = 0; k < count; k++) {
+                LocalDateTime date = periodStart.plusMinutes((long) ((k + 0.2 + 0.6 * random.nextDouble()) * periodMinutes / count));
+                double liters = (odometer(vehicle, date) - odometer(vehicle, previous)) / vehicle.kmPerLiter()
+                        * (0.9 + 0.2 * random.nextDouble());
+                liters = Math.max(vehicle.tankCapacity() * 0.15, Math.min(vehicle.tankCapacity() * 0.98, liters));
+                double dayOfPeriod = ChronoUnit.DAYS.between(periodStart, date);
+                double price = basePrice * (1 + 0.08 * Math.sin(2 * Math.PI * dayOfPeriod / 365) + 0.05 * dayOfPeriod / days)
+                        * (1 + 0.03 * random.nextGaussian());
+                String notes = null;
+                double anomaly = random.nextDouble();
+                if (anomaly < 0.001) {
+                    liters = vehicle.tankCapacity() * 1.3;
+                    notes = "Carga fuera de rango";
+                } else if (anomaly < 0.002) {
+                    price *= 2.5;
+                    notes = "Precio a revisar";
+                }
+                String station = random.nextDouble() < 0.8 ? vehicle.stations()[random.nextInt(vehicle.stations().length)] : station(random);
+                records.add("LTF-" + vehicle.index() + "-" + k, tenant, Long.parseLong(vehicle.id()), vehicle.plate(), date,
+                        vehicle.fuelType(), money(liters), money(liters * price), money(odometer(vehicle, date)),
+                        station, station.substring(station.indexOf(' ') + 1),
+                        "F" + (100 + vehicle.index() % 900) + "-" + (1_000_000 + k), notes);
+                previous = date;
+            }
+        }
+    }
+
+    private void insertMileageRecords(VehicleProfile vehicle, long count) {
+        SplittableRandom random = new SplittableRandom(seed * 13 + vehicle.index());
+        long periodMinutes = ChronoUnit.MINUTES.between(periodStart, now);
+        try (BulkInsert records = new BulkInsert("mileage_records",
+                "id, tenant_id, vehicle_id, date, start_odometer, end_odometer, distance, purpose, route, driver_id, notes, created_by, created_at")) {
+            // Consecutive trips tile the odometer: each one ends where the next starts
+            LocalDateTime start = periodStart.plusMinutes(periodMinutes / Math.max(1, count) / 2);
+            for (long k = 0; k < count; k++) {
+                LocalDateTime end = k + 1 < count
+                        ? periodStart.plusMinutes((long) ((k + 1 + 0.5 * random.nextDouble()) * periodMinutes / count))
+                        : now;
+                BigDecimal startOdometer = money(odometer(vehicle, start));
+                BigDecimal endOdometer = money(odometer(vehicle, end));
+                int driver = random.nextDouble() < 0.85 ? vehicle.driver() : random.nextInt(Math.max(1, driverCount));
+                records.add("LTM-" + vehicle.index() + "-" + k, tenant, vehicle.id(), start, startOdometer, endOdometer,
+                        endOdometer.subtract(startOdometer), PURPOSES[pick(random, PURPOSE_WEIGHTS)], route(random),
+                        driverId(driver), null, CREATED_BY, end);
+                start = end;
+            }
+        }
+    }
+
+    private void insertVehicles(List<VehicleProfile> fleet) {
+        try (BulkInsert vehicles = new BulkInsert("vehicles",
+                "id, tenant_id, plate, brand, model, year, type, load_capacity, tank_capacity, status, current_mileage, last_maintenance, active, deleted, updated_at, change_seq")) {
+            for (VehicleProfile vehicle : fleet) {
+                SplittableRandom random = new SplittableRandom(seed * 3 + vehicle.index());
+                vehicles.add(vehicle.id(), tenant, vehicle.plate(), vehicle.brand(), vehicle.model(), vehicle.year(),
+                        vehicle.type(), vehicle.loadCapacity(), vehicle.tankCapacity(), currentStatus(random),
+                        money(odometer(vehicle, now)), now.minusDays(random.nextInt(180)), random.nextDouble() < 0.97,
+                        false, now, changeSeq.getAndIncrement());
+            }
+        }
+    }
+
+    /**
+     * Working days of one or more trips ({@code IN_ROUTE}, longer for busy vehicles) with
+     * {@code AVAILABLE} in between and the odd maintenance day, ending in an open interval
+     * with the status the vehicle row gets.
+     */
+    private void insertStatusIntervals(VehicleProfile vehicle) {
+        SplittableRandom random = new SplittableRandom(seed * 17 + vehicle.index());
+        List<LocalDateTime> changedAt = new ArrayList<>();
+        List<String> statuses = new ArrayList<>();
+        LocalDateTime today = now.truncatedTo(ChronoUnit.DAYS);
+        changedAt.add(today.minusDays(statusHistoryDays));
+        statuses.add("AVAILABLE");
+        for (LocalDateTime day = changedAt.get(0); day.isBefore(today); day = day.plusDays(1)) {
+            if (random.nextDouble() < 0.02) {
+                changeStatus(changedAt, statuses, day.plusHours(8), "IN_MAINTENANCE");
+                changeStatus(changedAt, statuses, day.plusHours(17), "AVAILABLE");
+                continue;
+            }
+            if (day.getDayOfWeek() == DayOfWeek.SUNDAY && random.nextDouble() < 0.7) {
+                continue;
+            }
+            LocalDateTime cursor = day.plusHours(6).plusMinutes(random.nextInt(180));
+            LocalDateTime shiftEnd = day.plusHours(22);
+            int trips = 1 + random.nextInt(3);
+            for (int t = 0; t < trips && cursor.isBefore(shiftEnd); t++) {
+                long minutes = (long) ((60 + random.nextInt(240)) * Math.min(vehicle.activity(), 2.5));
+                LocalDateTime tripEnd = cursor.plusMinutes(minutes);
+                if (tripEnd.isAfter(shiftEnd)) {
+                    tripEnd = shiftEnd;
+                }
+                changeStatus(changedAt, statuses, cursor, "IN_ROUTE");
+                changeStatus(changedAt, statuses, tripEnd, "AVAILABLE");
+                cursor = tripEnd.plusMinutes(30 + random.nextInt(60));
+            }
+        }
+        LocalDateTime last = changedAt.get(changedAt.size() - 1);
+        LocalDateTime current = now.minusMinutes(30 + random.nextInt(270));
+        changeStatus(changedAt, statuses, current.isAfter(last) ? current : last.plusMinutes(1),
+                currentStatus(new SplittableRandom(seed * 3 + vehicle.index())));
+
+        // INSERT IGNORE can't dedupe identity rows, so an interrupted run starts this vehicle over
+        jdbcTemplate.update("DELETE FROM vehicle_status_intervals WHERE tenant_id = ? AND vehicle_id = ?", tenant, vehicle.id());
+        try (BulkInsert intervals = new BulkInsert("vehicle_status_intervals",
+                "tenant_id, vehicle_id, status, started_at, ended_at")) {
+            for (int i = 0; i < statuses.size(); i++) {
+                intervals.add(tenant, vehicle.id(), statuses.get(i), changedAt.get(i),
+                        i + 1 < statuses.size() ? changedAt.get(i + 1) : null);
+            }
+        }
+    }
+
+    private static void changeStatus(List<LocalDateTime> changedAt, List<String> statuses, LocalDateTime at, String status) {
+        if (!statuses.get(statuses.size() - 1).equals(status)) {
+            changedAt.add(at);
+            statuses.add(status);
+        }
+    }
+
+    /** Drawn first from the vehicle's own random, so the row and its open interval agree. */
+    private static String currentStatus(SplittableRandom random) {
+        double status = random.nextDouble();
+        return status < 0.7 ? "AVAILABLE" : status < 0.9 ? "IN_ROUTE" : "IN_MAINTENANCE";
+    }
+
+    private long reserveChangeSeqs(long count) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            Long current = jdbcTemplate.queryForObject(
+                    "SELECT current_value FROM change_sequences WHERE name = ? FOR UPDATE", Long.class, ChangeSequence.SYNC);
+            jdbcTemplate.update("UPDATE change_sequences SET current_value = ? WHERE name = ?", current + count, ChangeSequence.SYNC);
+            return current + 1;
+        });
+    }
+
+    /** Runs {@code task} for 0..count-1 across the worker threads, as the generator's tenant. */
+    private void parallel(int count, IntConsumer task) {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int index = i;
+                futures.add(pool.submit(() -> TenantContext.runAs(tenant, () -> task.accept(index))));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while generating load test data", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Load test data generation failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private void timed(String step, Runnable action) {
+        long started = System.nanoTime();
+        action.run();
+        log.info("Load test data: {} done in {} ms", step, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private static long share(long total, VehicleProfile vehicle, double totalActivity) {
+        return Math.round(total * vehicle.activity() / totalActivity);
+    }
+
+    private double odometer(VehicleProfile vehicle, LocalDateTime at) {
+        return vehicle.startOdometer() + vehicle.kmPerDay() * ChronoUnit.MINUTES.between(periodStart, at) / 1440.0;
+    }
+
+    private static String vehicleId(int index) {
+        return String.valueOf(VEHICLE_ID_BASE + index + 1);
+    }
+
+    private static String driverId(int index) {
+        return "LTU-" + index;
+    }
+
+    /** Unique plates in the ABC-123 format, scattered so neighbouring ids don't look alike. */
+    private static String plate(int index) {
+        long code = (index * 7_368_787L) % 17_576_000L;
+        long digits = code % 1000;
+        long letters = code / 1000;
+        return "" + (char) ('A' + letters / 676) + (char) ('A' + letters / 26 % 26) + (char) ('A' + letters % 26)
+                + String.format("-%03d", digits);
+    }
+
+    private static String driverName(SplittableRandom random) {
+        return FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)]
+                + " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+    }
+
+    private static String station(SplittableRandom random) {
+        return STATION_BRANDS[random.nextInt(STATION_BRANDS.length)] + " " + DISTRICTS[random.nextInt(DISTRICTS.length)];
+    }
+
+    private static String route(SplittableRandom random) {
+        StringBuilder route = new StringBuilder("Afe Surquillo");
+        int stops = 1 + random.nextInt(3);
+        for (int i = 0; i < stops; i++) {
+            route.append(" - ").append(DISTRICTS[random.nextInt(DISTRICTS.length)]);
+        }
+        return route.append(" - Afe Surquillo").toString();
+    }
+
+    private static int pick(SplittableRandom random, double[] weights) {
+        double r = random.nextDouble();
+        for (int i = 0; i < weights.length - 1; i++) {
+            r -= weights[i];
+            if (r < 0) {
+                return i;
+            }
+        }
+        return weights.length - 1;
+    }
+
+    private static BigDecimal money(double value) {
+        return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private record VehicleProfile(int index, String id, String plate, String type, String brand, String model, int year,
+                                  int tankCapacity, int loadCapacity, String fuelType, double kmPerLiter, double kmPerDay,
+                                  double startOdometer, double activity, String[] stations, int driver) {
+    }
+
+    /**
+     * Accumulates rows and writes them {@code batch-size} at a time with one multi-row
+     * statement; closing writes the remainder.
+     */
+    private final class BulkInsert implements AutoCloseable {
+
+        private final String prefix;
+        private final String rowPlaceholders;
+        private final String fullBatchSql;
+        private final List<Object[]> rows = new ArrayList<>(batchSize);
+
+        BulkInsert(String table, String columns) {
+            int columnCount = columns.split(",").length;
+            this.prefix = "INSERT IGNORE INTO " + table + " (" + columns + ") VALUES ";
+            this.rowPlaceholders = "(" + "?, ".repeat(columnCount - 1) + "?)";
+            this.fullBatchSql = sql(batchSize);
+        }
+
+        void add(Object... row) {
+            rows.add(row);
+            if (rows.size() == batchSize) {
+                flush();
+            }
+        }
+
+        private void flush() {
+            if (rows.isEmpty()) {
+                return;
+            }
+            String sql = rows.size() == batchSize ? fullBatchSql : sql(rows.size());
+            jdbcTemplate.update(sql, ps -> {
+                int p = 1;
+                for (Object[] row : rows) {
+                    for (Object value : row) {
+                        ps.setObject(p++, value);
+                    }
+                }
+            });
+            rows.clear();
+        }
+
+        private String sql(int count) {
+            StringBuilder sql = new StringBuilder(prefix.length() + count * (rowPlaceholders.length() + 2));
+            sql.append(prefix);
+            for (int i = 0; i < count; i++) {
+                if (i > 0) {
+                    sql.append(", ");
+                }
+                sql.append(rowPlaceholders);
+            }
+            return sql.toString();
+        }
+
+        @Override
+        public void close() {
+            flush();
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package com.cobox.fleet.service;
+
+import com.cobox.fleet.config.ReportingBulkhead;
+import com.cobox.fleet.config.TenantContext;
+import com.cobox.fleet.config.TenantProperties;
+import com.cobox.fleet.entity.FuelRecord;
+import com.cobox.fleet.entity.MileageRecord;
+import com.cobox.fleet.repository.FuelRecordRepository;
+import com.cobox.fleet.repository.MileageRecordRepository;
+import com.cobox.fleet.repository.ReportingRecordRepository;
+import com.cobox.fleet.storage.ColumnarWriter;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Moves fuel and mileage records older than the retention window into archive tables
+ * ({@code fuel_records_archive}, {@code mileage_records_archive}) and routes date-range
+ * queries so the archive is only read when the requested range reaches into it. Lookups
+ * by id fall back to the archive, so links to old records keep working.
+ * Archiving moves whole months for every tenant at once, once per physical database.
+ * <p>
+ * The move is plain JDBC and writes no audit entries: rows reach the archive unchanged,
+ * and the history endpoints still find them through {@link #findFuelRecordById} and
+ * {@link #findMileageRecordById}, so their change log stays complete.
+ */
+@Service
+public class RecordArchiveService {
+
+    private static final Logger log = LoggerFactory.getLogger(RecordArchiveService.class);
+
+    public static final String FUEL_TABLE = "fuel_records";
+    public static final String MILEAGE_TABLE = "mileage_records";
+    private static final Set<String> ARCHIVED_TABLES = Set.of(FUEL_TABLE, MILEAGE_TABLE);
+
+    @Autowired
+    private FuelRecordRepository fuelRecordRepository;
+
+    @Autowired
+    private MileageRecordRepository mileageRecordRepository;
+
+    @Autowired
+    private ReportingRecordRepository reportingRecordRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ReportingBulkhead reportingBulkhead;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TenantProperties tenantProperties;
+
+    @Value("${fleet.archive.retention-months:12}")
+    private int retentionMonths;
+
+    @Value("${fleet.archive.export-dir:archive}")
+    private String exportDir;
+
+    // Newest date present in each archive table, null while the archive is empty
+    private volatile LocalDateTime fuelArchivedUpTo;
+    private volatile LocalDateTime mileageArchivedUpTo;
+
+    @PostConstruct
+    public void init() {
+        for (String database : tenantProperties.databaseTenants()) {
+            TenantContext.runAs(database, this::createArchiveTables);
+        }
+        refreshWatermarks();
+    }
+
+    private void createArchiveTables() {
+        for (String table : ARCHIVED_TABLES) {
+            try {
+                jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + table + "_archive LIKE " + table);
+            } catch (DataAccessException e) {
+                // Embedded databases (H2) have no CREATE TABLE ... LIKE
+                jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + table + "_archive AS SELECT * FROM " + table + " WHERE 1 = 0");
+            }
+            // Archive created before tenancy: its rows belong to the default tenant
+            addMissingColumn(table + "_archive", "tenant_id",
+                    "varchar(64) NOT NULL DEFAULT '" + TenantProperties.DEFAULT_TENANT + "'");
+            // Archive created before optimistic locking or stations: copyToArchive fills both
+            addMissingColumn(table + "_archive", "version", "bigint NOT NULL DEFAULT 0");
+        }
+        addMissingColumn(FUEL_TABLE + "_archive", "station_id", "bigint");
+    }
+
+    private void addMissingColumn(String table, String column, String definition) {
+        try {
+            jdbcTemplate.queryForList("SELECT " + column + " FROM " + table + " WHERE 1 = 0");
+        } catch (DataAccessException e) {
+            jdbcTemplate.execute("ALTER TABLE " + table + " ADD COLUMN " + column + " " + definition);
+        }
+    }
+
+    public List<FuelRecord> findFuelRecordsByDateRange(LocalDateTime start, LocalDateTime end) {
+        List<FuelRecord> records = reportingRecordRepository.findFuelRecordsByDateBetween(FUEL_TABLE, start, end);
+        LocalDateTime archivedUpTo = fuelArchivedUpTo;
+        if (archivedUpTo == null || start.isAfter(archivedUpTo)) {
+            return records;
+        }
+        List<FuelRecord> merged = new ArrayList<>(records);
+        merged.addAll(reportingRecordRepository.findFuelRecordsByDateBetween(FUEL_TABLE + "_archive", start, end));
+        merged.sort(Comparator.comparing(FuelRecord::getDate).reversed());
+        return merged;
+    }
+
+    public Optional<FuelRecord> findFuelRecordById(String id) {
+        Optional<FuelRecord> record = fuelRecordRepository.findById(id);
+        if (record.isPresent() || fuelArchivedUpTo == null) {
+            return record;
+        }
+        return reportingRecordRepository.findFuelRecordById(FUEL_TABLE + "_archive", id);
+    }
+
+    public Optional<MileageRecord> findMileageRecordById(String id) {
+        Optional<MileageRecord> record = mileageRecordRepository.findById(id);
+        if (record.isPresent() || mileageArchivedUpTo == null) {
+            return record;
+        }
+        return reportingRecordRepository.findMileageRecordById(MILEAGE_TABLE + "_archive", id);
+    }
+
+    public List<MileageRecord> findMileageRecordsByDateRange(LocalDateTime start, LocalDateTime end) {
+        List<MileageRecord> records = reportingRecordRepository.findMileageRecordsByDateBetween(MILEAGE_TABLE, start, end);
+        LocalDateTime archivedUpTo = mileageArchivedUpTo;
+        if (archivedUpTo == null || start.isAfter(archivedUpTo)) {
+            return records;
+        }
+        List<MileageRecord> merged = new ArrayList<>(records);
+        merged.addAll(reportingRecordRepository.findMileageRecordsByDateBetween(MILEAGE_TABLE + "_archive", start, end));
+        merged.sort(Comparator.comparing(MileageRecord::getDate).reversed());
+        return merged;
+    }
+
+    /**
+     * Moves every record older than the retention window into the archive tables,
+     * one calendar month per transaction to keep undo logs and lock times bounded.
+     */
+    @Scheduled(cron = "${fleet.archive.cron:0 30 3 * * *}")
+    public Map<String, Integer> archiveExpiredRecords() {
+        LocalDateTime cutoff = YearMonth.now().minusMonths(retentionMonths).atDay(1).atStartOfDay();
+        int fuelMoved = 0;
+        int mileageMoved = 0;
+        for (String database : tenantProperties.databaseTenants()) {
+            int[] moved = TenantContext.callAs(database, () -> archiveExpiredRecords(cutoff));
+            fuelMoved += moved[0];
+            mileageMoved += moved[1];
+        }
+        refreshWatermarks();
+
+        if (fuelMoved > 0 || mileageMoved > 0) {
+            log.info("Archived {} fuel records and {} mileage records older than {}", fuelMoved, mileageMoved, cutoff);
+        }
+        Map<String, Integer> result = new LinkedHashMap<>();
+        result.put(FUEL_TABLE, fuelMoved);
+        result.put(MILEAGE_TABLE, mileageMoved);
+        return result;
+    }
+
+    private int[] archiveExpiredRecords(LocalDateTime cutoff) {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        int fuelMoved = 0;
+        int mileageMoved = 0;
+        for (LocalDateTime from = oldestDate(FUEL_TABLE); from != null && from.isBefore(cutoff); from = from.plusMonths(1)) {
+            LocalDateTime sliceFrom = from;
+            LocalDateTime sliceTo = min(from.plusMonths(1), cutoff);
+            fuelMoved += tx.execute(status -> {
+                fuelRecordRepository.copyToArchive(sliceFrom, sliceTo);
+                return fuelRecordRepository.deleteByDateRange(sliceFrom, sliceTo);
+            });
+        }
+        for (LocalDateTime from = oldestDate(MILEAGE_TABLE); from != null && from.isBefore(cutoff); from = from.plusMonths(1)) {
+            LocalDateTime sliceFrom = from;
+            LocalDateTime sliceTo = min(from.plusMonths(1), cutoff);
+            mileageMoved += tx.execute(status -> {
+                mileageRecordRepository.copyToArchive(sliceFrom, sliceTo);
+                return mileageRecordRepository.deleteByDateRange(sliceFrom, sliceTo);
+            });
+        }
+        return new int[]{fuelMoved, mileageMoved};
+    }
+
+    /**
+     * Exports one month of the current tenant's archived rows to a compressed columnar file
+     * under the export directory.
+     */
+    public Map<String, Object> exportArchivedMonth(String table, YearMonth month) throws IOException {
+        if (!ARCHIVED_TABLES.contains(table)) {
+            throw new IllegalArgumentException("Unknown archived table: " + table);
+        }
+        Path dir = Paths.get(exportDir);
+        Files.createDirectories(dir);
+        String tenant = TenantContext.current();
+        Path file = dir.resolve(tenant + "-" + table + "-" + month + ".cbxc");
+
+        String sql = "SELECT * FROM " + table + "_archive WHERE tenant_id = ? AND date >= ? AND date < ? ORDER BY date";
+        Long rows = reportingBulkhead.getJdbcTemplate().query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            if (con.getMetaData().getDatabaseProductName().startsWith("MySQL")) {
+                // Stream rows from MySQL instead of buffering the whole month in the driver
+                ps.setFetchSize(Integer.MIN_VALUE);
+            }
+            ps.setString(1, tenant);
+            ps.setObject(2, month.atDay(1).atStartOfDay());
+            ps.setObject(3, month.plusMonths(1).atDay(1).atStartOfDay());
+            return ps;
+        }, rs -> {
+            try (ColumnarWriter writer = new ColumnarWriter(file)) {
+                return writer.write(rs);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("table", table);
+        result.put("tenant", tenant);
+        result.put("month", month.toString());
+        result.put("rows", rows);
+        result.put("file", file.toAbsolutePath().toString());
+        result.put("bytes", Files.size(file));
+        return result;
+    }
+
+    /** Re-reads the archive watermarks, after archiving or after the tables were reloaded. */
+    public void refreshWatermarks() {
+        // Newest archived date over every database: reads may visit an archive that turns out empty
+        LocalDateTime fuel = null;
+        LocalDateTime mileage = null;
+        for (String database : tenantProperties.databaseTenants()) {
+            fuel = max(fuel, TenantContext.callAs(database, () -> jdbcTemplate.queryForObject(
+                    "SELECT MAX(date) FROM " + FUEL_TABLE + "_archive", LocalDateTime.class)));
+            mileage = max(mileage, TenantContext.callAs(database, () -> jdbcTemplate.queryForObject(
+                    "SELECT MAX(date) FROM " + MILEAGE_TABLE + "_archive", LocalDateTime.class)));
+        }
+        fuelArchivedUpTo = fuel;
+        mileageArchivedUpTo = mileage;
+    }
+
+    private LocalDateTime oldestDate(String table) {
+        LocalDateTime oldest = jdbcTemplate.queryForObject("SELECT MIN(date) FROM " + table, LocalDateTime.class);
+        return oldest == null ? null : oldest.withDayOfMonth(1).toLocalDate().atStartOfDay();
+    }
+
+    private static LocalDateTime min(LocalDateTime a, LocalDateTime b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    private static LocalDateTime max(LocalDateTime a, LocalDateTime b) {
+        if (a == null || b == null) {
+            return a == null ? b : a;
+        }
+        return a.isAfter(b) ? a : b;
+    }
+}
@@ -0,0 +1,415 @@
+package com.cobox.fleet.service;
+
+import com.cobox.fleet.config.ReportingBulkhead;
+import com.cobox.fleet.config.TenantContext;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Background report jobs for large fuel and mileage date ranges.
+ * <p>
+ * A job splits its range into fixed windows and streams each window from the hot and
+ * archive tables, through the reporting pool, into a file under {@code fleet.reports.dir}.
+ * Progress is tracked as windows and rows written. Jobs run on a bounded executor: at
+ * most {@code max-concurrent} at once, a short queue behind them, and rejection beyond
+ * that. Finished results are deleted after {@code retention-hours}. The job registry is
+ * in memory, so job ids do not survive a restart.
+ */
+@Component
+public class ReportJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReportJobService.class);
+
+    public static final List<String> TYPES = List.of("fuel", "mileage");
+    public static final List<String> FORMATS = List.of("csv", "json");
+
+    private static final String FUEL_COLUMNS = "id, vehicle_id, vehicle_plate, date, fuel_type, quantity, total_cost, " +
+            "current_mileage, station, location, invoice_number, notes";
+    private static final String MILEAGE_COLUMNS = "id, vehicle_id, date, start_odometer, end_odometer, distance, " +
+            "purpose, route, driver_id, notes, created_by, created_at";
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+
+    public enum Status { QUEUED, RUNNING, COMPLETED, FAILED, CANCELLED }
+
+    @Autowired
+    private ReportingBulkhead reportingBulkhead;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${fleet.reports.dir:reports}")
+    private String reportsDir;
+
+    @Value("${fleet.reports.max-concurrent:2}")
+    private int maxConcurrent;
+
+    @Value("${fleet.reports.queue-capacity:10}")
+    private int queueCapacity;
+
+    @Value("${fleet.reports.chunk-days:7}")
+    private int chunkDays;
+
+    @Value("${fleet.reports.retention-hours:24}")
+    private int retentionHours;
+
+    private final ConcurrentHashMap<String, ReportJob> jobs = new ConcurrentHashMap<>();
+    private ThreadPoolExecutor executor;
+    private Path dir;
+
+    @PostConstruct
+    public void init() throws IOException {
+        dir = Paths.get(reportsDir);
+        Files.createDirectories(dir);
+        // Results of a previous run are unreachable: the registry is in memory
+        try (Stream<Path> files = Files.list(dir)) {
+            files.filter(file -> file.getFileName().toString().startsWith("report-")).forEach(this::deleteQuietly);
+        }
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(maxConcurrent, maxConcurrent, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                task -> {
+                    Thread thread = new Thread(task, "report-job-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Queues a report; returns empty when the job queue is full.
+     */
+    public Optional<ReportJob> submit(String type, LocalDateTime start, LocalDateTime end, String format) {
+        if (!TYPES.contains(type) || !FORMATS.contains(format) || start.isAfter(end)) {
+            throw new IllegalArgumentException("Invalid report parameters");
+        }
+        ReportJob job = new ReportJob(UUID.randomUUID().toString(), TenantContext.current(), type, format, start, end);
+        jobs.put(job.id, job);
+        try {
+            job.future = executor.submit(() -> TenantContext.runAs(job.tenant, () -> run(job)));
+            return Optional.of(job);
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * The job with this id, if it belongs to the current tenant.
+     */
+    public Optional<ReportJob> getJob(String id) {
+        String tenant = TenantContext.current();
+        return Optional.ofNullable(jobs.get(id)).filter(job -> job.tenant.equals(tenant));
+    }
+
+    public List<ReportJob> getJobs() {
+        String tenant = TenantContext.current();
+        return jobs.values().stream()
+                .filter(job -> job.tenant.equals(tenant))
+                .sorted(Comparator.comparing(job -> job.createdAt))
+                .toList();
+    }
+
+    /**
+     * Cancels a queued or running job, or deletes a finished job and its result.
+     */
+    public boolean cancel(String id) {
+        ReportJob job = getJob(id).orElse(null);
+        if (job == null) {
+            return false;
+        }
+        if (job.status == Status.QUEUED || job.status == Status.RUNNING) {
+            job.cancelled = true;
+            if (job.future != null) {
+                job.future.cancel(false);
+            }
+            if (job.status == Status.QUEUED) {
+                finish(job, Status.CANCELLED, null);
+            }
+        } else {
+            jobs.remove(id);
+            if (job.result != null) {
+                deleteQuietly(job.result);
+            }
+        }
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${fleet.reports.cleanup-interval-ms:600000}")
+    public void deleteExpiredResults() {
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(retentionHours);
+        jobs.values().removeIf(job -> {
+            boolean expired = job.finishedAt != null && job.finishedAt.isBefore(cutoff);
+            if (expired && job.result != null) {
+                deleteQuietly(job.result);
+            }
+            return expired;
+        });
+    }
+
+    private void run(ReportJob job) {
+        if (job.cancelled) {
+            return;
+        }
+        job.status = Status.RUNNING;
+        job.startedAt = LocalDateTime.now();
+
+        String table = "fuel".equals(job.type) ? RecordArchiveService.FUEL_TABLE : RecordArchiveService.MILEAGE_TABLE;
+        String columns = "fuel".equals(job.type) ? FUEL_COLUMNS : MILEAGE_COLUMNS;
+        String sql = "SELECT " + columns + " FROM " + table + " WHERE tenant_id = ? AND date >= ? AND date < ? " +
+                "UNION ALL SELECT " + columns + " FROM " + table + "_archive WHERE tenant_id = ? AND date >= ? AND date < ? " +
+                "ORDER BY date";
+
+        Path partial = dir.resolve("report-" + job.id + "." + job.format + ".part");
+        Path result = dir.resolve("report-" + job.id + "." + job.format);
+        // The end date is inclusive, as in the date-range endpoints
+        LocalDateTime end = job.end.plusNanos(1);
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(partial), 64 * 1024);
+                 RowWriter writer = "csv".equals(job.format) ? new CsvRowWriter(out) : new JsonRowWriter(out)) {
+                for (LocalDateTime from = job.start; from.isBefore(end); from = from.plusDays(chunkDays)) {
+                    if (job.cancelled) {
+                        break;
+                    }
+                    LocalDateTime to = from.plusDays(chunkDays).isBefore(end) ? from.plusDays(chunkDays) : end;
+                    Timestamp fromTs = Timestamp.valueOf(from);
+                    Timestamp toTs = Timestamp.valueOf(to);
+                    reportingBulkhead.getJdbcTemplate().query(sql, rs -> {
+                        writer.write(rs);
+                        job.rows.incrementAndGet();
+                    }, job.tenant, fromTs, toTs, job.tenant, fromTs, toTs);
+                    job.chunksDone.incrementAndGet();
+                }
+            }
+            if (job.cancelled) {
+                deleteQuietly(partial);
+                finish(job, Status.CANCELLED, null);
+                return;
+            }
+            Files.move(partial, result, StandardCopyOption.REPLACE_EXISTING);
+            job.result = result;
+            finish(job, Status.COMPLETED, null);
+        } catch (Exception e) {
+            log.error("Report job {} failed", job.id, e);
+            deleteQuietly(partial);
+            finish(job, Status.FAILED, e.getMessage());
+        }
+    }
+
+    private void finish(ReportJob job, Status status, String error) {
+        job.error = error;
+        job.finishedAt = LocalDateTime.now();
+        job.status = status;
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete report file {}", file, e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public final class ReportJob {
+
+        private final String id;
+        private final String tenant;
+        private final String type;
+        private final String format;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+        private final LocalDateTime createdAt = LocalDateTime.now();
+        private final int chunksTotal;
+        private final AtomicInteger chunksDone = new AtomicInteger();
+        private final AtomicLong rows = new AtomicLong();
+        private volatile Status status = Status.QUEUED;
+        private volatile LocalDateTime startedAt;
+        private volatile LocalDateTime finishedAt;
+        private volatile String error;
+        private volatile Path result;
+        private volatile boolean cancelled;
+        private volatile Future<?> future;
+
+        ReportJob(String id, String tenant, String type, String format, LocalDateTime start, LocalDateTime end) {
+            this.id = id;
+            this.tenant = tenant;
+            this.type = type;
+            this.format = format;
+            this.start = start;
+            this.end = end;
+            long days = Duration.between(start, end).toDays() + 1;
+            this.chunksTotal = (int) Math.max(1, (days + chunkDays - 1) / chunkDays);
+        }
+
+        public String getId() { return id; }
+        public String getFormat() { return format; }
+        public Status getStatus() { return status; }
+        public Path getResult() { return result; }
+
+        public Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("id", id);
+            map.put("type", type);
+            map.put("format", format);
+            map.put("startDate", start.toString());
+            map.put("endDate", end.toString());
+            map.put("status", status);
+            map.put("progress", status == Status.COMPLETED ? 1.0 : Math.min(1.0, (double) chunksDone.get() / chunksTotal));
+            map.put("rows", rows.get());
+            map.put("createdAt", createdAt.toString());
+            map.put("startedAt", startedAt == null ? null : startedAt.toString());
+            map.put("finishedAt", finishedAt == null ? null : finishedAt.toString());
+            map.put("expiresAt", finishedAt == null ? null : finishedAt.plusHours(retentionHours).toString());
+            map.put("error", error);
+            return map;
+        }
+    }
+
+    private interface RowWriter extends Closeable {
+        void write(ResultSet rs) throws SQLException;
+    }
+
+    private static String format(Object value) {
+        if (value instanceof Timestamp timestamp) {
+            return TIMESTAMP_FORMAT.format(timestamp.toLocalDateTime());
+        }
+        return value == null ? null : value.toString();
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+
+        private final BufferedWriter out;
+        private boolean headerWritten;
+
+        CsvRowWriter(OutputStream out) {
+            this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException {
+            try {
+                ResultSetMetaData meta = rs.getMetaData();
+                int count = meta.getColumnCount();
+                if (!headerWritten) {
+                    for (int i = 1; i <= count; i++) {
+                        writeField(meta.getColumnLabel(i).toLowerCase(), i);
+                    }
+                    out.newLine();
+                    headerWritten = true;
+                }
+                for (int i = 1; i <= count; i++) {
+                    writeField(format(rs.getObject(i)), i);
+                }
+                out.newLine();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void writeField(String value, int column) throws IOException {
+            if (column > 1) {
+                out.write(',');
+            }
+            if (value == null) {
+                return;
+            }
+            if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+                out.write('"');
+                out.write(value.replace("\"", "\"\""));
+                out.write('"');
+            } else {
+                out.write(value);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+
+    private final class JsonRowWriter implements RowWriter {
+
+        private final JsonGenerator generator;
+
+        JsonRowWriter(OutputStream out) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(out);
+            generator.writeStartArray();
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException {
+            try {
+                ResultSetMetaData meta = rs.getMetaData();
+                generator.writeStartObject();
+                for (int i = 1; i <= meta.getColumnCount(); i++) {
+                    generator.writeFieldName(meta.getColumnLabel(i).toLowerCase());
+                    Object value = rs.getObject(i);
+                    if (value instanceof Number number) {
+                        generator.writeNumber(number.toString());
+                    } else if (value instanceof Boolean bool) {
+                        generator.writeBoolean(bool);
+                    } else {
+                        generator.writeString(format(value));
+                    }
+                }
+                generator.writeEndObject();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.writeEndArray();
+            generator.close();
+        }
+    }
+}
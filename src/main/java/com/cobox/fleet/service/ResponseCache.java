@@ -0,0 +1,224 @@
+package com.cobox.fleet.service;
+
+import com.cobox.fleet.config.TenantContext;
+import com.cobox.fleet.entity.User;
+import com.cobox.fleet.entity.Vehicle;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Caches the serialized JSON of whole reference lists, both plain and gzip-compressed,
+ * and writes the bytes straight to the servlet output stream. A hit skips the query,
+ * entity materialization and Jackson entirely.
+ * <p>
+ * Entries are dropped by Hibernate post-commit events on the entity type that backs
+ * them. Every key has a generation counter that invalidation bumps, so a list loaded
+ * concurrently with a commit is never left behind in the cache. Entries are per tenant:
+ * the stored key is {@code <tenant>|<key>} and a commit only drops its own tenant's lists.
+ * <p>
+ * Writes that bypass Hibernate (plain JDBC, bulk loads) raise no events and must call
+ * {@link #invalidate} themselves; as a backstop every entry also expires after
+ * {@code fleet.response-cache.ttl-seconds}.
+ */
+@Component
+public class ResponseCache implements PostCommitInsertEventListener, PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    public static final String VEHICLES_ALL = "vehicles:all";
+    public static final String VEHICLES_ACTIVE = "vehicles:active";
+    public static final String USERS_ALL = "users:all";
+
+    private static final Map<Class<?>, Set<String>> KEYS_BY_TYPE = Map.of(
+            Vehicle.class, Set.of(VEHICLES_ALL, VEHICLES_ACTIVE),
+            User.class, Set.of(USERS_ALL)
+    );
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${fleet.response-cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, AtomicLong> generations = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    @PostConstruct
+    public void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    /**
+     * Writes the cached JSON for {@code key}, loading and serializing it with {@code loader}
+     * on a miss. Gzip is used when the client accepts it.
+     */
+    public void write(String key, HttpServletRequest request, HttpServletResponse response, Supplier<?> loader)
+            throws IOException {
+        key = tenantKey(TenantContext.current(), key);
+        Entry entry = entries.get(key);
+        if (entry != null && ttlSeconds > 0 && System.nanoTime() - entry.loadedAt() > TimeUnit.SECONDS.toNanos(ttlSeconds)) {
+            entries.remove(key, entry);
+            entry = null;
+        }
+        if (entry != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+            AtomicLong generation = generations.computeIfAbsent(key, k -> new AtomicLong());
+            long loadedAt = generation.get();
+            entry = Entry.of(objectMapper.writeValueAsBytes(loader.get()));
+            entries.put(key, entry);
+            if (generation.get() != loadedAt) {
+                // Invalidated while loading; serve what was read but don't keep it
+                entries.remove(key, entry);
+            }
+        }
+
+        boolean gzip = acceptsGzip(request);
+        byte[] body = gzip ? entry.gzip() : entry.json();
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    /**
+     * Drops the lists of {@code tenant} backed by {@code entityType}. Called from commit
+     * events, and by code that writes those tables without Hibernate.
+     */
+    public void invalidate(String tenant, Class<?> entityType) {
+        Set<String> keys = KEYS_BY_TYPE.get(entityType);
+        if (keys == null) {
+            return;
+        }
+        for (String key : keys) {
+            String tenantKey = tenantKey(tenant, key);
+            generations.computeIfAbsent(tenantKey, k -> new AtomicLong()).incrementAndGet();
+            entries.remove(tenantKey);
+        }
+    }
+
+    public void invalidateAll() {
+        // Every key that was ever loaded has a generation
+        for (Map.Entry<String, AtomicLong> generation : generations.entrySet()) {
+            generation.getValue().incrementAndGet();
+            entries.remove(generation.getKey());
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("hits", hits.sum());
+        stats.put("misses", misses.sum());
+        Map<String, Object> sizes = new LinkedHashMap<>();
+        entries.forEach((key, entry) -> sizes.put(key, Map.of("json", entry.json().length, "gzip", entry.gzip().length)));
+        stats.put("entries", sizes);
+        return stats;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        invalidate(event.getSession().getTenantIdentifier(), event.getEntity().getClass());
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        invalidate(event.getSession().getTenantIdentifier(), event.getEntity().getClass());
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        invalidate(event.getSession().getTenantIdentifier(), event.getEntity().getClass());
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return KEYS_BY_TYPE.containsKey(persister.getMappedClass());
+    }
+
+    private static String tenantKey(String tenant, String key) {
+        return tenant + "|" + key;
+    }
+
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length < 2 || !parts[1].replace(" ", "").equals("q=0");
+            }
+        }
+        return false;
+    }
+
+    record Entry(byte[] json, byte[] gzip, long loadedAt) {
+
+        static Entry of(byte[] json) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(Math.max(64, json.length / 4));
+            try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+                out.write(json);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return new Entry(json, compressed.toByteArray(), System.nanoTime());
+        }
+    }
+}
@@ -0,0 +1,303 @@
+package com.cobox.fleet.service;
+
+import com.cobox.fleet.entity.Schedule;
+import com.cobox.fleet.entity.Service;
+import com.cobox.fleet.entity.User;
+import com.cobox.fleet.entity.Vehicle;
+import com.cobox.fleet.repository.ScheduleRepository;
+import com.cobox.fleet.repository.ServiceRepository;
+import com.cobox.fleet.repository.UserRepository;
+import com.cobox.fleet.repository.VehicleRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Proposes schedules for a day's pending services.
+ * <p>
+ * Greedy interval assignment: services are taken in departure order, largest required
+ * capacity first, and each blocks a vehicle and a driver for {@code service-duration}
+ * plus {@code turnaround} minutes. The heuristic prefers the plate and driver already
+ * written on the service. Otherwise it picks the smallest vehicle that fits (best fit,
+ * keeping large vehicles free for large loads) and the least-loaded driver. Schedules
+ * already on the day are treated as busy time. Each resource keeps its busy intervals in
+ * a TreeMap, so a feasibility check is O(log n) and a few hundred services solve in
+ * milliseconds.
+ */
+@Component
+public class ScheduleGenerator {
+
+    @Autowired
+    private ServiceRepository serviceRepository;
+
+    @Autowired
+    private ScheduleRepository scheduleRepository;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${fleet.scheduling.service-duration-minutes:180}")
+    private int serviceDurationMinutes;
+
+    @Value("${fleet.scheduling.turnaround-minutes:30}")
+    private int turnaroundMinutes;
+
+    @Value("${fleet.scheduling.max-services-per-driver:3}")
+    private int maxServicesPerDriver;
+
+    @Value("${fleet.scheduling.default-origin:Afe surquillo}")
+    private String defaultOrigin;
+
+    @Value("${fleet.scheduling.driver-level:Conductor}")
+    private String driverLevel;
+
+    @Value("${fleet.scheduling.batch-size:100}")
+    private int batchSize;
+
+    /**
+     * Solves the assignment for {@code date} (yyyy-MM-dd) and, when {@code apply} is set,
+     * persists the proposed schedules in one transaction and JDBC batch.
+     */
+    @Transactional
+    public Map<String, Object> generate(String date, boolean apply) {
+        LocalDate.parse(date);
+        long started = System.nanoTime();
+
+        List<Schedule> existing = scheduleRepository.findByServiceDateAndDeletedFalse(date);
+        Map<String, Resource> vehicles = vehicleRepository.findByActiveTrueAndDeletedFalse().stream()
+                .filter(vehicle -> !"IN_MAINTENANCE".equals(vehicle.getStatus()))
+                .collect(Collectors.toMap(Vehicle::getPlate, v -> new Resource(v.getPlate(), v.getLoadCapacity()),
+                        (a, b) -> a, LinkedHashMap::new));
+        Map<String, Resource> drivers = userRepository.findByLevelAndDeletedFalse(driverLevel).stream()
+                .collect(Collectors.toMap(User::getName, u -> new Resource(u.getName(), null),
+                        (a, b) -> a, LinkedHashMap::new));
+
+        // Time already committed on this day
+        for (Schedule schedule : existing) {
+            Integer start = minutes(schedule.getDepartureTime());
+            if (start == null) {
+                continue;
+            }
+            int end = start + serviceDurationMinutes + turnaroundMinutes;
+            Resource vehicle = vehicles.get(schedule.getPlate());
+            if (vehicle != null) {
+                vehicle.book(start, end);
+            }
+            Resource driver = drivers.get(schedule.getDriver());
+            if (driver != null) {
+                driver.book(start, end);
+            }
+        }
+
+        List<Service> pending = new ArrayList<>(serviceRepository.findByDateAndStatusAndDeletedFalse(date, "PENDING"));
+        Map<String, Schedule> schedulesById = scheduleRepository.findAllById(pending.stream().map(Service::getId).toList())
+                .stream().collect(Collectors.toMap(Schedule::getId, Function.identity()));
+
+        List<Map<String, Object>> assignments = new ArrayList<>();
+        List<Map<String, Object>> unassigned = new ArrayList<>();
+        List<Object[]> accepted = new ArrayList<>();
+
+        pending.removeIf(service -> {
+            Schedule schedule = schedulesById.get(service.getId());
+            if (schedule != null && !schedule.getDeleted()) {
+                unassigned.add(unassignedEntry(service, "already scheduled"));
+                return true;
+            }
+            if (minutes(service.getDepartureTime()) == null) {
+                unassigned.add(unassignedEntry(service, "invalid departure time"));
+                return true;
+            }
+            return false;
+        });
+        pending.sort(Comparator.comparing((Service service) -> minutes(service.getDepartureTime()))
+                .thenComparing(service -> service.getRequiredCapacity() == null ? 0 : service.getRequiredCapacity(),
+                        Comparator.reverseOrder()));
+
+        for (Service service : pending) {
+            int start = minutes(service.getDepartureTime());
+            int end = start + serviceDurationMinutes + turnaroundMinutes;
+            Integer required = service.getRequiredCapacity();
+
+            Resource vehicle = pickVehicle(vehicles, service.getPlate(), required, start, end);
+            if (vehicle == null) {
+                unassigned.add(unassignedEntry(service, required == null
+                        ? "no vehicle available" : "no vehicle with capacity " + required + " available"));
+                continue;
+            }
+            Resource driver = pickDriver(drivers, service.getDriver(), start, end);
+            if (driver == null) {
+                unassigned.add(unassignedEntry(service, "no driver available"));
+                continue;
+            }
+            vehicle.book(start, end);
+            driver.book(start, end);
+            accepted.add(new Object[]{service, vehicle.key, driver.key});
+
+            Map<String, Object> assignment = new LinkedHashMap<>();
+            assignment.put("serviceId", service.getId());
+            assignment.put("departureTime", service.getDepartureTime());
+            assignment.put("plate", vehicle.key);
+            assignment.put("driver", driver.key);
+            assignment.put("route", service.getRoute());
+            assignments.add(assignment);
+        }
+        long solveMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+        if (apply && !accepted.isEmpty()) {
+            entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+            String scheduleDate = LocalDate.now().toString();
+            for (Object[] entry : accepted) {
+                Service service = (Service) entry[0];
+                String plate = (String) entry[1];
+                String driver = (String) entry[2];
+                Schedule tombstone = schedulesById.get(service.getId());
+                if (tombstone != null) {
+                    // Reuse a soft-deleted schedule row with the same id
+                    tombstone.setDeleted(false);
+                    tombstone.setScheduleDate(scheduleDate);
+                    tombstone.setServiceDate(date);
+                    tombstone.setOrigin(defaultOrigin);
+                    tombstone.setDestination(service.getRoute());
+                    tombstone.setDriver(driver);
+                    tombstone.setPlate(plate);
+                    tombstone.setDepartureTime(service.getDepartureTime());
+                } else {
+                    entityManager.persist(new Schedule(service.getId(), scheduleDate, date, defaultOrigin,
+                            service.getRoute(), driver, plate, service.getDepartureTime(), null));
+                }
+                service.setPlate(plate);
+                service.setDriver(driver);
+            }
+            entityManager.flush();
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("date", date);
+        result.put("applied", apply && !accepted.isEmpty());
+        result.put("pendingServices", pending.size());
+        result.put("assigned", assignments.size());
+        result.put("solveMs", solveMs);
+        result.put("assignments", assignments);
+        result.put("unassigned", unassigned);
+        return result;
+    }
+
+    private Resource pickVehicle(Map<String, Resource> vehicles, String preferredPlate, Integer required, int start, int end) {
+        Resource preferred = vehicles.get(preferredPlate);
+        if (preferred != null && fits(preferred, required) && preferred.isFree(start, end)) {
+            return preferred;
+        }
+        Resource best = null;
+        for (Resource vehicle : vehicles.values()) {
+            if (!fits(vehicle, required) || !vehicle.isFree(start, end)) {
+                continue;
+            }
+            if (best == null || compareVehicles(vehicle, best) < 0) {
+                best = vehicle;
+            }
+        }
+        return best;
+    }
+
+    private static int compareVehicles(Resource a, Resource b) {
+        // Smallest capacity first (unknown capacity last), then the least used vehicle
+        int capacityA = a.capacity == null ? Integer.MAX_VALUE : a.capacity;
+        int capacityB = b.capacity == null ? Integer.MAX_VALUE : b.capacity;
+        if (capacityA != capacityB) {
+            return Integer.compare(capacityA, capacityB);
+        }
+        return Integer.compare(a.assignments, b.assignments);
+    }
+
+    private Resource pickDriver(Map<String, Resource> drivers, String preferredDriver, int start, int end) {
+        Resource preferred = drivers.get(preferredDriver);
+        if (preferred != null && preferred.assignments < maxServicesPerDriver && preferred.isFree(start, end)) {
+            return preferred;
+        }
+        Resource best = null;
+        for (Resource driver : drivers.values()) {
+            if (driver.assignments >= maxServicesPerDriver || !driver.isFree(start, end)) {
+                continue;
+            }
+            if (best == null || driver.assignments < best.assignments) {
+                best = driver;
+            }
+        }
+        return best;
+    }
+
+    private static boolean fits(Resource vehicle, Integer required) {
+        return required == null || (vehicle.capacity != null && vehicle.capacity >= required);
+    }
+
+    private static Integer minutes(String time) {
+        if (time == null) {
+            return null;
+        }
+        try {
+            LocalTime parsed = LocalTime.parse(time.length() == 4 ? "0" + time : time);
+            return parsed.getHour() * 60 + parsed.getMinute();
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private static Map<String, Object> unassignedEntry(Service service, String reason) {
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("serviceId", service.getId());
+        entry.put("departureTime", service.getDepartureTime());
+        entry.put("reason", reason);
+        return entry;
+    }
+
+    private static final class Resource {
+
+        private final String key;
+        private final Integer capacity;
+        // Busy intervals in minutes of the day: start -> end (exclusive)
+        private final TreeMap<Integer, Integer> busy = new TreeMap<>();
+        private int assignments;
+
+        Resource(String key, Integer capacity) {
+            this.key = key;
+            this.capacity = capacity;
+        }
+
+        boolean isFree(int start, int end) {
+            Map.Entry<Integer, Integer> before = busy.floorEntry(start);
+            if (before != null && before.getValue() > start) {
+                return false;
+            }
+            Map.Entry<Integer, Integer> after = busy.ceilingEntry(start);
+            return after == null || after.getKey() >= end;
+        }
+
+        void book(int start, int end) {
+            busy.merge(start, end, Math::max);
+            assignments++;
+        }
+    }
+}
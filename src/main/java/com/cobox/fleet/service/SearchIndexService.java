@@ -0,0 +1,430 @@
+package com.cobox.fleet.service;
+
+import com.cobox.fleet.config.TenantContext;
+import com.cobox.fleet.config.TenantProperties;
+import com.cobox.fleet.entity.FuelRecord;
+import com.cobox.fleet.entity.MileageRecord;
+import com.cobox.fleet.entity.OutboxEvent;
+import com.cobox.fleet.entity.Schedule;
+import com.cobox.fleet.entity.Service;
+import com.cobox.fleet.outbox.OutboxRelay;
+import com.cobox.fleet.repository.FuelRecordRepository;
+import com.cobox.fleet.repository.MileageRecordRepository;
+import com.cobox.fleet.repository.OutboxEventRepository;
+import com.cobox.fleet.repository.ScheduleRepository;
+import com.cobox.fleet.repository.ServiceRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.custom.CustomAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.SegmentInfos;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Lucene full-text index over services, schedules, fuel records and mileage records,
+ * kept on local disk under {@code fleet.search.index-dir}.
+ * <p>
+ * The index is updated incrementally from relayed outbox events. Every physical database
+ * has its own outbox table and id sequence, so each commit stores the last applied outbox
+ * id per database; after a restart only newer rows of each outbox are replayed. A
+ * database's tenants are rebuilt from the tables when its outbox has been purged past
+ * that point, and the whole index when it is empty or has an older layout. The outbox relay is held until that catch-up finishes, so no relayed
+ * event is applied ahead of the older ones being replayed. Every document carries its
+ * tenant and searches filter on it.
+ */
+@Component
+public class SearchIndexService {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchIndexService.class);
+
+    private static final String KEY = "key";
+    private static final String TENANT = "tenant";
+    private static final String TYPE = "type";
+    private static final String ID = "id";
+    private static final String TEXT = "text";
+    private static final String TITLE = "title";
+    private static final String DETAIL = "detail";
+    private static final String DATE = "date";
+    // Commit data key prefix, followed by the database's entry in databaseTenants()
+    private static final String OUTBOX_ID = "outboxId.";
+    private static final String VERSION = "version";
+    // Bumped when the document layout changes; older indexes are rebuilt on startup
+    private static final String INDEX_VERSION = "3";
+    private static final int REINDEX_PAGE_SIZE = 1000;
+    private static final String CATCH_UP = "search-index-catch-up";
+
+    @Autowired
+    private ServiceRepository serviceRepository;
+
+    @Autowired
+    private ScheduleRepository scheduleRepository;
+
+    @Autowired
+    private FuelRecordRepository fuelRecordRepository;
+
+    @Autowired
+    private MileageRecordRepository mileageRecordRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TenantProperties tenantProperties;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Value("${fleet.search.index-dir:search-index}")
+    private String indexDir;
+
+    private Directory directory;
+    private Analyzer analyzer;
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+    private volatile Map<String, Long> committedOutboxIds = Map.of();
+    private boolean outdated;
+    private final Map<String, AtomicLong> appliedOutboxIds = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void open() throws IOException {
+        outboxRelay.hold(CATCH_UP);
+        directory = FSDirectory.open(Paths.get(indexDir));
+        // Folds case and accents so "acuna" finds "ACUÑA"
+        analyzer = CustomAnalyzer.builder()
+                .withTokenizer("standard")
+                .addTokenFilter("lowercase")
+                .addTokenFilter("asciiFolding")
+                .build();
+        Map<String, String> userData = Map.of();
+        if (DirectoryReader.indexExists(directory)) {
+            userData = SegmentInfos.readLatestCommit(directory).getUserData();
+            outdated = !INDEX_VERSION.equals(userData.get(VERSION));
+        }
+        Map<String, Long> committed = new LinkedHashMap<>();
+        for (String database : tenantProperties.databaseTenants()) {
+            String outboxId = userData.get(OUTBOX_ID + database);
+            committed.put(database, outboxId == null ? 0 : Long.parseLong(outboxId));
+            appliedOutboxIds.put(database, new AtomicLong(committed.get(database)));
+        }
+        committedOutboxIds = committed;
+        writer = new IndexWriter(directory, new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+        searcherManager = new SearcherManager(writer, null);
+    }
+
+    /**
+     * Brings the index up to date after startup, off the startup thread.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void catchUp() {
+        Thread thread = new Thread(() -> {
+            try {
+                if (writer.getDocStats().numDocs == 0 || outdated) {
+                    reindexAll();
+                } else {
+                    for (String database : tenantProperties.databaseTenants()) {
+                        try {
+                            catchUp(database);
+                        } catch (Exception e) {
+                            log.error("Search index catch-up failed for database of tenant {}", database, e);
+                        }
+                    }
+                }
+            } catch (Exception e) {
+                log.error("Search index catch-up failed", e);
+            } finally {
+                outboxRelay.release(CATCH_UP);
+            }
+        }, CATCH_UP);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @EventListener
+    public void onOutboxEvent(OutboxEvent event) throws IOException {
+        apply(event);
+        appliedOutboxId(tenantProperties.databaseTenantOf(event.getTenantId())).accumulateAndGet(event.getId(), Math::max);
+    }
+
+    public synchronized long reindexAll() throws IOException {
+        writer.deleteAll();
+        long count = 0;
+        for (String database : tenantProperties.databaseTenants()) {
+            count += reindexDatabase(database);
+        }
+        commit();
+        log.info("Rebuilt search index with {} documents", count);
+        return count;
+    }
+
+    private void catchUp(String database) throws IOException {
+        long committed = committedOutboxIds.getOrDefault(database, 0L);
+        Long oldestRetained = TenantContext.callAs(database,
+                () -> outboxEventRepository.findFirstByOrderByIdAsc().map(OutboxEvent::getId).orElse(null));
+        if (oldestRetained != null && oldestRetained > committed + 1) {
+            long count = reindexDatabase(database);
+            commit();
+            log.info("Rebuilt {} search documents for database of tenant {}", count, database);
+        } else {
+            replayOutboxSince(database, committed);
+        }
+    }
+
+    /**
+     * Replaces the documents of every tenant stored in the database of {@code database}
+     * and moves that database's cursor to its newest outbox row.
+     */
+    private synchronized long reindexDatabase(String database) throws IOException {
+        long outboxHighWater = TenantContext.callAs(database,
+                () -> outboxEventRepository.findFirstByOrderByIdDesc().map(OutboxEvent::getId).orElse(0L));
+        long count = 0;
+        for (String tenant : tenantProperties.allTenants()) {
+            if (!database.equals(tenantProperties.databaseTenantOf(tenant))) {
+                continue;
+            }
+            writer.deleteDocuments(new Term(TENANT, tenant));
+            count += TenantContext.callAs(tenant, () -> {
+                try {
+                    // Soft-deleted services and schedules are sync tombstones, not search results
+                    return reindex(serviceRepository::findByDeletedFalse, this::toDocument)
+                            + reindex(scheduleRepository::findByDeletedFalse, this::toDocument)
+                            + reindex(fuelRecordRepository::findAll, this::toDocument)
+                            + reindex(mileageRecordRepository::findAll, this::toDocument);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+        appliedOutboxId(database).set(outboxHighWater);
+        return count;
+    }
+
+    public Map<String, Object> search(String q, String type, int page, int size) throws IOException {
+        Query query = buildQuery(q, type);
+        Map<String, Object> response = new LinkedHashMap<>();
+        List<Map<String, Object>> results = new ArrayList<>();
+
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            TopDocs topDocs = searcher.search(query, (page + 1) * size);
+            StoredFields storedFields = searcher.storedFields();
+            ScoreDoc[] hits = topDocs.scoreDocs;
+            for (int i = page * size; i < hits.length; i++) {
+                Document doc = storedFields.document(hits[i].doc);
+                Map<String, Object> result = new LinkedHashMap<>();
+                result.put("type", doc.get(TYPE));
+                result.put("id", doc.get(ID));
+                result.put("score", hits[i].score);
+                result.put("title", doc.get(TITLE));
+                result.put("detail", doc.get(DETAIL));
+                result.put("date", doc.get(DATE));
+                results.add(result);
+            }
+            response.put("total", topDocs.totalHits.value);
+        } finally {
+            searcherManager.release(searcher);
+        }
+        response.put("page", page);
+        response.put("size", size);
+        response.put("results", results);
+        return response;
+    }
+
+    @Scheduled(fixedDelayString = "${fleet.search.refresh-interval-ms:1000}")
+    public void refresh() throws IOException {
+        searcherManager.maybeRefresh();
+    }
+
+    @Scheduled(fixedDelayString = "${fleet.search.commit-interval-ms:10000}")
+    public synchronized void commit() throws IOException {
+        Map<String, Long> applied = new LinkedHashMap<>();
+        appliedOutboxIds.forEach((database, outboxId) -> applied.put(database, outboxId.get()));
+        if (writer.hasUncommittedChanges() || !applied.equals(committedOutboxIds)) {
+            Map<String, String> commitData = new LinkedHashMap<>();
+            commitData.put(VERSION, INDEX_VERSION);
+            applied.forEach((database, outboxId) -> commitData.put(OUTBOX_ID + database, String.valueOf(outboxId)));
+            writer.setLiveCommitData(commitData.entrySet());
+            writer.commit();
+            committedOutboxIds = applied;
+        }
+        searcherManager.maybeRefresh();
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        commit();
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+    private AtomicLong appliedOutboxId(String database) {
+        return appliedOutboxIds.computeIfAbsent(database, key -> new AtomicLong());
+    }
+
+    private void replayOutboxSince(String database, long outboxId) throws IOException {
+        long last = outboxId;
+        List<OutboxEvent> events;
+        do {
+            long after = last;
+            events = TenantContext.callAs(database,
+                    () -> outboxEventRepository.findByIdGreaterThanOrderByIdAsc(after, PageRequest.of(0, REINDEX_PAGE_SIZE)));
+            for (OutboxEvent event : events) {
+                onOutboxEvent(event);
+                last = event.getId();
+            }
+        } while (events.size() == REINDEX_PAGE_SIZE);
+    }
+
+    private void apply(OutboxEvent event) throws IOException {
+        String key = event.getAggregateType() + ":" + event.getAggregateId();
+        if (OutboxEvent.DELETED.equals(event.getEventType())) {
+            writer.deleteDocuments(new Term(KEY, key));
+            return;
+        }
+        String payload = event.getPayload();
+        Document document = switch (event.getAggregateType()) {
+            case "Service" -> toDocument(objectMapper.readValue(payload, Service.class));
+            case "Schedule" -> toDocument(objectMapper.readValue(payload, Schedule.class));
+            case "FuelRecord" -> toDocument(objectMapper.readValue(payload, FuelRecord.class));
+            case "MileageRecord" -> toDocument(objectMapper.readValue(payload, MileageRecord.class));
+            default -> null;
+        };
+        if (document != null) {
+            // Payload tenant ids are read-only in JSON; the event row carries the tenant
+            document.removeFields(TENANT);
+            document.add(new StringField(TENANT, event.getTenantId(), Field.Store.YES));
+        }
+        if (document != null) {
+            writer.updateDocument(new Term(KEY, key), document);
+        }
+    }
+
+    private <T> long reindex(Function<Pageable, Page<T>> pages, Function<T, Document> mapper) throws IOException {
+        long count = 0;
+        Pageable pageable = PageRequest.of(0, REINDEX_PAGE_SIZE);
+        Page<T> page;
+        do {
+            page = pages.apply(pageable);
+            for (T entity : page) {
+                Document document = mapper.apply(entity);
+                writer.updateDocument(new Term(KEY, document.get(KEY)), document);
+                count++;
+            }
+            pageable = page.nextPageable();
+        } while (page.hasNext());
+        return count;
+    }
+
+    private Query buildQuery(String q, String type) throws IOException {
+        BooleanQuery.Builder builder = new BooleanQuery.Builder();
+        try (TokenStream tokens = analyzer.tokenStream(TEXT, q)) {
+            CharTermAttribute term = tokens.addAttribute(CharTermAttribute.class);
+            tokens.reset();
+            while (tokens.incrementToken()) {
+                // Every word must match, either exactly (ranked higher) or as a prefix
+                Term t = new Term(TEXT, term.toString());
+                builder.add(new BooleanQuery.Builder()
+                        .add(new BoostQuery(new TermQuery(t), 2f), BooleanClause.Occur.SHOULD)
+                        .add(new PrefixQuery(t), BooleanClause.Occur.SHOULD)
+                        .build(), BooleanClause.Occur.MUST);
+            }
+            tokens.end();
+        }
+        if (type != null && !type.isBlank()) {
+            builder.add(new TermQuery(new Term(TYPE, type)), BooleanClause.Occur.FILTER);
+        }
+        builder.add(new TermQuery(new Term(TENANT, TenantContext.current())), BooleanClause.Occur.FILTER);
+        return builder.build();
+    }
+
+    private Document toDocument(Service service) {
+        return document("Service", service.getId(), service.getDate(),
+                service.getRoute(), service.getDriver() + " - " + service.getPlate(),
+                service.getRoute(), service.getDriver(), service.getPlate());
+    }
+
+    private Document toDocument(Schedule schedule) {
+        return document("Schedule", schedule.getId(), schedule.getServiceDate(),
+                schedule.getDestination(), schedule.getDriver() + " - " + schedule.getPlate(),
+                schedule.getDestination(), schedule.getDriver(), schedule.getPlate());
+    }
+
+    private Document toDocument(FuelRecord record) {
+        return document("FuelRecord", record.getId(), String.valueOf(record.getDate()),
+                record.getStation() + " - " + record.getLocation(), record.getNotes(),
+                record.getNotes(), record.getStation(), record.getLocation(), record.getVehiclePlate());
+    }
+
+    private Document toDocument(MileageRecord record) {
+        return document("MileageRecord", record.getId(), String.valueOf(record.getDate()),
+                record.getRoute(), record.getNotes(),
+                record.getNotes(), record.getRoute(), record.getPurpose());
+    }
+
+    private Document document(String type, String id, String date, String title, String detail, String... searchable) {
+        Document doc = new Document();
+        doc.add(new StringField(KEY, type + ":" + id, Field.Store.YES));
+        doc.add(new StringField(TENANT, TenantContext.current(), Field.Store.YES));
+        doc.add(new StringField(TYPE, type, Field.Store.YES));
+        doc.add(new StoredField(ID, id));
+        doc.add(new StoredField(DATE, String.valueOf(date)));
+        doc.add(new StoredField(TITLE, String.valueOf(title)));
+        doc.add(new StoredField(DETAIL, String.valueOf(detail)));
+        for (String value : searchable) {
+            if (value != null) {
+                doc.add(new TextField(TEXT, value, Field.Store.NO));
+            }
+        }
+        return doc;
+    }
+}
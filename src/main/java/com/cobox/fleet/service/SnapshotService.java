@@ -0,0 +1,549 @@
+package com.cobox.fleet.service;
+
+import com.cobox.fleet.config.ReportingBulkhead;
+import com.cobox.fleet.config.TenantContext;
+import com.cobox.fleet.config.TenantProperties;
+import com.cobox.fleet.entity.ChangeSequence;
+import com.cobox.fleet.storage.ColumnarReader;
+import com.cobox.fleet.storage.ColumnarWriter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Cold-storage snapshots of the whole dataset on local disk, and restores from them.
+ * <p>
+ * A snapshot streams every table in {@code fleet.snapshot.tables} of each physical database
+ * into a {@link ColumnarWriter} file, all tables of a database inside one repeatable-read
+ * transaction on the reporting pool, so the files form a consistent point in time without
+ * locking writers. A {@code manifest.json} lists the tables, row counts and sizes.
+ * <p>
+ * A restore truncates and reloads the tables in parallel on {@code fleet.snapshot.restore-threads}
+ * connections, with multi-row inserts committed per chunk and, on MySQL, foreign key and
+ * unique checks switched off for the session. It replaces data wholesale, so it is refused
+ * unless {@code fleet.snapshot.restore-enabled} is set (staging refreshes). Afterwards the
+ * caches, the station registry and the search index are rebuilt, and the sync and purge
+ * sequences of each database are moved past both the restored and the replaced values, so
+ * every sync token issued before the restore is answered with a full resync.
+ * <p>
+ * {@code outbox_events} is not part of the default table list: it holds delivery state of
+ * the running instance, and the search index it feeds is rebuilt from the restored rows.
+ * <p>
+ * One snapshot or restore runs at a time, on a background thread.
+ */
+@Service
+public class SnapshotService {
+
+    private static final Logger log = LoggerFactory.getLogger(SnapshotService.class);
+
+    private static final DateTimeFormatter NAME_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    private static final Pattern NAME_PATTERN = Pattern.compile("\\d{8}-\\d{6}");
+    private static final String MANIFEST = "manifest.json";
+    private static final String EXTENSION = ".cbxc";
+
+    // Prepared statement placeholders are capped at 65535 by MySQL
+    private static final int MAX_PLACEHOLDERS = 65_535;
+
+    public enum Type { SNAPSHOT, RESTORE }
+
+    public enum Status { RUNNING, COMPLETED, FAILED }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ReportingBulkhead reportingBulkhead;
+
+    @Autowired
+    private TenantProperties tenantProperties;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ResponseCache responseCache;
+
+    @Autowired
+    private StationRegistry stationRegistry;
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Autowired
+    private RecordArchiveService recordArchiveService;
+
+    @Value("${fleet.snapshot.dir:snapshots}")
+    private String snapshotDir;
+
+    @Value("${fleet.snapshot.tables:vehicles,users,services,schedules,fuel_records,fuel_records_archive,mileage_records,mileage_records_archive,fuel_records_summaries,stations,cost_rollups,vehicle_status_intervals,fuel_alerts,audit_log,telemetry_points,change_sequences}")
+    private List<String> tables;
+
+    @Value("${fleet.snapshot.chunk-rows:4096}")
+    private int chunkRows;
+
+    @Value("${fleet.snapshot.restore-enabled:false}")
+    private boolean restoreEnabled;
+
+    @Value("${fleet.snapshot.restore-threads:4}")
+    private int restoreThreads;
+
+    @Value("${fleet.snapshot.restore-batch-rows:1024}")
+    private int restoreBatchRows;
+
+    private Path dir;
+    private ExecutorService executor;
+    private final AtomicReference<Operation> current = new AtomicReference<>();
+    private volatile Operation last;
+
+    @PostConstruct
+    public void init() throws IOException {
+        dir = Paths.get(snapshotDir);
+        Files.createDirectories(dir);
+        executor = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /** Starts a snapshot; returns empty while another snapshot or restore is running. */
+    public Optional<Operation> startSnapshot() {
+        String name = LocalDateTime.now().format(NAME_FORMAT);
+        Operation operation = new Operation(Type.SNAPSHOT, name);
+        return start(operation, () -> snapshot(operation));
+    }
+
+    /**
+     * Starts restoring snapshot {@code name}; returns empty while another operation is running.
+     *
+     * @throws IllegalArgumentException when there is no such snapshot
+     * @throws IllegalStateException    when restores are disabled
+     */
+    public Optional<Operation> startRestore(String name) throws IOException {
+        if (!restoreEnabled) {
+            throw new IllegalStateException("Restores are disabled (fleet.snapshot.restore-enabled)");
+        }
+        JsonNode manifest = readManifest(name).orElseThrow(() -> new IllegalArgumentException("Unknown snapshot " + name));
+        Operation operation = new Operation(Type.RESTORE, name);
+        return start(operation, () -> restore(operation, manifest));
+    }
+
+    /** Manifests of the snapshots on disk, newest first. */
+    public List<JsonNode> list() throws IOException {
+        List<JsonNode> manifests = new ArrayList<>();
+        try (Stream<Path> entries = Files.list(dir)) {
+            for (Path entry : entries.sorted(Comparator.reverseOrder()).toList()) {
+                readManifest(entry.getFileName().toString()).ifPresent(manifests::add);
+            }
+        }
+        return manifests;
+    }
+
+    /** The running operation, or the last one that finished. */
+    public Optional<Operation> getStatus() {
+        Operation running = current.get();
+        return Optional.ofNullable(running != null ? running : last);
+    }
+
+    private Optional<Operation> start(Operation operation, Runnable work) {
+        if (!current.compareAndSet(null, operation)) {
+            return Optional.empty();
+        }
+        executor.execute(() -> {
+            try {
+                work.run();
+                operation.status = Status.COMPLETED;
+            } catch (RuntimeException e) {
+                log.error("{} {} failed", operation.type, operation.name, e);
+                operation.error = e.getMessage();
+                operation.status = Status.FAILED;
+            } finally {
+                operation.finishedAt = LocalDateTime.now();
+                last = operation;
+                current.set(null);
+            }
+        });
+        return Optional.of(operation);
+    }
+
+    private void snapshot(Operation operation) {
+        Path target = dir.resolve(operation.name);
+        ObjectNode manifest = objectMapper.createObjectNode();
+        manifest.put("name", operation.name);
+        manifest.put("createdAt", operation.startedAt.toString());
+        ObjectNode databases = manifest.putObject("databases");
+        try {
+            for (String database : tenantProperties.databaseTenants()) {
+                Path databaseDir = Files.createDirectories(target.resolve(database));
+                ObjectNode tableNodes = databases.putObject(database);
+                TenantContext.runAs(database, () -> snapshotDatabase(databaseDir, database, tableNodes, operation));
+            }
+            // Written last: a directory without a manifest is an unfinished snapshot
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(target.resolve(MANIFEST).toFile(), manifest);
+        } catch (IOException e) {
+            deleteQuietly(target);
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            deleteQuietly(target);
+            throw e;
+        }
+        log.info("Snapshot {} written: {} rows, {} bytes", operation.name, operation.rows.values().stream()
+                .mapToLong(Long::longValue).sum(), sizeOf(target));
+    }
+
+    private void snapshotDatabase(Path databaseDir, String database, ObjectNode tableNodes, Operation operation) {
+        reportingBulkhead.getJdbcTemplate().execute((ConnectionCallback<Void>) con -> {
+            boolean mysql = isMySql(con);
+            boolean autoCommit = con.getAutoCommit();
+            int isolation = con.getTransactionIsolation();
+            con.setAutoCommit(false);
+            con.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+            try {
+                if (mysql) {
+                    try (Statement statement = con.createStatement()) {
+                        statement.execute("START TRANSACTION WITH CONSISTENT SNAPSHOT, READ ONLY");
+                    }
+                }
+                for (String table : tables) {
+                    Path file = databaseDir.resolve(table + EXTENSION);
+                    // InnoDB scans in primary key order, which is also the fastest order to reload
+                    try (PreparedStatement ps = con.prepareStatement("SELECT * FROM " + table,
+                            ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                        if (mysql) {
+                            // Stream rows from MySQL instead of buffering the whole table in the driver
+                            ps.setFetchSize(Integer.MIN_VALUE);
+                        }
+                        // A full table scan outlives the reporting query timeout the template applies
+                        ps.setQueryTimeout(0);
+                        long rows;
+                        try (ResultSet rs = ps.executeQuery();
+                             ColumnarWriter writer = new ColumnarWriter(Files.newOutputStream(file), chunkRows)) {
+                            rows = writer.write(rs);
+                        }
+                        operation.rows.put(database + "." + table, rows);
+                        tableNodes.putObject(table).put("rows", rows).put("bytes", Files.size(file));
+                    }
+                }
+                con.commit();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                con.rollback();
+                con.setAutoCommit(autoCommit);
+                con.setTransactionIsolation(isolation);
+            }
+            return null;
+        });
+    }
+
+    private void restore(Operation operation, JsonNode manifest) {
+        Path source = dir.resolve(operation.name);
+        // Largest tables first so they do not end up alone on one thread at the end
+        List<RestoreTask> tasks = new ArrayList<>();
+        Iterator<Map.Entry<String, JsonNode>> databases = manifest.path("databases").fields();
+        while (databases.hasNext()) {
+            Map.Entry<String, JsonNode> database = databases.next();
+            if (!tenantProperties.databaseTenants().contains(database.getKey())) {
+                throw new IllegalStateException("Snapshot database " + database.getKey() + " is not configured here");
+            }
+            Iterator<Map.Entry<String, JsonNode>> tableNodes = database.getValue().fields();
+            while (tableNodes.hasNext()) {
+                Map.Entry<String, JsonNode> table = tableNodes.next();
+                tasks.add(new RestoreTask(database.getKey(), table.getKey(),
+                        source.resolve(database.getKey()).resolve(table.getKey() + EXTENSION),
+                        table.getValue().path("bytes").asLong()));
+            }
+        }
+        tasks.sort(Comparator.comparingLong(RestoreTask::bytes).reversed());
+
+        // Read before any table is truncated: change_sequences is restored like the rest
+        Map<String, Long> replacedSync = new HashMap<>();
+        for (String database : tenantProperties.databaseTenants()) {
+            replacedSync.put(database, TenantContext.callAs(database, () -> readSequence(ChangeSequence.SYNC)));
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(restoreThreads);
+        try {
+            List<Future<?>> futures = new ArrayList<>(tasks.size());
+            for (RestoreTask task : tasks) {
+                futures.add(pool.submit(() -> TenantContext.runAs(task.database(), () ->
+                        operation.rows.put(task.database() + "." + task.table(), restoreTable(task.file(), task.table())))));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while restoring snapshot " + operation.name, e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Restoring snapshot " + operation.name + " failed: " + e.getCause().getMessage(),
+                    e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        for (Map.Entry<String, Long> database : replacedSync.entrySet()) {
+            TenantContext.runAs(database.getKey(), () -> invalidateSyncTokens(database.getValue()));
+        }
+        refreshDerivedState();
+        log.info("Snapshot {} restored: {} rows", operation.name,
+                operation.rows.values().stream().mapToLong(Long::longValue).sum());
+    }
+
+    private long restoreTable(Path file, String table) {
+        return jdbcTemplate.execute((ConnectionCallback<Long>) con -> {
+            boolean mysql = isMySql(con);
+            boolean autoCommit = con.getAutoCommit();
+            try (ColumnarReader reader = new ColumnarReader(file);
+                 Statement statement = con.createStatement()) {
+                // Columns added since the snapshot keep their defaults; dropped ones are skipped
+                Map<String, String> tableColumns = columnsOf(con, table);
+                List<String> fileColumns = reader.getColumnNames();
+                List<Integer> sourceIndexes = new ArrayList<>();
+                List<String> targetColumns = new ArrayList<>();
+                for (int i = 0; i < fileColumns.size(); i++) {
+                    String column = tableColumns.get(fileColumns.get(i).toLowerCase(Locale.ROOT));
+                    if (column != null) {
+                        sourceIndexes.add(i);
+                        targetColumns.add(column);
+                    }
+                }
+                int columnCount = targetColumns.size();
+                if (columnCount == 0) {
+                    throw new IllegalStateException("Snapshot of " + table + " has no column left in the current table");
+                }
+
+                if (mysql) {
+                    statement.execute("SET FOREIGN_KEY_CHECKS = 0");
+                    statement.execute("SET UNIQUE_CHECKS = 0");
+                }
+                // MySQL moves AUTO_INCREMENT past the restored ids by itself; H2 does not
+                statement.execute("TRUNCATE TABLE " + table);
+                con.setAutoCommit(false);
+
+                int rowsPerStatement = Math.max(1, Math.min(restoreBatchRows, MAX_PLACEHOLDERS / columnCount));
+                String prefix = "INSERT INTO " + table + " (" + String.join(", ", targetColumns) + ") VALUES ";
+                String rowPlaceholders = "(" + "?, ".repeat(columnCount - 1) + "?)";
+
+                long restored = 0;
+                try (PreparedStatement full = con.prepareStatement(insertSql(prefix, rowPlaceholders, rowsPerStatement))) {
+                    ColumnarReader.Chunk chunk;
+                    while ((chunk = reader.nextChunk()) != null) {
+                        for (int from = 0; from < chunk.rows(); from += rowsPerStatement) {
+                            int count = Math.min(rowsPerStatement, chunk.rows() - from);
+                            if (count == rowsPerStatement) {
+                                bind(full, chunk, from, count, sourceIndexes);
+                                full.executeUpdate();
+                            } else {
+                                try (PreparedStatement partial = con.prepareStatement(insertSql(prefix, rowPlaceholders, count))) {
+                                    bind(partial, chunk, from, count, sourceIndexes);
+                                    partial.executeUpdate();
+                                }
+                            }
+                        }
+                        // One commit per chunk keeps undo logs small on large tables
+                        con.commit();
+                        restored += chunk.rows();
+                    }
+                }
+                return restored;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } catch (SQLException e) {
+                if (!con.getAutoCommit()) {
+                    con.rollback();
+                }
+                throw e;
+            } finally {
+                if (mysql) {
+                    try (Statement statement = con.createStatement()) {
+                        statement.execute("SET UNIQUE_CHECKS = 1");
+                        statement.execute("SET FOREIGN_KEY_CHECKS = 1");
+                    }
+                }
+                con.setAutoCommit(autoCommit);
+            }
+        });
+    }
+
+    private static void bind(PreparedStatement ps, ColumnarReader.Chunk chunk, int from, int count, List<Integer> sourceIndexes)
+            throws SQLException {
+        int p = 1;
+        for (int row = from; row < from + count; row++) {
+            for (int column : sourceIndexes) {
+                ps.setObject(p++, chunk.get(row, column));
+            }
+        }
+    }
+
+    private static String insertSql(String prefix, String rowPlaceholders, int rows) {
+        StringBuilder sql = new StringBuilder(prefix.length() + rows * (rowPlaceholders.length() + 2));
+        sql.append(prefix);
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(rowPlaceholders);
+        }
+        return sql.toString();
+    }
+
+    private long readSequence(String name) {
+        List<Long> values = jdbcTemplate.queryForList(
+                "SELECT current_value FROM change_sequences WHERE name = ?", Long.class, name);
+        return values.isEmpty() ? 0 : values.get(0);
+    }
+
+    /**
+     * Moves the sync and purge sequences of the current database to one past the larger of
+     * the restored and the replaced sync value. Tokens are never above the sync value they
+     * were issued at, so every earlier token now falls below the purge horizon.
+     */
+    private void invalidateSyncTokens(long replacedSync) {
+        long horizon = Math.max(readSequence(ChangeSequence.SYNC), replacedSync) + 1;
+        jdbcTemplate.update("INSERT IGNORE INTO change_sequences (name, current_value) VALUES (?, 0), (?, 0)",
+                ChangeSequence.SYNC, ChangeSequence.PURGED);
+        jdbcTemplate.update("UPDATE change_sequences SET current_value = ? WHERE name IN (?, ?)",
+                horizon, ChangeSequence.SYNC, ChangeSequence.PURGED);
+    }
+
+    /** Current column names of {@code table}, keyed by their lower-case form. */
+    private static Map<String, String> columnsOf(Connection con, String table) throws SQLException {
+        Map<String, String> columns = new HashMap<>();
+        try (Statement statement = con.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT * FROM " + table + " WHERE 1 = 0")) {
+            ResultSetMetaData meta = rs.getMetaData();
+            for (int i = 1; i <= meta.getColumnCount(); i++) {
+                columns.put(meta.getColumnName(i).toLowerCase(Locale.ROOT), meta.getColumnName(i));
+            }
+        }
+        return columns;
+    }
+
+    /** Rebuilds what is kept outside the restored tables. */
+    private void refreshDerivedState() {
+        entityManagerFactory.getCache().evictAll();
+        responseCache.invalidateAll();
+        for (String tenant : tenantProperties.allTenants()) {
+            TenantContext.runAs(tenant, stationRegistry::reload);
+        }
+        recordArchiveService.refreshWatermarks();
+        try {
+            searchIndexService.reindexAll();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Optional<JsonNode> readManifest(String name) throws IOException {
+        if (!NAME_PATTERN.matcher(name).matches()) {
+            return Optional.empty();
+        }
+        Path manifest = dir.resolve(name).resolve(MANIFEST);
+        return Files.exists(manifest) ? Optional.of(objectMapper.readTree(manifest.toFile())) : Optional.empty();
+    }
+
+    private static boolean isMySql(Connection con) throws SQLException {
+        return con.getMetaData().getDatabaseProductName().startsWith("MySQL");
+    }
+
+    private static void deleteQuietly(Path directory) {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            log.warn("Could not delete unfinished snapshot {}", directory, e);
+        }
+    }
+
+    private static long sizeOf(Path directory) {
+        try (Stream<Path> files = Files.walk(directory)) {
+            return files.filter(Files::isRegularFile).mapToLong(file -> file.toFile().length()).sum();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private record RestoreTask(String database, String table, Path file, long bytes) {}
+
+    public static final class Operation {
+
+        private final Type type;
+        private final String name;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final Map<String, Long> rows = new ConcurrentHashMap<>();
+        private volatile Status status = Status.RUNNING;
+        private volatile LocalDateTime finishedAt;
+        private volatile String error;
+
+        Operation(Type type, String name) {
+            this.type = type;
+            this.name = name;
+        }
+
+        public String getName() { return name; }
+        public Status getStatus() { return status; }
+
+        public Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("type", type);
+            map.put("name", name);
+            map.put("status", status);
+            map.put("startedAt", startedAt.toString());
+            map.put("finishedAt", finishedAt == null ? null : finishedAt.toString());
+            map.put("tables", new TreeMap<>(rows));
+            map.put("error", error);
+            return map;
+        }
+    }
+}
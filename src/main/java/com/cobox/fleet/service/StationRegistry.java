@@ -0,0 +1,255 @@
+package com.cobox.fleet.service;
+
+import com.cobox.fleet.config.TenantContext;
+import com.cobox.fleet.entity.FuelRecord;
+import com.cobox.fleet.entity.Station;
+import com.cobox.fleet.repository.StationRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Fuel station registry with an in-memory spatial index.
+ * <p>
+ * Stations are bucketed into a uniform latitude/longitude grid. A radius or
+ * bounding-box query only visits the cells overlapping the search box and then filters
+ * by exact (haversine) distance. The station table is small and rarely written, so
+ * every write rebuilds an immutable snapshot of the grid and alias index and swaps it
+ * in. Readers never lock. Each tenant has its own snapshot, loaded on first use.
+ * <p>
+ * Free-text {@code FuelRecord.station}/{@code location} values are resolved to a station
+ * by exact match, after accent and case folding, against the station name, the name
+ * plus district, or any alias. Both resolving and deleting a station update
+ * {@code fuel_records.station_id} in bulk with JDBC, and record the change in the audit log.
+ */
+@Component
+public class StationRegistry {
+
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final double KM_PER_DEGREE_LAT = 111.32;
+
+    @Autowired
+    private StationRepository stationRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AuditLogService auditLogService;
+
+    @Value("${fleet.stations.grid-cell-degrees:0.05}")
+    private double cellDegrees;
+
+    private final ConcurrentHashMap<String, Snapshot> snapshots = new ConcurrentHashMap<>();
+
+    public void reload() {
+        snapshots.put(TenantContext.current(), new Snapshot(stationRepository.findAll(), cellDegrees));
+    }
+
+    public List<Station> findAll() {
+        return snapshot().stations;
+    }
+
+    public Optional<Station> findById(Long id) {
+        return Optional.ofNullable(snapshot().byId.get(id));
+    }
+
+    @Transactional
+    public Station save(Station station) {
+        Station saved = stationRepository.save(station);
+        reload();
+        return saved;
+    }
+
+    @Transactional
+    public void delete(Long id) {
+        String tenant = TenantContext.current();
+        stationRepository.deleteById(id);
+        List<String> recordIds = jdbcTemplate.queryForList(
+                "SELECT id FROM fuel_records WHERE tenant_id = ? AND station_id = ? FOR UPDATE", String.class, tenant, id);
+        jdbcTemplate.update("UPDATE fuel_records SET station_id = NULL WHERE tenant_id = ? AND station_id = ?",
+                tenant, id);
+        auditLogService.recordFieldChange(tenant, FuelRecord.class, recordIds, "stationId", id, null);
+        reload();
+    }
+
+    /**
+     * Stations within {@code radiusKm} of a point, nearest first, with their distance.
+     */
+    public List<Map<String, Object>> findNearby(double latitude, double longitude, double radiusKm, int limit) {
+        double dLat = radiusKm / KM_PER_DEGREE_LAT;
+        double dLon = radiusKm / (KM_PER_DEGREE_LAT * Math.max(0.01, Math.cos(Math.toRadians(latitude))));
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (Station station : snapshot().within(latitude - dLat, longitude - dLon, latitude + dLat, longitude + dLon)) {
+            double distance = distanceKm(latitude, longitude, station.getLatitude(), station.getLongitude());
+            if (distance <= radiusKm) {
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("station", station);
+                entry.put("distanceKm", Math.round(distance * 1000) / 1000.0);
+                result.add(entry);
+            }
+        }
+        result.sort(Comparator.comparingDouble(entry -> (Double) entry.get("distanceKm")));
+        return result.size() > limit ? result.subList(0, limit) : result;
+    }
+
+    public List<Station> findWithin(double minLat, double minLon, double maxLat, double maxLon) {
+        return snapshot().within(minLat, minLon, maxLat, maxLon);
+    }
+
+    /**
+     * Station id for a free-text station name and location, if one matches.
+     */
+    public Optional<Long> resolve(String station, String location) {
+        Map<String, Long> aliases = snapshot().aliases;
+        Long id = aliases.get(normalize(station + " " + location));
+        if (id == null) {
+            id = aliases.get(normalize(station));
+        }
+        return Optional.ofNullable(id);
+    }
+
+    /**
+     * Resolves every distinct unresolved station/location pair in {@code fuel_records},
+     * returning how many pairs matched and the most frequent ones that didn't.
+     */
+    @Transactional
+    public Map<String, Object> resolveFuelRecords() {
+        String tenant = TenantContext.current();
+        List<Map<String, Object>> pairs = jdbcTemplate.queryForList(
+                "SELECT station, location, COUNT(*) AS records FROM fuel_records WHERE tenant_id = ? AND station_id IS NULL " +
+                "GROUP BY station, location ORDER BY COUNT(*) DESC", tenant);
+        int resolvedPairs = 0;
+        long resolvedRecords = 0;
+        List<Map<String, Object>> unresolved = new ArrayList<>();
+        for (Map<String, Object> pair : pairs) {
+            String station = (String) pair.get("station");
+            String location = (String) pair.get("location");
+            Optional<Long> stationId = resolve(station, location);
+            if (stationId.isPresent()) {
+                resolvedPairs++;
+                List<String> recordIds = jdbcTemplate.queryForList(
+                        "SELECT id FROM fuel_records WHERE tenant_id = ? AND station = ? AND location = ? AND station_id IS NULL " +
+                        "FOR UPDATE", String.class, tenant, station, location);
+                resolvedRecords += jdbcTemplate.update(
+                        "UPDATE fuel_records SET station_id = ? " +
+                        "WHERE tenant_id = ? AND station = ? AND location = ? AND station_id IS NULL",
+                        stationId.get(), tenant, station, location);
+                auditLogService.recordFieldChange(tenant, FuelRecord.class, recordIds, "stationId", null, stationId.get());
+            } else if (unresolved.size() < 50) {
+                unresolved.add(pair);
+            }
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("pairs", pairs.size());
+        result.put("resolvedPairs", resolvedPairs);
+        result.put("resolvedRecords", resolvedRecords);
+        result.put("unresolved", unresolved);
+        return result;
+    }
+
+    private Snapshot snapshot() {
+        return snapshots.computeIfAbsent(TenantContext.current(),
+                tenant -> new Snapshot(stationRepository.findAll(), cellDegrees));
+    }
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String folded = Normalizer.normalize(text, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        return folded.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]+", " ").trim();
+    }
+
+    static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    private static final class Snapshot {
+
+        private final List<Station> stations;
+        private final Map<Long, Station> byId = new HashMap<>();
+        private final Map<Long, List<Station>> cells = new HashMap<>();
+        private final Map<String, Long> aliases = new HashMap<>();
+        private final double cellDegrees;
+
+        Snapshot(List<Station> stations, double cellDegrees) {
+            this.stations = List.copyOf(stations);
+            this.cellDegrees = cellDegrees;
+            for (Station station : stations) {
+                byId.put(station.getId(), station);
+                cells.computeIfAbsent(cellKey(cell(station.getLatitude()), cell(station.getLongitude())),
+                        key -> new ArrayList<>()).add(station);
+                aliases.putIfAbsent(normalize(station.getName()), station.getId());
+                if (station.getDistrict() != null) {
+                    aliases.putIfAbsent(normalize(station.getName() + " " + station.getDistrict()), station.getId());
+                }
+                if (station.getAliases() != null) {
+                    for (String alias : station.getAliases().split(",")) {
+                        if (!alias.isBlank()) {
+                            aliases.put(normalize(alias), station.getId());
+                        }
+                    }
+                }
+            }
+        }
+
+        List<Station> within(double minLat, double minLon, double maxLat, double maxLon) {
+            List<Station> result = new ArrayList<>();
+            int minRow = cell(minLat), maxRow = cell(maxLat);
+            int minCol = cell(minLon), maxCol = cell(maxLon);
+            long cellsInBox = (long) (maxRow - minRow + 1) * (maxCol - minCol + 1);
+            if (cellsInBox > cells.size()) {
+                // Box wider than the populated grid: scanning the occupied cells is cheaper
+                for (List<Station> cell : cells.values()) {
+                    addInside(cell, minLat, minLon, maxLat, maxLon, result);
+                }
+                return result;
+            }
+            for (int row = minRow; row <= maxRow; row++) {
+                for (int col = minCol; col <= maxCol; col++) {
+                    List<Station> cell = cells.get(cellKey(row, col));
+                    if (cell != null) {
+                        addInside(cell, minLat, minLon, maxLat, maxLon, result);
+                    }
+                }
+            }
+            return result;
+        }
+
+        private static void addInside(List<Station> cell, double minLat, double minLon, double maxLat, double maxLon,
+                                      List<Station> result) {
+            for (Station station : cell) {
+                if (station.getLatitude() >= minLat && station.getLatitude() <= maxLat
+                        && station.getLongitude() >= minLon && station.getLongitude() <= maxLon) {
+                    result.add(station);
+                }
+            }
+        }
+
+        private int cell(double degrees) {
+            return (int) Math.floor(degrees / cellDegrees);
+        }
+
+        private static long cellKey(int row, int col) {
+            return ((long) row << 32) | (col & 0xffffffffL);
+        }
+    }
+}
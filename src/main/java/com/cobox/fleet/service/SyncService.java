@@ -0,0 +1,178 @@
+package com.cobox.fleet.service;
+
+import com.cobox.fleet.config.TenantContext;
+import com.cobox.fleet.config.TenantProperties;
+import com.cobox.fleet.entity.ChangeSequence;
+import com.cobox.fleet.entity.ChangeTracked;
+import com.cobox.fleet.repository.ScheduleRepository;
+import com.cobox.fleet.repository.ServiceRepository;
+import com.cobox.fleet.repository.UserRepository;
+import com.cobox.fleet.repository.VehicleRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Delta synchronization for driver apps. A sync token is the global change sequence
+ * the client has seen; {@link #changesSince(long)} returns rows and tombstones with a
+ * higher sequence, or a full snapshot for new clients and tokens older than the
+ * tombstone purge horizon. Rows are filtered to the caller's tenant; sequences are
+ * shared by every tenant of a database.
+ */
+@Component
+public class SyncService {
+
+    private static final Logger log = LoggerFactory.getLogger(SyncService.class);
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private ServiceRepository serviceRepository;
+
+    @Autowired
+    private ScheduleRepository scheduleRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TenantProperties tenantProperties;
+
+    @Value("${fleet.sync.page-size:500}")
+    private int pageSize;
+
+    @Value("${fleet.sync.tombstone-retention-days:30}")
+    private int tombstoneRetentionDays;
+
+    @PostConstruct
+    public void init() {
+        for (String database : tenantProperties.databaseTenants()) {
+            TenantContext.runAs(database, () -> jdbcTemplate.update(
+                    "INSERT IGNORE INTO change_sequences (name, current_value) VALUES (?, 0), (?, 0)",
+                    ChangeSequence.SYNC, ChangeSequence.PURGED));
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public Map<String, Object> changesSince(long since) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        if (since <= 0 || since < readSequence(ChangeSequence.PURGED)) {
+            // New client, or tombstones it never saw were purged: send the full live dataset
+            response.put("token", String.valueOf(readSequence(ChangeSequence.SYNC)));
+            response.put("fullResync", true);
+            response.put("hasMore", false);
+            response.put("vehicles", vehicleRepository.findByDeletedFalse());
+            response.put("services", serviceRepository.findByDeletedFalse());
+            response.put("schedules", scheduleRepository.findByDeletedFalse());
+            response.put("users", userRepository.findByDeletedFalse());
+            response.put("deleted", List.of());
+            return response;
+        }
+
+        Pageable page = PageRequest.of(0, pageSize);
+        Map<String, List<? extends ChangeTracked>> changes = new LinkedHashMap<>();
+        changes.put("vehicles", vehicleRepository.findByChangeSeqGreaterThanOrderByChangeSeqAsc(since, page));
+        changes.put("services", serviceRepository.findByChangeSeqGreaterThanOrderByChangeSeqAsc(since, page));
+        changes.put("schedules", scheduleRepository.findByChangeSeqGreaterThanOrderByChangeSeqAsc(since, page));
+        changes.put("users", userRepository.findByChangeSeqGreaterThanOrderByChangeSeqAsc(since, page));
+
+        // If any type was truncated, the next token is the lowest point every type has reached;
+        // rows beyond it may be sent again, which clients apply idempotently
+        long token = since;
+        long truncatedAt = Long.MAX_VALUE;
+        List<Map<String, Object>> deleted = new ArrayList<>();
+        for (Map.Entry<String, List<? extends ChangeTracked>> entry : changes.entrySet()) {
+            List<? extends ChangeTracked> rows = entry.getValue();
+            if (rows.isEmpty()) {
+                response.put(entry.getKey(), rows);
+                continue;
+            }
+            long last = rows.get(rows.size() - 1).getChangeSeq();
+            token = Math.max(token, last);
+            if (rows.size() == pageSize) {
+                truncatedAt = Math.min(truncatedAt, last);
+            }
+            response.put(entry.getKey(), rows.stream().filter(row -> !row.getDeleted()).toList());
+            rows.stream().filter(ChangeTracked::getDeleted).forEach(row -> {
+                Map<String, Object> tombstone = new LinkedHashMap<>();
+                tombstone.put("type", entry.getKey());
+                tombstone.put("id", row.getId());
+                tombstone.put("changeSeq", row.getChangeSeq());
+                deleted.add(tombstone);
+            });
+        }
+        boolean hasMore = truncatedAt != Long.MAX_VALUE;
+
+        response.put("deleted", deleted);
+        response.put("token", String.valueOf(hasMore ? truncatedAt : token));
+        response.put("fullResync", false);
+        response.put("hasMore", hasMore);
+        return response;
+    }
+
+    /**
+     * Hard-deletes tombstones older than the retention window and advances the purge
+     * horizon; clients with an older token are sent a full resync.
+     */
+    @Scheduled(cron = "${fleet.sync.purge-cron:0 15 4 * * *}")
+    public void purgeTombstones() {
+        LocalDateTime before = LocalDateTime.now().minusDays(tombstoneRetentionDays);
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        // Sessions are bound to one tenant, so each tenant is purged in its own transaction
+        for (String tenant : tenantProperties.allTenants()) {
+            TenantContext.runAs(tenant, () -> tx.executeWithoutResult(status -> purgeTombstones(before)));
+        }
+    }
+
+    private void purgeTombstones(LocalDateTime before) {
+        long horizon = Stream.of(
+                        vehicleRepository.findMaxTombstoneChangeSeqBefore(before),
+                        serviceRepository.findMaxTombstoneChangeSeqBefore(before),
+                        scheduleRepository.findMaxTombstoneChangeSeqBefore(before),
+                        userRepository.findMaxTombstoneChangeSeqBefore(before))
+                .filter(seq -> seq != null)
+                .mapToLong(Long::longValue)
+                .max()
+                .orElse(0);
+        if (horizon == 0) {
+            return;
+        }
+        int purged = vehicleRepository.deleteTombstonesBefore(before)
+                + serviceRepository.deleteTombstonesBefore(before)
+                + scheduleRepository.deleteTombstonesBefore(before)
+                + userRepository.deleteTombstonesBefore(before);
+        jdbcTemplate.update("UPDATE change_sequences SET current_value = GREATEST(current_value, ?) WHERE name = ?",
+                horizon, ChangeSequence.PURGED);
+        log.info("Purged {} sync tombstones of tenant {} up to change sequence {}", purged, TenantContext.current(), horizon);
+    }
+
+    private long readSequence(String name) {
+        Long value = jdbcTemplate.queryForObject(
+                "SELECT current_value FROM change_sequences WHERE name = ?", Long.class, name);
+        return value == null ? 0 : value;
+    }
+}
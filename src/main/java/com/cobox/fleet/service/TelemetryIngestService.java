@@ -0,0 +1,331 @@
+package com.cobox.fleet.service;
+
+import com.cobox.fleet.config.TenantContext;
+import com.cobox.fleet.entity.MileageRecord;
+import com.cobox.fleet.entity.TelemetryPoint;
+import com.cobox.fleet.repository.MileageRecordRepository;
+import com.cobox.fleet.repository.VehicleRepository;
+import com.cobox.fleet.storage.MpscRingBuffer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * High-throughput telemetry ingestion.
+ * <p>
+ * Request threads only validate points and offer them to a lock-free
+ * {@link MpscRingBuffer}; when it is full the points are rejected and the caller retries.
+ * One flusher thread drains the buffer and writes {@code batch-size} points per
+ * multi-row {@code INSERT IGNORE}, so duplicate pings on the (vehicle, timestamp) key are
+ * dropped. A batch that fails is retried by the flusher with exponential backoff, up to
+ * {@code max-attempts} times, and only then dropped and counted in {@code failedRows};
+ * while it waits the buffer keeps filling and, once full, callers are told to retry.
+ * A scheduled rollup then turns each touched vehicle-day into one derived
+ * {@link MileageRecord} ({@code TEL-<vehicle>-<yyyyMMdd>}) and raises
+ * {@code Vehicle.currentMileage}. Both go through JPA, so the outbox, sync and cache
+ * invalidation see them. Points are stamped with the request's tenant when buffered,
+ * and both the writes and the rollup run as that tenant.
+ */
+@Component
+public class TelemetryIngestService {
+
+    private static final Logger log = LoggerFactory.getLogger(TelemetryIngestService.class);
+
+    public static final String TELEMETRY_SOURCE = "TELEMETRY";
+
+    private static final String INSERT_PREFIX =
+            "INSERT IGNORE INTO telemetry_points (tenant_id, vehicle_id, recorded_at, latitude, longitude, odometer, speed) VALUES ";
+    private static final String ROW_PLACEHOLDERS = "(?, ?, ?, ?, ?, ?, ?)";
+    private static final DateTimeFormatter DAY_ID = DateTimeFormatter.BASIC_ISO_DATE;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private MileageRecordRepository mileageRecordRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${fleet.telemetry.buffer-capacity:65536}")
+    private int bufferCapacity;
+
+    @Value("${fleet.telemetry.batch-size:500}")
+    private int batchSize;
+
+    @Value("${fleet.telemetry.flush-interval-ms:200}")
+    private long flushIntervalMs;
+
+    @Value("${fleet.telemetry.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${fleet.telemetry.retry-backoff-ms:200}")
+    private long retryBackoffMs;
+
+    private MpscRingBuffer<TelemetryPoint> buffer;
+    private Thread flusher;
+    private volatile boolean running;
+    private String fullBatchSql;
+
+    private final Set<String> dirtyVehicleDays = ConcurrentHashMap.newKeySet();
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final AtomicLong flushedRows = new AtomicLong();
+    private final AtomicLong failedRows = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private volatile long lastBatchMs;
+
+    @PostConstruct
+    public void start() {
+        buffer = new MpscRingBuffer<>(bufferCapacity);
+        fullBatchSql = insertSql(batchSize);
+        running = true;
+        flusher = new Thread(this::flushLoop, "telemetry-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * Buffers the points; returns how many were accepted before the buffer filled up.
+     */
+    public int ingest(List<TelemetryPoint> points) {
+        String tenant = TenantContext.current();
+        int count = 0;
+        for (TelemetryPoint point : points) {
+            point.setTenantId(tenant);
+            if (!buffer.offer(point)) {
+                rejected.add(points.size() - count);
+                break;
+            }
+            count++;
+        }
+        accepted.add(count);
+        return count;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("accepted", accepted.sum());
+        stats.put("rejected", rejected.sum());
+        stats.put("flushedRows", flushedRows.get());
+        stats.put("failedRows", failedRows.get());
+        stats.put("retries", retries.get());
+        stats.put("batches", batches.get());
+        stats.put("lastBatchMs", lastBatchMs);
+        stats.put("buffered", buffer.size());
+        stats.put("bufferCapacity", buffer.capacity());
+        stats.put("pendingRollups", dirtyVehicleDays.size());
+        return stats;
+    }
+
+    private void flushLoop() {
+        List<TelemetryPoint> batch = new ArrayList<>(batchSize);
+        long idleNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        while (true) {
+            batch.clear();
+            buffer.drain(batch::add, batchSize);
+            if (batch.isEmpty()) {
+                if (!running) {
+                    return;
+                }
+                LockSupport.parkNanos(idleNanos);
+                continue;
+            }
+            writeByTenant(batch);
+        }
+    }
+
+    private void writeByTenant(List<TelemetryPoint> batch) {
+        String tenant = batch.get(0).getTenantId();
+        boolean singleTenant = batch.stream().allMatch(point -> tenant.equals(point.getTenantId()));
+        if (singleTenant) {
+            TenantContext.runAs(tenant, () -> write(batch));
+            return;
+        }
+        // Dedicated tenants live in another database, so every tenant gets its own statement
+        Map<String, List<TelemetryPoint>> byTenant = new LinkedHashMap<>();
+        for (TelemetryPoint point : batch) {
+            byTenant.computeIfAbsent(point.getTenantId(), t -> new ArrayList<>()).add(point);
+        }
+        byTenant.forEach((t, points) -> TenantContext.runAs(t, () -> write(points)));
+    }
+
+    private void write(List<TelemetryPoint> batch) {
+        long backoff = retryBackoffMs;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                insert(batch);
+                return;
+            } catch (Exception e) {
+                if (attempt >= maxAttempts) {
+                    failedRows.addAndGet(batch.size());
+                    log.warn("Telemetry batch of {} points dropped after {} attempts", batch.size(), attempt, e);
+                    return;
+                }
+                retries.incrementAndGet();
+                log.warn("Telemetry batch of {} points failed (attempt {} of {}), retrying in {} ms: {}",
+                        batch.size(), attempt, maxAttempts, backoff, e.toString());
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(backoff));
+                backoff = Math.min(backoff * 2, TimeUnit.SECONDS.toMillis(10));
+            }
+        }
+    }
+
+    private void insert(List<TelemetryPoint> batch) {
+        long started = System.nanoTime();
+        try {
+            String sql = batch.size() == batchSize ? fullBatchSql : insertSql(batch.size());
+            jdbcTemplate.update(sql, ps -> {
+                int p = 1;
+                for (TelemetryPoint point : batch) {
+                    ps.setString(p++, point.getTenantId());
+                    ps.setString(p++, point.getVehicleId());
+                    ps.setTimestamp(p++, Timestamp.valueOf(point.getRecordedAt()));
+                    setDouble(ps, p++, point.getLatitude());
+                    setDouble(ps, p++, point.getLongitude());
+                    setDouble(ps, p++, point.getOdometer());
+                    setDouble(ps, p++, point.getSpeed());
+                }
+            });
+            flushedRows.addAndGet(batch.size());
+            for (TelemetryPoint point : batch) {
+                if (point.getOdometer() != null) {
+                    dirtyVehicleDays.add(point.getTenantId() + "|" + point.getVehicleId() + "|" + point.getRecordedAt().toLocalDate());
+                }
+            }
+        } finally {
+            batches.incrementAndGet();
+            lastBatchMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        }
+    }
+
+    /**
+     * Derives the daily MileageRecord and current mileage for every vehicle-day that
+     * received odometer readings since the last run.
+     */
+    @Scheduled(fixedDelayString = "${fleet.telemetry.rollup-interval-ms:60000}")
+    public void rollup() {
+        List<String> keys = new ArrayList<>(dirtyVehicleDays);
+        dirtyVehicleDays.removeAll(keys);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        for (String key : keys) {
+            int first = key.indexOf('|');
+            int last = key.lastIndexOf('|');
+            String tenant = key.substring(0, first);
+            String vehicleId = key.substring(first + 1, last);
+            LocalDate day = LocalDate.parse(key.substring(last + 1));
+            try {
+                TenantContext.runAs(tenant, () -> transactionTemplate.executeWithoutResult(status -> rollup(vehicleId, day)));
+            } catch (Exception e) {
+                dirtyVehicleDays.add(key);
+                log.warn("Telemetry rollup failed for vehicle {} on {}", vehicleId, day, e);
+            }
+        }
+    }
+
+    private void rollup(String vehicleId, LocalDate day) {
+        Map<String, Object> range = jdbcTemplate.queryForMap(
+                "SELECT MIN(odometer) AS start_odometer, MAX(odometer) AS end_odometer, MIN(recorded_at) AS first_at " +
+                "FROM telemetry_points WHERE tenant_id = ? AND vehicle_id = ? AND recorded_at >= ? AND recorded_at < ? " +
+                "AND odometer IS NOT NULL",
+                TenantContext.current(), vehicleId, Timestamp.valueOf(day.atStartOfDay()), Timestamp.valueOf(day.plusDays(1).atStartOfDay()));
+        if (range.get("start_odometer") == null) {
+            return;
+        }
+        BigDecimal start = toKm(range.get("start_odometer"));
+        BigDecimal end = toKm(range.get("end_odometer"));
+        Object firstValue = range.get("first_at");
+        // Connector/J 8 returns DATETIME as LocalDateTime, H2 as Timestamp
+        LocalDateTime firstAt = firstValue instanceof Timestamp timestamp ? timestamp.toLocalDateTime() : (LocalDateTime) firstValue;
+
+        String id = "TEL-" + vehicleId + "-" + DAY_ID.format(day);
+        MileageRecord record = mileageRecordRepository.findById(id).orElseGet(() -> {
+            MileageRecord created = new MileageRecord();
+            created.setId(id);
+            created.setVehicleId(vehicleId);
+            created.setPurpose(TELEMETRY_SOURCE);
+            created.setDriverId(TELEMETRY_SOURCE);
+            created.setCreatedBy(TELEMETRY_SOURCE);
+            created.setCreatedAt(LocalDateTime.now());
+            created.setNotes("Derived from vehicle telemetry");
+            return created;
+        });
+        record.setDate(firstAt);
+        record.setStartOdometer(start);
+        record.setEndOdometer(end);
+        record.setDistance(end.subtract(start));
+        mileageRecordRepository.save(record);
+
+        vehicleRepository.findById(vehicleId)
+                .filter(vehicle -> !vehicle.getDeleted())
+                .filter(vehicle -> vehicle.getCurrentMileage() == null || vehicle.getCurrentMileage().compareTo(end) < 0)
+                .ifPresent(vehicle -> {
+                    vehicle.setCurrentMileage(end);
+                    vehicleRepository.save(vehicle);
+                });
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        // The flusher drains what is left before exiting
+        running = false;
+        LockSupport.unpark(flusher);
+        flusher.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    private static String insertSql(int rows) {
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX.length() + rows * (ROW_PLACEHOLDERS.length() + 2));
+        sql.append(INSERT_PREFIX);
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(ROW_PLACEHOLDERS);
+        }
+        return sql.toString();
+    }
+
+    private static void setDouble(PreparedStatement ps, int index, Double value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.DOUBLE);
+        } else {
+            ps.setDouble(index, value);
+        }
+    }
+
+    private static BigDecimal toKm(Object value) {
+        return BigDecimal.valueOf(((Number) value).doubleValue()).setScale(2, RoundingMode.HALF_UP);
+    }
+}
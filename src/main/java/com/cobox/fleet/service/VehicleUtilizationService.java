@@ -0,0 +1,322 @@
+package com.cobox.fleet.service;
+
+import com.cobox.fleet.config.ReportingBulkhead;
+import com.cobox.fleet.config.TenantContext;
+import com.cobox.fleet.config.TenantProperties;
+import com.cobox.fleet.entity.Vehicle;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Keeps {@code vehicle_status_intervals} in step with vehicle writes and answers the
+ * utilization heatmap. The intervals are maintained from Hibernate's post-action events on
+ * the session's connection, so every write path (PUT, merge patch, the status endpoint,
+ * soft delete) closes the open interval and opens the next one in the vehicle's own
+ * transaction.
+ * <p>
+ * {@link #utilization} reads the intervals that overlap the window ordered by vehicle and
+ * start, and sweeps them once: partial buckets at the edges of an interval are added
+ * directly and fully covered buckets go into a difference array that a single prefix sum
+ * resolves when the vehicle changes. Cost is linear in intervals plus buckets, whatever
+ * the interval lengths.
+ */
+@Component
+public class VehicleUtilizationService implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    private static final Logger log = LoggerFactory.getLogger(VehicleUtilizationService.class);
+
+    public static final Set<String> GRANULARITIES = Set.of("hour", "day");
+
+    private static final String CLOSE_SQL = "UPDATE vehicle_status_intervals SET ended_at = ? " +
+            "WHERE tenant_id = ? AND vehicle_id = ? AND ended_at IS NULL";
+
+    private static final String OPEN_SQL = "INSERT INTO vehicle_status_intervals " +
+            "(tenant_id, vehicle_id, status, started_at) VALUES (?, ?, ?, ?)";
+
+    private static final String BACKFILL_SQL = "INSERT INTO vehicle_status_intervals (tenant_id, vehicle_id, status, started_at) " +
+            "SELECT v.tenant_id, v.id, v.status, ? FROM vehicles v " +
+            "WHERE v.tenant_id = ? AND v.deleted = false AND v.status IS NOT NULL AND NOT EXISTS (" +
+            "SELECT 1 FROM vehicle_status_intervals i " +
+            "WHERE i.tenant_id = v.tenant_id AND i.vehicle_id = v.id AND i.ended_at IS NULL)";
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ReportingBulkhead reportingBulkhead;
+
+    @Autowired
+    private TenantProperties tenantProperties;
+
+    @Value("${fleet.utilization.max-days:93}")
+    private int maxDays;
+
+    @PostConstruct
+    public void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void openMissingIntervals() {
+        // Vehicles created before the interval table existed, or bulk-loaded with plain SQL
+        for (String tenant : tenantProperties.allTenants()) {
+            TenantContext.runAs(tenant, () -> {
+                int opened = jdbcTemplate.update(BACKFILL_SQL, Timestamp.valueOf(LocalDateTime.now()), tenant);
+                if (opened > 0) {
+                    log.info("Opened {} status intervals for vehicles without one in tenant {}", opened, tenant);
+                }
+            });
+        }
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Vehicle vehicle && !Boolean.TRUE.equals(vehicle.getDeleted())) {
+            transition(event.getSession(), vehicle.getId(), vehicle.getStatus(), false);
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (!(event.getEntity() instanceof Vehicle vehicle)) {
+            return;
+        }
+        if (Boolean.TRUE.equals(vehicle.getDeleted())) {
+            // The soft delete itself closes the interval; later writes to the tombstone do nothing
+            if (!Boolean.TRUE.equals(previousValue(event, "deleted"))) {
+                transition(event.getSession(), vehicle.getId(), null, true);
+            }
+            return;
+        }
+        // Without the loaded state the change can't be told apart, so the interval is split
+        Object[] oldState = event.getOldState();
+        if (oldState == null || !Objects.equals(previousValue(event, "status"), vehicle.getStatus())) {
+            transition(event.getSession(), vehicle.getId(), vehicle.getStatus(), true);
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Vehicle vehicle) {
+            transition(event.getSession(), vehicle.getId(), null, true);
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    public int getMaxDays() {
+        return maxDays;
+    }
+
+    /**
+     * Seconds spent in {@code status} per vehicle and per hour (or day) bucket of
+     * {@code [from, to]}, reported as whole minutes, plus the fleet-wide sum per bucket.
+     * Open intervals count up to now. Runs on the reporting pool of the current tenant.
+     */
+    public Map<String, Object> utilization(LocalDate from, LocalDate to, String status, String granularity, String vehicleId) {
+        LocalDateTime windowStart = from.atStartOfDay();
+        LocalDateTime windowEnd = to.plusDays(1).atStartOfDay();
+        long bucketSeconds = "day".equals(granularity) ? Duration.ofDays(1).getSeconds() : Duration.ofHours(1).getSeconds();
+        int buckets = (int) (Duration.between(windowStart, windowEnd).getSeconds() / bucketSeconds);
+        long now = Math.min(Duration.between(windowStart, LocalDateTime.now()).getSeconds(),
+                Duration.between(windowStart, windowEnd).getSeconds());
+
+        StringBuilder sql = new StringBuilder("SELECT vehicle_id, started_at, ended_at FROM vehicle_status_intervals " +
+                "WHERE tenant_id = ? AND status = ? AND started_at < ? AND (ended_at IS NULL OR ended_at > ?)");
+        List<Object> params = new ArrayList<>(List.of(TenantContext.current(), status,
+                Timestamp.valueOf(windowEnd), Timestamp.valueOf(windowStart)));
+        if (vehicleId != null) {
+            sql.append(" AND vehicle_id = ?");
+            params.add(vehicleId);
+        }
+        sql.append(" ORDER BY vehicle_id, started_at");
+
+        Sweep sweep = new Sweep(buckets, bucketSeconds);
+        reportingBulkhead.getJdbcTemplate().query(sql.toString(), rs -> {
+            String vehicle = rs.getString(1);
+            long start = Math.max(0, Duration.between(windowStart, rs.getTimestamp(2).toLocalDateTime()).getSeconds());
+            Timestamp endedAt = rs.getTimestamp(3);
+            long end = endedAt == null ? now
+                    : Math.min(now, Duration.between(windowStart, endedAt.toLocalDateTime()).getSeconds());
+            sweep.add(vehicle, start, end);
+        }, params.toArray());
+        sweep.finishVehicle();
+
+        Map<String, Object> fleet = new LinkedHashMap<>();
+        fleet.put("vehicles", sweep.vehicles.size());
+        fleet.put("minutes", toMinutes(sweep.fleetSeconds));
+        fleet.put("hours", hours(sweep.fleetTotal));
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("from", from.toString());
+        result.put("to", to.toString());
+        result.put("status", status);
+        result.put("granularity", granularity);
+        result.put("bucketMinutes", bucketSeconds / 60);
+        result.put("buckets", buckets);
+        result.put("fleet", fleet);
+        result.put("vehicles", sweep.vehicles);
+        return result;
+    }
+
+    private void transition(EventSource session, String vehicleId, String status, boolean close) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        String tenant = session.getTenantIdentifier();
+        session.doWork(connection -> {
+            if (close) {
+                try (PreparedStatement ps = connection.prepareStatement(CLOSE_SQL)) {
+                    ps.setTimestamp(1, now);
+                    ps.setString(2, tenant);
+                    ps.setString(3, vehicleId);
+                    ps.executeUpdate();
+                }
+            }
+            if (status != null) {
+                try (PreparedStatement ps = connection.prepareStatement(OPEN_SQL)) {
+                    ps.setString(1, tenant);
+                    ps.setString(2, vehicleId);
+                    ps.setString(3, status);
+                    ps.setTimestamp(4, now);
+                    ps.executeUpdate();
+                }
+            }
+        });
+    }
+
+    private static Object previousValue(PostUpdateEvent event, String property) {
+        Object[] oldState = event.getOldState();
+        if (oldState == null) {
+            return null;
+        }
+        String[] names = event.getPersister().getPropertyNames();
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(property)) {
+                return oldState[i];
+            }
+        }
+        return null;
+    }
+
+    private static int[] toMinutes(long[] seconds) {
+        int[] minutes = new int[seconds.length];
+        for (int i = 0; i < seconds.length; i++) {
+            minutes[i] = (int) Math.round(seconds[i] / 60.0);
+        }
+        return minutes;
+    }
+
+    private static double hours(long seconds) {
+        return Math.round(seconds / 36.0) / 100.0;
+    }
+
+    /** Per-vehicle accumulation over intervals arriving sorted by vehicle. */
+    private static final class Sweep {
+        private final int buckets;
+        private final long bucketSeconds;
+        private final long[] seconds;
+        // diff[i] adds a full bucket from i onwards; the prefix sum runs once per vehicle
+        private final long[] diff;
+        private final long[] fleetSeconds;
+        private final List<Map<String, Object>> vehicles = new ArrayList<>();
+        private String vehicleId;
+        private long vehicleTotal;
+        private long fleetTotal;
+
+        Sweep(int buckets, long bucketSeconds) {
+            this.buckets = buckets;
+            this.bucketSeconds = bucketSeconds;
+            this.seconds = new long[buckets];
+            this.diff = new long[buckets + 1];
+            this.fleetSeconds = new long[buckets];
+        }
+
+        void add(String vehicle, long start, long end) {
+            if (!vehicle.equals(vehicleId)) {
+                finishVehicle();
+                vehicleId = vehicle;
+            }
+            if (end <= start) {
+                return;
+            }
+            vehicleTotal += end - start;
+            int first = (int) (start / bucketSeconds);
+            int last = (int) ((end - 1) / bucketSeconds);
+            if (first == last) {
+                seconds[first] += end - start;
+                return;
+            }
+            seconds[first] += (first + 1) * bucketSeconds - start;
+            seconds[last] += end - last * bucketSeconds;
+            if (first + 1 < last) {
+                diff[first + 1] += bucketSeconds;
+                diff[last] -= bucketSeconds;
+            }
+        }
+
+        void finishVehicle() {
+            if (vehicleId == null) {
+                return;
+            }
+            long running = 0;
+            for (int i = 0; i < buckets; i++) {
+                running += diff[i];
+                seconds[i] += running;
+                fleetSeconds[i] += seconds[i];
+            }
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("vehicleId", vehicleId);
+            row.put("minutes", toMinutes(seconds));
+            row.put("hours", hours(vehicleTotal));
+            vehicles.add(row);
+
+            fleetTotal += vehicleTotal;
+            vehicleTotal = 0;
+            vehicleId = null;
+            Arrays.fill(seconds, 0);
+            Arrays.fill(diff, 0);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.cobox.fleet.storage;
+
+import java.sql.Types;
+
+/**
+ * Physical encoding used for a column in the columnar file format.
+ */
+public enum ColumnKind {
+    STRING,
+    LONG,
+    DOUBLE,
+    DECIMAL,
+    TIMESTAMP,
+    BOOLEAN;
+
+    public static ColumnKind fromSqlType(int sqlType) {
+        return switch (sqlType) {
+            case Types.TINYINT, Types.SMALLINT, Types.INTEGER, Types.BIGINT -> LONG;
+            case Types.FLOAT, Types.REAL, Types.DOUBLE -> DOUBLE;
+            case Types.DECIMAL, Types.NUMERIC -> DECIMAL;
+            case Types.DATE, Types.TIMESTAMP, Types.TIMESTAMP_WITH_TIMEZONE -> TIMESTAMP;
+            case Types.BIT, Types.BOOLEAN -> BOOLEAN;
+            default -> STRING;
+        };
+    }
+}
@@ -0,0 +1,139 @@
+package com.cobox.fleet.storage;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Reads a file written by {@link ColumnarWriter} one chunk at a time, so memory use is
+ * bounded by the writer's chunk size whatever the file size. Values come back as the
+ * Java types the writer read from JDBC: {@code Long}, {@code Double}, {@code BigDecimal},
+ * {@code Timestamp}, {@code Boolean} or {@code String}, with nulls preserved.
+ */
+public class ColumnarReader implements Closeable {
+
+    private final DataInputStream in;
+    private final int version;
+    private final List<String> columnNames;
+    private final ColumnKind[] kinds;
+    private boolean finished;
+
+    public ColumnarReader(Path file) throws IOException {
+        this(Files.newInputStream(file));
+    }
+
+    public ColumnarReader(InputStream source) throws IOException {
+        this.in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(source, 64 * 1024), 64 * 1024));
+        if (in.readInt() != ColumnarWriter.MAGIC) {
+            in.close();
+            throw new IOException("Not a columnar file");
+        }
+        this.version = in.readInt();
+        if (version < 1 || version > ColumnarWriter.VERSION) {
+            in.close();
+            throw new IOException("Unsupported columnar file version " + version);
+        }
+        int columnCount = in.readInt();
+        String[] names = new String[columnCount];
+        this.kinds = new ColumnKind[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            names[i] = in.readUTF();
+            kinds[i] = ColumnKind.values()[in.readUnsignedByte()];
+        }
+        this.columnNames = List.of(names);
+    }
+
+    /** Column labels in file order. */
+    public List<String> getColumnNames() {
+        return columnNames;
+    }
+
+    public ColumnKind[] getColumnKinds() {
+        return kinds.clone();
+    }
+
+    /**
+     * The next chunk, or {@code null} after the last one.
+     *
+     * @throws java.io.EOFException when the file was truncated
+     */
+    public Chunk nextChunk() throws IOException {
+        if (finished) {
+            return null;
+        }
+        int rows = in.readInt();
+        if (rows == 0) {
+            finished = true;
+            return null;
+        }
+        Object[][] columns = new Object[kinds.length][];
+        byte[] nulls = new byte[(rows + 7) >>> 3];
+        for (int c = 0; c < kinds.length; c++) {
+            in.readFully(nulls);
+            columns[c] = readValues(kinds[c], rows, nulls);
+        }
+        return new Chunk(rows, columns);
+    }
+
+    private Object[] readValues(ColumnKind kind, int rows, byte[] nulls) throws IOException {
+        Object[] column = new Object[rows];
+        long previous = 0;
+        for (int r = 0; r < rows; r++) {
+            if ((nulls[r >>> 3] & (1 << (r & 7))) != 0) {
+                continue;
+            }
+            column[r] = switch (kind) {
+                case LONG -> in.readLong();
+                case DOUBLE -> in.readDouble();
+                case BOOLEAN -> in.readBoolean();
+                case DECIMAL -> {
+                    int scale = in.readByte();
+                    byte[] unscaled = new byte[in.readUnsignedByte()];
+                    in.readFully(unscaled);
+                    yield new BigDecimal(new BigInteger(unscaled), scale);
+                }
+                case TIMESTAMP -> {
+                    long millis = previous + in.readLong();
+                    previous = millis;
+                    Timestamp timestamp = new Timestamp(millis);
+                    if (version >= 2) {
+                        timestamp.setNanos(timestamp.getNanos() + in.readInt());
+                    }
+                    yield timestamp;
+                }
+                case STRING -> {
+                    if (version < 3) {
+                        yield in.readUTF();
+                    }
+                    byte[] bytes = new byte[in.readInt()];
+                    in.readFully(bytes);
+                    yield new String(bytes, StandardCharsets.UTF_8);
+                }
+            };
+        }
+        return column;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    /** One chunk of rows, column-major as stored. */
+    public record Chunk(int rows, Object[][] columns) {
+
+        public Object get(int row, int column) {
+            return columns[column][row];
+        }
+    }
+}
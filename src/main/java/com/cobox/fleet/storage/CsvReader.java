@@ -0,0 +1,168 @@
+package com.cobox.fleet.storage;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads RFC 4180 CSV one record at a time, so a file of any size is parsed with a single
+ * record in memory. Quoted fields may contain the delimiter, doubled quotes and line breaks.
+ * <p>
+ * {@link #open} skips a UTF-8 byte order mark and takes the delimiter from the header line:
+ * spreadsheets configured for Spanish export with {@code ;}, everything else with {@code ,}.
+ */
+public final class CsvReader implements Closeable {
+
+    private static final int MAX_FIELD_LENGTH = 64 * 1024;
+
+    private final Reader in;
+    private final char delimiter;
+    private final StringBuilder field = new StringBuilder();
+    private int pushedBack = -2;
+    private long line = 1;
+    private long recordLine;
+
+    public CsvReader(Reader in, char delimiter) {
+        this.in = in;
+        this.delimiter = delimiter;
+    }
+
+    /** Opens a UTF-8 stream, detecting the delimiter from the first line. */
+    public static CsvReader open(InputStream stream) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8));
+        reader.mark(1);
+        if (reader.read() != '\uFEFF') {
+            reader.reset();
+        }
+        reader.mark(8192);
+        int commas = 0;
+        int semicolons = 0;
+        boolean quoted = false;
+        for (int i = 0, c; i < 8192 && (c = reader.read()) >= 0; i++) {
+            if (c == '"') {
+                quoted = !quoted;
+            } else if (!quoted && (c == '\n' || c == '\r')) {
+                break;
+            } else if (!quoted && c == ',') {
+                commas++;
+            } else if (!quoted && c == ';') {
+                semicolons++;
+            }
+        }
+        reader.reset();
+        return new CsvReader(reader, semicolons > commas ? ';' : ',');
+    }
+
+    /**
+     * The next record, or {@code null} at the end of the input. Blank lines are skipped.
+     *
+     * @throws IllegalArgumentException on an unterminated quote or an oversized field
+     */
+    public List<String> next() throws IOException {
+        int c = read();
+        while (c == '\r' || c == '\n') {
+            endOfLine(c);
+            c = read();
+        }
+        if (c < 0) {
+            return null;
+        }
+        recordLine = line;
+        List<String> record = new ArrayList<>();
+        while (true) {
+            field.setLength(0);
+            if (c == '"') {
+                c = readQuoted();
+            } else {
+                while (c >= 0 && c != delimiter && c != '\r' && c != '\n') {
+                    append(c);
+                    c = read();
+                }
+            }
+            record.add(field.toString());
+            if (c == delimiter) {
+                c = read();
+                continue;
+            }
+            if (c == '\r' || c == '\n') {
+                endOfLine(c);
+            }
+            return record;
+        }
+    }
+
+    /** Line number where the last record returned by {@link #next} starts, from 1. */
+    public long getRecordLine() {
+        return recordLine;
+    }
+
+    public char getDelimiter() {
+        return delimiter;
+    }
+
+    /** Reads a quoted field into {@link #field}, returning the character after the closing quote. */
+    private int readQuoted() throws IOException {
+        while (true) {
+            int c = read();
+            if (c < 0) {
+                throw new IllegalArgumentException("Unterminated quoted field starting on line " + recordLine);
+            }
+            if (c == '"') {
+                c = read();
+                if (c != '"') {
+                    // Text between the closing quote and the delimiter is kept, as spreadsheets do
+                    while (c >= 0 && c != delimiter && c != '\r' && c != '\n') {
+                        append(c);
+                        c = read();
+                    }
+                    return c;
+                }
+            } else if (c == '\n' || c == '\r' && peek() != '\n') {
+                line++;
+            }
+            append(c);
+        }
+    }
+
+    /** Counts a line break, consuming the {@code \n} of a {@code \r\n} pair. */
+    private void endOfLine(int c) throws IOException {
+        line++;
+        if (c == '\r' && peek() == '\n') {
+            read();
+        }
+    }
+
+    private void append(int c) {
+        if (field.length() >= MAX_FIELD_LENGTH) {
+            throw new IllegalArgumentException("Field longer than " + MAX_FIELD_LENGTH + " characters on line " + recordLine);
+        }
+        field.append((char) c);
+    }
+
+    private int peek() throws IOException {
+        if (pushedBack == -2) {
+            pushedBack = in.read();
+        }
+        return pushedBack;
+    }
+
+    private int read() throws IOException {
+        if (pushedBack != -2) {
+            int c = pushedBack;
+            pushedBack = -2;
+            return c;
+        }
+        return in.read();
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
@@ -0,0 +1,60 @@
+package com.cobox.fleet.tracing;
+
+import com.cobox.fleet.config.TenantContext;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+/**
+ * One span per controller invocation, named {@code Controller.method}. It starts before
+ * argument resolution, so request body binding ({@link JsonBindingTracingAdvice}) and the
+ * repository calls of the handler are its children. For async handlers the span ends when
+ * the handler returns its future; the work it queued carries the span as parent.
+ */
+public class ControllerTracingInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String SPAN_ATTRIBUTE = ControllerTracingInterceptor.class.getName() + ".span";
+
+    private final Tracer tracer;
+
+    public ControllerTracingInterceptor(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!tracer.isEnabled() || !(handler instanceof HandlerMethod method)
+                || request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+        String controller = method.getBeanType().getSimpleName();
+        Span span = tracer.startSpan(controller + "." + method.getMethod().getName(), Span.KIND_INTERNAL);
+        span.setAttribute("code.namespace", method.getBeanType().getName())
+                .setAttribute("code.function", method.getMethod().getName())
+                .setAttribute("fleet.tenant", TenantContext.current());
+        request.setAttribute(SPAN_ATTRIBUTE, span);
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        end(request, null);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        end(request, ex);
+    }
+
+    private static void end(HttpServletRequest request, Exception ex) {
+        if (request.getAttribute(SPAN_ATTRIBUTE) instanceof Span span) {
+            request.removeAttribute(SPAN_ATTRIBUTE);
+            if (ex != null) {
+                span.setError(ex);
+            }
+            span.end();
+        }
+    }
+}
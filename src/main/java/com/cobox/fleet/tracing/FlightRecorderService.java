@@ -0,0 +1,122 @@
+package com.cobox.fleet.tracing;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Keeps a continuous JFR recording in a bounded on-disk ring (the last
+ * {@code fleet.jfr.max-age-minutes}, at most {@code fleet.jfr.max-size-mb}) with the JDK's
+ * {@code default} settings plus {@link SlowRepositoryCallEvent} at the configured
+ * threshold, and dumps it on demand for {@code /api/v1/diagnostics/recording}.
+ * <p>
+ * {@code fleet.jfr.overrides} (by default {@code jfr/fleet.jfc}) is applied over the JDK
+ * settings and turns off the events that copy environment variables, system properties
+ * and JVM arguments, so a dump never carries the credentials passed that way.
+ */
+@Component
+public class FlightRecorderService {
+
+    private static final Logger log = LoggerFactory.getLogger(FlightRecorderService.class);
+
+    @Value("${fleet.jfr.enabled:false}")
+    private boolean enabled;
+
+    @Value("${fleet.jfr.settings:default}")
+    private String settings;
+
+    @Value("${fleet.jfr.overrides:classpath:jfr/fleet.jfc}")
+    private String overrides;
+
+    @Value("${fleet.jfr.slow-repository-ms:200}")
+    private long slowRepositoryMs;
+
+    @Value("${fleet.jfr.max-age-minutes:30}")
+    private long maxAgeMinutes;
+
+    @Value("${fleet.jfr.max-size-mb:100}")
+    private long maxSizeMb;
+
+    @Autowired
+    private ResourceLoader resourceLoader;
+
+    private Recording recording;
+
+    @PostConstruct
+    public void start() {
+        if (!enabled || !FlightRecorder.isAvailable()) {
+            return;
+        }
+        try {
+            FlightRecorder.register(SlowRepositoryCallEvent.class);
+            recording = new Recording(loadSettings());
+        } catch (IOException | ParseException e) {
+            log.warn("JFR settings '{}' with overrides '{}' not loaded, continuous recording disabled", settings, overrides, e);
+            return;
+        }
+        recording.setName("fleet-continuous");
+        recording.setToDisk(true);
+        recording.setMaxAge(Duration.ofMinutes(maxAgeMinutes));
+        recording.setMaxSize(maxSizeMb * 1024 * 1024);
+        recording.enable(SlowRepositoryCallEvent.class).withThreshold(Duration.ofMillis(slowRepositoryMs));
+        recording.start();
+        log.info("JFR continuous recording started ({} settings, slow repository calls over {} ms)", settings, slowRepositoryMs);
+    }
+
+    private Map<String, String> loadSettings() throws IOException, ParseException {
+        Map<String, String> merged = new HashMap<>(Configuration.getConfiguration(settings).getSettings());
+        if (!overrides.isBlank()) {
+            Resource resource = resourceLoader.getResource(overrides);
+            try (Reader reader = new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8)) {
+                merged.putAll(Configuration.create(reader).getSettings());
+            }
+        }
+        return merged;
+    }
+
+    public boolean isRecording() {
+        return recording != null;
+    }
+
+    /**
+     * Writes the recorded data so far to a new temporary {@code .jfr} file; the caller
+     * deletes it.
+     */
+    public Path dump() throws IOException {
+        Path file = Files.createTempFile("fleet-", ".jfr");
+        try {
+            recording.dump(file);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        return file;
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (recording != null) {
+            recording.close();
+        }
+    }
+}
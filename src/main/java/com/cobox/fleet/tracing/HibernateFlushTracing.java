@@ -0,0 +1,46 @@
+package com.cobox.fleet.tracing;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.FlushEventListener;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Times Hibernate flushes, including the one at commit, as {@code hibernate.flush} spans:
+ * a listener prepended to Hibernate's own flush listener opens the span and one appended
+ * after it closes it, so the dirty checking and the statements it issues fall inside.
+ */
+@Component
+public class HibernateFlushTracing {
+
+    static final String SPAN_NAME = "hibernate.flush";
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private Tracer tracer;
+
+    @PostConstruct
+    public void register() {
+        if (!tracer.isEnabled()) {
+            return;
+        }
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.prependListeners(EventType.FLUSH, (FlushEventListener) event -> tracer.startSpan(SPAN_NAME, Span.KIND_INTERNAL));
+        registry.appendListeners(EventType.FLUSH, (FlushEventListener) event -> {
+            Span current = tracer.current();
+            if (current != null && SPAN_NAME.equals(current.getName())) {
+                current.setAttribute("hibernate.entities", event.getNumberOfEntitiesProcessed())
+                        .setAttribute("hibernate.collections", event.getNumberOfCollectionsProcessed());
+                current.end();
+            }
+        });
+    }
+}
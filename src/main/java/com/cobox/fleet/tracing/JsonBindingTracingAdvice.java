@@ -0,0 +1,60 @@
+package com.cobox.fleet.tracing;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.RequestBodyAdviceAdapter;
+
+import java.lang.reflect.Type;
+
+/**
+ * Times {@code @RequestBody} deserialization as a {@code json.bind} span. A body that
+ * fails to bind leaves the span open; the controller span ends it as abandoned.
+ */
+@ControllerAdvice
+public class JsonBindingTracingAdvice extends RequestBodyAdviceAdapter {
+
+    static final String SPAN_NAME = "json.bind";
+
+    @Autowired
+    private Tracer tracer;
+
+    @Override
+    public boolean supports(MethodParameter methodParameter, Type targetType,
+                            Class<? extends HttpMessageConverter<?>> converterType) {
+        return tracer.isEnabled();
+    }
+
+    @Override
+    public HttpInputMessage beforeBodyRead(HttpInputMessage inputMessage, MethodParameter parameter, Type targetType,
+                                           Class<? extends HttpMessageConverter<?>> converterType) {
+        long length = inputMessage.getHeaders().getContentLength();
+        tracer.startSpan(SPAN_NAME, Span.KIND_INTERNAL)
+                .setAttribute("code.type", targetType.getTypeName())
+                .setAttribute("http.request.body.size", length >= 0 ? length : null);
+        return inputMessage;
+    }
+
+    @Override
+    public Object afterBodyRead(Object body, HttpInputMessage inputMessage, MethodParameter parameter, Type targetType,
+                                Class<? extends HttpMessageConverter<?>> converterType) {
+        endBinding();
+        return body;
+    }
+
+    @Override
+    public Object handleEmptyBody(Object body, HttpInputMessage inputMessage, MethodParameter parameter, Type targetType,
+                                  Class<? extends HttpMessageConverter<?>> converterType) {
+        endBinding();
+        return body;
+    }
+
+    private void endBinding() {
+        Span current = tracer.current();
+        if (current != null && SPAN_NAME.equals(current.getName())) {
+            current.end();
+        }
+    }
+}
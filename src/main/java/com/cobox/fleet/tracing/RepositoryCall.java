@@ -0,0 +1,74 @@
+package com.cobox.fleet.tracing;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The SQL executed during the outermost repository call of the current thread, filled in
+ * by {@link TracingDataSource} and read by {@link RepositoryTracingInterceptor} for the
+ * slow call event.
+ */
+final class RepositoryCall {
+
+    private static final ThreadLocal<RepositoryCall> CURRENT = new ThreadLocal<>();
+
+    /** Keeps the event within JFR's comfortable string sizes. */
+    private static final int MAX_SQL_LENGTH = 8192;
+    private static final int MAX_DISTINCT_STATEMENTS = 32;
+
+    private final Map<String, Integer> statements = new LinkedHashMap<>();
+    private int statementCount;
+    private int binds;
+    private int batchedRows;
+    private long jdbcNanos;
+
+    static RepositoryCall current() {
+        return CURRENT.get();
+    }
+
+    static RepositoryCall begin() {
+        RepositoryCall call = new RepositoryCall();
+        CURRENT.set(call);
+        return call;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    void record(String sql, int binds, int batchedRows, long nanos) {
+        statementCount++;
+        this.binds += binds;
+        this.batchedRows += batchedRows;
+        jdbcNanos += nanos;
+        if (sql != null && (statements.size() < MAX_DISTINCT_STATEMENTS || statements.containsKey(sql))) {
+            statements.merge(sql, 1, Integer::sum);
+        }
+    }
+
+    String sql() {
+        StringBuilder text = new StringBuilder();
+        for (Map.Entry<String, Integer> statement : statements.entrySet()) {
+            if (text.length() > 0) {
+                text.append(";\n");
+            }
+            if (statement.getValue() > 1) {
+                text.append(statement.getValue()).append("x ");
+            }
+            text.append(statement.getKey());
+            if (text.length() >= MAX_SQL_LENGTH) {
+                text.setLength(MAX_SQL_LENGTH);
+                break;
+            }
+        }
+        return text.toString();
+    }
+
+    int statementCount() { return statementCount; }
+
+    int binds() { return binds; }
+
+    int batchedRows() { return batchedRows; }
+
+    long jdbcNanos() { return jdbcNanos; }
+}
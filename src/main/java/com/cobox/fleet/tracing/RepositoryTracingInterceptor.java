@@ -0,0 +1,59 @@
+package com.cobox.fleet.tracing;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+import java.util.function.Supplier;
+
+/**
+ * Wraps repository methods in a span and times them for {@link SlowRepositoryCallEvent}.
+ * Installed outside the repository's transaction interceptor, so the commit-time flush
+ * and its statements count towards the call. Calls made from inside another repository
+ * call are attributed to the outer one.
+ */
+class RepositoryTracingInterceptor implements MethodInterceptor {
+
+    private final Supplier<Tracer> tracer;
+    private final String repository;
+
+    RepositoryTracingInterceptor(Supplier<Tracer> tracer, String repository) {
+        this.tracer = tracer;
+        this.repository = repository;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (RepositoryCall.current() != null || invocation.getMethod().getDeclaringClass() == Object.class) {
+            return invocation.proceed();
+        }
+        String method = invocation.getMethod().getName();
+        Span span = tracer.get().startSpan(repository + "." + method, Span.KIND_INTERNAL);
+        span.setAttribute("code.namespace", repository).setAttribute("code.function", method);
+        RepositoryCall call = RepositoryCall.begin();
+        SlowRepositoryCallEvent event = new SlowRepositoryCallEvent();
+        event.begin();
+        try {
+            return invocation.proceed();
+        } catch (Throwable t) {
+            span.setError(t);
+            throw t;
+        } finally {
+            event.end();
+            RepositoryCall.end();
+            span.setAttribute("db.statement_count", call.statementCount());
+            span.end();
+            // shouldCommit applies the recording's threshold, so fast calls cost no strings
+            if (event.shouldCommit()) {
+                event.repository = repository;
+                event.method = method;
+                event.sql = call.sql();
+                event.statements = call.statementCount();
+                event.binds = call.binds();
+                event.batchedRows = call.batchedRows();
+                event.jdbcTime = call.jdbcNanos();
+                event.traceId = span == Span.NOOP ? null : span.getTraceId();
+                event.commit();
+            }
+        }
+    }
+}
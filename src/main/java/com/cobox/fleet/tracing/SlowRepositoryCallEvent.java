@@ -0,0 +1,51 @@
+package com.cobox.fleet.tracing;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR event for a repository call that took longer than the threshold, with the SQL it
+ * ran. The threshold of the recording started by {@link FlightRecorderService} comes from
+ * {@code fleet.jfr.slow-repository-ms}; recordings started with {@code jcmd} use the
+ * annotation's default.
+ */
+@Name("com.cobox.fleet.SlowRepositoryCall")
+@Label("Slow Repository Call")
+@Category({"Fleet", "Persistence"})
+@Description("Repository method slower than the threshold, with the SQL statements it executed")
+@Threshold("200 ms")
+@StackTrace(true)
+public class SlowRepositoryCallEvent extends jdk.jfr.Event {
+
+    @Label("Repository")
+    String repository;
+
+    @Label("Method")
+    String method;
+
+    @Label("SQL")
+    @Description("Distinct statements in execution order, prefixed with a count when repeated")
+    String sql;
+
+    @Label("Statements")
+    int statements;
+
+    @Label("Bind Parameters")
+    @Description("Parameters bound across all statements and batch rows")
+    int binds;
+
+    @Label("Batched Rows")
+    int batchedRows;
+
+    @Label("JDBC Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long jdbcTime;
+
+    @Label("Trace Id")
+    String traceId;
+}
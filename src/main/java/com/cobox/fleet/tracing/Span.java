@@ -0,0 +1,116 @@
+package com.cobox.fleet.tracing;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * One timed operation of a trace, with OpenTelemetry's identifiers and span kinds. Spans
+ * are started and ended through {@link Tracer}, which keeps the current span per thread;
+ * {@link #end} (or closing it) records the end time and hands a sampled span to the
+ * exporter. Not thread-safe: a span is used by the thread that started it, except for the
+ * server span of an async request, which is ended by the container's completion callback.
+ */
+public final class Span implements AutoCloseable {
+
+    public static final int KIND_INTERNAL = 1;
+    public static final int KIND_SERVER = 2;
+    public static final int KIND_CLIENT = 3;
+
+    /** Returned while tracing is disabled; ignores every call. */
+    static final Span NOOP = new Span(null, null, "0".repeat(32), "0".repeat(16), null, "", KIND_INTERNAL, false, 0);
+
+    private final Tracer tracer;
+    private final Span parent;
+    private final String traceId;
+    private final String spanId;
+    private final String parentSpanId;
+    private final int kind;
+    private final boolean sampled;
+    private final long startEpochNanos;
+    private final Map<String, Object> attributes = new LinkedHashMap<>();
+    private String name;
+    private long endEpochNanos;
+    private String error;
+
+    Span(Tracer tracer, Span parent, String traceId, String spanId, String parentSpanId, String name, int kind,
+         boolean sampled, long startEpochNanos) {
+        this.tracer = tracer;
+        this.parent = parent;
+        this.traceId = traceId;
+        this.spanId = spanId;
+        this.parentSpanId = parentSpanId;
+        this.name = name;
+        this.kind = kind;
+        this.sampled = sampled;
+        this.startEpochNanos = startEpochNanos;
+    }
+
+    public Span setAttribute(String key, Object value) {
+        // Unsampled spans are never exported, so they skip the bookkeeping
+        if (sampled && value != null) {
+            attributes.put(key, value);
+        }
+        return this;
+    }
+
+    public void setName(String name) {
+        if (sampled) {
+            this.name = name;
+        }
+    }
+
+    public void setError(Throwable throwable) {
+        if (!sampled) {
+            return;
+        }
+        setError(throwable.getClass().getSimpleName() + (throwable.getMessage() == null ? "" : ": " + throwable.getMessage()));
+        setAttribute("exception.type", throwable.getClass().getName());
+    }
+
+    public void setError(String message) {
+        if (sampled) {
+            this.error = message;
+        }
+    }
+
+    public void end() {
+        if (tracer != null && endEpochNanos == 0) {
+            endEpochNanos = tracer.epochNanos();
+            tracer.ended(this);
+        }
+    }
+
+    @Override
+    public void close() {
+        end();
+    }
+
+    /** W3C trace context header value for this span. */
+    public String traceparent() {
+        return "00-" + traceId + "-" + spanId + (sampled ? "-01" : "-00");
+    }
+
+    Span getParent() { return parent; }
+
+    public String getTraceId() { return traceId; }
+
+    public String getSpanId() { return spanId; }
+
+    public String getParentSpanId() { return parentSpanId; }
+
+    public String getName() { return name; }
+
+    public int getKind() { return kind; }
+
+    public boolean isSampled() { return sampled; }
+
+    public boolean isEnded() { return endEpochNanos != 0; }
+
+    public long getStartEpochNanos() { return startEpochNanos; }
+
+    public long getEndEpochNanos() { return endEpochNanos; }
+
+    public Map<String, Object> getAttributes() { return attributes; }
+
+    public String getError() { return error; }
+}
@@ -0,0 +1,215 @@
+package com.cobox.fleet.tracing;
+
+import com.cobox.fleet.storage.MpscRingBuffer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Appends ended spans to a local file in the OTLP/JSON encoding, one
+ * {@code ExportTraceServiceRequest} per line, which the OpenTelemetry Collector's
+ * {@code otlpjsonfile} receiver (and most trace viewers) read as-is.
+ * <p>
+ * Request threads only offer spans to a {@link MpscRingBuffer}; a single writer thread
+ * drains it. When the buffer is full spans are dropped and counted rather than slowing
+ * the request down. The file is rolled to {@code <file>.1} past
+ * {@code fleet.tracing.max-file-size-mb}.
+ */
+@Component
+public class SpanFileExporter {
+
+    private static final Logger log = LoggerFactory.getLogger(SpanFileExporter.class);
+
+    private static final int STATUS_ERROR = 2;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${fleet.tracing.enabled:false}")
+    private boolean enabled;
+
+    @Value("${fleet.tracing.file:logs/traces.jsonl}")
+    private String file;
+
+    @Value("${fleet.tracing.max-file-size-mb:100}")
+    private long maxFileSizeMb;
+
+    @Value("${fleet.tracing.buffer-capacity:8192}")
+    private int bufferCapacity;
+
+    @Value("${fleet.tracing.batch-size:512}")
+    private int batchSize;
+
+    @Value("${fleet.tracing.flush-interval-ms:1000}")
+    private long flushIntervalMs;
+
+    @Value("${fleet.tracing.service-name:fleet-backend}")
+    private String serviceName;
+
+    private MpscRingBuffer<Span> buffer;
+    private Thread writerThread;
+    private volatile boolean running;
+    private Path path;
+    private Writer writer;
+    private long fileSize;
+
+    private final LongAdder dropped = new LongAdder();
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        buffer = new MpscRingBuffer<>(bufferCapacity);
+        path = Paths.get(file);
+        running = true;
+        writerThread = new Thread(this::writeLoop, "span-exporter");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        log.info("Exporting trace spans to {}", path.toAbsolutePath());
+    }
+
+    void export(Span span) {
+        if (buffer != null && !buffer.offer(span)) {
+            dropped.increment();
+        }
+    }
+
+    private void writeLoop() {
+        List<Span> batch = new ArrayList<>(batchSize);
+        long idleNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        long reportedDrops = 0;
+        while (true) {
+            batch.clear();
+            buffer.drain(batch::add, batchSize);
+            if (batch.isEmpty()) {
+                if (!running) {
+                    closeWriter();
+                    return;
+                }
+                long drops = dropped.sum();
+                if (drops > reportedDrops) {
+                    log.warn("Span buffer full, {} spans dropped so far", drops);
+                    reportedDrops = drops;
+                }
+                LockSupport.parkNanos(idleNanos);
+                continue;
+            }
+            try {
+                write(objectMapper.writeValueAsString(exportRequest(batch)));
+            } catch (IOException e) {
+                log.warn("Could not write {} spans to {}", batch.size(), path, e);
+                closeWriter();
+            }
+        }
+    }
+
+    private void write(String line) throws IOException {
+        if (writer == null) {
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            fileSize = Files.size(path);
+        }
+        writer.write(line);
+        writer.write('\n');
+        writer.flush();
+        fileSize += line.length() + 1;
+        if (fileSize > maxFileSizeMb * 1024 * 1024) {
+            closeWriter();
+            Files.move(path, path.resolveSibling(path.getFileName() + ".1"), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private void closeWriter() {
+        if (writer != null) {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                log.debug("Closing {} failed", path, e);
+            }
+            writer = null;
+        }
+    }
+
+    private ObjectNode exportRequest(List<Span> spans) {
+        ObjectNode request = objectMapper.createObjectNode();
+        ObjectNode resourceSpans = request.putArray("resourceSpans").addObject();
+        ArrayNode resourceAttributes = resourceSpans.putObject("resource").putArray("attributes");
+        addAttribute(resourceAttributes, "service.name", serviceName);
+        ObjectNode scopeSpans = resourceSpans.putArray("scopeSpans").addObject();
+        scopeSpans.putObject("scope").put("name", "com.cobox.fleet");
+        ArrayNode spanNodes = scopeSpans.putArray("spans");
+        for (Span span : spans) {
+            ObjectNode node = spanNodes.addObject();
+            node.put("traceId", span.getTraceId());
+            node.put("spanId", span.getSpanId());
+            if (span.getParentSpanId() != null) {
+                node.put("parentSpanId", span.getParentSpanId());
+            }
+            node.put("name", span.getName());
+            node.put("kind", span.getKind());
+            // 64-bit integers are strings in the protobuf JSON mapping
+            node.put("startTimeUnixNano", Long.toString(span.getStartEpochNanos()));
+            node.put("endTimeUnixNano", Long.toString(span.getEndEpochNanos()));
+            ArrayNode attributes = node.putArray("attributes");
+            for (Map.Entry<String, Object> attribute : span.getAttributes().entrySet()) {
+                addAttribute(attributes, attribute.getKey(), attribute.getValue());
+            }
+            if (span.getError() != null) {
+                node.putObject("status").put("code", STATUS_ERROR).put("message", span.getError());
+            }
+        }
+        return request;
+    }
+
+    private static void addAttribute(ArrayNode attributes, String key, Object value) {
+        ObjectNode attribute = attributes.addObject();
+        attribute.put("key", key);
+        ObjectNode anyValue = attribute.putObject("value");
+        if (value instanceof Boolean b) {
+            anyValue.put("boolValue", b);
+        } else if (value instanceof Integer || value instanceof Long) {
+            anyValue.put("intValue", value.toString());
+        } else if (value instanceof Number n) {
+            anyValue.put("doubleValue", n.doubleValue());
+        } else {
+            anyValue.put("stringValue", String.valueOf(value));
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (writerThread == null) {
+            return;
+        }
+        // The writer drains what is left before exiting
+        running = false;
+        LockSupport.unpark(writerThread);
+        writerThread.join(TimeUnit.SECONDS.toMillis(5));
+    }
+}
@@ -0,0 +1,156 @@
+package com.cobox.fleet.tracing;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Starts spans as children of the current span of the thread. A server span continues the
+ * trace of an incoming W3C {@code traceparent} header (and its sampling decision); any
+ * other span without a parent starts a new trace, sampled at
+ * {@code fleet.tracing.sample-ratio}. Ending a span makes its parent current again and
+ * ends, as abandoned, children that an exception left open.
+ * <p>
+ * With {@code fleet.tracing.enabled=false} every call returns a shared no-op span.
+ */
+@Component
+public class Tracer {
+
+    private static final ThreadLocal<Span> CURRENT = new ThreadLocal<>();
+
+    private static final long EPOCH_OFFSET_NANOS = System.currentTimeMillis() * 1_000_000 - System.nanoTime();
+
+    @Autowired
+    private SpanFileExporter exporter;
+
+    @Value("${fleet.tracing.enabled:false}")
+    private boolean enabled;
+
+    @Value("${fleet.tracing.sample-ratio:1.0}")
+    private double sampleRatio;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** The innermost open span of this thread, or {@code null}. */
+    public Span current() {
+        return enabled ? CURRENT.get() : null;
+    }
+
+    public Span startSpan(String name, int kind) {
+        if (!enabled) {
+            return Span.NOOP;
+        }
+        Span parent = CURRENT.get();
+        if (parent == null) {
+            return push(null, newTraceId(), null, name, kind, ThreadLocalRandom.current().nextDouble() < sampleRatio);
+        }
+        return push(parent, parent.getTraceId(), parent.getSpanId(), name, kind, parent.isSampled());
+    }
+
+    /**
+     * Root span of a request, continuing the caller's trace when {@code traceparent} is a
+     * valid version 00 header.
+     */
+    public Span startServerSpan(String name, String traceparent) {
+        if (!enabled) {
+            return Span.NOOP;
+        }
+        if (traceparent != null && traceparent.length() == 55 && traceparent.startsWith("00-")
+                && isHex(traceparent, 3, 35) && isHex(traceparent, 36, 52) && isHex(traceparent, 53, 55)
+                && !traceparent.startsWith("0".repeat(32), 3)) {
+            boolean sampled = (Integer.parseInt(traceparent.substring(53), 16) & 1) == 1;
+            return push(null, traceparent.substring(3, 35), traceparent.substring(36, 52), name, Span.KIND_SERVER, sampled);
+        }
+        return push(null, newTraceId(), null, name, Span.KIND_SERVER, ThreadLocalRandom.current().nextDouble() < sampleRatio);
+    }
+
+    /**
+     * Runs {@code work} on another thread with the span current here as its parent, the
+     * way {@code TenantContext.callAs} carries the tenant.
+     */
+    public <T> Supplier<T> propagate(Supplier<T> work) {
+        Span parent = current();
+        if (parent == null) {
+            return work;
+        }
+        return () -> {
+            Span previous = CURRENT.get();
+            CURRENT.set(parent);
+            try {
+                return work.get();
+            } finally {
+                CURRENT.set(previous);
+            }
+        };
+    }
+
+    /**
+     * Removes a span that will be ended on another thread (an async request) from this
+     * thread's stack.
+     */
+    public void detach(Span span) {
+        if (enabled && CURRENT.get() == span) {
+            CURRENT.set(span.getParent());
+        }
+    }
+
+    long epochNanos() {
+        return EPOCH_OFFSET_NANOS + System.nanoTime();
+    }
+
+    void ended(Span span) {
+        Span current = CURRENT.get();
+        boolean onStack = false;
+        for (Span s = current; s != null; s = s.getParent()) {
+            if (s == span) {
+                onStack = true;
+                break;
+            }
+        }
+        if (onStack) {
+            for (Span s = current; s != span; s = s.getParent()) {
+                s.setError("Abandoned when " + span.getName() + " ended");
+                s.end();
+            }
+            CURRENT.set(span.getParent());
+        }
+        if (span.isSampled()) {
+            exporter.export(span);
+        }
+    }
+
+    private Span push(Span parent, String traceId, String parentSpanId, String name, int kind, boolean sampled) {
+        Span span = new Span(this, parent, traceId, newSpanId(), parentSpanId, name, kind, sampled, epochNanos());
+        CURRENT.set(span);
+        return span;
+    }
+
+    private static String newTraceId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return hex(random.nextLong() | 1) + hex(random.nextLong());
+    }
+
+    private static String newSpanId() {
+        return hex(ThreadLocalRandom.current().nextLong() | 1);
+    }
+
+    private static String hex(long value) {
+        String digits = Long.toHexString(value);
+        return "0".repeat(16 - digits.length()) + digits;
+    }
+
+    private static boolean isHex(String value, int from, int to) {
+        for (int i = from; i < to; i++) {
+            char c = value.charAt(i);
+            if (!(c >= '0' && c <= '9' || c >= 'a' && c <= 'f')) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
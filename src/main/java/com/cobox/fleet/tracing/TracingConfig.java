@@ -0,0 +1,130 @@
+package com.cobox.fleet.tracing;
+
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.FactoryBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.stereotype.Repository;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+
+/**
+ * Wires request tracing: the server span filter (outermost, so tenant resolution and rate
+ * limiting are inside it), the controller interceptor, and the post processors that
+ * instrument repositories and the application datasource. The repository and JDBC
+ * instrumentation stays in place with tracing disabled, since it also feeds
+ * {@link SlowRepositoryCallEvent}.
+ */
+@Configuration
+public class TracingConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private Tracer tracer;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new ControllerTracingInterceptor(tracer));
+    }
+
+    @Bean
+    public FilterRegistrationBean<TracingFilter> tracingFilterRegistration(Tracer tracer) {
+        FilterRegistrationBean<TracingFilter> registration = new FilterRegistrationBean<>(new TracingFilter(tracer));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    @Bean
+    public static BeanPostProcessor tracingDataSourcePostProcessor(ObjectProvider<Tracer> tracer,
+            @Value("${fleet.tracing.max-statement-length:2000}") int maxStatementLength) {
+        return new TracingDataSourcePostProcessor(tracer, maxStatementLength);
+    }
+
+    @Bean
+    public static BeanPostProcessor repositoryTracingPostProcessor(ObjectProvider<Tracer> tracer) {
+        return new RepositoryTracingPostProcessor(tracer);
+    }
+
+    /**
+     * Wraps the {@code dataSource} bean last, after the tenant routing wrapper, so
+     * statements on dedicated tenant pools are traced too.
+     */
+    static class TracingDataSourcePostProcessor implements BeanPostProcessor, Ordered {
+
+        private final ObjectProvider<Tracer> tracer;
+        private final int maxStatementLength;
+
+        TracingDataSourcePostProcessor(ObjectProvider<Tracer> tracer, int maxStatementLength) {
+            this.tracer = tracer;
+            this.maxStatementLength = maxStatementLength;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!"dataSource".equals(beanName) || !(bean instanceof DataSource dataSource)) {
+                return bean;
+            }
+            return new TracingDataSource(dataSource, tracer::getObject, maxStatementLength);
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.LOWEST_PRECEDENCE;
+        }
+    }
+
+    /**
+     * Adds {@link RepositoryTracingInterceptor} to Spring Data repositories, ahead of their
+     * transaction interceptor, and to plain {@code @Repository} classes such as
+     * {@code ReportingRecordRepository}.
+     */
+    static class RepositoryTracingPostProcessor implements BeanPostProcessor {
+
+        private final ObjectProvider<Tracer> tracer;
+
+        RepositoryTracingPostProcessor(ObjectProvider<Tracer> tracer) {
+            this.tracer = tracer;
+        }
+
+        @Override
+        public Object postProcessBeforeInitialization(Object bean, String beanName) {
+            if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                        (proxyFactory, information) -> proxyFactory.addAdvice(0, new RepositoryTracingInterceptor(
+                                tracer::getObject, information.getRepositoryInterface().getSimpleName()))));
+            }
+            return bean;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof org.springframework.data.repository.Repository<?, ?> || bean instanceof FactoryBean<?>) {
+                return bean;
+            }
+            Class<?> type = AopUtils.getTargetClass(bean);
+            if (!AnnotatedElementUtils.hasAnnotation(type, Repository.class)) {
+                return bean;
+            }
+            RepositoryTracingInterceptor interceptor = new RepositoryTracingInterceptor(tracer::getObject, type.getSimpleName());
+            if (bean instanceof Advised advised && !advised.isFrozen()) {
+                advised.addAdvice(0, interceptor);
+                return bean;
+            }
+            ProxyFactory proxyFactory = new ProxyFactory(bean);
+            proxyFactory.setProxyTargetClass(true);
+            proxyFactory.addAdvice(interceptor);
+            return proxyFactory.getProxy();
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package com.cobox.fleet.tracing;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Traces statement execution on the connections of the target datasource: every
+ * {@code execute*} call becomes a client span with the SQL, the number of bound parameters
+ * and the batch size, and is added to the current {@link RepositoryCall}. Statements and
+ * connections are JDK proxies over the pool's own objects; everything else passes through.
+ * <p>
+ * Only execution is timed: the wait for a pooled connection and result set iteration are
+ * part of the enclosing span.
+ */
+public class TracingDataSource extends DelegatingDataSource implements AutoCloseable {
+
+    private final Supplier<Tracer> tracer;
+    private final int maxStatementLength;
+
+    public TracingDataSource(DataSource target, Supplier<Tracer> tracer, int maxStatementLength) {
+        super(target);
+        this.tracer = tracer;
+        this.maxStatementLength = maxStatementLength;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(super.getConnection(username, password));
+    }
+
+    /** Keeps the container closing the wrapped datasource (tenant pools) on shutdown. */
+    @Override
+    public void close() {
+        if (getTargetDataSource() instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                throw new IllegalStateException("Could not close the traced datasource", e);
+            }
+        }
+    }
+
+    private Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(TracingDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new ConnectionHandler(connection));
+    }
+
+    private static Object invokeTarget(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /** "SELECT vehicles", "INSERT audit_log", ...: the operation and, when easy to tell, the table. */
+    static String spanName(String sql) {
+        if (sql == null) {
+            return "jdbc";
+        }
+        String text = sql.trim();
+        int space = indexOfWhitespace(text, 0);
+        String operation = (space < 0 ? text : text.substring(0, space)).toUpperCase(Locale.ROOT);
+        String lower = text.toLowerCase(Locale.ROOT);
+        int tableAt = switch (operation) {
+            case "SELECT", "DELETE" -> afterKeyword(lower, " from ");
+            case "INSERT", "REPLACE" -> afterKeyword(lower, " into ");
+            case "UPDATE" -> space < 0 ? -1 : space + 1;
+            default -> -1;
+        };
+        if (tableAt < 0) {
+            return operation;
+        }
+        int end = tableAt;
+        while (end < text.length() && (Character.isLetterOrDigit(text.charAt(end)) || text.charAt(end) == '_'
+                || text.charAt(end) == '.' || text.charAt(end) == '`')) {
+            end++;
+        }
+        return end == tableAt ? operation : operation + " " + text.substring(tableAt, end).replace("`", "");
+    }
+
+    private static int afterKeyword(String lower, String keyword) {
+        int at = lower.indexOf(keyword);
+        return at < 0 ? -1 : at + keyword.length();
+    }
+
+    private static int indexOfWhitespace(String text, int from) {
+        for (int i = from; i < text.length(); i++) {
+            if (Character.isWhitespace(text.charAt(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private final class ConnectionHandler implements InvocationHandler {
+
+        private final Connection target;
+        private String dbSystem;
+        private String serverAddress;
+
+        ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+            Object result = invokeTarget(target, method, args);
+            if (result instanceof Statement statement) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : null;
+                Class<?> type = statement instanceof CallableStatement ? CallableStatement.class
+                        : statement instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+                return Proxy.newProxyInstance(TracingDataSource.class.getClassLoader(), new Class<?>[]{type},
+                        new StatementHandler(this, statement, sql));
+            }
+            return result;
+        }
+
+        void describe(Span span) {
+            if (dbSystem == null) {
+                try {
+                    String url = target.getMetaData().getURL();
+                    // jdbc:mysql://host:3306/db, jdbc:h2:file:...
+                    String[] parts = url.split(":", 3);
+                    dbSystem = parts.length > 1 ? parts[1] : "other_sql";
+                    int hostAt = url.indexOf("//");
+                    if (hostAt >= 0) {
+                        int hostEnd = hostAt + 2;
+                        while (hostEnd < url.length() && ":/?,".indexOf(url.charAt(hostEnd)) < 0) {
+                            hostEnd++;
+                        }
+                        serverAddress = url.substring(hostAt + 2, hostEnd);
+                    }
+                } catch (SQLException e) {
+                    dbSystem = "other_sql";
+                }
+            }
+            span.setAttribute("db.system", dbSystem).setAttribute("server.address", serverAddress);
+        }
+    }
+
+    private final class StatementHandler implements InvocationHandler {
+
+        private final ConnectionHandler connection;
+        private final Statement target;
+        private String sql;
+        // Parameters stay bound across executions until cleared, so indexes are counted once
+        private final BitSet boundIndexes = new BitSet();
+        private final Set<String> boundNames = new HashSet<>();
+        private int batchedRows;
+        private int batchedBinds;
+
+        StatementHandler(ConnectionHandler connection, Statement target, String sql) {
+            this.connection = connection;
+            this.target = target;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("execute")) {
+                return execute(method, args);
+            }
+            if (name.startsWith("set") && method.getDeclaringClass() != Statement.class && args != null && args.length >= 2) {
+                if (args[0] instanceof Integer index) {
+                    boundIndexes.set(index);
+                } else if (args[0] instanceof String parameterName) {
+                    boundNames.add(parameterName);
+                }
+            } else {
+                switch (name) {
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "clearParameters":
+                        boundIndexes.clear();
+                        boundNames.clear();
+                        break;
+                    case "addBatch":
+                        batchedRows++;
+                        batchedBinds += binds();
+                        if (sql == null && args != null && args.length == 1 && args[0] instanceof String batchSql) {
+                            sql = batchSql;
+                        }
+                        break;
+                    case "clearBatch":
+                        batchedRows = 0;
+                        batchedBinds = 0;
+                        break;
+                    default:
+                        break;
+                }
+            }
+            return invokeTarget(target, method, args);
+        }
+
+        private Object execute(Method method, Object[] args) throws Throwable {
+            String statementSql = sql != null ? sql : args != null && args.length > 0 && args[0] instanceof String s ? s : null;
+            boolean batch = method.getName().endsWith("Batch");
+            int binds = batch ? batchedBinds : binds();
+            int rows = batch ? batchedRows : 0;
+
+            Span span = tracer.get().startSpan(spanName(statementSql), Span.KIND_CLIENT);
+            if (span.isSampled()) {
+                connection.describe(span);
+                if (statementSql != null) {
+                    span.setAttribute("db.statement", statementSql.length() > maxStatementLength
+                            ? statementSql.substring(0, maxStatementLength) : statementSql);
+                }
+                span.setAttribute("db.bind_count", binds);
+                if (batch) {
+                    span.setAttribute("db.batch_size", rows);
+                }
+            }
+            long started = System.nanoTime();
+            try {
+                return invokeTarget(target, method, args);
+            } catch (Throwable t) {
+                span.setError(t);
+                throw t;
+            } finally {
+                long nanos = System.nanoTime() - started;
+                span.end();
+                RepositoryCall call = RepositoryCall.current();
+                if (call != null) {
+                    call.record(statementSql, binds, rows, nanos);
+                }
+                if (batch) {
+                    batchedRows = 0;
+                    batchedBinds = 0;
+                }
+            }
+        }
+
+        private int binds() {
+            return boundIndexes.cardinality() + boundNames.size();
+        }
+    }
+}
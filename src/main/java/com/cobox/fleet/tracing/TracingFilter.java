@@ -0,0 +1,92 @@
+package com.cobox.fleet.tracing;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Opens the server span of a request, continuing the caller's {@code traceparent}, and
+ * returns the span's own {@code traceparent} so a client can quote it when reporting a
+ * slow call. Requests that go async (reporting endpoints) end their span when the async
+ * response completes.
+ */
+public class TracingFilter extends OncePerRequestFilter {
+
+    public static final String TRACEPARENT = "traceparent";
+
+    private final Tracer tracer;
+
+    public TracingFilter(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !tracer.isEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Span span = tracer.startServerSpan(request.getMethod(), request.getHeader(TRACEPARENT));
+        span.setAttribute("http.request.method", request.getMethod())
+                .setAttribute("url.path", request.getRequestURI())
+                .setAttribute("url.query", request.getQueryString());
+        response.setHeader(TRACEPARENT, span.traceparent());
+        try {
+            filterChain.doFilter(request, response);
+        } catch (IOException | ServletException | RuntimeException e) {
+            span.setError(e);
+            throw e;
+        } finally {
+            if (request.isAsyncStarted()) {
+                tracer.detach(span);
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        finish(span, request, response);
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                        span.setError("Async request timed out");
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                        if (event.getThrowable() != null) {
+                            span.setError(event.getThrowable());
+                        }
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+                });
+            } else {
+                finish(span, request, response);
+            }
+        }
+    }
+
+    private static void finish(Span span, HttpServletRequest request, HttpServletResponse response) {
+        Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (route != null) {
+            span.setName(request.getMethod() + " " + route);
+            span.setAttribute("http.route", route.toString());
+        }
+        int status = response.getStatus();
+        span.setAttribute("http.response.status_code", status);
+        if (status >= 500) {
+            span.setError("HTTP " + status);
+        }
+        span.end();
+    }
+}
@@ -0,0 +1,38 @@
+package com.cobox.fleet.entity;
+
+import com.cobox.fleet.repository.VehicleRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs with deferred datasource initialization, where Hibernate creates the entity
+ * listeners before the Spring beans they could depend on exist.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class ChangeTrackingListenerTest {
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Test
+    void stampsInsertsAndUpdatesWithIncreasingSequence() {
+        Vehicle vehicle = vehicleRepository.save(new Vehicle("ctl-1", "CTL-001", "Volvo", "FH", 2020, "TRUCK",
+                20000, 400, "AVAILABLE", BigDecimal.ZERO, null, true));
+        Long inserted = vehicle.getChangeSeq();
+        assertThat(inserted).isNotNull().isPositive();
+        assertThat(vehicle.getDeleted()).isFalse();
+        assertThat(vehicle.getUpdatedAt()).isNotNull();
+
+        vehicle.setStatus("MAINTENANCE");
+        Vehicle updated = vehicleRepository.save(vehicle);
+
+        assertThat(updated.getChangeSeq()).isGreaterThan(inserted);
+    }
+}
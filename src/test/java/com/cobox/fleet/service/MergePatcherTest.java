@@ -0,0 +1,67 @@
+package com.cobox.fleet.service;
+
+import com.cobox.fleet.entity.Vehicle;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MergePatcherTest {
+
+    private static final Set<String> PATCHABLE = Set.of("brand", "status");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private MergePatcher mergePatcher;
+    private Vehicle vehicle;
+
+    @BeforeEach
+    void setUp() {
+        mergePatcher = new MergePatcher();
+        ReflectionTestUtils.setField(mergePatcher, "objectMapper", objectMapper);
+        vehicle = new Vehicle();
+        vehicle.setVersion(3L);
+        vehicle.setBrand("Volvo");
+        vehicle.setStatus("AVAILABLE");
+    }
+
+    @Test
+    void appliesPatchWithoutVersionOrIfMatch() throws Exception {
+        JsonNode patch = objectMapper.readTree("{\"status\":\"MAINTENANCE\"}");
+
+        mergePatcher.apply(vehicle, vehicle.getVersion(), patch, null, PATCHABLE);
+
+        assertThat(vehicle.getStatus()).isEqualTo("MAINTENANCE");
+        assertThat(vehicle.getBrand()).isEqualTo("Volvo");
+    }
+
+    @Test
+    void rejectsStaleVersionMember() throws Exception {
+        JsonNode patch = objectMapper.readTree("{\"version\":2,\"status\":\"MAINTENANCE\"}");
+
+        assertThatThrownBy(() -> mergePatcher.apply(vehicle, vehicle.getVersion(), patch, null, PATCHABLE))
+                .isInstanceOf(OptimisticLockingFailureException.class);
+    }
+
+    @Test
+    void rejectsStaleIfMatch() throws Exception {
+        JsonNode patch = objectMapper.readTree("{\"status\":\"MAINTENANCE\"}");
+
+        assertThatThrownBy(() -> mergePatcher.apply(vehicle, vehicle.getVersion(), patch, "\"2\"", PATCHABLE))
+                .isInstanceOf(OptimisticLockingFailureException.class);
+    }
+
+    @Test
+    void rejectsFieldOutsidePatchable() throws Exception {
+        JsonNode patch = objectMapper.readTree("{\"plate\":\"XYZ-999\"}");
+
+        assertThatThrownBy(() -> mergePatcher.apply(vehicle, vehicle.getVersion(), patch, null, PATCHABLE))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
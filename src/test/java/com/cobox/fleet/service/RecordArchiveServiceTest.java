@@ -0,0 +1,41 @@
+package com.cobox.fleet.service;
+
+import com.cobox.fleet.entity.FuelRecord;
+import com.cobox.fleet.repository.FuelRecordRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class RecordArchiveServiceTest {
+
+    @Autowired
+    private RecordArchiveService recordArchiveService;
+
+    @Autowired
+    private FuelRecordRepository fuelRecordRepository;
+
+    @Test
+    void archivedFuelRecordKeepsItsStationAndVersion() {
+        FuelRecord record = new FuelRecord("ras-1", 7L, "RAS-001", LocalDateTime.now().minusYears(3), "DIESEL",
+                new BigDecimal("40.00"), new BigDecimal("600.00"), new BigDecimal("1200.00"),
+                "Primax Surquillo", "Av. Tomas Marsano", "F001-1", null);
+        record.setStationId(42L);
+        Long version = fuelRecordRepository.save(record).getVersion();
+
+        recordArchiveService.archiveExpiredRecords();
+
+        assertThat(fuelRecordRepository.findById("ras-1")).isEmpty();
+        FuelRecord archived = recordArchiveService.findFuelRecordById("ras-1").orElseThrow();
+        assertThat(archived.getStationId()).isEqualTo(42L);
+        assertThat(archived.getVersion()).isEqualTo(version);
+        assertThat(archived.getStation()).isEqualTo("Primax Surquillo");
+    }
+}
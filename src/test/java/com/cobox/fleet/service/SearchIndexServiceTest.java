@@ -0,0 +1,61 @@
+package com.cobox.fleet.service;
+
+import com.cobox.fleet.entity.Service;
+import com.cobox.fleet.outbox.OutboxRelay;
+import com.cobox.fleet.repository.ServiceRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class SearchIndexServiceTest {
+
+    // Keeps relayed events from touching the index while a test rebuilds it
+    private static final String HOLD = "search-index-test";
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Autowired
+    private ServiceRepository serviceRepository;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @BeforeEach
+    void holdRelay() {
+        outboxRelay.hold(HOLD);
+    }
+
+    @AfterEach
+    void releaseRelay() {
+        outboxRelay.release(HOLD);
+    }
+
+    @Test
+    void reindexSkipsSoftDeletedRecords() throws Exception {
+        serviceRepository.save(new Service("sis-live", "2024-05-02", "Chorrillos", "PEREZ", "SIS-001", "08:00", "PENDING"));
+        Service deleted = serviceRepository.save(
+                new Service("sis-gone", "2024-05-02", "Chorrillos", "ACUNA", "SIS-002", "09:00", "PENDING"));
+        deleted.setDeleted(true);
+        serviceRepository.save(deleted);
+
+        searchIndexService.reindexAll();
+
+        assertThat(ids(searchIndexService.search("chorrillos", "Service", 0, 10))).containsExactly("sis-live");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Object> ids(Map<String, Object> response) {
+        return ((List<Map<String, Object>>) response.get("results")).stream().map(result -> result.get("id")).toList();
+    }
+}